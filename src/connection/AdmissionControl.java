@@ -0,0 +1,202 @@
+package connection;
+
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.Settings;
+
+/**
+ * Limits the clients connected to a central server (or a lobby router), so
+ * that a burst of new connections (e.g. everyone reconnecting after a
+ * network problem) can't start an unbounded number of threads. <br>
+ * A new connection is admitted only while the total number of connections,
+ * the number of connections from its IP address and the number of clients
+ * that haven't finished the handshake are all below the limits in the
+ * default settings profile. Anything else is rejected right away, before a
+ * thread is started for it. A room server behind a lobby router sees every
+ * client as coming from the router, so it doesn't limit connections per
+ * address at all.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class AdmissionControl {
+
+	private CentralServer centralServer;
+
+	/**
+	 * Settings holding the limits when there is no central server.
+	 */
+	private Settings settings;
+
+	/**
+	 * Whether or not connections are limited per IP address.
+	 */
+	private boolean limitPerAddress;
+	private AtomicInteger connections, handshakes;
+	private AtomicLong admittedConnections, rejectedConnections;
+
+	/**
+	 * Number of connections from each IP address with at least one.
+	 */
+	private HashMap<InetAddress, Integer> connectionsPerAddress;
+
+	/**
+	 * Constructor for a new AdmissionControl object.
+	 * 
+	 * @param centralServer
+	 *            the central server whose default settings hold the limits.
+	 * @param limitPerAddress
+	 *            whether or not connections are limited per IP address (false
+	 *            for a room server behind a lobby router).
+	 */
+	public AdmissionControl(CentralServer centralServer,
+			boolean limitPerAddress) {
+		this(centralServer, null, limitPerAddress);
+	}
+
+	/**
+	 * Constructor for a new AdmissionControl object whose limits never change,
+	 * used by a lobby router.
+	 * 
+	 * @param settings
+	 *            the settings holding the limits.
+	 */
+	public AdmissionControl(Settings settings) {
+		this(null, settings, true);
+	}
+
+	/**
+	 * Constructor for a new AdmissionControl object.
+	 * 
+	 * @param centralServer
+	 *            the central server whose default settings hold the limits
+	 *            (null to use fixed settings).
+	 * @param settings
+	 *            the settings holding the limits if there is no central
+	 *            server.
+	 * @param limitPerAddress
+	 *            whether or not connections are limited per IP address.
+	 */
+	private AdmissionControl(CentralServer centralServer, Settings settings,
+			boolean limitPerAddress) {
+		this.centralServer = centralServer;
+		this.settings = settings;
+		this.limitPerAddress = limitPerAddress;
+		this.connections = new AtomicInteger();
+		this.handshakes = new AtomicInteger();
+		this.admittedConnections = new AtomicLong();
+		this.rejectedConnections = new AtomicLong();
+		this.connectionsPerAddress = new HashMap<InetAddress, Integer>();
+	}
+
+	/**
+	 * Admits a new connection if it is within every limit, counting it as
+	 * connected and in the handshake. An admitted connection must later be
+	 * released with {@link #release(InetAddress, boolean)}.
+	 * 
+	 * @param address
+	 *            the IP address of the new connection.
+	 * @return whether or not the connection was admitted.
+	 */
+	public boolean admit(InetAddress address) {
+		Settings settings = this.centralServer == null ? this.settings
+				: this.centralServer.getSettings();
+		if (this.handshakes.incrementAndGet() > settings.getMaxHandshakes()) {
+			this.handshakes.decrementAndGet();
+			this.rejectedConnections.incrementAndGet();
+			return false;
+		}
+		if (this.connections.incrementAndGet() > settings.getMaxConnections()) {
+			this.connections.decrementAndGet();
+			this.handshakes.decrementAndGet();
+			this.rejectedConnections.incrementAndGet();
+			return false;
+		}
+
+		// Check the limit for the address (0 being no limit)
+		int perAddress = this.limitPerAddress ? settings
+				.getMaxConnectionsPerAddress() : 0;
+		synchronized (this.connectionsPerAddress) {
+			Integer fromAddress = this.connectionsPerAddress.get(address);
+			int count = fromAddress == null ? 0 : fromAddress;
+			if (perAddress == 0 || count < perAddress) {
+				this.connectionsPerAddress.put(address, count + 1);
+				this.admittedConnections.incrementAndGet();
+				return true;
+			}
+		}
+		this.connections.decrementAndGet();
+		this.handshakes.decrementAndGet();
+		this.rejectedConnections.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Stops counting an admitted connection as being in the handshake.
+	 */
+	public void finishHandshake() {
+		this.handshakes.decrementAndGet();
+	}
+
+	/**
+	 * Releases an admitted connection once it has disconnected.
+	 * 
+	 * @param address
+	 *            the IP address of the connection.
+	 * @param inHandshake
+	 *            whether or not the connection was still in the handshake.
+	 */
+	public void release(InetAddress address, boolean inHandshake) {
+		if (inHandshake) {
+			this.handshakes.decrementAndGet();
+		}
+		this.connections.decrementAndGet();
+		synchronized (this.connectionsPerAddress) {
+			Integer fromAddress = this.connectionsPerAddress.get(address);
+			if (fromAddress == null || fromAddress <= 1) {
+				this.connectionsPerAddress.remove(address);
+			} else {
+				this.connectionsPerAddress.put(address, fromAddress - 1);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of clients currently connected.
+	 * 
+	 * @return the number of connections.
+	 */
+	public int getConnections() {
+		return this.connections.get();
+	}
+
+	/**
+	 * Get the number of clients that haven't finished the handshake.
+	 * 
+	 * @return the number of clients in the handshake.
+	 */
+	public int getHandshakes() {
+		return this.handshakes.get();
+	}
+
+	/**
+	 * Get the number of connections admitted since the server started.
+	 * 
+	 * @return the number of admitted connections.
+	 */
+	public long getAdmittedConnections() {
+		return this.admittedConnections.get();
+	}
+
+	/**
+	 * Get the number of connections rejected for being over a limit.
+	 * 
+	 * @return the number of rejected connections.
+	 */
+	public long getRejectedConnections() {
+		return this.rejectedConnections.get();
+	}
+}
\ No newline at end of file
@@ -1,183 +1,891 @@
-package connection;
-
-import java.awt.Dimension;
-import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.Scanner;
-
-import javax.swing.JFrame;
-import javax.swing.JOptionPane;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
-import javax.swing.text.DefaultCaret;
-
-import utilities.Validator;
-
-/**
- * Central server that hosts multiple servers for blackjack games. Automatically
- * allocates new players to different servers.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 8, 2015
- */
-public class CentralServer {
-	private ServerSocket socket;
-	private ArrayList<Server> listOfGameServers;
-
-	// GUI components for displaying server events
-	private JTextArea textArea;
-	private JFrame frame;
-	private JScrollPane srollPane;
-
-	/**
-	 * Keeps tracks of the number of clients who joined the server.
-	 */
-	private int noOfClients;
-
-	public static void main(String[] args) {
-		new CentralServer();
-	}
-
-	/**
-	 * Constructor for a new CentralServer object. This central server will hold
-	 * all servers/games started on the same IP address/port.
-	 */
-	public CentralServer() {
-		String portStr;
-		int port = -1;
-		Scanner keyboard = new Scanner(System.in);
-
-		// Keep trying to connect to a new port while the port is invalid
-		while (port == -1) {
-			// Create a GUI for debugging
-			this.frame = new JFrame("Blackjack Server");
-			this.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-			this.textArea = new JTextArea();
-			this.srollPane = new JScrollPane(this.textArea);
-
-			// Enables auto-scrolling when new messages are added
-			((DefaultCaret) this.textArea.getCaret())
-					.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
-
-			this.textArea.setEditable(false);
-			this.srollPane.setPreferredSize(new Dimension(300, 400));
-			this.frame.add(this.srollPane);
-			this.frame.setVisible(true);
-			this.frame.pack();
-
-			// While the port entered is invalid, continually ask for another
-			// port
-			while (port == -1) {
-				portStr = null;
-				while (portStr == null)
-					portStr = JOptionPane
-							.showInputDialog("Enter a port (1-5 digits): ");
-				if (Validator.isValidPort(portStr)) {
-					port = Integer.parseInt(portStr);
-				}
-			}
-
-			// Create the socket based on the port entered
-			try {
-				this.socket = new ServerSocket(port);
-			} catch (IOException e) {
-				System.err
-						.println("Error creating a new server socket on port "
-								+ port);
-				e.printStackTrace();
-				port = -1;
-			}
-			this.listOfGameServers = new ArrayList<Server>();
-			this.listOfGameServers.add(new Server(this));
-		}
-
-		keyboard.close();
-
-		// Accept and connect new clients who join the server
-		this.noOfClients = 0;
-		while (true) {
-			this.println("Waiting for client to connect...");
-			try {
-				Socket client = this.socket.accept();
-				Client temp = new Client(client, this);
-				new Thread(temp).start();
-				this.noOfClients++;
-				this.println("Client #" + this.noOfClients + " has connected");
-			} catch (Exception e) {
-				this.println("Error connecting to client");
-				e.printStackTrace();
-			}
-		}
-	}
-
-	/**
-	 * Place a player/spectator in the next available game room (player in the
-	 * first non-full && non-started room and spectator in the first non-started
-	 * room). Synchronized to prevent players from creating two new servers at
-	 * the same time if a available server doesn't exist.
-	 * 
-	 * @param client
-	 *            the client to add to the server.
-	 * @param isPlayer
-	 *            whether or not it is a player.
-	 */
-	synchronized void addToServer(Client client, boolean isPlayer) {
-		Server availableServer = null;
-		int serverUsed = 0;
-		boolean serverFound = false;
-
-		// Uses a regular for loop instead of for-each loop to prevent changes
-		// in list of servers during search from causing iterator to throw
-		// ConcurrentModificationException
-		for (int serverNo = 0; !serverFound
-				&& serverNo < this.listOfGameServers.size(); serverNo++) {
-			Server currentServer = this.listOfGameServers.get(serverNo);
-			if (!currentServer.gameStarted()
-					&& (!isPlayer || !currentServer.isFull())) {
-				availableServer = currentServer;
-				serverUsed = serverNo;
-				serverFound = true;
-			}
-		}
-
-		// Create a new game room if there are no available rooms for the client
-		if (!serverFound) {
-			availableServer = new Server(this);
-			serverUsed = this.listOfGameServers.size();
-			this.listOfGameServers.add(availableServer);
-		}
-
-		// Add the client to the available room and print the information
-		availableServer.addClient(client);
-		client.setServer(availableServer);
-		if (isPlayer) {
-			this.println("Player connected to server #" + (serverUsed + 1));
-		} else {
-			this.println("Client connected to server #" + (serverUsed + 1));
-		}
-	}
-
-	/**
-	 * Remove a server/game room once the game has ended.
-	 * 
-	 * @param server
-	 *            the server to remove.
-	 */
-	public void removeServer(Server server) {
-		this.listOfGameServers.remove(server);
-	}
-
-	/**
-	 * Prints specified message to the debugging GUI.<br>
-	 * This method will <b>bypass</b> the {@link Server#DEBUG debugging
-	 * constant}, meaning anything sent to this method will be sent to the GUI.
-	 * 
-	 * @param message
-	 *            the message to send to the GUI.
-	 */
-	public void println(String message) {
-		this.textArea.append(message + "\n");
-	}
+package connection;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.text.DefaultCaret;
+
+import gameplay.OddsEngine;
+import gameplay.RoundTracer;
+import utilities.Clock;
+import utilities.HandArchive;
+import utilities.Log;
+import utilities.Settings;
+import utilities.SystemClock;
+import utilities.Validator;
+
+/**
+ * Central server that hosts multiple servers for blackjack games. Automatically
+ * allocates new players to different servers.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 8, 2015
+ */
+public class CentralServer {
+
+	/**
+	 * Directory that the hand history archive is stored in.
+	 */
+	public static final String HAND_ARCHIVE_DIRECTORY = "history";
+
+	/**
+	 * Directory that the log files are stored in.
+	 */
+	public static final String LOG_DIRECTORY = "logs";
+
+	/**
+	 * Room numbers reserved for each room server behind a lobby router, so
+	 * that room number n is hosted by room server n / ROOMS_PER_WORKER.
+	 */
+	public static final int ROOMS_PER_WORKER = 1000000;
+
+	private ServerSocket socket;
+	private ArrayList<Server> listOfGameServers;
+
+	/**
+	 * Archive of every completed hand (null if it could not be opened).
+	 */
+	private HandArchive handArchive;
+
+	/**
+	 * Leaderboard and statistics of players across every game room.
+	 */
+	private Leaderboard leaderboard;
+
+	/**
+	 * Lower priority tier used by every game room to send to spectators.
+	 */
+	private SpectatorFanout spectatorFanout;
+
+	/**
+	 * Works out the odds broadcast by game rooms that have them enabled.
+	 */
+	private OddsEngine oddsEngine;
+
+	/**
+	 * Collector of the traces of every room's rounds.
+	 */
+	private RoundTracer roundTracer;
+
+	/**
+	 * Keeps track of the number of game rooms created, used to number rooms.
+	 */
+	private int noOfRooms;
+
+	/**
+	 * Number of this room server behind a lobby router (0 if running on its
+	 * own).
+	 */
+	private int workerNo;
+
+	/**
+	 * Number of player seats in each new game room unless the settings file
+	 * says otherwise.
+	 */
+	private int seats = Server.DEFAULT_SEATS;
+
+	/**
+	 * Settings profiles for the game rooms, reloaded when the file changes.
+	 */
+	private SettingsRegistry settings;
+
+	// GUI components for displaying server events
+	private JTextArea textArea;
+	private JFrame frame;
+	private JScrollPane srollPane;
+
+	/**
+	 * Keeps tracks of the number of clients who joined the server.
+	 */
+	private AtomicInteger noOfClients;
+
+	/**
+	 * Limits on the number of clients connected at once.
+	 */
+	private AdmissionControl admission;
+
+	/**
+	 * Counters of events across every game room.
+	 */
+	private Metrics metrics;
+
+	/**
+	 * HTTP endpoint serving the metrics (null if 'metrics.port' is 0 or the
+	 * port could not be bound).
+	 */
+	private MetricsEndpoint metricsEndpoint;
+
+	/**
+	 * Game rooms ready to be used.
+	 */
+	private RoomPool roomPool;
+
+	/**
+	 * Log of the central server and every game room.
+	 */
+	private Log log;
+
+	/**
+	 * Small pool of threads shared by everything that runs periodically.
+	 */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Pool of threads sending the messages of every room, separate from the
+	 * GUI and from the scheduler so that a slow room only holds up one thread.
+	 */
+	private ScheduledExecutorService dispatcher;
+
+	/**
+	 * Pings clients and disconnects the ones that have stopped answering.
+	 */
+	private Heartbeat heartbeat;
+
+	/**
+	 * Source of time for the game rooms.
+	 */
+	private Clock clock;
+
+	/**
+	 * Seed that the rooms deal their cards from (along with their room
+	 * numbers), or null for different cards every time.
+	 */
+	private Long seed;
+
+	/**
+	 * Starts the central server. With no arguments, a GUI asks for the port.
+	 * Otherwise the server runs without a GUI, either as a room server
+	 * ('port [workerNo] [seats]') or as a {@link LobbyRouter lobby router} handing
+	 * connections to room servers ('router port host:port host:port ...').
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			new CentralServer();
+		} else if (args[0].equalsIgnoreCase("router")) {
+			LobbyRouter.main(args);
+		} else {
+			int seats = args.length > 2 ? Integer.parseInt(args[2])
+					: Server.DEFAULT_SEATS;
+			if (seats < 1 || seats > Server.MAX_SEATS) {
+				System.err.println("Rooms must have 1 to " + Server.MAX_SEATS
+						+ " seats");
+				return;
+			}
+			new CentralServer(Integer.parseInt(args[0]),
+					args.length > 1 ? Integer.parseInt(args[1]) : 0, seats);
+		}
+	}
+
+	/**
+	 * Constructor for a new CentralServer object. This central server will hold
+	 * all servers/games started on the same IP address/port.
+	 */
+	public CentralServer() {
+		String portStr;
+		int port = -1;
+		Scanner keyboard = new Scanner(System.in);
+
+		// Keep trying to connect to a new port while the port is invalid
+		while (port == -1) {
+			// Create a GUI for debugging
+			this.frame = new JFrame("Blackjack Server");
+			this.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+			this.textArea = new JTextArea();
+			this.srollPane = new JScrollPane(this.textArea);
+
+			// Enables auto-scrolling when new messages are added
+			((DefaultCaret) this.textArea.getCaret())
+					.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
+
+			this.textArea.setEditable(false);
+			this.srollPane.setPreferredSize(new Dimension(300, 400));
+			this.frame.add(this.srollPane);
+			this.frame.setVisible(true);
+			this.frame.pack();
+
+			// While the port entered is invalid, continually ask for another
+			// port
+			while (port == -1) {
+				portStr = null;
+				while (portStr == null)
+					portStr = JOptionPane
+							.showInputDialog("Enter a port (1-5 digits): ");
+				if (Validator.isValidPort(portStr)) {
+					port = Integer.parseInt(portStr);
+				}
+			}
+
+			// Create the socket based on the port entered
+			try {
+				this.socket = new ServerSocket(port);
+			} catch (IOException e) {
+				System.err
+						.println("Error creating a new server socket on port "
+								+ port);
+				e.printStackTrace();
+				port = -1;
+			}
+		}
+
+		keyboard.close();
+		this.clock = new SystemClock();
+		this.setUp();
+		this.startReporting();
+		this.acceptClients();
+	}
+
+	/**
+	 * Constructor for a new CentralServer object without a GUI, printing
+	 * server events to standard out. Used to run several room servers (one
+	 * per process) behind a {@link LobbyRouter}.
+	 * 
+	 * @param port
+	 *            the port to accept clients on.
+	 * @param workerNo
+	 *            the number of this room server behind the router (0 if
+	 *            running on its own), used to keep room numbers unique.
+	 * @param seats
+	 *            the number of player seats in each game room unless the
+	 *            settings file says otherwise.
+	 */
+	public CentralServer(int port, int workerNo, int seats) {
+		this(port, workerNo, seats, new SystemClock());
+	}
+
+	/**
+	 * Constructor for a new CentralServer object without a GUI whose game
+	 * rooms get the time from a given clock, such as a
+	 * {@link utilities.VirtualClock} moved forward by a test.
+	 * 
+	 * @param port
+	 *            the port to accept clients on.
+	 * @param workerNo
+	 *            the number of this room server behind the router (0 if
+	 *            running on its own), used to keep room numbers unique.
+	 * @param seats
+	 *            the number of player seats in each game room unless the
+	 *            settings file says otherwise.
+	 * @param clock
+	 *            the source of time for the game rooms.
+	 */
+	public CentralServer(int port, int workerNo, int seats, Clock clock) {
+		this.clock = clock;
+		try {
+			this.socket = new ServerSocket(port);
+		} catch (IOException e) {
+			System.err.println("Error creating a new server socket on port "
+					+ port);
+			e.printStackTrace();
+			return;
+		}
+		this.workerNo = workerNo;
+		this.seats = seats;
+		this.noOfRooms = workerNo * ROOMS_PER_WORKER;
+		this.setUp();
+		this.startReporting();
+		this.acceptClients();
+	}
+
+	/**
+	 * Constructor for a new CentralServer object that accepts no connections,
+	 * whose game rooms are played by clients in the same process (see
+	 * {@link RoundSimulator}), get the time from a given clock and deal their
+	 * cards from a seed. Nothing is logged, archived or served.
+	 * 
+	 * @param seats
+	 *            the number of player seats in each game room unless the
+	 *            settings file says otherwise.
+	 * @param clock
+	 *            the source of time for the game rooms.
+	 * @param seed
+	 *            the seed that the rooms deal their cards from.
+	 */
+	CentralServer(int seats, Clock clock, long seed) {
+		this.clock = clock;
+		this.seed = seed;
+		this.seats = seats;
+		this.setUp();
+	}
+
+	/**
+	 * Sets up everything shared by the game rooms and creates the first room.
+	 */
+	private void setUp() {
+		// Lines are kept until the log is started (room servers sharing a
+		// machine each get their own log files)
+		String logDirectory = LOG_DIRECTORY;
+		if (this.workerNo != 0) {
+			logDirectory += "-" + this.workerNo;
+		}
+		this.log = new Log(new File(logDirectory), this.textArea);
+
+		// Load the settings and watch the file for changes
+		this.settings = new SettingsRegistry(new File(
+				SettingsRegistry.FILE_NAME),
+				Settings.DEFAULTS.withSeats(this.seats), this);
+		Thread settingsThread = new Thread(this.settings, "Settings reloader");
+		settingsThread.setDaemon(true);
+		settingsThread.start();
+
+		this.scheduler = newScheduler(2, "Scheduler");
+		this.dispatcher = newScheduler(this.getSettings().getDispatchThreads(),
+				"Room dispatcher");
+		this.heartbeat = new Heartbeat(this, this.scheduler);
+		// Behind a router, every client comes from the router's address
+		this.admission = new AdmissionControl(this, this.workerNo == 0);
+		this.metrics = new Metrics();
+		this.leaderboard = new Leaderboard(this.clock);
+		this.spectatorFanout = new SpectatorFanout();
+		this.oddsEngine = new OddsEngine();
+		this.roundTracer = new RoundTracer(this.log);
+		this.roomPool = new RoomPool(this, this.scheduler);
+		this.listOfGameServers = new ArrayList<Server>();
+		this.listOfGameServers.add(this.roomPool
+				.take(SettingsRegistry.DEFAULT_PROFILE));
+	}
+
+	/**
+	 * Starts writing the log, opens the hand history archive and serves the
+	 * metrics.
+	 */
+	private void startReporting() {
+		this.log.start();
+
+		// Open the hand history archive, running without one if it fails
+		// (room servers sharing a machine each get their own archive)
+		String archiveDirectory = HAND_ARCHIVE_DIRECTORY;
+		if (this.workerNo != 0) {
+			archiveDirectory += "-" + this.workerNo;
+		}
+		try {
+			this.handArchive = new HandArchive(new File(archiveDirectory));
+			this.handArchive.start();
+		} catch (IOException e) {
+			this.log.log(Log.ERROR, null,
+					"Error opening the hand archive, hands will not be recorded",
+					e);
+		}
+
+		// Serve the metrics if a port is set, running without them if it
+		// fails (room servers sharing a machine each use the next port up)
+		int metricsPort = this.getSettings().getMetricsPort();
+		if (metricsPort != 0) {
+			try {
+				this.metricsEndpoint = new MetricsEndpoint(this, metricsPort
+						+ this.workerNo);
+				this.metricsEndpoint.start();
+			} catch (IOException e) {
+				this.log.log(Log.ERROR, null,
+						"Error opening the metrics endpoint, metrics will not be served",
+						e);
+			}
+		}
+	}
+
+	/**
+	 * Creates a pool of daemon threads for running tasks periodically.
+	 * 
+	 * @param threads
+	 *            the number of threads.
+	 * @param name
+	 *            the name of the threads (followed by their number).
+	 * @return the new pool.
+	 */
+	private static ScheduledExecutorService newScheduler(int threads,
+			final String name) {
+		return Executors.newScheduledThreadPool(threads, new ThreadFactory() {
+			private AtomicInteger threadNo = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, name + " #"
+						+ this.threadNo.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Accepts and connects new clients who join the server, forever. Several
+	 * threads (set by the 'acceptor.threads' setting) accept from the same
+	 * socket, including the calling thread.
+	 */
+	private void acceptClients() {
+		this.noOfClients = new AtomicInteger();
+		int acceptors = this.getSettings().getAcceptorThreads();
+		for (int acceptorNo = 1; acceptorNo < acceptors; acceptorNo++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					CentralServer.this.acceptLoop();
+				}
+			}, "Acceptor #" + (acceptorNo + 1)).start();
+		}
+		this.acceptLoop();
+	}
+
+	/**
+	 * Accepts new clients forever, starting a thread for each client that is
+	 * admitted and rejecting the rest with '% FULL'.
+	 */
+	private void acceptLoop() {
+		while (true) {
+			this.println("Waiting for client to connect...");
+			try {
+				Socket client = this.socket.accept();
+				if (!this.admission.admit(client.getInetAddress())) {
+					reject(client);
+					continue;
+				}
+				Client temp = new Client(client, this);
+				this.heartbeat.add(temp);
+				new Thread(temp).start();
+				this.println("Client #" + this.noOfClients.incrementAndGet()
+						+ " has connected");
+			} catch (Exception e) {
+				this.log.log(Log.ERROR, null, "Error connecting to client", e);
+			}
+		}
+	}
+
+	/**
+	 * Tells a client that the server is full and closes its connection,
+	 * without waiting for it to read the message.
+	 * 
+	 * @param client
+	 *            the client's socket.
+	 */
+	static void reject(Socket client) {
+		try {
+			client.setSoLinger(true, 0);
+			OutputStream output = client.getOutputStream();
+			output.write(("% FULL" + System.lineSeparator()).getBytes());
+			output.flush();
+		} catch (IOException e) {
+			// The client will be disconnected either way
+		}
+		try {
+			client.close();
+		} catch (IOException e) {
+			// Already closed
+		}
+	}
+
+	/**
+	 * Place a player/spectator in the next available game room (player in the
+	 * first non-full && non-started room and spectator in the first non-started
+	 * room) using the default settings profile.
+	 * 
+	 * @param client
+	 *            the client to add to the server.
+	 * @param isPlayer
+	 *            whether or not it is a player.
+	 */
+	void addToServer(Client client, boolean isPlayer) {
+		this.addToServer(client, isPlayer, SettingsRegistry.DEFAULT_PROFILE);
+	}
+
+	/**
+	 * Place a player/spectator in the next available game room using a
+	 * specific settings profile (player in the first non-full && non-started
+	 * room and spectator in the first non-started room). Synchronized to
+	 * prevent players from creating two new servers at the same time if a
+	 * available server doesn't exist, and so that a player's seat is taken
+	 * before another client looks for a room that isn't full.
+	 * 
+	 * @param client
+	 *            the client to add to the server.
+	 * @param isPlayer
+	 *            whether or not it is a player.
+	 * @param profile
+	 *            the name of the settings profile of the room.
+	 * @return the player number taken for a player (-1 for a spectator).
+	 */
+	synchronized int addToServer(Client client, boolean isPlayer,
+			String profile) {
+		Server availableServer = this.findAvailableServer(isPlayer, profile);
+		int serverUsed = this.listOfGameServers.indexOf(availableServer);
+
+		// Add the client to the available room and print the information
+		int playerNo = -1;
+		if (isPlayer) {
+			playerNo = availableServer.returnAndUsePlayerNumber();
+		}
+		availableServer.addClient(client, isPlayer);
+		client.setServer(availableServer);
+		if (isPlayer) {
+			this.println("Player connected to server #" + (serverUsed + 1));
+		} else {
+			this.println("Client connected to server #" + (serverUsed + 1));
+		}
+		return playerNo;
+	}
+
+	/**
+	 * Moves a spectator still watching a room whose game is over to the next
+	 * available room of the same settings profile (the default profile if it
+	 * no longer exists). The spectator is sent '% MOVED roomNo' followed by a
+	 * frame of the room's lobby.
+	 * 
+	 * @param spectator
+	 *            the spectator to move.
+	 * @param profile
+	 *            the name of the settings profile of the room it watched.
+	 */
+	synchronized void moveToLobby(Client spectator, String profile) {
+		if (this.getSettings(profile) == null) {
+			profile = SettingsRegistry.DEFAULT_PROFILE;
+		}
+		Server lobby = this.findAvailableServer(false, profile);
+		spectator.setServer(lobby);
+		lobby.attachClient(spectator, "% MOVED " + lobby.getRoomNo(), false);
+		this.println("Client moved to server #" + lobby.getRoomNo());
+	}
+
+	/**
+	 * Find the first game room that a client can join (the first non-started
+	 * room with the given settings profile, which also can't be full for a
+	 * player), taking a new room from the room pool if there isn't one. Only
+	 * called while synchronized on the central server.
+	 * 
+	 * @param isPlayer
+	 *            whether or not the client is a player.
+	 * @param profile
+	 *            the name of the settings profile of the room.
+	 * @return the room.
+	 */
+	private Server findAvailableServer(boolean isPlayer, String profile) {
+		// Uses a regular for loop instead of for-each loop to prevent changes
+		// in list of servers during search from causing iterator to throw
+		// ConcurrentModificationException
+		for (int serverNo = 0; serverNo < this.listOfGameServers.size();
+				serverNo++) {
+			Server currentServer = this.listOfGameServers.get(serverNo);
+			if (!currentServer.gameStarted()
+					&& currentServer.getProfile().equals(profile)
+					&& (!isPlayer || !currentServer.isFull())) {
+				return currentServer;
+			}
+		}
+
+		// Take a new game room if there are no available rooms for the client
+		Server newServer = this.roomPool.take(profile);
+		this.listOfGameServers.add(newServer);
+		return newServer;
+	}
+
+	/**
+	 * Attach a spectator to a specific game room, even if its game has
+	 * already started.
+	 * 
+	 * @param client
+	 *            the spectator to attach.
+	 * @param roomNo
+	 *            the number of the room to watch.
+	 * @return whether or not the room was found.
+	 */
+	synchronized boolean attachToServer(Client client, int roomNo) {
+		for (Server server : this.listOfGameServers) {
+			if (server.getRoomNo() == roomNo) {
+				client.setServer(server);
+				server.attachSpectator(client);
+				this.println("Client attached to server #" + roomNo);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find a started game room to move the players of an under-filled room to,
+	 * reserving seats for them. The fullest room with enough free seats is
+	 * used, so that players end up in as few rooms as possible. Synchronized
+	 * so that two rooms are never emptied into each other.
+	 * 
+	 * @param source
+	 *            the room to empty.
+	 * @param noOfPlayers
+	 *            the number of players to move.
+	 * @return the room to move the players to, or null if there isn't one.
+	 */
+	synchronized Server findConsolidationTarget(Server source, int noOfPlayers) {
+		if (!source.setConsolidating(true)) {
+			return null;
+		}
+		Server target = this.chooseConsolidationTarget(source, noOfPlayers);
+		if (target == null || !target.reserveSeats(noOfPlayers)) {
+			source.setConsolidating(false);
+			return null;
+		}
+		return target;
+	}
+
+	/**
+	 * Check whether there is a started game room that the players of an
+	 * under-filled room could be moved to right now, without reserving seats
+	 * for them.
+	 * 
+	 * @param source
+	 *            the room to empty.
+	 * @param noOfPlayers
+	 *            the number of players to move.
+	 * @return whether or not there is such a room.
+	 */
+	synchronized boolean hasConsolidationTarget(Server source, int noOfPlayers) {
+		Server target = this.chooseConsolidationTarget(source, noOfPlayers);
+		return target != null && target.hasSeatsFor(noOfPlayers);
+	}
+
+	/**
+	 * Chooses the fullest started game room (other than an under-filled room)
+	 * with enough seats for the players of the under-filled room.
+	 * 
+	 * @param source
+	 *            the room to empty.
+	 * @param noOfPlayers
+	 *            the number of players to move.
+	 * @return the room, or null if there isn't one.
+	 */
+	private Server chooseConsolidationTarget(Server source, int noOfPlayers) {
+		Server target = null;
+		for (Server currentServer : this.listOfGameServers) {
+			if (currentServer != source
+					&& currentServer.gameStarted()
+					&& (target == null || currentServer.getNoOfPlayers() > target
+							.getNoOfPlayers())
+					&& currentServer.getNoOfPlayers() + noOfPlayers <= currentServer
+							.getSeats()) {
+				target = currentServer;
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Remove a server/game room once the game has ended.
+	 * 
+	 * @param server
+	 *            the server to remove.
+	 */
+	public synchronized void removeServer(Server server) {
+		this.listOfGameServers.remove(server);
+	}
+
+	/**
+	 * Get the number of game rooms currently in use.
+	 * 
+	 * @return the number of rooms.
+	 */
+	public synchronized int getNoOfRooms() {
+		return this.listOfGameServers.size();
+	}
+
+	/**
+	 * Get the game rooms currently in use.
+	 * 
+	 * @return a copy of the list of rooms.
+	 */
+	public synchronized ArrayList<Server> getRooms() {
+		return new ArrayList<Server>(this.listOfGameServers);
+	}
+
+	/**
+	 * Get the number for a newly created game room.
+	 * 
+	 * @return the new room number (starting at 1).
+	 */
+	synchronized int nextRoomNo() {
+		return ++this.noOfRooms;
+	}
+
+	/**
+	 * Gives every game room the current settings of its profile after the
+	 * settings file has been reloaded.
+	 */
+	synchronized void applySettings() {
+		for (Server server : this.listOfGameServers) {
+			Settings current = this.settings.get(server.getProfile());
+			if (current != null) {
+				server.setSettings(current);
+			}
+		}
+	}
+
+	/**
+	 * Get the current settings of a profile.
+	 * 
+	 * @param profile
+	 *            the name of the profile.
+	 * @return the settings, or null if there is no such profile.
+	 */
+	public Settings getSettings(String profile) {
+		return this.settings.get(profile);
+	}
+
+	/**
+	 * Get the current settings of the default profile.
+	 * 
+	 * @return the default settings.
+	 */
+	public Settings getSettings() {
+		return this.settings.get(SettingsRegistry.DEFAULT_PROFILE);
+	}
+
+	/**
+	 * Get the archive of completed hands.
+	 * 
+	 * @return the hand archive, or null if it could not be opened.
+	 */
+	public HandArchive getHandArchive() {
+		return this.handArchive;
+	}
+
+	/**
+	 * Get the limits on the number of clients connected at once.
+	 * 
+	 * @return the admission control.
+	 */
+	public AdmissionControl getAdmission() {
+		return this.admission;
+	}
+
+	/**
+	 * Get the pool of threads shared by everything that runs periodically.
+	 * 
+	 * @return the scheduler.
+	 */
+	public ScheduledExecutorService getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * Get the source of time for the game rooms.
+	 * 
+	 * @return the clock.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Get the seed that the rooms deal their cards from.
+	 * 
+	 * @return the seed, or null if the rooms deal different cards every
+	 *         time.
+	 */
+	Long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Get the pool of threads sending the messages of every room.
+	 * 
+	 * @return the room dispatcher.
+	 */
+	public ScheduledExecutorService getDispatcher() {
+		return this.dispatcher;
+	}
+
+	/**
+	 * Get the object pinging clients and disconnecting the ones that have
+	 * stopped answering.
+	 * 
+	 * @return the heartbeat.
+	 */
+	public Heartbeat getHeartbeat() {
+		return this.heartbeat;
+	}
+
+	/**
+	 * Get the log of the central server and every game room.
+	 * 
+	 * @return the log.
+	 */
+	public Log getLog() {
+		return this.log;
+	}
+
+	/**
+	 * Get the counters of events across every game room.
+	 * 
+	 * @return the metrics.
+	 */
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Get the pool of game rooms ready to be used.
+	 * 
+	 * @return the room pool.
+	 */
+	public RoomPool getRoomPool() {
+		return this.roomPool;
+	}
+
+	/**
+	 * Get the leaderboard shared by every game room.
+	 * 
+	 * @return the leaderboard.
+	 */
+	public Leaderboard getLeaderboard() {
+		return this.leaderboard;
+	}
+
+	/**
+	 * Get the tier used to send broadcasts to spectators.
+	 * 
+	 * @return the spectator fan-out.
+	 */
+	public SpectatorFanout getSpectatorFanout() {
+		return this.spectatorFanout;
+	}
+
+	/**
+	 * Get the engine working out the odds broadcast by game rooms.
+	 * 
+	 * @return the odds engine.
+	 */
+	public OddsEngine getOddsEngine() {
+		return this.oddsEngine;
+	}
+
+	/**
+	 * Get the collector of the traces of every room's rounds.
+	 * 
+	 * @return the round tracer.
+	 */
+	public RoundTracer getRoundTracer() {
+		return this.roundTracer;
+	}
+
+	/**
+	 * Logs specified message, which is shown in the debugging GUI.<br>
+	 * This method will <b>bypass</b> the {@link Server#DEBUG debugging
+	 * constant}, meaning anything sent to this method will be sent to the GUI.
+	 * 
+	 * @param message
+	 *            the message to log.
+	 */
+	public void println(String message) {
+		this.log.log(Log.INFO, null, message);
+	}
 }
\ No newline at end of file
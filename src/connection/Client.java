@@ -1,433 +1,882 @@
-package connection;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
-
-import gameplay.Dealer;
-import utilities.ClientList;
-import utilities.Validator;
-
-/**
- * Object for every client connecting to a blackjack server.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 1, 2015
- */
-public class Client implements Runnable {
-	private Server server;
-	private CentralServer centralServer;
-	private Socket socket;
-	private BufferedReader input;
-	private PrintWriter output;
-	private String name;
-	private boolean connected;
-
-	/**
-	 * The current dealer for the game the user is in.
-	 */
-	private Dealer dealer;
-
-	/**
-	 * Whether or not the player is ready to start the game.
-	 */
-	private boolean isReady = false;
-
-	/**
-	 * Potential Player object if the client is a player.
-	 */
-	private Player player;
-
-	/**
-	 * 'U' for unassigned, 'P' for player and 'S' for spectator.
-	 */
-	private char userType;
-
-	/**
-	 * Constructor for a new Client object.
-	 * 
-	 * @param client
-	 *            socket of the connected client.
-	 * @param centralServer
-	 *            central server for routing players to specific game-server.
-	 */
-	public Client(Socket client, CentralServer centralServer) {
-		this.socket = client;
-		this.connected = true;
-		this.centralServer = centralServer;
-	}
-
-	/**
-	 * Remove the client from all associated lists and close all linked to
-	 * client (input/output streams + socket) by calling appropriate 'Server'
-	 * methods.
-	 */
-	public void disconnect() {
-		// Doesn't use Server#printl) because the Server may have not been
-		// determined
-		if (this.userType == 'P') {
-			if (Server.DEBUG) {
-				System.out.println(this.player.getPlayerNo()
-						+ " has disconnected");
-			}
-		} else {
-			if (Server.DEBUG) {
-				System.out.println("Client has disconnected");
-			}
-		}
-
-		this.connected = false;
-
-		// Try closing all input/output streams and socket
-		try {
-			this.input.close();
-			this.output.close();
-			this.socket.close();
-		} catch (IOException e) {
-			System.err.println("Error closing the socket");
-			e.printStackTrace();
-		}
-
-		// Disconnect the user as a client and also as a player only if it was
-		// assigned as a player
-		if (this.server != null) {
-			if (this.isPlayer()) {
-				this.server.disconnectPlayer(this);
-			}
-			this.server.disconnectClient(this);
-		}
-
-		this.userType = 'U';
-	}
-
-	/**
-	 * Starts the thread of this client, mostly used for input and output of
-	 * messages.
-	 */
-	@Override
-	public void run() {
-		// Set up the output
-		try {
-			this.output = new PrintWriter(this.socket.getOutputStream());
-		} catch (IOException e) {
-			System.err.println("Error getting client's output stream");
-			e.printStackTrace();
-			this.connected = false;
-		}
-
-		// Set up the input
-		try {
-			this.input = new BufferedReader(new InputStreamReader(
-					this.socket.getInputStream()));
-		} catch (IOException e) {
-			System.err.println("Error getting client's input stream");
-			e.printStackTrace();
-			this.connected = false;
-		}
-
-		// Try to get the name of the client
-		// Make sure the name is valid (1-16 alphanumeric + spaces)
-		while (this.connected && this.name == null) {
-			String newName = this.readLine();
-			if (Validator.isValidName(newName)) {
-				this.name = newName;
-			} else {
-				this.sendMessage("% FORMATERROR");
-			}
-		}
-
-		// Not using Server#println because server is not yet determined
-		if (Server.DEBUG) {
-			this.centralServer.println("New user registered as " + this.name);
-		}
-
-		// The user type is unassigned at first
-		this.userType = 'U';
-
-		// Set the user's account type, either enter the user into the game or
-		// assign as a spectator
-		while (this.userType == 'U' && this.connected) {
-			String message = this.readLine();
-			if (message.equalsIgnoreCase("PLAY")) {
-				this.sendMessage("% ACCEPTED");
-				this.centralServer.addToServer(this, true);
-				this.player = new Player(this.server,
-						this.server.returnAndUsePlayerNumber());
-				this.server.newPlayer(this);
-				this.userType = 'P';
-			} else if (message.equalsIgnoreCase("SPECTATE")) {
-				this.userType = 'S';
-				this.centralServer.addToServer(this, false);
-				this.sendMessage("% ACCEPTED");
-			} else {
-				this.sendMessage("% FORMATERROR");
-			}
-		}
-
-		// Inform the user of all the players currently in the lobby
-		if (this.connected) {
-			this.sendStartMessage();
-		}
-
-		// Check if the player is ready to start
-		if (this.isPlayer()) {
-			while (this.connected && !this.isReady) {
-				String message = this.readLine();
-				if (message.equalsIgnoreCase("READY")) {
-					this.server.ready(this.player.getPlayerNo());
-					this.isReady = true;
-				} else {
-					this.sendMessage("% FORMATERROR");
-				}
-			}
-		}
-
-		// Game loop
-		while (this.isPlayer() && this.connected) {
-			// Get the message the client sends and work with it later
-			String message = this.readLine();
-
-			// Display to the GUI console what the client said
-			this.server.println("(" + this.getPlayerNo() + ") " + this.name
-					+ " sent: " + message);
-			int betPlaced = 0;
-
-			// Set the bet if the player is betting
-			// Otherwise if the player is hitting/standing/doubling down, set
-			// their move to the respective move
-			// If the message doesn't match, give them an error
-			if (this.server.gameStarted()) {
-				if (this.dealer.bettingIsActive()
-						&& this.player.getCurrentBet() == 0
-						&& message.matches("[0-9]{1,8}")
-						&& (betPlaced = Integer.parseInt(message)) >= Server.MIN_BET
-						&& betPlaced <= this.player.getCoins()) {
-					this.server.queueMessage("$ " + this.getPlayerNo()
-							+ " bets " + betPlaced);
-					this.server.println("Bet Placed (not applicable if 0): "
-							+ betPlaced);
-					this.player.setCurrentBet(betPlaced);
-				} else if (this.dealer.getCurrentPlayerTurn() == this
-						.getPlayerNo()
-						&& this.player.getCurrentMove() != 'S'
-						&& message.equalsIgnoreCase("hit")) {
-					this.player.setCurrentMove('H');
-				} else if (dealer.getCurrentPlayerTurn() == this.getPlayerNo()
-						&& message.equalsIgnoreCase("stand")) {
-					this.player.setCurrentMove('S');
-				} else if (this.dealer.getCurrentPlayerTurn() == this
-						.getPlayerNo()
-						&& this.player.getCurrentMove() == 'N'
-						&& message.equalsIgnoreCase("doubledown")
-						&& this.player.getCoins() >= this.player
-								.getCurrentBet() * 2
-						&& this.player.getCurrentCards().size() == 2) {
-					this.player.setCurrentMove('D');
-				} else {
-					this.sendMessage("% FORMATERROR");
-				}
-			}
-
-			// Pause for a short moment before getting the next message to let
-			// everything update first
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-	}
-
-	/**
-	 * Sends a private message to the client.
-	 * 
-	 * @param message
-	 *            the message to send.
-	 */
-	public void sendMessage(String message) {
-		this.output.println(message);
-		this.output.flush();
-	}
-
-	/**
-	 * Sends a list of players that were already connected to the server as well
-	 * as the current user's player number (-1 if spectator).
-	 */
-	private void sendStartMessage() {
-		ClientList players = this.server.getCurrentPlayers();
-		int noOfPlayersBefore = players.size();
-		if (this.isPlayer()) {
-			noOfPlayersBefore--;
-		}
-
-		// Tells the user his/her player number, the number of other players in
-		// the lobby, as well as all their names separated by //
-		String message = "@ " + this.getPlayerNo() + " " + noOfPlayersBefore;
-		for (Client client : players) {
-			if (client != this)
-				message += " " + client.getName() + " //";
-		}
-		this.sendMessage(message);
-	}
-
-	/**
-	 * Reads in a message from the client.
-	 * 
-	 * @return the message from the client.
-	 */
-	private String readLine() {
-		String line = "";
-		try {
-			line = this.input.readLine();
-		} catch (IOException e) {
-			this.disconnect();
-		}
-		if (line == null) {
-			this.disconnect();
-		}
-		return line;
-	}
-
-	/**
-	 * Check if this client (if a player) is ready to start the game.
-	 * 
-	 * @return whether or not the player is ready.
-	 */
-	public boolean isReady() {
-		return this.isReady;
-	}
-
-	/**
-	 * Returns the player's name and their amount of coins.
-	 * 
-	 * @return the player's name and their amount of coins using the following
-	 *         format: "player's name : player's current coins" (e.g.
-	 *         "Bob : 150").
-	 */
-	@Override
-	public String toString() {
-		return this.name + " : " + this.player.getCoins();
-	}
-
-	/**
-	 * Set the game server that the client plays in.
-	 * 
-	 * @param server
-	 *            the server to set the client's server to.
-	 */
-	protected void setServer(Server server) {
-		this.server = server;
-	}
-
-	/**
-	 * Set the dealer that the client plays with.
-	 * 
-	 * @param dealer
-	 *            the dealer to play with.
-	 */
-	public void setDealer(Dealer dealer) {
-		this.dealer = dealer;
-	}
-
-	/**
-	 * Get the name of the client.
-	 * 
-	 * @return the name of the client.
-	 */
-	public String getName() {
-		return this.name;
-	}
-
-	/**
-	 * Get the player number in order to identify the player, return -1 if the
-	 * client is a spectator.
-	 * 
-	 * @return the player number.
-	 */
-	public int getPlayerNo() {
-		if (this.player == null) {
-			return -1;
-		}
-		return this.player.getPlayerNo();
-	}
-
-	/**
-	 * Check whether the client is a player or not.
-	 * 
-	 * @return whether or not the client is a player.
-	 */
-	public boolean isPlayer() {
-		return (this.userType == 'P');
-	}
-
-	/**
-	 * Set the user type to either player or spectator.
-	 * 
-	 * @param userType
-	 *            the user type to set the user to.
-	 */
-	public void setUserType(char userType) {
-		this.userType = userType;
-	}
-
-	/**
-	 * Get the bet amount for the current round.
-	 * 
-	 * @return the bet amount in coins for the round.
-	 */
-	public int getBet() {
-		if (this.player == null) {
-			return -1;
-		}
-		return this.player.getCurrentBet();
-	}
-
-	/**
-	 * Get the current balance in coins of the player.
-	 * 
-	 * @return the number of coins the player has.
-	 */
-	public int getCoins() {
-		if (this.player == null) {
-			return -1;
-		}
-		return this.player.getCoins();
-	}
-
-	/**
-	 * Get the player object for this client.
-	 * 
-	 * @return the player object.
-	 */
-	public Player getPlayer() {
-		return this.player;
-	}
-
-	/**
-	 * Set the betting amount for this round.
-	 * 
-	 * @param betAmount
-	 *            the number of coins to bet.
-	 */
-	public void setBet(int betAmount) {
-		if (this.player == null) {
-			return;
-		}
-		this.player.setCurrentBet(betAmount);
-	}
-
-	/**
-	 * Update the player's balance.
-	 * 
-	 * @param noOfCoins
-	 *            the number of coins the player has.
-	 */
-	public void setCoins(int noOfCoins) {
-		if (this.player == null) {
-			return;
-		}
-		this.player.setCoins(noOfCoins);
-	}
+package connection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.Socket;
+
+import diagnostics.DisconnectEvent;
+import diagnostics.Events;
+import gameplay.Dealer;
+import utilities.ClientList;
+import utilities.Log;
+import utilities.Settings;
+import utilities.TokenBucket;
+import utilities.Validator;
+
+/**
+ * Object for every client connecting to a blackjack server.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 1, 2015
+ */
+public class Client implements Runnable {
+
+	/**
+	 * Tokens used from the client's rate limit by an ordinary command (e.g. a
+	 * bet or a move).
+	 */
+	public static final int COMMAND_COST = 1;
+
+	/**
+	 * Tokens used from the client's rate limit by a command that is more
+	 * work to answer (e.g. 'LEADERBOARD').
+	 */
+	public static final int QUERY_COST = 5;
+
+	/**
+	 * Extra tokens used from the client's rate limit by an invalid message.
+	 */
+	public static final int INVALID_COST = 5;
+
+	/**
+	 * Number of messages in a row that can be dropped for going over the rate
+	 * limit before the client is disconnected.
+	 */
+	public static final int MAX_THROTTLED = 50;
+
+	private Server server;
+	private CentralServer centralServer;
+	private Socket socket;
+	private BufferedReader input;
+	private PrintWriter output;
+	private String name;
+	private volatile boolean connected;
+
+	/**
+	 * The current dealer for the game the user is in.
+	 */
+	private volatile Dealer dealer;
+
+	/**
+	 * Whether or not the player is ready to start the game.
+	 */
+	private boolean isReady = false;
+
+	/**
+	 * Potential Player object if the client is a player.
+	 */
+	private Player player;
+
+	/**
+	 * 'U' for unassigned, 'P' for player and 'S' for spectator.
+	 */
+	private char userType;
+
+	/**
+	 * Queue of broadcasts waiting to be sent if the client is a spectator.
+	 */
+	private SpectatorFanout.Outbox outbox;
+
+	/**
+	 * Whether or not the client joined as a spectator of a specific room,
+	 * which sends it a frame of the table instead of the start message.
+	 */
+	private boolean attached;
+
+	/**
+	 * Whether or not the client is still counted by the central server's
+	 * admission control as connected, and as being in the handshake.
+	 */
+	private boolean admitted;
+	private volatile boolean inHandshake;
+
+	/**
+	 * Times (from {@link System#nanoTime()}) that the client last sent a
+	 * message and was last pinged.
+	 */
+	private volatile long lastReceived, lastPinged;
+
+	/**
+	 * Time (from {@link System#nanoTime()}) that the client connected.
+	 */
+	private final long connectedAt;
+
+	/**
+	 * Time (from {@link System#nanoTime()}) that the write in progress to the
+	 * client started, or 0 if nothing is being written.
+	 */
+	private volatile long writingSince;
+
+	/**
+	 * Whether or not the client has ever replied to a ping, which makes it
+	 * expected to keep replying.
+	 */
+	private volatile boolean answeredPing;
+
+	/**
+	 * Whether or not a write to the client has failed, after which the
+	 * client is being disconnected.
+	 */
+	private boolean writeFailed;
+
+	/**
+	 * Rate limit of the messages from the client.
+	 */
+	private TokenBucket commandLimit;
+
+	/**
+	 * Number of messages in a row dropped for going over the rate limit.
+	 */
+	private int throttledInARow;
+
+	/**
+	 * Constructor for a new Client object.
+	 * 
+	 * @param client
+	 *            socket of the connected client.
+	 * @param centralServer
+	 *            central server for routing players to specific game-server.
+	 */
+	public Client(Socket client, CentralServer centralServer) {
+		this.socket = client;
+		this.connected = true;
+		this.centralServer = centralServer;
+		this.admitted = true;
+		this.inHandshake = true;
+		this.connectedAt = System.nanoTime();
+		this.lastReceived = this.connectedAt;
+		this.lastPinged = this.connectedAt;
+		Settings settings = centralServer.getSettings();
+		this.commandLimit = new TokenBucket(settings.getCommandsPerSecond(),
+				settings.getCommandBurst());
+	}
+
+	/**
+	 * Constructor for a new Client object played in the same process as the
+	 * central server instead of over a socket (see {@link RoundSimulator}).
+	 * The client joins a room with {@link #join(String)} and sends messages
+	 * with {@link #receive(String)}, without being rate limited.
+	 * 
+	 * @param centralServer
+	 *            central server for routing players to specific game-server.
+	 * @param name
+	 *            the name of the client.
+	 * @param output
+	 *            where the messages sent to the client are written.
+	 */
+	Client(CentralServer centralServer, String name, Writer output) {
+		this(null, centralServer);
+		this.admitted = false;
+		this.inHandshake = false;
+		this.name = name;
+		this.output = new PrintWriter(output);
+		this.userType = 'U';
+	}
+
+	/**
+	 * Remove the client from all associated lists and close all linked to
+	 * client (input/output streams + socket) by calling appropriate 'Server'
+	 * methods.
+	 */
+	public void disconnect() {
+		// Doesn't use Server#println because the Server may have not been
+		// determined
+		Log log = this.centralServer.getLog();
+		String logTag = this.server == null ? null : this.server.getLogTag();
+		if (this.centralServer.getSettings().isDebug()) {
+			if (this.userType == 'P') {
+				log.log(Log.DEBUG, logTag, this.player.getPlayerNo()
+						+ " has disconnected");
+			} else {
+				log.log(Log.DEBUG, logTag, "Client has disconnected");
+			}
+		}
+
+		if (Events.enabled(DisconnectEvent.class)) {
+			new DisconnectEvent(this.server == null ? 0
+					: this.server.getRoomNo(), this.userType == 'P' ? this.player
+					.getPlayerNo() : -1, this.name).commit();
+		}
+
+		this.connected = false;
+		this.releaseAdmission();
+		this.centralServer.getHeartbeat().remove(this);
+
+		// Try closing all input/output streams and socket (clients in the
+		// same process have none to close)
+		try {
+			if (this.socket != null) {
+				this.input.close();
+				this.output.close();
+				this.socket.close();
+			}
+		} catch (IOException e) {
+			log.log(Log.ERROR, logTag, "Error closing the socket", e);
+		}
+
+		// Disconnect the user as a client and also as a player only if it was
+		// assigned as a player
+		if (this.server != null) {
+			if (this.isPlayer()) {
+				this.server.disconnectPlayer(this);
+			}
+			this.server.disconnectClient(this);
+		}
+
+		this.userType = 'U';
+	}
+
+	/**
+	 * Starts the thread of this client, mostly used for input and output of
+	 * messages.
+	 */
+	@Override
+	public void run() {
+		// Set up the output
+		try {
+			this.output = new PrintWriter(this.socket.getOutputStream());
+		} catch (IOException e) {
+			this.centralServer.getLog().log(Log.ERROR, null,
+					"Error getting client's output stream", e);
+			this.connected = false;
+		}
+
+		// Set up the input
+		try {
+			this.input = new BufferedReader(new InputStreamReader(
+					this.socket.getInputStream()));
+		} catch (IOException e) {
+			this.centralServer.getLog().log(Log.ERROR, null,
+					"Error getting client's input stream", e);
+			this.connected = false;
+		}
+
+		// Try to get the name of the client
+		// Make sure the name is valid (1-16 alphanumeric + spaces)
+		while (this.connected && this.name == null) {
+			String newName = this.readLine();
+			if (newName == null) {
+				continue;
+			}
+			if (Validator.isValidName(newName)) {
+				this.name = newName;
+			} else {
+				this.sendFormatError();
+			}
+		}
+
+		// Not using Server#println because server is not yet determined
+		if (this.centralServer.getSettings().isDebug()) {
+			this.centralServer.println("New user registered as " + this.name);
+		}
+
+		// The user type is unassigned at first
+		this.userType = 'U';
+
+		// Set the user's account type, either enter the user into the game or
+		// assign as a spectator
+		while (this.userType == 'U' && this.connected) {
+			String message = this.readLine();
+			if (message == null) {
+				continue;
+			}
+			if (message.equalsIgnoreCase("PLAY")) {
+				this.play(SettingsRegistry.DEFAULT_PROFILE);
+			} else if (Validator.isPlayProfile(message)) {
+				// Play in a room using a specific settings profile
+				String profile = message.substring(5);
+				if (this.centralServer.getSettings(profile) != null) {
+					this.play(profile);
+				} else {
+					this.sendFormatError();
+				}
+			} else if (message.equalsIgnoreCase("SPECTATE")) {
+				this.userType = 'S';
+				this.centralServer.addToServer(this, false);
+				this.sendMessage("% ACCEPTED");
+				this.sendSeatsMessage();
+			} else if (Validator.isSpectateRoom(message)) {
+				// Watch a specific room, even if its game has started (the room
+				// sends '% ACCEPTED' along with the table)
+				if (this.centralServer.attachToServer(this,
+						Integer.parseInt(message.substring(9)))) {
+					this.userType = 'S';
+					this.attached = true;
+				} else {
+					this.sendFormatError();
+				}
+			} else if (!this.answerCommand(message)) {
+				this.sendFormatError();
+			}
+		}
+
+		this.finishHandshake();
+
+		// Inform the user of all the players currently in the lobby
+		if (this.connected && !this.attached) {
+			this.sendStartMessage();
+		}
+
+		// Game loop
+		while (this.isPlayer() && this.connected) {
+			// Get the message the client sends and work with it later
+			String message = this.readLine();
+			if (message != null) {
+				this.receive(message);
+			}
+		}
+
+		// Spectators (including players who have left the game) can only use
+		// commands that don't affect the game
+		while (this.userType == 'S' && this.connected) {
+			String message = this.readLine();
+			if (message != null && !this.answerCommand(message)) {
+				this.sendFormatError();
+			}
+		}
+	}
+
+	/**
+	 * Enters a client played in the same process into a game room as a
+	 * player, as if it had sent 'PLAY' (or 'PLAY profile'), and sends it the
+	 * start message.
+	 * 
+	 * @param profile
+	 *            the name of the settings profile of the room.
+	 */
+	void join(String profile) {
+		this.play(profile);
+		this.sendStartMessage();
+	}
+
+	/**
+	 * Handles a message from a player: 'READY' until the player is ready to
+	 * start, then the moves of the game, which are posted to the room for the
+	 * dealer to apply.
+	 * 
+	 * @param message
+	 *            the message from the player.
+	 */
+	void receive(String message) {
+		// Check if the player is ready to start
+		if (!this.isReady) {
+			if (message.equalsIgnoreCase("READY")) {
+				this.server.ready(this.player.getPlayerNo());
+				this.isReady = true;
+			} else if (!this.answerCommand(message)) {
+				this.sendFormatError();
+			}
+			return;
+		}
+
+		// Display to the GUI console what the client said
+		if (this.server.shouldSample()) {
+			this.server.printlnSampled("(" + this.getPlayerNo() + ") "
+					+ this.name + " sent: " + message);
+		}
+
+		// Leave the message to the dealer, which applies the commands of
+		// every player in the room one at a time (players being moved to
+		// another room have no dealer until they are seated)
+		final Dealer dealer = this.dealer;
+		final String command = message;
+		if (this.server.gameStarted() && dealer != null) {
+			this.server.post(new Runnable() {
+				@Override
+				public void run() {
+					Client.this.applyCommand(dealer, command);
+				}
+			});
+		} else {
+			this.answerCommand(message);
+		}
+	}
+
+	/**
+	 * Enters the client into a game room as a player.
+	 * 
+	 * @param profile
+	 *            the name of the settings profile of the room.
+	 */
+	private void play(String profile) {
+		this.sendMessage("% ACCEPTED");
+		int playerNo = this.centralServer.addToServer(this, true, profile);
+		this.sendSeatsMessage();
+		this.player = new Player(this.server, playerNo);
+		this.server.newPlayer(this);
+		this.userType = 'P';
+	}
+
+	/**
+	 * Applies a message sent by the player during the game. Only called by
+	 * the dealer, so the player's bet and move are never changed while the
+	 * dealer is using them.
+	 * 
+	 * @param dealer
+	 *            the dealer of the game the message was sent in.
+	 * @param message
+	 *            the message from the player.
+	 */
+	private void applyCommand(Dealer dealer, String message) {
+		if (!this.isPlayer()) {
+			// The player left before the message was applied
+			return;
+		}
+		int betPlaced = 0;
+
+		// Reserve the bet if the player is betting
+		// Otherwise if the player is hitting/standing/doubling down, set
+		// their move to the respective move (reserving the coins to double
+		// their bet when doubling down)
+		// If the message doesn't match, give them an error
+		if (dealer.bettingIsActive()
+				&& this.player.getCurrentBet() == 0
+				&& message.matches("[0-9]{1,8}")
+				&& (betPlaced = Integer.parseInt(message)) >= this.server
+						.getSettings().getMinBet()
+				&& this.player.getWallet().reserve(betPlaced)) {
+			this.centralServer.getMetrics().betPlaced();
+			this.server.queueCosmeticMessage("$ " + this.getPlayerNo()
+					+ " bets " + betPlaced);
+			if (this.server.shouldSample()) {
+				this.server.printlnSampled("Bet Placed (not applicable if 0): "
+						+ betPlaced);
+			}
+		} else if (dealer.isPlayersTurn(this.getPlayerNo())
+				&& this.player.getCurrentMove() == 'N'
+				&& message.equalsIgnoreCase("hit")) {
+			this.player.setCurrentMove('H');
+		} else if (dealer.isPlayersTurn(this.getPlayerNo())
+				&& this.player.getCurrentMove() == 'N'
+				&& message.equalsIgnoreCase("stand")) {
+			this.player.setCurrentMove('S');
+		} else if (dealer.isPlayersTurn(this.getPlayerNo())
+				&& this.player.getCurrentMove() == 'N'
+				&& message.equalsIgnoreCase("doubledown")
+				&& this.player.getCurrentCards().size() == 2
+				&& this.player.getWallet().reserve(
+						this.player.getCurrentBet())) {
+			this.centralServer.getMetrics().betPlaced();
+			this.player.setCurrentMove('D');
+		} else if (dealer.isPlayersTurn(this.getPlayerNo())
+				&& this.player.getCurrentMove() == 'N'
+				&& message.equalsIgnoreCase("hint")) {
+			this.sendHint();
+		} else if (!this.answerCommand(message)) {
+			this.sendFormatError();
+		}
+	}
+
+	/**
+	 * Tells the player the best move for their hand during their turn, as
+	 * '% HINT move' (the move being 'H', 'S' or 'D').
+	 */
+	private void sendHint() {
+		char move = this.dealer.getHint(this.player);
+		if (move == 'N') {
+			this.sendFormatError();
+		} else {
+			this.sendMessage("% HINT " + move);
+		}
+	}
+
+	/**
+	 * Answers commands that can be used at any time and don't affect the game
+	 * (currently only 'LEADERBOARD', answered with the central server's cached
+	 * leaderboard).
+	 * 
+	 * @param message
+	 *            the message from the client.
+	 * @return whether or not the message was such a command.
+	 */
+	private boolean answerCommand(String message) {
+		if (message != null && message.equalsIgnoreCase("LEADERBOARD")) {
+			this.sendMessage(this.centralServer.getLeaderboard().getSnapshot());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Stops counting the client as being in the handshake once it has a name
+	 * and has joined a room.
+	 */
+	private synchronized void finishHandshake() {
+		if (this.admitted && this.inHandshake) {
+			this.inHandshake = false;
+			this.centralServer.getAdmission().finishHandshake();
+		}
+	}
+
+	/**
+	 * Stops counting the client as connected (only the first time the client
+	 * disconnects).
+	 */
+	private synchronized void releaseAdmission() {
+		if (this.admitted) {
+			this.admitted = false;
+			this.centralServer.getAdmission().release(
+					this.socket.getInetAddress(), this.inHandshake);
+		}
+	}
+
+	/**
+	 * Sends a private message to the client. If the write fails (e.g. the
+	 * connection was reset), the client's socket is closed, which its thread
+	 * then notices and disconnects the client.
+	 * 
+	 * @param message
+	 *            the message to send.
+	 */
+	public synchronized void sendMessage(String message) {
+		// Lets the heartbeat disconnect the client if the write gets stuck
+		this.writingSince = System.nanoTime();
+		this.output.println(message);
+		this.output.flush();
+		this.writingSince = 0;
+
+		// PrintWriter keeps write errors to itself until asked
+		if (this.output.checkError() && this.connected && !this.writeFailed) {
+			this.writeFailed = true;
+			this.centralServer.println("Disconnecting "
+					+ (this.name == null ? "client in handshake" : this.name)
+					+ " after a failed write");
+			this.closeSocket();
+		}
+	}
+
+	/**
+	 * Sends '% PING' to the client, which should reply 'PONG' so that it isn't
+	 * disconnected for being idle.
+	 * 
+	 * @param now
+	 *            the current time (from {@link System#nanoTime()}).
+	 */
+	void ping(long now) {
+		this.lastPinged = now;
+		this.sendMessage("% PING");
+	}
+
+	/**
+	 * Closes the client's socket without waiting for its thread, which then
+	 * disconnects the client as if it had closed the connection itself. A
+	 * client in the same process (with no socket or thread) is disconnected
+	 * straight away.
+	 */
+	void closeSocket() {
+		if (this.socket == null) {
+			this.disconnect();
+			return;
+		}
+		try {
+			this.socket.close();
+		} catch (IOException e) {
+			this.centralServer.getLog().log(Log.ERROR, null,
+					"Error closing the socket", e);
+		}
+	}
+
+	/**
+	 * Tells the client the number of seats in its room if the room doesn't
+	 * have the default number of seats.
+	 */
+	private void sendSeatsMessage() {
+		if (this.server.getSeats() != Server.DEFAULT_SEATS) {
+			this.sendMessage(this.server.getSeatsMessage());
+		}
+	}
+
+	/**
+	 * Sends a list of players that were already connected to the server as well
+	 * as the current user's player number (-1 if spectator).
+	 */
+	private void sendStartMessage() {
+		ClientList players = this.server.getCurrentPlayers();
+		int noOfPlayersBefore = players.size();
+		if (this.isPlayer()) {
+			noOfPlayersBefore--;
+		}
+
+		// Tells the user his/her player number, the number of other players in
+		// the lobby, as well as all their names separated by //
+		String message = "@ " + this.getPlayerNo() + " " + noOfPlayersBefore;
+		for (Client client : players) {
+			if (client != this)
+				message += " " + client.getName() + " //";
+		}
+		this.sendMessage(message);
+	}
+
+	/**
+	 * Reads in a message from the client. Messages over the client's rate
+	 * limit are dropped without being answered or logged, and the client is
+	 * disconnected if it keeps sending them. Replies to pings ('PONG') are
+	 * only used to keep the connection alive and are never returned.
+	 * 
+	 * @return the message from the client, or null if the client has
+	 *         disconnected.
+	 */
+	private String readLine() {
+		Metrics metrics = this.centralServer.getMetrics();
+		while (true) {
+			String line = null;
+			try {
+				line = this.input.readLine();
+			} catch (IOException e) {
+				// Treated the same as the client closing the connection
+			}
+			if (line == null) {
+				this.disconnect();
+				return null;
+			}
+			this.lastReceived = System.nanoTime();
+
+			// Queries are more work to answer than other commands
+			if (this.consumeTokens(line.equalsIgnoreCase("LEADERBOARD")
+					? QUERY_COST : COMMAND_COST)) {
+				this.throttledInARow = 0;
+				metrics.commandAccepted();
+				if (!line.equalsIgnoreCase("PONG")) {
+					return line;
+				}
+				this.answeredPing = true;
+			} else {
+				metrics.commandThrottled();
+				if (++this.throttledInARow > MAX_THROTTLED) {
+					metrics.floodDisconnect();
+					this.disconnect();
+					return null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells the client that its message was invalid. Invalid messages use up
+	 * extra tokens from the client's rate limit, and are no longer answered
+	 * once the client is out of tokens.
+	 */
+	private void sendFormatError() {
+		if (this.consumeTokens(INVALID_COST)) {
+			this.sendMessage("% FORMATERROR");
+		}
+	}
+
+	/**
+	 * Uses up tokens from the client's rate limit, which is shared by the
+	 * client's thread and the dealer (answering commands in the game).
+	 * 
+	 * @param cost
+	 *            the number of tokens to use.
+	 * @return whether or not there were enough tokens.
+	 */
+	private boolean consumeTokens(int cost) {
+		synchronized (this.commandLimit) {
+			return this.commandLimit.tryConsume(cost);
+		}
+	}
+
+	/**
+	 * Check if this client (if a player) is ready to start the game.
+	 * 
+	 * @return whether or not the player is ready.
+	 */
+	public boolean isReady() {
+		return this.isReady;
+	}
+
+	/**
+	 * Returns the player's name and their amount of coins.
+	 * 
+	 * @return the player's name and their amount of coins using the following
+	 *         format: "player's name : player's current coins" (e.g.
+	 *         "Bob : 150").
+	 */
+	@Override
+	public String toString() {
+		return this.name + " : " + this.player.getCoins();
+	}
+
+	/**
+	 * Set the game server that the client plays in.
+	 * 
+	 * @param server
+	 *            the server to set the client's server to.
+	 */
+	protected void setServer(Server server) {
+		this.server = server;
+	}
+
+	/**
+	 * Get the queue of broadcasts waiting to be sent to this client as a
+	 * spectator.
+	 * 
+	 * @return the outbox, or null if the client has never been a spectator.
+	 */
+	SpectatorFanout.Outbox getOutbox() {
+		return this.outbox;
+	}
+
+	/**
+	 * Set the queue of broadcasts waiting to be sent to this client as a
+	 * spectator.
+	 * 
+	 * @param outbox
+	 *            the outbox to use.
+	 */
+	void setOutbox(SpectatorFanout.Outbox outbox) {
+		this.outbox = outbox;
+	}
+
+	/**
+	 * Set the dealer that the client plays with.
+	 * 
+	 * @param dealer
+	 *            the dealer to play with.
+	 */
+	public void setDealer(Dealer dealer) {
+		this.dealer = dealer;
+	}
+
+	/**
+	 * Get the name of the client.
+	 * 
+	 * @return the name of the client.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the player number in order to identify the player, return -1 if the
+	 * client is a spectator.
+	 * 
+	 * @return the player number.
+	 */
+	public int getPlayerNo() {
+		if (this.player == null) {
+			return -1;
+		}
+		return this.player.getPlayerNo();
+	}
+
+	/**
+	 * Check whether the client is still connected.
+	 * 
+	 * @return whether or not the client is connected.
+	 */
+	public boolean isConnected() {
+		return this.connected;
+	}
+
+	/**
+	 * Check whether the client has yet to finish the handshake (send its name
+	 * and join a room).
+	 * 
+	 * @return whether or not the client is in the handshake.
+	 */
+	boolean isInHandshake() {
+		return this.inHandshake;
+	}
+
+	/**
+	 * Get the time that the client last sent a message.
+	 * 
+	 * @return the time (from {@link System#nanoTime()}).
+	 */
+	long getLastReceived() {
+		return this.lastReceived;
+	}
+
+	/**
+	 * Get the time that the client was last pinged.
+	 * 
+	 * @return the time (from {@link System#nanoTime()}).
+	 */
+	long getLastPinged() {
+		return this.lastPinged;
+	}
+
+	/**
+	 * Get the time that the client connected.
+	 * 
+	 * @return the time (from {@link System#nanoTime()}).
+	 */
+	long getConnectedAt() {
+		return this.connectedAt;
+	}
+
+	/**
+	 * Get the time that the write in progress to the client started.
+	 * 
+	 * @return the time (from {@link System#nanoTime()}), or 0 if nothing is
+	 *         being written.
+	 */
+	long getWritingSince() {
+		return this.writingSince;
+	}
+
+	/**
+	 * Check whether the client has ever replied to a ping.
+	 * 
+	 * @return whether or not the client has sent 'PONG'.
+	 */
+	boolean hasAnsweredPing() {
+		return this.answeredPing;
+	}
+
+	/**
+	 * Check whether the client is a player or not.
+	 * 
+	 * @return whether or not the client is a player.
+	 */
+	public boolean isPlayer() {
+		return (this.userType == 'P');
+	}
+
+	/**
+	 * Set the user type to either player or spectator.
+	 * 
+	 * @param userType
+	 *            the user type to set the user to.
+	 */
+	public void setUserType(char userType) {
+		this.userType = userType;
+	}
+
+	/**
+	 * Get the bet amount for the current round.
+	 * 
+	 * @return the bet amount in coins for the round.
+	 */
+	public int getBet() {
+		if (this.player == null) {
+			return -1;
+		}
+		return this.player.getCurrentBet();
+	}
+
+	/**
+	 * Get the current balance in coins of the player.
+	 * 
+	 * @return the number of coins the player has.
+	 */
+	public int getCoins() {
+		if (this.player == null) {
+			return -1;
+		}
+		return this.player.getCoins();
+	}
+
+	/**
+	 * Get the player object for this client.
+	 * 
+	 * @return the player object.
+	 */
+	public Player getPlayer() {
+		return this.player;
+	}
 }
\ No newline at end of file
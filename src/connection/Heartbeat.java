@@ -0,0 +1,177 @@
+package connection;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import utilities.Log;
+import utilities.Settings;
+
+/**
+ * Keeps track of whether every client of a central server is still there.
+ * Clients that have finished the handshake are sent '% PING' every
+ * 'ping.interval' seconds and are expected to reply 'PONG' (any message
+ * counts). A reaper running on the central server's shared scheduler
+ * disconnects clients still in the handshake 'handshake.timeout' seconds
+ * after connecting, clients that have replied to a ping but then haven't
+ * sent anything for 'idle.timeout' seconds (clients that never reply to
+ * pings are left alone), and clients whose socket has been stuck on a write
+ * for 'write.timeout' seconds, freeing their thread and seat. A ping to a
+ * client whose connection has been reset fails, which disconnects the client
+ * even if it never replies to pings (see {@link Client#sendMessage}).<br>
+ * Pings are sent by a separate task from the reaper, so a client that is
+ * slow to accept a ping never delays the reaping of other clients, and
+ * closing the socket of a client stuck on a write frees the thread writing
+ * to it.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Heartbeat {
+
+	/**
+	 * Time (in milliseconds) between checks for dead clients and pings.
+	 */
+	public static final int CHECK_INTERVAL = 1000;
+
+	private CentralServer centralServer;
+
+	/**
+	 * Every connected client.
+	 */
+	private Set<Client> clients;
+
+	/**
+	 * Constructor for a new Heartbeat object, scheduling its pings and reaper.
+	 * 
+	 * @param centralServer
+	 *            the central server whose default settings hold the
+	 *            intervals.
+	 * @param scheduler
+	 *            the scheduler to run the pings and reaper on (needs at least
+	 *            two threads).
+	 */
+	public Heartbeat(CentralServer centralServer,
+			ScheduledExecutorService scheduler) {
+		this.centralServer = centralServer;
+		this.clients = Collections
+				.newSetFromMap(new ConcurrentHashMap<Client, Boolean>());
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				Heartbeat.this.reap();
+			}
+		}, CHECK_INTERVAL, CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				Heartbeat.this.ping();
+			}
+		}, CHECK_INTERVAL, CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts keeping track of a newly connected client.
+	 * 
+	 * @param client
+	 *            the client.
+	 */
+	public void add(Client client) {
+		this.clients.add(client);
+	}
+
+	/**
+	 * Stops keeping track of a client once it has disconnected.
+	 * 
+	 * @param client
+	 *            the client.
+	 */
+	public void remove(Client client) {
+		this.clients.remove(client);
+	}
+
+	/**
+	 * Disconnects clients that haven't sent anything for too long, haven't
+	 * finished the handshake in time or are stuck on a write.
+	 */
+	private void reap() {
+		Settings settings = this.centralServer.getSettings();
+		long now = System.nanoTime();
+		for (Client client : this.clients) {
+			try {
+				String reason = findReason(client, settings, now);
+				if (reason != null) {
+					this.centralServer.println("Disconnecting "
+							+ (client.isInHandshake() ? "client in handshake"
+									: client.getName()) + " " + reason);
+					this.clients.remove(client);
+					client.closeSocket();
+				}
+			} catch (RuntimeException e) {
+				// Keep the reaper running for the other clients
+				this.centralServer.getLog().log(Log.ERROR, null,
+						"Error reaping a client", e);
+			}
+		}
+	}
+
+	/**
+	 * Finds out why a client should be disconnected, if it should.
+	 * 
+	 * @param client
+	 *            the client.
+	 * @param settings
+	 *            the settings holding the timeouts.
+	 * @param now
+	 *            the current time (from {@link System#nanoTime()}).
+	 * @return the reason (e.g. 'after 15 seconds of silence'), or null if the
+	 *         client should stay connected.
+	 */
+	private static String findReason(Client client, Settings settings,
+			long now) {
+		long writingSince = client.getWritingSince();
+		if (writingSince != 0) {
+			long stuck = TimeUnit.NANOSECONDS.toSeconds(now - writingSince);
+			if (stuck >= settings.getWriteTimeout()) {
+				return "after " + stuck + " seconds stuck on a write";
+			}
+		}
+		if (client.isInHandshake()) {
+			long connected = TimeUnit.NANOSECONDS.toSeconds(now
+					- client.getConnectedAt());
+			if (connected >= settings.getHandshakeTimeout()) {
+				return connected + " seconds after connecting";
+			}
+			return null;
+		}
+
+		// Clients that have never replied to a ping may not know how to
+		long silence = TimeUnit.NANOSECONDS.toSeconds(now
+				- client.getLastReceived());
+		if (client.hasAnsweredPing() && silence >= settings.getIdleTimeout()) {
+			return "after " + silence + " seconds of silence";
+		}
+		return null;
+	}
+
+	/**
+	 * Pings every client that has finished the handshake and hasn't been
+	 * pinged for 'ping.interval' seconds. Clients already being written to
+	 * are skipped, so that a client stuck on a write (until the reaper
+	 * disconnects it) doesn't hold up the pings of every other client.
+	 */
+	private void ping() {
+		long interval = TimeUnit.SECONDS.toNanos(this.centralServer
+				.getSettings().getPingInterval());
+		long now = System.nanoTime();
+		for (Client client : this.clients) {
+			if (!client.isInHandshake() && client.isConnected()
+					&& client.getWritingSince() == 0
+					&& now - client.getLastPinged() >= interval) {
+				client.ping(now);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package connection;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import utilities.Clock;
+
+/**
+ * Server-wide leaderboard and player statistics, shared by every game room of
+ * a central server. Updated incrementally as each player's result in a round
+ * is settled, and ordered by coins so that the top players can be read
+ * without looking at every player. Players are told apart by their
+ * {@link Player#getId() id}, so players with the same name in different
+ * rooms each have their own statistics.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Leaderboard {
+
+	/**
+	 * Number of players shown on the leaderboard.
+	 */
+	public static final int SIZE = 10;
+
+	/**
+	 * Minimum time (in milliseconds) between rebuilds of the cached
+	 * leaderboard message.
+	 */
+	public static final int SNAPSHOT_INTERVAL = 1000;
+
+	/**
+	 * Statistics of every player, by player id.
+	 */
+	private ConcurrentHashMap<Long, Stats> stats;
+
+	/**
+	 * Current entry of every player, ordered from most to least coins.
+	 */
+	private ConcurrentSkipListSet<Entry> ranking;
+
+	/**
+	 * Clock giving the age of the cached message.
+	 */
+	private Clock clock;
+
+	// Cached leaderboard message and when it was built
+	private volatile String snapshot;
+	private volatile long snapshotTime;
+	private AtomicBoolean rebuilding;
+
+	/**
+	 * Statistics of a single player. Only changed while holding its lock.
+	 */
+	private static class Stats {
+		private Entry entry;
+		private int hands, wins, biggestWin;
+	}
+
+	/**
+	 * Immutable view of a player's statistics at the time of their last
+	 * result, ordered by coins (most first), then by name and then by player
+	 * id.
+	 */
+	public static class Entry implements Comparable<Entry> {
+		private final long id;
+		private final String name;
+		private final int coins, hands, wins, biggestWin;
+
+		private Entry(long id, String name, int coins, Stats stats) {
+			this.id = id;
+			this.name = name;
+			this.coins = coins;
+			this.hands = stats.hands;
+			this.wins = stats.wins;
+			this.biggestWin = stats.biggestWin;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			if (this.coins != other.coins) {
+				return this.coins > other.coins ? -1 : 1;
+			}
+			int byName = this.name.compareTo(other.name);
+			if (byName != 0) {
+				return byName;
+			}
+			return Long.compare(this.id, other.id);
+		}
+
+		/**
+		 * Get the name of the player.
+		 * 
+		 * @return the player's name.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Get the player's balance after their last result.
+		 * 
+		 * @return the number of coins the player has.
+		 */
+		public int getCoins() {
+			return this.coins;
+		}
+
+		/**
+		 * Get the number of hands the player has had settled.
+		 * 
+		 * @return the number of hands played.
+		 */
+		public int getHands() {
+			return this.hands;
+		}
+
+		/**
+		 * Get the percentage of the player's hands that were won.
+		 * 
+		 * @return the win rate (0-100).
+		 */
+		public int getWinRate() {
+			return this.hands == 0 ? 0 : this.wins * 100 / this.hands;
+		}
+
+		/**
+		 * Get the most coins the player has won in a single hand.
+		 * 
+		 * @return the biggest win in coins.
+		 */
+		public int getBiggestWin() {
+			return this.biggestWin;
+		}
+
+		/**
+		 * Returns the entry in the following format: 'name coins hands
+		 * winRate biggestWin' (e.g. "Bob 1500 42 55 300").
+		 */
+		@Override
+		public String toString() {
+			return this.name + " " + this.coins + " " + this.hands + " "
+					+ this.getWinRate() + " " + this.biggestWin;
+		}
+	}
+
+	/**
+	 * Constructor for a new, empty Leaderboard object.
+	 * 
+	 * @param clock
+	 *            the clock giving the age of the cached message.
+	 */
+	public Leaderboard(Clock clock) {
+		this.clock = clock;
+		this.stats = new ConcurrentHashMap<Long, Stats>();
+		this.ranking = new ConcurrentSkipListSet<Entry>();
+		this.rebuilding = new AtomicBoolean();
+	}
+
+	/**
+	 * Records the settled result of a player's hand.
+	 * 
+	 * @param playerId
+	 *            the id of the player.
+	 * @param name
+	 *            the name of the player.
+	 * @param coins
+	 *            the player's balance after the hand.
+	 * @param startCoins
+	 *            the number of coins the player started with, used if this
+	 *            is their first hand.
+	 * @param won
+	 *            whether or not the player won the hand.
+	 */
+	public void update(long playerId, String name, int coins, int startCoins,
+			boolean won) {
+		Stats playerStats = this.stats.get(playerId);
+		if (playerStats == null) {
+			Stats newStats = new Stats();
+			playerStats = this.stats.putIfAbsent(playerId, newStats);
+			if (playerStats == null) {
+				playerStats = newStats;
+			}
+		}
+
+		synchronized (playerStats) {
+			// Players are new to the leaderboard with the starting coins
+			int previousCoins = playerStats.entry == null ? startCoins
+					: playerStats.entry.coins;
+			playerStats.hands++;
+			if (won) {
+				playerStats.wins++;
+				playerStats.biggestWin = Math.max(playerStats.biggestWin,
+						coins - previousCoins);
+			}
+
+			// Move the player to their new position in the ranking
+			if (playerStats.entry != null) {
+				this.ranking.remove(playerStats.entry);
+			}
+			playerStats.entry = new Entry(playerId, name, coins, playerStats);
+			this.ranking.add(playerStats.entry);
+		}
+	}
+
+	/**
+	 * Gets the current statistics of a player.
+	 * 
+	 * @param playerId
+	 *            the id of the player.
+	 * @return the player's statistics, or null if they have not had a hand
+	 *         settled yet.
+	 */
+	public Entry getStats(long playerId) {
+		Stats playerStats = this.stats.get(playerId);
+		if (playerStats == null) {
+			return null;
+		}
+		synchronized (playerStats) {
+			return playerStats.entry;
+		}
+	}
+
+	/**
+	 * Gets the leaderboard message to send to clients. The message is rebuilt
+	 * at most once every {@link #SNAPSHOT_INTERVAL} milliseconds; in between,
+	 * and while another thread is rebuilding it, the cached message is
+	 * returned.
+	 * 
+	 * @return the leaderboard message.
+	 */
+	public String getSnapshot() {
+		if ((this.snapshot == null || this.clock.currentTimeMillis()
+				- this.snapshotTime >= SNAPSHOT_INTERVAL)
+				&& this.rebuilding.compareAndSet(false, true)) {
+			try {
+				this.snapshot = this.buildSnapshot();
+				this.snapshotTime = this.clock.currentTimeMillis();
+			} finally {
+				this.rebuilding.set(false);
+			}
+		}
+
+		// Another thread is building the first snapshot
+		String current = this.snapshot;
+		return current == null ? this.buildSnapshot() : current;
+	}
+
+	/**
+	 * Builds the leaderboard message from the top players using the following
+	 * format: '% LEADERBOARD n entry1 // entry2 // ...' where each entry is
+	 * 'name coins hands winRate biggestWin'.
+	 * 
+	 * @return the leaderboard message.
+	 */
+	private String buildSnapshot() {
+		StringBuilder message = new StringBuilder("% LEADERBOARD ");
+		StringBuilder entries = new StringBuilder();
+		int noOfEntries = 0;
+		Iterator<Entry> iterator = this.ranking.iterator();
+		while (noOfEntries < SIZE && iterator.hasNext()) {
+			entries.append(' ').append(iterator.next()).append(" //");
+			noOfEntries++;
+		}
+		return message.append(noOfEntries).append(entries).toString();
+	}
+}
\ No newline at end of file
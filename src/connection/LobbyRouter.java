@@ -0,0 +1,441 @@
+package connection;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import utilities.Settings;
+import utilities.Validator;
+
+/**
+ * Lightweight lobby that spreads clients over several room servers, each
+ * being a separate {@link CentralServer} process, so that the number of rooms
+ * is no longer limited by a single process.<br>
+ * The router performs the name and PLAY/SPECTATE handshake itself, picks the
+ * room server with the fewest connections, replays the handshake to it and
+ * then splices the two connections together, copying bytes in both
+ * directions until either side disconnects.<br>
+ * New connections are admitted with the connection limits of the default
+ * profile of the settings file (read once at startup), and have
+ * 'handshake.timeout' seconds from connecting to finish the handshake before
+ * being disconnected.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class LobbyRouter {
+
+	/**
+	 * Time (in milliseconds) a room server is skipped after a connection to
+	 * it fails.
+	 */
+	public static final int RETRY_DELAY = 5000;
+
+	/**
+	 * Size of the buffers used to copy bytes between connections.
+	 */
+	private static final int BUFFER_SIZE = 4096;
+
+	/**
+	 * Length of the longest line accepted in the handshake ('PLAY' followed
+	 * by a 16 character profile name, which is longer than any valid name).
+	 * A client sending a longer line is disconnected.
+	 */
+	private static final int MAX_LINE_LENGTH = 21;
+
+	/**
+	 * Number of invalid lines a client can send in the handshake before being
+	 * disconnected.
+	 */
+	private static final int MAX_INVALID_LINES = 5;
+
+	private ServerSocket socket;
+	private Worker[] workers;
+	private Settings settings;
+	private AdmissionControl admission;
+
+	/**
+	 * A room server behind the router.
+	 */
+	private static class Worker {
+		private InetSocketAddress address;
+
+		/**
+		 * Number of clients currently connected through the router.
+		 */
+		private AtomicInteger connections = new AtomicInteger();
+
+		/**
+		 * Time (from System#currentTimeMillis()) until which the room server
+		 * is skipped because a connection to it failed.
+		 */
+		private volatile long unavailableUntil;
+	}
+
+	/**
+	 * Starts a lobby router.<br>
+	 * Usage: 'router port host:port host:port ...', with one 'host:port' for
+	 * each room server. Room server n (starting at 1) should be started with
+	 * 'port n' so that its room numbers line up with the router.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.err.println("Usage: router port host:port host:port ...");
+			return;
+		}
+		ArrayList<InetSocketAddress> workers = new ArrayList<InetSocketAddress>();
+		for (int arg = 2; arg < args.length; arg++) {
+			String[] address = args[arg].split(":");
+			workers.add(new InetSocketAddress(address[0], Integer
+					.parseInt(address[1])));
+		}
+		try {
+			new LobbyRouter(Integer.parseInt(args[1]), workers,
+					loadSettings(new File(SettingsRegistry.FILE_NAME)))
+					.acceptClients();
+		} catch (IOException e) {
+			System.err.println("Error creating a new server socket on port "
+					+ args[1]);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Loads the default profile of the settings file, which holds the
+	 * router's connection limits.
+	 * 
+	 * @param file
+	 *            the properties file to load.
+	 * @return the settings, or the default settings if the file doesn't
+	 *         exist or can't be loaded.
+	 */
+	private static Settings loadSettings(File file) {
+		if (!file.exists()) {
+			return Settings.DEFAULTS;
+		}
+		Properties properties = new Properties();
+		try (InputStream input = new FileInputStream(file)) {
+			properties.load(input);
+			return Settings.load(properties, "", Settings.DEFAULTS);
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Error loading " + file
+					+ ", using the default settings");
+			return Settings.DEFAULTS;
+		}
+	}
+
+	/**
+	 * Constructor for a new LobbyRouter object.
+	 * 
+	 * @param port
+	 *            the port to accept clients on.
+	 * @param workers
+	 *            the addresses of the room servers, room server n (starting
+	 *            at 1) hosting room numbers starting at n *
+	 *            {@link CentralServer#ROOMS_PER_WORKER}.
+	 * @param settings
+	 *            the settings holding the connection limits and handshake
+	 *            timeout.
+	 * @throws IOException
+	 *             if the port could not be opened.
+	 */
+	public LobbyRouter(int port, ArrayList<InetSocketAddress> workers,
+			Settings settings) throws IOException {
+		this.socket = new ServerSocket(port);
+		this.settings = settings;
+		this.admission = new AdmissionControl(settings);
+		this.workers = new Worker[workers.size()];
+		for (int workerNo = 0; workerNo < this.workers.length; workerNo++) {
+			this.workers[workerNo] = new Worker();
+			this.workers[workerNo].address = workers.get(workerNo);
+		}
+	}
+
+	/**
+	 * Accepts new clients forever, handling each client that is admitted on
+	 * its own thread and rejecting the rest with '% FULL'.
+	 */
+	public void acceptClients() {
+		System.out.println("Routing clients to " + this.workers.length
+				+ " room servers");
+		while (true) {
+			try {
+				final Socket client = this.socket.accept();
+				final long deadline = System.currentTimeMillis()
+						+ this.settings.getHandshakeTimeout() * 1000L;
+				if (!this.admission.admit(client.getInetAddress())) {
+					CentralServer.reject(client);
+					continue;
+				}
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						LobbyRouter.this.route(client, deadline);
+					}
+				}).start();
+			} catch (IOException e) {
+				System.err.println("Error connecting to client");
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Performs the handshake with a client, connects it to a room server and
+	 * copies everything between the two until either disconnects.
+	 * 
+	 * @param client
+	 *            the client's socket.
+	 * @param deadline
+	 *            the time (in milliseconds) by which the client must finish
+	 *            the handshake.
+	 */
+	private void route(Socket client, long deadline) {
+		Socket room = null;
+		Worker worker = null;
+		boolean spliced = false;
+		boolean inHandshake = true;
+		int invalidLines = 0;
+		try {
+			InputStream clientInput = new BufferedInputStream(
+					client.getInputStream());
+			OutputStream clientOutput = client.getOutputStream();
+
+			// Get a valid name
+			String name = null;
+			while (name == null) {
+				String line = readLine(client, clientInput, deadline);
+				if (line == null) {
+					return;
+				}
+				if (Validator.isValidName(line)) {
+					name = line;
+				} else if (++invalidLines == MAX_INVALID_LINES) {
+					return;
+				} else {
+					writeLine(clientOutput, "% FORMATERROR");
+				}
+			}
+
+			// Get whether the client wants to play or watch, and pick the room
+			// server for it
+			String type = null;
+			while (worker == null) {
+				type = readLine(client, clientInput, deadline);
+				if (type == null) {
+					return;
+				}
+				if (type.equalsIgnoreCase("PLAY")
+						|| Validator.isPlayProfile(type)
+						|| type.equalsIgnoreCase("SPECTATE")) {
+					worker = this.leastLoadedWorker();
+				} else if (Validator.isSpectateRoom(type)) {
+					worker = this.roomWorker(Integer.parseInt(type
+							.substring(9)));
+				}
+				if (worker == null) {
+					if (++invalidLines == MAX_INVALID_LINES) {
+						return;
+					}
+					writeLine(clientOutput, "% FORMATERROR");
+				}
+			}
+
+			// Connect to the room server and replay the handshake
+			room = new Socket();
+			try {
+				room.connect(worker.address);
+			} catch (IOException e) {
+				worker.unavailableUntil = System.currentTimeMillis()
+						+ RETRY_DELAY;
+				throw e;
+			}
+			room.setTcpNoDelay(true);
+			client.setTcpNoDelay(true);
+			client.setSoTimeout(0);
+			inHandshake = false;
+			this.admission.finishHandshake();
+			writeLine(room.getOutputStream(), name);
+			writeLine(room.getOutputStream(), type);
+
+			// Copy the room server's messages to the client on a new thread
+			// and the client's messages (including any already buffered) to
+			// the room server on this one
+			worker.connections.incrementAndGet();
+			spliced = true;
+			final Socket from = room;
+			Thread toClient = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						copy(from.getInputStream(), client.getOutputStream());
+					} catch (IOException e) {
+						// Either side disconnected
+					}
+					close(client);
+					close(from);
+				}
+			});
+			toClient.start();
+			copy(clientInput, room.getOutputStream());
+		} catch (IOException e) {
+			// Either side disconnected
+		} finally {
+			if (spliced) {
+				worker.connections.decrementAndGet();
+			}
+			this.admission.release(client.getInetAddress(), inHandshake);
+			close(client);
+			if (room != null) {
+				close(room);
+			}
+		}
+	}
+
+	/**
+	 * Picks the available room server with the fewest clients.
+	 * 
+	 * @return the room server, or null if none are available.
+	 */
+	private Worker leastLoadedWorker() {
+		long now = System.currentTimeMillis();
+		Worker best = null;
+		for (Worker worker : this.workers) {
+			if (worker.unavailableUntil <= now
+					&& (best == null || worker.connections.get() < best.connections
+							.get())) {
+				best = worker;
+			}
+		}
+
+		// Try every room server again if they all failed recently
+		if (best == null && this.workers.length > 0) {
+			best = this.workers[0];
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the room server hosting a specific room.
+	 * 
+	 * @param roomNo
+	 *            the number of the room.
+	 * @return the room server, or null if there isn't one for the room.
+	 */
+	private Worker roomWorker(int roomNo) {
+		int workerNo = roomNo / CentralServer.ROOMS_PER_WORKER;
+		if (workerNo < 1 || workerNo > this.workers.length) {
+			return null;
+		}
+		return this.workers[workerNo - 1];
+	}
+
+	/**
+	 * Reads a line of the handshake without reading ahead, so that anything
+	 * sent after the line is left in the stream to be copied to the room
+	 * server. The socket's read timeout is set to the time left before the
+	 * deadline before every read, so that a client sending a byte every few
+	 * seconds can't hold on to its thread.
+	 * 
+	 * @param client
+	 *            the client's socket.
+	 * @param input
+	 *            the stream to read from.
+	 * @param deadline
+	 *            the time (in milliseconds) by which the handshake must end.
+	 * @return the line, or null if the stream ended or the line is longer
+	 *         than {@link #MAX_LINE_LENGTH}.
+	 * @throws IOException
+	 *             if the stream could not be read (including the deadline
+	 *             passing).
+	 */
+	private static String readLine(Socket client, InputStream input,
+			long deadline) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int next = 0;
+		while (next != '\n') {
+			long timeLeft = deadline - System.currentTimeMillis();
+			if (timeLeft <= 0) {
+				throw new SocketTimeoutException("Handshake timed out");
+			}
+			client.setSoTimeout((int) timeLeft);
+			next = input.read();
+			if (next == -1) {
+				return null;
+			}
+			if (next != '\r' && next != '\n') {
+				if (line.size() == MAX_LINE_LENGTH) {
+					return null;
+				}
+				line.write(next);
+			}
+		}
+		return new String(line.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a line to a stream.
+	 * 
+	 * @param output
+	 *            the stream to write to.
+	 * @param line
+	 *            the line to write.
+	 * @throws IOException
+	 *             if the stream could not be written to.
+	 */
+	private static void writeLine(OutputStream output, String line)
+			throws IOException {
+		output.write((line + System.lineSeparator())
+				.getBytes(StandardCharsets.UTF_8));
+		output.flush();
+	}
+
+	/**
+	 * Copies bytes from one stream to another until the first one ends.
+	 * 
+	 * @param input
+	 *            the stream to copy from.
+	 * @param output
+	 *            the stream to copy to.
+	 * @throws IOException
+	 *             if either stream fails.
+	 */
+	private static void copy(InputStream input, OutputStream output)
+			throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+			output.flush();
+		}
+	}
+
+	/**
+	 * Closes a socket, ignoring any errors.
+	 * 
+	 * @param socket
+	 *            the socket to close.
+	 */
+	private static void close(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			// Already closed
+		}
+	}
+}
\ No newline at end of file
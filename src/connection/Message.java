@@ -1,82 +1,134 @@
-package connection;
-
-/**
- * Object to hold the destination and content of message.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 3, 2015
- */
-public class Message {
-
-	/**
-	 * Constant variable to represent sending a message to every client (-1).
-	 */
-	public static final int ALL_CLIENTS = -1;
-
-	private String message;
-	private int playerNo;
-	private int ignoredPlayer;
-
-	/**
-	 * Constructor for a new Message object.
-	 * 
-	 * @param playerNo
-	 *            the player number of the receiver of the message. Set to
-	 *            Message.ALL_CLIENTS if all clients should receive message.
-	 * @param message
-	 *            the message to be sent.
-	 */
-	public Message(int playerNo, String message) {
-		this.playerNo = playerNo;
-		this.message = message;
-		this.ignoredPlayer = -2;
-	}
-
-	/**
-	 * Constructor for a new Message object with a 'ALL_CLIENTS' flag and
-	 * instructions to ignore a specific player.
-	 * 
-	 * @param playerNo
-	 *            the player number of the receiver of the message. Set to
-	 *            Message.ALL_CLIENTS if all clients should receive message.
-	 * @param ignoredPlayer
-	 *            the player number associated with the player which to ignore. <br>
-	 *            This is should only be used if the playerNo is set to
-	 *            'Message.ALL_CLIENTS'.
-	 * @param message
-	 *            the message to be sent.
-	 */
-	public Message(int playerNo, int ignoredPlayer, String message) {
-		this.playerNo = playerNo;
-		this.message = message;
-		this.ignoredPlayer = ignoredPlayer;
-	}
-
-	/**
-	 * Get the message to be sent.
-	 * 
-	 * @return the message to be sent.
-	 */
-	public String getMessage() {
-		return message;
-	}
-
-	/**
-	 * Getter for ignored player.
-	 * 
-	 * @return player number associated with player which to not send this
-	 *         message to.
-	 */
-	public int getIgnoredPlayer() {
-		return this.ignoredPlayer;
-	}
-
-	/**
-	 * Get the destination of the message (player number).
-	 * 
-	 * @return the player number of the receiver of the message.
-	 */
-	public int getPlayerNo() {
-		return playerNo;
-	}
+package connection;
+
+/**
+ * Object to hold the destination and content of message.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 3, 2015
+ */
+public class Message {
+
+	/**
+	 * Constant variable to represent sending a message to every client (-1).
+	 */
+	public static final int ALL_CLIENTS = -1;
+
+	private String message;
+	private int playerNo;
+	private int ignoredPlayer;
+
+	/**
+	 * Whether or not the message can be skipped for spectators who are
+	 * falling behind.
+	 */
+	private boolean cosmetic;
+
+	/**
+	 * Time (from the room's clock) that the message was queued.
+	 */
+	private long queuedAt;
+
+	/**
+	 * Constructor for a new Message object.
+	 * 
+	 * @param playerNo
+	 *            the player number of the receiver of the message. Set to
+	 *            Message.ALL_CLIENTS if all clients should receive message.
+	 * @param message
+	 *            the message to be sent.
+	 */
+	public Message(int playerNo, String message) {
+		this.playerNo = playerNo;
+		this.message = message;
+		this.ignoredPlayer = -2;
+	}
+
+	/**
+	 * Constructor for a new Message object with a 'ALL_CLIENTS' flag and
+	 * instructions to ignore a specific player.
+	 * 
+	 * @param playerNo
+	 *            the player number of the receiver of the message. Set to
+	 *            Message.ALL_CLIENTS if all clients should receive message.
+	 * @param ignoredPlayer
+	 *            the player number associated with the player which to ignore. <br>
+	 *            This is should only be used if the playerNo is set to
+	 *            'Message.ALL_CLIENTS'.
+	 * @param message
+	 *            the message to be sent.
+	 */
+	public Message(int playerNo, int ignoredPlayer, String message) {
+		this.playerNo = playerNo;
+		this.message = message;
+		this.ignoredPlayer = ignoredPlayer;
+	}
+
+	/**
+	 * Get the message to be sent.
+	 * 
+	 * @return the message to be sent.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Getter for ignored player.
+	 * 
+	 * @return player number associated with player which to not send this
+	 *         message to.
+	 */
+	public int getIgnoredPlayer() {
+		return this.ignoredPlayer;
+	}
+
+	/**
+	 * Check whether the message can be skipped for spectators who are falling
+	 * behind (e.g. players becoming ready or placing bets).
+	 * 
+	 * @return whether or not the message is cosmetic.
+	 */
+	public boolean isCosmetic() {
+		return this.cosmetic;
+	}
+
+	/**
+	 * Set whether the message can be skipped for spectators who are falling
+	 * behind.
+	 * 
+	 * @param cosmetic
+	 *            whether or not the message is cosmetic.
+	 */
+	public void setCosmetic(boolean cosmetic) {
+		this.cosmetic = cosmetic;
+	}
+
+	/**
+	 * Get the time that the message was queued, for measuring how long it
+	 * waited to be sent.
+	 * 
+	 * @return the time (from the room's clock) in nanoseconds.
+	 */
+	public long getQueuedAt() {
+		return this.queuedAt;
+	}
+
+	/**
+	 * Set the time that the message was queued.
+	 * 
+	 * @param queuedAt
+	 *            the time (from the room's clock) in nanoseconds.
+	 */
+	public void setQueuedAt(long queuedAt) {
+		this.queuedAt = queuedAt;
+	}
+
+	/**
+	 * Get the destination of the message (player number).
+	 * 
+	 * @return the player number of the receiver of the message.
+	 */
+	public int getPlayerNo() {
+		return playerNo;
+	}
 }
\ No newline at end of file
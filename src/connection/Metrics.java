@@ -0,0 +1,320 @@
+package connection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.Histogram;
+
+/**
+ * Counters of events across every game room of a central server, kept so
+ * that the server's behaviour under load can be monitored.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Metrics {
+	private AtomicLong commands, throttledCommands, floodDisconnects;
+
+	/**
+	 * Audit of the players' wallets: changes made, bets turned down for
+	 * lack of coins, changes retried because of another change at the same
+	 * time, and coins paid to and taken from players.
+	 */
+	private AtomicLong walletChanges, rejectedReserves, contendedChanges,
+			coinsPaid, coinsTaken;
+
+	/**
+	 * Rounds started, bets placed (including doubling down) and bets won and
+	 * lost.
+	 */
+	private AtomicLong rounds, bets, wins, losses;
+
+	/**
+	 * Time from a broadcast being queued to it being written to the seated
+	 * players' sockets. Messages to a single player aren't recorded.
+	 */
+	private Histogram broadcastLatency;
+
+	/**
+	 * Time from a player's '% n turn' line being queued to their move being
+	 * applied.
+	 */
+	private Histogram decisionTime;
+
+	/**
+	 * Time from the start of a round's betting to its standings.
+	 */
+	private Histogram roundDuration;
+
+	/**
+	 * Time taken to refill and shuffle a shoe.
+	 */
+	private Histogram shoeReload;
+
+	/**
+	 * Constructor for a new Metrics object with every counter at zero.
+	 */
+	public Metrics() {
+		this.commands = new AtomicLong();
+		this.throttledCommands = new AtomicLong();
+		this.floodDisconnects = new AtomicLong();
+		this.walletChanges = new AtomicLong();
+		this.rejectedReserves = new AtomicLong();
+		this.contendedChanges = new AtomicLong();
+		this.coinsPaid = new AtomicLong();
+		this.coinsTaken = new AtomicLong();
+		this.rounds = new AtomicLong();
+		this.bets = new AtomicLong();
+		this.wins = new AtomicLong();
+		this.losses = new AtomicLong();
+		this.broadcastLatency = new Histogram(0.001, 0.005, 0.01, 0.05, 0.1,
+				0.25, 0.5, 1, 2.5, 5, 10, 30, 60);
+		this.decisionTime = new Histogram(0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30,
+				60, 120);
+		this.roundDuration = new Histogram(1, 5, 10, 15, 30, 60, 120, 300,
+				600);
+		this.shoeReload = new Histogram(0.00001, 0.00005, 0.0001, 0.0005,
+				0.001, 0.005, 0.01, 0.05);
+	}
+
+	/**
+	 * Counts a message from a client that was accepted by its rate limit.
+	 */
+	public void commandAccepted() {
+		this.commands.incrementAndGet();
+	}
+
+	/**
+	 * Counts a message from a client that was dropped for going over its
+	 * rate limit.
+	 */
+	public void commandThrottled() {
+		this.throttledCommands.incrementAndGet();
+	}
+
+	/**
+	 * Counts a client disconnected for sending too many messages over its rate
+	 * limit.
+	 */
+	public void floodDisconnect() {
+		this.floodDisconnects.incrementAndGet();
+	}
+
+	/**
+	 * Counts a change to a player's wallet.
+	 */
+	public void walletChanged() {
+		this.walletChanges.incrementAndGet();
+	}
+
+	/**
+	 * Counts coins that a player didn't have being asked to be reserved.
+	 */
+	public void reserveRejected() {
+		this.rejectedReserves.incrementAndGet();
+	}
+
+	/**
+	 * Counts a change to a player's wallet retried because the wallet was
+	 * changed at the same time.
+	 */
+	public void walletContended() {
+		this.contendedChanges.incrementAndGet();
+	}
+
+	/**
+	 * Adds coins won by a player to the audit.
+	 * 
+	 * @param coins
+	 *            the number of coins won.
+	 */
+	public void coinsPaid(long coins) {
+		this.coinsPaid.addAndGet(coins);
+	}
+
+	/**
+	 * Adds coins lost by a player to the audit.
+	 * 
+	 * @param coins
+	 *            the number of coins lost.
+	 */
+	public void coinsTaken(long coins) {
+		this.coinsTaken.addAndGet(coins);
+	}
+
+	/**
+	 * Counts a round started in any room.
+	 */
+	public void roundStarted() {
+		this.rounds.incrementAndGet();
+	}
+
+	/**
+	 * Counts a bet placed or doubled.
+	 */
+	public void betPlaced() {
+		this.bets.incrementAndGet();
+	}
+
+	/**
+	 * Counts a bet settled as won or lost.
+	 * 
+	 * @param won
+	 *            whether or not the bet was won.
+	 */
+	public void betSettled(boolean won) {
+		if (won) {
+			this.wins.incrementAndGet();
+		} else {
+			this.losses.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Get the number of messages from clients accepted by their rate limit.
+	 * 
+	 * @return the number of accepted messages.
+	 */
+	public long getCommands() {
+		return this.commands.get();
+	}
+
+	/**
+	 * Get the number of messages from clients dropped for going over their
+	 * rate limit.
+	 * 
+	 * @return the number of dropped messages.
+	 */
+	public long getThrottledCommands() {
+		return this.throttledCommands.get();
+	}
+
+	/**
+	 * Get the number of clients disconnected for sending too many messages
+	 * over their rate limit.
+	 * 
+	 * @return the number of disconnected clients.
+	 */
+	public long getFloodDisconnects() {
+		return this.floodDisconnects.get();
+	}
+
+	/**
+	 * Get the number of changes made to players' wallets.
+	 * 
+	 * @return the number of wallet changes.
+	 */
+	public long getWalletChanges() {
+		return this.walletChanges.get();
+	}
+
+	/**
+	 * Get the number of times coins couldn't be reserved because the player
+	 * didn't have them.
+	 * 
+	 * @return the number of rejected reserves.
+	 */
+	public long getRejectedReserves() {
+		return this.rejectedReserves.get();
+	}
+
+	/**
+	 * Get the number of changes to players' wallets retried because of
+	 * another change at the same time.
+	 * 
+	 * @return the number of retried changes.
+	 */
+	public long getContendedChanges() {
+		return this.contendedChanges.get();
+	}
+
+	/**
+	 * Get the total number of coins won by players.
+	 * 
+	 * @return the number of coins paid.
+	 */
+	public long getCoinsPaid() {
+		return this.coinsPaid.get();
+	}
+
+	/**
+	 * Get the total number of coins lost by players.
+	 * 
+	 * @return the number of coins taken.
+	 */
+	public long getCoinsTaken() {
+		return this.coinsTaken.get();
+	}
+
+	/**
+	 * Get the number of rounds started.
+	 * 
+	 * @return the number of rounds.
+	 */
+	public long getRounds() {
+		return this.rounds.get();
+	}
+
+	/**
+	 * Get the number of bets placed or doubled.
+	 * 
+	 * @return the number of bets.
+	 */
+	public long getBets() {
+		return this.bets.get();
+	}
+
+	/**
+	 * Get the number of bets won by players.
+	 * 
+	 * @return the number of won bets.
+	 */
+	public long getWins() {
+		return this.wins.get();
+	}
+
+	/**
+	 * Get the number of bets lost by players.
+	 * 
+	 * @return the number of lost bets.
+	 */
+	public long getLosses() {
+		return this.losses.get();
+	}
+
+	/**
+	 * Get the time from broadcasts being queued to being written to the
+	 * seated players.
+	 * 
+	 * @return the broadcast latency.
+	 */
+	public Histogram getBroadcastLatency() {
+		return this.broadcastLatency;
+	}
+
+	/**
+	 * Get the time players take to make a move once it is their turn.
+	 * 
+	 * @return the decision time.
+	 */
+	public Histogram getDecisionTime() {
+		return this.decisionTime;
+	}
+
+	/**
+	 * Get the time taken by each round.
+	 * 
+	 * @return the round duration.
+	 */
+	public Histogram getRoundDuration() {
+		return this.roundDuration;
+	}
+
+	/**
+	 * Get the time taken to refill and shuffle a shoe.
+	 * 
+	 * @return the shoe reload time.
+	 */
+	public Histogram getShoeReload() {
+		return this.shoeReload;
+	}
+}
\ No newline at end of file
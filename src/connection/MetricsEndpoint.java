@@ -0,0 +1,353 @@
+package connection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import gameplay.Dealer;
+import gameplay.OddsEngine;
+import gameplay.PhaseStats;
+import gameplay.RoundTrace;
+import gameplay.RoundTracer;
+import utilities.HandArchive;
+import utilities.Histogram;
+
+/**
+ * HTTP endpoint serving the central server's metrics in the Prometheus text
+ * format at '/metrics', and a report of where round time goes at '/rounds',
+ * on the JDK's built-in HTTP server. <br>
+ * Only started when the 'metrics.port' setting isn't 0. The text is built
+ * when the endpoint is scraped, from counters and histograms that the game
+ * keeps anyway, so the game's threads never wait for a scrape; scrapes are
+ * answered one at a time on the HTTP server's own thread.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class MetricsEndpoint {
+
+	/**
+	 * Path that the metrics are served at.
+	 */
+	public static final String PATH = "/metrics";
+
+	/**
+	 * Path that the stage times of rounds and the slow rounds are served at.
+	 */
+	public static final String ROUNDS_PATH = "/rounds";
+
+	/**
+	 * Content type of the rounds report.
+	 */
+	public static final String TEXT_TYPE = "text/plain; charset=utf-8";
+
+	/**
+	 * Content type of the Prometheus text format.
+	 */
+	public static final String CONTENT_TYPE =
+			"text/plain; version=0.0.4; charset=utf-8";
+
+	private CentralServer centralServer;
+	private HttpServer httpServer;
+
+	/**
+	 * Constructor for a new MetricsEndpoint object, binding its port. The
+	 * endpoint answers once {@link #start()} is called.
+	 * 
+	 * @param centralServer
+	 *            the central server whose metrics are served.
+	 * @param port
+	 *            the port to listen on.
+	 * @throws IOException
+	 *             if the port can't be bound.
+	 */
+	public MetricsEndpoint(CentralServer centralServer, int port)
+			throws IOException {
+		this.centralServer = centralServer;
+		this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+		this.httpServer.createContext(PATH, new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				MetricsEndpoint.this.answer(exchange, false);
+			}
+		});
+		this.httpServer.createContext(ROUNDS_PATH, new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				MetricsEndpoint.this.answer(exchange, true);
+			}
+		});
+	}
+
+	/**
+	 * Starts answering scrapes.
+	 */
+	public void start() {
+		this.httpServer.start();
+	}
+
+	/**
+	 * Stops answering scrapes and frees the port.
+	 */
+	public void stop() {
+		this.httpServer.stop(0);
+	}
+
+	/**
+	 * Answers a request with the current metrics or the rounds report (or
+	 * '405' for anything but GET and HEAD).
+	 * 
+	 * @param exchange
+	 *            the request and its response.
+	 * @param rounds
+	 *            whether to answer with the rounds report instead of the
+	 *            metrics.
+	 * @throws IOException
+	 *             if the response can't be sent.
+	 */
+	private void answer(HttpExchange exchange, boolean rounds)
+			throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			if (!method.equals("GET") && !method.equals("HEAD")) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			String text = rounds ? this.reportRounds() : this.scrape();
+			byte[] body = text.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type",
+					rounds ? TEXT_TYPE : CONTENT_TYPE);
+			if (method.equals("HEAD")) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			OutputStream output = exchange.getResponseBody();
+			output.write(body);
+			output.flush();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Builds the text of every metric.
+	 * 
+	 * @return the metrics in the Prometheus text format.
+	 */
+	String scrape() {
+		StringBuilder out = new StringBuilder(4096);
+		CentralServer centralServer = this.centralServer;
+		Metrics metrics = centralServer.getMetrics();
+
+		// Connections
+		AdmissionControl admission = centralServer.getAdmission();
+		gauge(out, "blackjack_connections",
+				"Clients currently connected.", admission.getConnections());
+		gauge(out, "blackjack_handshakes",
+				"Clients that haven't finished the handshake.",
+				admission.getHandshakes());
+		counter(out, "blackjack_connections_admitted_total",
+				"Connections admitted.", admission.getAdmittedConnections());
+		counter(out, "blackjack_connections_rejected_total",
+				"Connections rejected for being over a limit.",
+				admission.getRejectedConnections());
+		counter(out, "blackjack_commands_total",
+				"Messages from clients accepted by their rate limit.",
+				metrics.getCommands());
+		counter(out, "blackjack_commands_throttled_total",
+				"Messages from clients dropped for going over their rate limit.",
+				metrics.getThrottledCommands());
+		counter(out, "blackjack_flood_disconnects_total",
+				"Clients disconnected for flooding.",
+				metrics.getFloodDisconnects());
+
+		// Rooms
+		RoomPool roomPool = centralServer.getRoomPool();
+		gauge(out, "blackjack_rooms", "Game rooms open.",
+				centralServer.getNoOfRooms());
+		gauge(out, "blackjack_room_pool_target",
+				"Idle rooms kept for each settings profile.",
+				roomPool.getTarget());
+		counter(out, "blackjack_room_pool_hits_total",
+				"Rooms taken from the idle rooms.", roomPool.getHits());
+		counter(out, "blackjack_room_pool_misses_total",
+				"Rooms created because there were no idle rooms.",
+				roomPool.getMisses());
+		counter(out, "blackjack_room_pool_recycled_total",
+				"Rooms kept to be used again after their game was over.",
+				roomPool.getRecycled());
+
+		// Rounds, bets and settlements
+		counter(out, "blackjack_rounds_total", "Rounds started.",
+				metrics.getRounds());
+		counter(out, "blackjack_bets_total", "Bets placed or doubled.",
+				metrics.getBets());
+		out.append("# HELP blackjack_settlements_total Bets settled.\n");
+		out.append("# TYPE blackjack_settlements_total counter\n");
+		out.append("blackjack_settlements_total{result=\"win\"} ")
+				.append(metrics.getWins()).append('\n');
+		out.append("blackjack_settlements_total{result=\"loss\"} ")
+				.append(metrics.getLosses()).append('\n');
+		counter(out, "blackjack_coins_paid_total", "Coins won by players.",
+				metrics.getCoinsPaid());
+		counter(out, "blackjack_coins_taken_total", "Coins lost by players.",
+				metrics.getCoinsTaken());
+		counter(out, "blackjack_wallet_changes_total",
+				"Changes made to players' wallets.",
+				metrics.getWalletChanges());
+		counter(out, "blackjack_wallet_rejected_reserves_total",
+				"Bets turned down for lack of coins.",
+				metrics.getRejectedReserves());
+		counter(out, "blackjack_wallet_contended_changes_total",
+				"Wallet changes retried because of another change.",
+				metrics.getContendedChanges());
+
+		// Messages dropped or skipped along the way
+		SpectatorFanout fanout = centralServer.getSpectatorFanout();
+		counter(out, "blackjack_spectator_skipped_messages_total",
+				"Cosmetic messages skipped for slow spectators.",
+				fanout.getSkippedMessages());
+		counter(out, "blackjack_spectator_dropped_total",
+				"Spectators disconnected for falling behind.",
+				fanout.getDroppedSpectators());
+		OddsEngine oddsEngine = centralServer.getOddsEngine();
+		counter(out, "blackjack_odds_cache_hits_total",
+				"Dealer results found in the odds cache.",
+				oddsEngine.getCacheHits());
+		counter(out, "blackjack_odds_cache_misses_total",
+				"Dealer results worked out for the odds cache.",
+				oddsEngine.getCacheMisses());
+		counter(out, "blackjack_odds_dropped_total",
+				"Tables dropped because the odds engine was behind.",
+				oddsEngine.getDropped());
+		counter(out, "blackjack_log_dropped_total",
+				"Log lines dropped because the buffer was full.",
+				centralServer.getLog().getDropped());
+		HandArchive handArchive = centralServer.getHandArchive();
+		if (handArchive != null) {
+			counter(out, "blackjack_archive_dropped_hands_total",
+					"Hands dropped because the archive writer fell behind.",
+					handArchive.getDroppedHands());
+		}
+
+		// Latency
+		metrics.getBroadcastLatency().write(out,
+				"blackjack_broadcast_latency_seconds",
+				"Time from a broadcast being queued to being written to the "
+						+ "seated players.");
+		metrics.getDecisionTime().write(out,
+				"blackjack_decision_time_seconds",
+				"Time from a player's turn to their move being applied.");
+		metrics.getRoundDuration().write(out,
+				"blackjack_round_duration_seconds",
+				"Time from the start of betting to the standings.");
+		metrics.getShoeReload().write(out, "blackjack_shoe_reload_seconds",
+				"Time taken to refill and shuffle a shoe.");
+
+		// Where round time goes
+		RoundTracer roundTracer = centralServer.getRoundTracer();
+		PhaseStats phaseStats = roundTracer.getPhaseStats();
+		Histogram.writeHeader(out, "blackjack_round_phase_seconds",
+				"Time spent in each stage of a round.");
+		for (Dealer.State phase : Dealer.State.values()) {
+			phaseStats.getPhase(phase).writeSeries(out,
+					"blackjack_round_phase_seconds", "phase=\""
+							+ phase.toString().toLowerCase() + "\",");
+		}
+		counter(out, "blackjack_slow_rounds_total",
+				"Rounds over their room's slow round time.",
+				roundTracer.getNoOfSlowRounds());
+		return out.toString();
+	}
+
+	/**
+	 * Builds the rounds report: the estimated percentiles of the time spent
+	 * in each stage of a round across every room and for each room in use,
+	 * followed by the traces of the last slow rounds.
+	 * 
+	 * @return the report.
+	 */
+	String reportRounds() {
+		StringBuilder out = new StringBuilder(4096);
+		RoundTracer roundTracer = this.centralServer.getRoundTracer();
+		out.append("All rooms:\n");
+		roundTracer.getPhaseStats().describe(out);
+		for (Server room : this.centralServer.getRooms()) {
+			Dealer dealer = room.getDealer();
+			if (dealer != null) {
+				out.append("Room ").append(room.getRoomNo()).append(":\n");
+				dealer.getPhaseStats().describe(out);
+			}
+		}
+		out.append("Slow rounds (").append(roundTracer.getNoOfSlowRounds())
+				.append(" in total, last ").append(RoundTracer.CAPACITY)
+				.append(" kept):\n");
+		for (RoundTrace trace : roundTracer.getSlowRounds()) {
+			out.append("  ").append(trace).append('\n');
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Adds a counter to the text.
+	 * 
+	 * @param out
+	 *            the text.
+	 * @param name
+	 *            the name of the counter (ending in '_total').
+	 * @param help
+	 *            the description of the counter.
+	 * @param value
+	 *            the value of the counter.
+	 */
+	private static void counter(StringBuilder out, String name, String help,
+			long value) {
+		metric(out, name, help, "counter", value);
+	}
+
+	/**
+	 * Adds a gauge to the text.
+	 * 
+	 * @param out
+	 *            the text.
+	 * @param name
+	 *            the name of the gauge.
+	 * @param help
+	 *            the description of the gauge.
+	 * @param value
+	 *            the value of the gauge.
+	 */
+	private static void gauge(StringBuilder out, String name, String help,
+			long value) {
+		metric(out, name, help, "gauge", value);
+	}
+
+	/**
+	 * Adds a metric with a single value to the text.
+	 * 
+	 * @param out
+	 *            the text.
+	 * @param name
+	 *            the name of the metric.
+	 * @param help
+	 *            the description of the metric.
+	 * @param type
+	 *            the type of the metric ('counter' or 'gauge').
+	 * @param value
+	 *            the value of the metric.
+	 */
+	private static void metric(StringBuilder out, String name, String help,
+			String type, long value) {
+		out.append("# HELP ").append(name).append(' ').append(help)
+				.append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type)
+				.append('\n');
+		out.append(name).append(' ').append(value).append('\n');
+	}
+}
\ No newline at end of file
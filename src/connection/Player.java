@@ -1,194 +1,247 @@
-package connection;
-
-import java.util.ArrayList;
-
-import gameplay.Card;
-
-/**
- * Object for actual players of blackjack servers. Will be put in a client
- * object if said client is a player.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 3, 2015
- */
-public class Player {
-	private ArrayList<Card> currentCards = new ArrayList<Card>();
-	private Server server;
-	private int handValue;
-	private int coins;
-	private int playerNo;
-	private int currentBet = 0;
-
-	/**
-	 * 'N' for none, 'H' for hit, 'S' for stand, and 'D' for doubledown.
-	 */
-	private char currentMove;
-
-	/**
-	 * Constructor for a new Player object.
-	 * 
-	 * @param server
-	 *            the server to put the new player in.
-	 * @param playerNo
-	 *            the new player number of the new player.
-	 */
-	public Player(Server server, int playerNo) {
-		this.server = server;
-		this.playerNo = playerNo;
-		this.coins = Server.START_COINS;
-		this.currentMove = 'N';
-	}
-
-	/**
-	 * Adds a card to the player's hand.
-	 * 
-	 * @param newCard
-	 *            the new card to add to the player's hand.
-	 */
-	public void addCard(Card card) {
-		// Add the card to the array of cards
-		this.currentCards.add(card);
-
-		// Update the value of the player's hand
-		int handTotal = 0;
-
-		// If the cards in the hand busts, try to keep deranking aces until it
-		// stops busting
-		boolean tryDeranking = true;
-		while ((handTotal = calculateHand(this.currentCards)) > 21
-				&& tryDeranking) {
-			tryDeranking = false;
-			for (int cardNo = 0; cardNo < this.currentCards.size(); cardNo++) {
-				if (this.currentCards.get(cardNo).derankAce()) {
-					tryDeranking = true;
-					break;
-				}
-			}
-		}
-
-		// Show the server gui what the player just got
-		this.server.println("Card value: " + card.getValue());
-
-		// Update the player's total hand value
-		this.handValue = handTotal;
-		this.server.println("Hand: " + this.handValue);
-	}
-
-	/**
-	 * Sums up the current value of a hand.
-	 * 
-	 * @param cards
-	 *            the hand of cards to calculate the value of.
-	 */
-	private int calculateHand(ArrayList<Card> cards) {
-		int total = 0;
-		for (int cardNo = 0; cardNo < cards.size(); cardNo++) {
-			total += cards.get(cardNo).getValue();
-		}
-		return total;
-	}
-
-	/**
-	 * Clears the current player's hand.
-	 */
-	public void clearHand() {
-		this.currentCards.clear();
-		this.handValue = 0;
-	}
-
-	/**
-	 * Gets the final value of all the cards in the player's hands.
-	 * 
-	 * @return the value of the player's hand.
-	 */
-	public int getHandValue() {
-		return this.handValue;
-	}
-
-	/**
-	 * Gets the current move of the player (hit, stand, or double down).
-	 * 
-	 * @return the current move of the player ('H', 'S', or 'D').
-	 */
-	public char getCurrentMove() {
-		return this.currentMove;
-	}
-
-	/**
-	 * Sets the current move of the player to either hit, stand, or double down.
-	 * 
-	 * @param currentMove
-	 *            the new move of the player ('H', 'S', or 'D').
-	 */
-	public void setCurrentMove(char currentMove) {
-		this.currentMove = currentMove;
-	}
-
-	/**
-	 * Gets the player's hand.
-	 * 
-	 * @return a list of the cards in the player's hand in the form of an
-	 *         ArrayList of Card objects.
-	 */
-	public ArrayList<Card> getCurrentCards() {
-		return this.currentCards;
-	}
-
-	/**
-	 * Sets the hand of the player.
-	 * 
-	 * @param currentCards
-	 *            a list of the cards in the player's hand in the form of an
-	 *            ArrayList of Card objects..
-	 */
-	public void setCurrentCards(ArrayList<Card> currentCards) {
-		this.currentCards = currentCards;
-	}
-
-	/**
-	 * Get the player's current balance.
-	 * 
-	 * @return the number of coins the player has.
-	 */
-	public int getCoins() {
-		return this.coins;
-	}
-
-	/**
-	 * Change the player's balance.
-	 * 
-	 * @param coins
-	 *            the number of coins to change it to.
-	 */
-	public void setCoins(int coins) {
-		this.coins = coins;
-	}
-
-	/**
-	 * Get the player number of this player.
-	 * 
-	 * @return the player number.
-	 */
-	public int getPlayerNo() {
-		return this.playerNo;
-	}
-
-	/**
-	 * Get the player's bet for this round.
-	 * 
-	 * @return the player's bet in coins.
-	 */
-	public int getCurrentBet() {
-		return this.currentBet;
-	}
-
-	/**
-	 * Set the player's bet for this round.
-	 * 
-	 * @param currentBet
-	 *            the number of coins to set it to.
-	 */
-	public void setCurrentBet(int currentBet) {
-		this.currentBet = currentBet;
-	}
+package connection;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import gameplay.Card;
+
+/**
+ * Object for actual players of blackjack servers. Will be put in a client
+ * object if said client is a player.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 3, 2015
+ */
+public class Player {
+
+	/**
+	 * Id of the last player created.
+	 */
+	private static final AtomicLong lastId = new AtomicLong();
+
+	private ArrayList<Card> currentCards = new ArrayList<Card>();
+	private Server server;
+	private int handValue;
+	private int playerNo;
+
+	/**
+	 * Unique id of the player, kept when they move to another room.
+	 */
+	private final long id;
+
+	/**
+	 * The player's coins, including those reserved for their current bet.
+	 */
+	private Wallet wallet;
+
+	/**
+	 * 'N' for none, 'H' for hit, 'S' for stand, and 'D' for doubledown.
+	 */
+	private char currentMove;
+
+	/**
+	 * Constructor for a new Player object.
+	 * 
+	 * @param server
+	 *            the server to put the new player in.
+	 * @param playerNo
+	 *            the new player number of the new player.
+	 */
+	public Player(Server server, int playerNo) {
+		this.server = server;
+		this.playerNo = playerNo;
+		this.id = lastId.incrementAndGet();
+		this.wallet = new Wallet(server.getSettings().getStartCoins(),
+				server.getMetrics());
+		this.currentMove = 'N';
+	}
+
+	/**
+	 * Adds a card to the player's hand.
+	 * 
+	 * @param newCard
+	 *            the new card to add to the player's hand.
+	 */
+	public void addCard(Card card) {
+		// Add the card to the array of cards
+		this.currentCards.add(card);
+
+		// Update the value of the player's hand
+		int handTotal = 0;
+
+		// If the cards in the hand busts, try to keep deranking aces until it
+		// stops busting
+		boolean tryDeranking = true;
+		while ((handTotal = calculateHand(this.currentCards)) > 21
+				&& tryDeranking) {
+			tryDeranking = false;
+			for (int cardNo = 0; cardNo < this.currentCards.size(); cardNo++) {
+				if (this.currentCards.get(cardNo).derankAce()) {
+					tryDeranking = true;
+					break;
+				}
+			}
+		}
+
+		// Show the server gui what the player just got
+		if (this.server.shouldSample()) {
+			this.server.printlnSampled("Card value: " + card.getValue());
+		}
+
+		// Update the player's total hand value
+		this.handValue = handTotal;
+		if (this.server.shouldSample()) {
+			this.server.printlnSampled("Hand: " + this.handValue);
+		}
+	}
+
+	/**
+	 * Sums up the current value of a hand.
+	 * 
+	 * @param cards
+	 *            the hand of cards to calculate the value of.
+	 */
+	private int calculateHand(ArrayList<Card> cards) {
+		int total = 0;
+		for (int cardNo = 0; cardNo < cards.size(); cardNo++) {
+			total += cards.get(cardNo).getValue();
+		}
+		return total;
+	}
+
+	/**
+	 * Clears the current player's hand.
+	 */
+	public void clearHand() {
+		this.currentCards.clear();
+		this.handValue = 0;
+	}
+
+	/**
+	 * Checks whether an ace in the player's hand is still counted as 11.
+	 * 
+	 * @return whether or not the player's hand is soft.
+	 */
+	public boolean isSoftHand() {
+		for (int cardNo = 0; cardNo < this.currentCards.size(); cardNo++) {
+			Card card = this.currentCards.get(cardNo);
+			if (card.getRank() == 'A' && card.getValue() == 11) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the final value of all the cards in the player's hands.
+	 * 
+	 * @return the value of the player's hand.
+	 */
+	public int getHandValue() {
+		return this.handValue;
+	}
+
+	/**
+	 * Gets the current move of the player (hit, stand, or double down).
+	 * 
+	 * @return the current move of the player ('H', 'S', or 'D').
+	 */
+	public char getCurrentMove() {
+		return this.currentMove;
+	}
+
+	/**
+	 * Sets the current move of the player to either hit, stand, or double down.
+	 * 
+	 * @param currentMove
+	 *            the new move of the player ('H', 'S', or 'D').
+	 */
+	public void setCurrentMove(char currentMove) {
+		this.currentMove = currentMove;
+	}
+
+	/**
+	 * Gets the player's hand.
+	 * 
+	 * @return a list of the cards in the player's hand in the form of an
+	 *         ArrayList of Card objects.
+	 */
+	public ArrayList<Card> getCurrentCards() {
+		return this.currentCards;
+	}
+
+	/**
+	 * Sets the hand of the player.
+	 * 
+	 * @param currentCards
+	 *            a list of the cards in the player's hand in the form of an
+	 *            ArrayList of Card objects..
+	 */
+	public void setCurrentCards(ArrayList<Card> currentCards) {
+		this.currentCards = currentCards;
+	}
+
+	/**
+	 * Get the player's current balance, including their bet until it is
+	 * settled.
+	 * 
+	 * @return the number of coins the player has.
+	 */
+	public int getCoins() {
+		return this.wallet.getCoins();
+	}
+
+	/**
+	 * Get the player's wallet, through which bets are placed and settled.
+	 * 
+	 * @return the wallet.
+	 */
+	public Wallet getWallet() {
+		return this.wallet;
+	}
+
+	/**
+	 * Get the player number of this player.
+	 * 
+	 * @return the player number.
+	 */
+	public int getPlayerNo() {
+		return this.playerNo;
+	}
+
+	/**
+	 * Get the unique id of this player, which (unlike their name and player
+	 * number) no other player of the central server has.
+	 * 
+	 * @return the player's id.
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Moves the player to a seat in another game room, keeping their coins.
+	 * 
+	 * @param server
+	 *            the server of the new room.
+	 * @param playerNo
+	 *            the player number of the new seat.
+	 */
+	public void moveTo(Server server, int playerNo) {
+		this.server = server;
+		this.playerNo = playerNo;
+		this.wallet.refund();
+		this.currentMove = 'N';
+		this.clearHand();
+	}
+
+	/**
+	 * Get the player's bet for this round (the coins reserved in their
+	 * wallet).
+	 * 
+	 * @return the player's bet in coins.
+	 */
+	public int getCurrentBet() {
+		return this.wallet.getReserved();
+	}
 }
\ No newline at end of file
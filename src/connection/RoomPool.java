@@ -0,0 +1,260 @@
+package connection;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.Log;
+
+/**
+ * Game rooms ready to be used, so that creating a room (its queues, message
+ * task, dealer and shuffled shoe) is not left to a client joining. <br>
+ * Rooms whose game is over are reset and kept for the next game instead of
+ * being thrown away. Every {@link #ADJUST_INTERVAL} seconds, the number of
+ * idle rooms kept for each settings profile is set to about the number of
+ * rooms taken in an interval (averaged over the last few intervals), and
+ * idle rooms of the default profile are created ahead of time to make up
+ * the number.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class RoomPool {
+
+	/**
+	 * Seconds between adjustments of the number of idle rooms kept.
+	 */
+	public static final int ADJUST_INTERVAL = 10;
+
+	/**
+	 * Bounds of the number of idle rooms kept for each settings profile.
+	 */
+	public static final int MIN_IDLE = 1, MAX_IDLE = 16;
+
+	private CentralServer centralServer;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Idle rooms by settings profile.
+	 */
+	private HashMap<String, ArrayDeque<Server>> idleRooms;
+
+	/**
+	 * Number of idle rooms to keep for each settings profile.
+	 */
+	private int target;
+
+	/**
+	 * Average number of rooms taken in an interval.
+	 */
+	private double joinRate;
+
+	private AtomicInteger takenSinceAdjust;
+	private AtomicLong hits, misses, recycled;
+
+	/**
+	 * Constructor for a new RoomPool object, scheduling its adjustments.
+	 * 
+	 * @param centralServer
+	 *            the central server the rooms are on.
+	 * @param scheduler
+	 *            the scheduler to reset and create rooms on.
+	 */
+	public RoomPool(CentralServer centralServer,
+			ScheduledExecutorService scheduler) {
+		this.centralServer = centralServer;
+		this.idleRooms = new HashMap<String, ArrayDeque<Server>>();
+		this.target = MIN_IDLE;
+		this.takenSinceAdjust = new AtomicInteger();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.recycled = new AtomicLong();
+		this.scheduler = scheduler;
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				// An exception would stop the task from running again
+				try {
+					RoomPool.this.adjust();
+				} catch (RuntimeException e) {
+					RoomPool.this.centralServer.getLog().log(Log.ERROR, null,
+							"Error adjusting the room pool", e);
+				}
+			}
+		}, ADJUST_INTERVAL, ADJUST_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Takes an idle room of a settings profile to be used, creating one if
+	 * there are none.
+	 * 
+	 * @param profile
+	 *            the name of the settings profile of the room.
+	 * @return the room, with a new room number.
+	 */
+	public Server take(String profile) {
+		Server room;
+		synchronized (this) {
+			room = this.getIdleRooms(profile).poll();
+		}
+
+		// Rooms reset before the settings were reloaded are reset again on
+		// the scheduler rather than on the joining client's thread
+		while (room != null
+				&& room.getSettings() != this.centralServer
+						.getSettings(profile)) {
+			this.resetAndKeep(room, false);
+			synchronized (this) {
+				room = this.getIdleRooms(profile).poll();
+			}
+		}
+		if (room == null) {
+			this.misses.incrementAndGet();
+			room = new Server(this.centralServer, profile);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		this.takenSinceAdjust.incrementAndGet();
+		room.open();
+		return room;
+	}
+
+	/**
+	 * Gives back a room whose game is over and whose last messages have been
+	 * sent. Its spectators are moved to the lobby and the room is reset on
+	 * the scheduler, then kept if there are fewer idle rooms of its profile
+	 * than the pool keeps.
+	 * 
+	 * @param room
+	 *            the room.
+	 */
+	public void recycle(Server room) {
+		this.resetAndKeep(room, true);
+	}
+
+	/**
+	 * Resets a room on the scheduler, then keeps it if there are fewer idle
+	 * rooms of its profile than the pool keeps (closing it otherwise).
+	 * 
+	 * @param room
+	 *            the room.
+	 * @param recycled
+	 *            whether or not the room's game has just ended (rather than
+	 *            the room being idle).
+	 */
+	private void resetAndKeep(final Server room, final boolean recycled) {
+		this.scheduler.execute(new Runnable() {
+			@Override
+			public void run() {
+				room.moveSpectatorsToLobby();
+				room.reset();
+				boolean kept = false;
+				synchronized (RoomPool.this) {
+					ArrayDeque<Server> idle = RoomPool.this.getIdleRooms(room
+							.getProfile());
+					if (idle.size() < RoomPool.this.target) {
+						idle.add(room);
+						kept = true;
+					}
+				}
+				if (kept && recycled) {
+					RoomPool.this.recycled.incrementAndGet();
+				} else if (!kept) {
+					room.close();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sets the number of idle rooms to keep from the number of rooms taken
+	 * since the last adjustment, closing idle rooms over that number and
+	 * creating idle rooms of the default profile up to it.
+	 */
+	private void adjust() {
+		int taken = this.takenSinceAdjust.getAndSet(0);
+		this.joinRate = (this.joinRate + taken) / 2;
+		int target = Math.max(MIN_IDLE,
+				Math.min(MAX_IDLE, (int) Math.ceil(this.joinRate)));
+
+		int missing;
+		synchronized (this) {
+			this.target = target;
+			for (ArrayDeque<Server> idle : this.idleRooms.values()) {
+				while (idle.size() > target) {
+					idle.poll().close();
+				}
+			}
+			missing = target
+					- this.getIdleRooms(SettingsRegistry.DEFAULT_PROFILE)
+							.size();
+		}
+
+		// Create the rooms outside of the lock, so that taking a room never
+		// waits for them
+		for (int roomNo = 0; roomNo < missing; roomNo++) {
+			Server room = new Server(this.centralServer,
+					SettingsRegistry.DEFAULT_PROFILE);
+			synchronized (this) {
+				this.getIdleRooms(SettingsRegistry.DEFAULT_PROFILE).add(room);
+			}
+		}
+	}
+
+	/**
+	 * Gets the idle rooms of a settings profile. Only called while
+	 * synchronized on the pool.
+	 * 
+	 * @param profile
+	 *            the name of the profile.
+	 * @return the idle rooms.
+	 */
+	private ArrayDeque<Server> getIdleRooms(String profile) {
+		ArrayDeque<Server> idle = this.idleRooms.get(profile);
+		if (idle == null) {
+			idle = new ArrayDeque<Server>();
+			this.idleRooms.put(profile, idle);
+		}
+		return idle;
+	}
+
+	/**
+	 * Get the number of idle rooms kept for each settings profile.
+	 * 
+	 * @return the number of idle rooms.
+	 */
+	public synchronized int getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Get the number of times a room was taken from the idle rooms.
+	 * 
+	 * @return the number of hits.
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Get the number of times a room had to be created because there were no
+	 * idle rooms.
+	 * 
+	 * @return the number of misses.
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Get the number of rooms kept to be used again after their game was over.
+	 * 
+	 * @return the number of recycled rooms.
+	 */
+	public long getRecycled() {
+		return this.recycled.get();
+	}
+}
\ No newline at end of file
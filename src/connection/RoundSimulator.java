@@ -0,0 +1,197 @@
+package connection;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import utilities.VirtualClock;
+
+/**
+ * Plays scripted rounds in the same process as the game rooms, without
+ * sockets, on a {@link VirtualClock} moved straight to the next thing the
+ * rooms are waiting for, so that a round takes microseconds instead of
+ * seconds. <br>
+ * Bots are seated as players of a central server that accepts no
+ * connections and whose rooms deal their cards from a seed. Each bot bets the
+ * minimum, asks for a hint on its turn and makes the hinted move, its
+ * commands being posted to its room like those of any other player. The
+ * rounds are played twice with the same seed, checking that every bot is sent
+ * the same messages both times while it is playing ('% ODDS' lines, and the
+ * messages to bots that have run out of coins and are left watching, are
+ * sent from threads of their own and so are left out). <br>
+ * Usage: 'RoundSimulator [rounds] [players] [seed]' (by default 1000 rounds
+ * of 6 players with seed 1). The rooms use the settings file in the working
+ * directory, if there is one.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class RoundSimulator {
+
+	/**
+	 * Time (since the epoch, in milliseconds) that the clock starts at.
+	 */
+	private static final long START_MILLIS = 1000000000000L;
+
+	/**
+	 * Time (in virtual seconds) without a round finishing after which the
+	 * rounds are stopped, such as when every bot has run out of coins.
+	 */
+	private static final int STUCK_TIME = 600;
+
+	/**
+	 * A player in the same process that reads the messages sent to it after
+	 * each move of the clock and answers them.
+	 */
+	private static class Bot {
+		private Client client;
+		private StringWriter output;
+		private StringBuilder transcript;
+
+		/**
+		 * Constructor for a new Bot object.
+		 * 
+		 * @param centralServer
+		 *            the central server to play on.
+		 * @param name
+		 *            the name of the bot.
+		 */
+		private Bot(CentralServer centralServer, String name) {
+			this.output = new StringWriter();
+			this.transcript = new StringBuilder();
+			this.client = new Client(centralServer, name, this.output);
+		}
+
+		/**
+		 * Answers the messages sent to the bot since the last time.
+		 * 
+		 * @param minBet
+		 *            the bet to place each round.
+		 * @return the number of rounds the bot has seen finish that it is
+		 *         listed first in, so that every round of every room is
+		 *         counted once.
+		 */
+		private int answer(int minBet) {
+			StringBuffer sent = this.output.getBuffer();
+			String separator = System.lineSeparator();
+			int rounds = 0;
+			int end;
+			while ((end = sent.indexOf(separator)) != -1) {
+				String line = sent.substring(0, end);
+				sent.delete(0, end + separator.length());
+
+				// Once out of coins, the bot is a spectator, whose messages
+				// are sent on the threads of the spectator fanout
+				if (!this.client.isPlayer()) {
+					continue;
+				}
+				if (!line.startsWith("% ODDS")) {
+					this.transcript.append(line).append('\n');
+				}
+
+				String playerNo = Integer.toString(this.client.getPlayerNo());
+				String[] parts = line.split(" ");
+				if (!this.client.isReady()) {
+					if (line.startsWith("@ ") && parts[1].equals(playerNo)) {
+						this.client.receive("READY");
+					}
+				} else if (line.equals("% NEWROUND")) {
+					this.client.receive(Integer.toString(minBet));
+				} else if (line.equals("% " + playerNo + " turn")) {
+					this.client.receive("hint");
+				} else if (line.equals("% HINT H")) {
+					this.client.receive("hit");
+				} else if (line.equals("% HINT S")) {
+					this.client.receive("stand");
+				} else if (line.equals("% HINT D")) {
+					this.client.receive("doubledown");
+				} else if (line.startsWith("+ ") && parts.length > 1
+						&& parts[1].equals(playerNo)) {
+					rounds++;
+				}
+			}
+			return rounds;
+		}
+	}
+
+	/**
+	 * Plays the rounds twice and checks that the output is the same.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 */
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int players = args.length > 1 ? Integer.parseInt(args[1])
+				: Server.DEFAULT_SEATS;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		String first = run(rounds, players, seed);
+		String second = run(rounds, players, seed);
+		if (first.equals(second)) {
+			System.out.println("Both runs gave the same output");
+		} else {
+			System.out.println("The runs gave different output");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Seats the bots on a new central server and moves the clock forward
+	 * until the rounds have been played.
+	 * 
+	 * @param rounds
+	 *            the number of rounds to play (across every room).
+	 * @param players
+	 *            the number of bots.
+	 * @param seed
+	 *            the seed that the rooms deal their cards from.
+	 * @return every message sent to each bot, one bot after the other.
+	 */
+	private static String run(int rounds, int players, long seed) {
+		long startTime = System.nanoTime();
+		VirtualClock clock = new VirtualClock(START_MILLIS);
+		CentralServer centralServer = new CentralServer(Server.DEFAULT_SEATS,
+				clock, seed);
+		int minBet = centralServer.getSettings().getMinBet();
+		Bot[] bots = new Bot[players];
+		for (int botNo = 0; botNo < players; botNo++) {
+			bots[botNo] = new Bot(centralServer, "b" + botNo);
+			bots[botNo].client.join(SettingsRegistry.DEFAULT_PROFILE);
+		}
+
+		int finished = 0;
+		long lastRound = clock.nanoTime();
+		while (finished < rounds) {
+			if (!clock.advanceToNext()
+					|| clock.nanoTime() - lastRound > TimeUnit.SECONDS
+							.toNanos(STUCK_TIME)) {
+				System.out.println("No round finished for " + STUCK_TIME
+						+ " seconds, stopping");
+				break;
+			}
+			int before = finished;
+			for (Bot bot : bots) {
+				finished += bot.answer(minBet);
+			}
+			if (finished > before) {
+				lastRound = clock.nanoTime();
+			}
+		}
+
+		StringBuilder output = new StringBuilder();
+		for (Bot bot : bots) {
+			output.append(bot.client.getName()).append(":\n")
+					.append(bot.transcript);
+		}
+		CRC32 checksum = new CRC32();
+		checksum.update(output.toString().getBytes(StandardCharsets.UTF_8));
+		System.out.printf(
+				"%d rounds in %.1f virtual seconds (%d ms), output %08x%n",
+				finished, clock.nanoTime() / 1e9,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+				checksum.getValue());
+		return output.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,305 @@
+package connection;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how the number of rooms played scales with the number of room
+ * servers behind a lobby router, all on one machine over loopback. <br>
+ * For each number of room servers, the benchmark starts that many room
+ * server processes and a router process (each a separate JVM), fills a fixed
+ * number of rooms with bots connecting through the router and counts the
+ * rounds finished by every room over a measured period. The rooms use very
+ * short delays so that the room servers, rather than the delays, are the
+ * limit. <br>
+ * Usage: 'RouterBenchmark [rooms] [seconds] [first port] [room servers ...]'
+ * (by default 60 rooms for 20 seconds from port 6000 with 1, 2 and 4 room
+ * servers). The classes must be on the class path of this JVM.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class RouterBenchmark {
+
+	/**
+	 * Number of seats in each room (and bots for each room).
+	 */
+	private static final int SEATS = 3;
+
+	/**
+	 * Time (in seconds) the bots play before rounds are counted.
+	 */
+	private static final int WARM_UP = 5;
+
+	/**
+	 * Time (in milliseconds) to wait for a process to start accepting
+	 * connections.
+	 */
+	private static final int START_TIMEOUT = 30000;
+
+	/**
+	 * Settings of the room servers and the router: the shortest delays and
+	 * no limits that the bots could hit.
+	 */
+	private static final String[] SETTINGS = { "message.delay=1",
+			"start.delay=1", "betting.time=1", "start.coins=1000000000",
+			"debug=false", "commands.per.second=100000",
+			"command.burst=100000", "max.connections.per.address=0",
+			"max.handshakes=100000" };
+
+	/**
+	 * A player that connects through the router, bets the minimum, always
+	 * stands and counts the rounds of its room that it is listed first in, so
+	 * that every round of every room is counted once.
+	 */
+	private static class Bot implements Runnable {
+		private Socket socket;
+		private String name;
+		private AtomicLong rounds;
+
+		/**
+		 * Constructor for a new Bot object.
+		 * 
+		 * @param port
+		 *            the port of the router.
+		 * @param name
+		 *            the name of the bot.
+		 * @param rounds
+		 *            the counter of finished rounds.
+		 * @throws IOException
+		 *             if the bot could not connect.
+		 */
+		private Bot(int port, String name, AtomicLong rounds)
+				throws IOException {
+			this.socket = new Socket("127.0.0.1", port);
+			this.name = name;
+			this.rounds = rounds;
+		}
+
+		@Override
+		public void run() {
+			try {
+				BufferedReader input = new BufferedReader(
+						new InputStreamReader(this.socket.getInputStream()));
+				PrintWriter output = new PrintWriter(
+						this.socket.getOutputStream(), true);
+				output.println(this.name);
+				output.println("PLAY");
+				String playerNo = null;
+				String turn = null;
+				String line;
+				while ((line = input.readLine()) != null) {
+					String[] parts = line.split(" ");
+					if (playerNo == null && line.startsWith("@ ")
+							&& parts.length > 2 && parts[2].matches("[0-9]+")) {
+						playerNo = parts[1];
+						turn = "% " + playerNo + " turn";
+						output.println("READY");
+					} else if (line.equals("% NEWROUND")) {
+						output.println("10");
+					} else if (line.equals(turn)) {
+						output.println("stand");
+					} else if (line.equals("% PING")) {
+						output.println("PONG");
+					} else if (line.startsWith("+ ") && parts.length > 1
+							&& parts[1].equals(playerNo)) {
+						this.rounds.incrementAndGet();
+					}
+				}
+			} catch (IOException e) {
+				// Disconnected at the end of the run
+			}
+		}
+
+		/**
+		 * Disconnects the bot.
+		 */
+		private void close() {
+			try {
+				this.socket.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * @throws Exception
+	 *             if a process could not be started or connected to.
+	 */
+	public static void main(String[] args) throws Exception {
+		int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int port = args.length > 2 ? Integer.parseInt(args[2]) : 6000;
+		int[] workerCounts = { 1, 2, 4 };
+		if (args.length > 3) {
+			workerCounts = new int[args.length - 3];
+			for (int arg = 3; arg < args.length; arg++) {
+				workerCounts[arg - 3] = Integer.parseInt(args[arg]);
+			}
+		}
+
+		// Every process runs in a new directory holding the settings, logs and
+		// hand archives
+		File directory = Files.createTempDirectory("blackjack-benchmark")
+				.toFile();
+		try (Writer settings = new FileWriter(new File(directory,
+				SettingsRegistry.FILE_NAME))) {
+			for (String setting : SETTINGS) {
+				settings.write(setting + System.lineSeparator());
+			}
+		}
+		System.out.println("Logs in " + directory);
+		System.out.println(Runtime.getRuntime().availableProcessors()
+				+ " processors, " + rooms + " rooms of " + SEATS + " bots, "
+				+ seconds + " seconds each");
+
+		double firstRate = 0;
+		for (int workers : workerCounts) {
+			double rate = run(directory, port, workers, rooms, seconds);
+			if (firstRate == 0) {
+				firstRate = rate;
+			}
+			System.out.printf("%d room servers: %.1f rounds/s (x%.2f)%n",
+					workers, rate, rate / firstRate);
+			port += workers + 1;
+		}
+	}
+
+	/**
+	 * Starts the room servers and the router, plays the rooms and stops
+	 * everything again.
+	 * 
+	 * @param directory
+	 *            the directory to run the processes in.
+	 * @param port
+	 *            the port of the router, the room servers using the ports
+	 *            after it.
+	 * @param workers
+	 *            the number of room servers.
+	 * @param rooms
+	 *            the number of rooms to fill.
+	 * @param seconds
+	 *            the time (in seconds) to count rounds for.
+	 * @return the number of rounds finished per second across every room.
+	 * @throws Exception
+	 *             if a process could not be started or connected to.
+	 */
+	private static double run(File directory, int port, int workers,
+			int rooms, int seconds) throws Exception {
+		ArrayList<Process> processes = new ArrayList<Process>();
+		ArrayList<Bot> bots = new ArrayList<Bot>();
+		try {
+			ArrayList<String> router = new ArrayList<String>();
+			router.add("router");
+			router.add(Integer.toString(port));
+			for (int workerNo = 1; workerNo <= workers; workerNo++) {
+				processes.add(start(directory, "worker-" + workerNo,
+						Integer.toString(port + workerNo),
+						Integer.toString(workerNo), Integer.toString(SEATS)));
+				router.add("127.0.0.1:" + (port + workerNo));
+			}
+			for (int workerNo = 1; workerNo <= workers; workerNo++) {
+				waitForPort(port + workerNo);
+			}
+			processes.add(start(directory, "router",
+					router.toArray(new String[router.size()])));
+			waitForPort(port);
+
+			// The router spreads the bots over the room servers, each of
+			// which fills its rooms in turn
+			AtomicLong rounds = new AtomicLong();
+			for (int botNo = 0; botNo < rooms * SEATS; botNo++) {
+				Bot bot = new Bot(port, "b" + botNo, rounds);
+				bots.add(bot);
+				new Thread(bot).start();
+			}
+
+			Thread.sleep(WARM_UP * 1000L);
+			long start = rounds.get();
+			long startTime = System.nanoTime();
+			Thread.sleep(seconds * 1000L);
+			long finished = rounds.get() - start;
+			return finished / ((System.nanoTime() - startTime) / 1e9);
+		} finally {
+			for (Bot bot : bots) {
+				bot.close();
+			}
+			for (Process process : processes) {
+				process.destroy();
+			}
+			for (Process process : processes) {
+				process.waitFor();
+			}
+		}
+	}
+
+	/**
+	 * Starts a central server (a room server or a router) in a new JVM.
+	 * 
+	 * @param directory
+	 *            the directory to run the process in.
+	 * @param logName
+	 *            the name of the file to write the process's output to.
+	 * @param args
+	 *            the arguments of the central server.
+	 * @return the process.
+	 * @throws IOException
+	 *             if the process could not be started.
+	 */
+	private static Process start(File directory, String logName,
+			String... args) throws IOException {
+		ArrayList<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(CentralServer.class.getName());
+		for (String arg : args) {
+			command.add(arg);
+		}
+		File log = new File(directory, logName + ".log");
+		return new ProcessBuilder(command).directory(directory)
+				.redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.appendTo(log)).start();
+	}
+
+	/**
+	 * Waits for a process to accept connections on a port.
+	 * 
+	 * @param port
+	 *            the port.
+	 * @throws IOException
+	 *             if nothing accepted connections on the port in time.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	private static void waitForPort(int port) throws IOException,
+			InterruptedException {
+		long giveUp = System.currentTimeMillis() + START_TIMEOUT;
+		while (true) {
+			try {
+				new Socket("127.0.0.1", port).close();
+				return;
+			} catch (IOException e) {
+				if (System.currentTimeMillis() > giveUp) {
+					throw e;
+				}
+				Thread.sleep(100);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -1,406 +1,1328 @@
-package connection;
-
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-
-import javax.swing.Timer;
-
-import gameplay.Dealer;
-import utilities.ClientList;
-
-/**
- * Object for each individual blackjack server that is within a central server.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 1, 2015
- */
-public class Server implements ActionListener {
-	private ArrayList<Client> allClients;
-	private ClientList players;
-	private int playersReady, currentTimerNo;
-	private boolean gameStarted;
-	private Dealer dealer;
-
-	// Constant variables dictating many aspects of the server that can be
-	// changed for testing without huge consequences.
-
-	/**
-	 * Number of coins each player starts with.
-	 */
-	public static final int START_COINS = 1000;
-
-	/**
-	 * Guaranteed minimum time (in milliseconds) between messages being sent to
-	 * clients.<br>
-	 * This value can be changed for testing, but potentially causes destructive
-	 * effects with synchronization as the value gets smaller.
-	 */
-	public static final int MESSAGE_DELAY = 500;
-
-	/**
-	 * Minimum amount of coins required to participate in a round.
-	 */
-	public static final int MIN_BET = 10;
-
-	/**
-	 * Number of seconds the server waits after the last player in the lobby
-	 * sends the 'ready' message. <br>
-	 * This is bypassed if the lobby is at maximum capacity.
-	 */
-	public static final int START_DELAY = 15;
-
-	/**
-	 * Whether or not the central server will display the debugging messages in
-	 * the GUI.
-	 */
-	public static final boolean DEBUG = true;
-
-	/**
-	 * Array indicating which player numbers have been taken (index 0 is
-	 * dealer).
-	 */
-	public boolean[] playerNumbers = { true, false, false, false, false, false,
-			false };
-
-	private Timer messageTimer;
-	private ArrayDeque<Message> messages;
-	private CentralServer centralServer;
-	private boolean sendMessages;
-	private boolean lobbyTimerActive;
-
-	/**
-	 * Constructor for a new Server object.
-	 * 
-	 * @param centralServer
-	 *            the central server to put the new server on.
-	 */
-	public Server(CentralServer centralServer) {
-		// Sets up client list to hold each client
-		// Sets up the socket and the number of ready players to zero
-		this.allClients = new ArrayList<Client>();
-		this.players = new ClientList();
-		this.centralServer = centralServer;
-		this.playersReady = 0;
-		this.messageTimer = new Timer(MESSAGE_DELAY, this);
-		this.messages = new ArrayDeque<Message>();
-		this.currentTimerNo = 0;
-		this.sendMessages = true;
-		this.messageTimer.start();
-	}
-
-	/**
-	 * Change a player number to unused as a player disconnects from the lobby.
-	 * 
-	 * @param playerNumber
-	 *            the player number to clear.
-	 */
-	public void clearPlayerNumbers(int playerNumber) {
-		this.playerNumbers[playerNumber] = false;
-	}
-
-	/**
-	 * Return the first unused player number and -1 if everything is used. Also
-	 * fills up the unused player number.
-	 * 
-	 * @return the first unused player number.
-	 */
-	public int returnAndUsePlayerNumber() {
-		for (int no = 1; no < this.playerNumbers.length; no++) {
-			if (!this.playerNumbers[no]) {
-				this.playerNumbers[no] = true;
-				return no;
-			}
-		}
-		return -1;
-	}
-
-	/**
-	 * Waits for the player to be ready. Once all players are ready, start the
-	 * game.
-	 * 
-	 * @param playerNo
-	 *            the player to set to be "ready".
-	 */
-	public void ready(int playerNo) {
-		this.playersReady++;
-
-		// Tell all of the players in the lobby that somebody has become ready
-		this.queueMessage("% " + playerNo + " READY");
-
-		// Do a 15 second timer to wait for more people to join
-		if (this.playersReady != 0 && this.playersReady == this.players.size()) {
-			this.startReadyTimer(true);
-		}
-	}
-
-	/**
-	 * Once all the players in the lobby declare they are ready, set a timer to
-	 * run before starting the game in order to give more people a chance to
-	 * join.
-	 * 
-	 * @param newPlayerReady
-	 *            whether or not this method call is a result of a new player
-	 *            becoming ready. This should be false if this method is being
-	 *            called as a result of a player disconnection.
-	 */
-	private void startReadyTimer(boolean newPlayerReady) {
-		// Make sure that the server is not full
-		// Otherwise, start the game right away
-		this.currentTimerNo++;
-		if (this.currentTimerNo > Integer.MAX_VALUE / 2)
-			this.currentTimerNo = 0;
-
-		// Only create a timer to start the game if a timer currently isn't
-		// running or if a new player became ready, preventing multiple games
-		// from starting
-		if (newPlayerReady || !this.lobbyTimerActive) {
-			if (this.players.size() < 6) {
-				this.lobbyTimerActive = true;
-				long startTime = System.nanoTime();
-
-				// Create new thread to prevent interference with other
-				// activities
-				new Thread(new Updatable(this.currentTimerNo) {
-					@Override
-					public void run() {
-						// Keep checking if the entire lobby is ready until the
-						// number of seconds specified by the
-						// 'Server#START_DELAY' constant is reached
-						while ((System.nanoTime() - startTime) / 1000000000 < Server.START_DELAY) {
-
-							// Cancel the timer if the number of players ready
-							// changes
-							if (Server.this.playersReady == 0
-									|| Server.this.playersReady != Server.this.players
-											.size()
-									|| this.value != Server.this.currentTimerNo) {
-								Server.this.println("Cancelled timer");
-								Server.this.lobbyTimerActive = false;
-								return;
-							}
-							try {
-								Thread.sleep(10);
-							} catch (InterruptedException e) {
-								e.printStackTrace();
-							}
-						}
-						Server.this.startGame();
-					}
-				}).start();
-			}
-			// Skip the timer if the lobby is full and all the players are ready
-			// because it's not possible for more players to join.
-			else if (this.players.size() == this.playersReady) {
-				this.startGame();
-			}
-		}
-	}
-
-	/**
-	 * Disconnects a player from the server.
-	 * 
-	 * @param source
-	 *            the client to disconnect.
-	 */
-	public void disconnectPlayer(Client source) {
-		// Announce to all other players that a player has disconnected
-		this.queueMessage("! " + source.getPlayer().getPlayerNo());
-
-		// Remove the player and free up its space
-		source.setUserType('S');
-		this.players.remove(source);
-		this.playerNumbers[source.getPlayerNo()] = false;
-
-		if (this.gameStarted) {
-			// If the player was the last player in the game, stop the game
-			if (this.players.size() == 0) {
-				this.gameStarted = false;
-			}
-		} else {
-			// Decrease the number of players ready if they were ready
-			if (source.isReady()) {
-				this.playersReady--;
-			}
-
-			// Start the timer if everybody else was ready
-			if (this.playersReady != 0
-					&& this.playersReady == this.players.size()) {
-				this.startReadyTimer(false);
-			}
-		}
-	}
-
-	/**
-	 * Starts the game. Broadcasts a start game message and sets up the dealer
-	 * for the game.
-	 */
-	private void startGame() {
-		this.lobbyTimerActive = false;
-		this.gameStarted = true;
-		this.queueMessage("% START");
-		this.dealer = new Dealer(this, this.players);
-
-		// Start the dealer thread
-		Thread dealerThread = new Thread(dealer);
-		dealerThread.start();
-	}
-
-	/**
-	 * Queues a message to send.
-	 * 
-	 * @param message
-	 *            the message to send.
-	 */
-	public void queueMessage(Message message) {
-		synchronized (this.messages) {
-			if (this.sendMessages)
-				this.messages.add(message);
-		}
-	}
-
-	/**
-	 * Check whether or not there are still messages to be sent.
-	 * 
-	 * @return whether or not the queue of messages is empty.
-	 */
-	public boolean isMessageQueueEmpty() {
-		return this.messages.size() == 0;
-	}
-
-	/**
-	 * Queue a message to broadcast.
-	 * 
-	 * @param message
-	 *            the message to broadcast.
-	 */
-	public void queueMessage(String message) {
-		this.queueMessage(new Message(Message.ALL_CLIENTS, message));
-	}
-
-	/**
-	 * Indicates to the server that a client wants to become a player.
-	 * 
-	 * @param source
-	 *            the thread which is communicating with a client who wants to
-	 *            be a player.
-	 */
-	public void newPlayer(Client source) {
-		this.players.add(source);
-
-		// Send a message to all clients that a new player has joined
-		this.queueMessage(new Message(Message.ALL_CLIENTS,
-				source.getPlayerNo(), "@ " + source.getPlayerNo() + " "
-						+ source.getName()));
-	}
-
-	/**
-	 * Determines whether or not the lobby is full.
-	 * 
-	 * @return whether or not the lobby is full.
-	 */
-	public synchronized boolean isFull() {
-		return (this.players.size() == 6);
-	}
-
-	/**
-	 * Disconnect a client from the server.
-	 * 
-	 * @param client
-	 *            the client to disconnect.
-	 */
-	public synchronized void disconnectClient(Client client) {
-		this.allClients.remove(client);
-	}
-
-	/**
-	 * Determines if the game has started or not.
-	 * 
-	 * @return whether or not the game has started.
-	 */
-	public boolean gameStarted() {
-		return this.gameStarted;
-	}
-
-	/**
-	 * Gets the client list of current players.
-	 * 
-	 * @return the list of current players.
-	 */
-	protected ClientList getCurrentPlayers() {
-		return this.players;
-	}
-
-	/**
-	 * Constantly sends out messages from the server's message queue at a
-	 * specified delay (specified by Server.MESSAGE_DELAY).
-	 */
-	public void actionPerformed(ActionEvent arg0) {
-		synchronized (this.messages) {
-			if (this.messages.size() == 0) {
-				if (!this.sendMessages) {
-					this.messageTimer.stop();
-				}
-				return;
-			}
-			Message msg = this.messages.remove();
-			this.println("Our Message: " + msg.getMessage());
-
-			// Messages are either to the entire server or to individual clients
-			if (msg.getPlayerNo() == Message.ALL_CLIENTS) {
-				// Send the message to every client at the same time
-				synchronized (this.allClients) {
-					for (Client client : this.allClients) {
-						// Send the message only to clients who are not ignored
-						if (client.getPlayerNo() != msg.getIgnoredPlayer()) {
-							client.sendMessage(msg.getMessage());
-						}
-					}
-				}
-			} else {
-				// Send the message to a specific client
-				Client temp = this.players.get(msg.getPlayerNo());
-				if (temp != null) {
-					temp.sendMessage(msg.getMessage());
-				}
-			}
-		}
-	}
-
-	/**
-	 * Ends the current game of the server and then removes the server from the
-	 * central server it is a part of.
-	 */
-	public void endGame() {
-		this.gameStarted = false;
-		this.sendMessages = false;
-		this.centralServer.removeServer(this);
-	}
-
-	/**
-	 * Add a new client to the server.
-	 * 
-	 * @param newClient
-	 *            the new client to add.
-	 */
-	public void addClient(Client newClient) {
-		this.allClients.add(newClient);
-	}
-
-	/**
-	 * Centralized place for all objects associated with this Server to send
-	 * debugging messages to the GUI from. Prevents all objects from needing
-	 * references to the {@link CentralServer}. <br>
-	 * When using this method, it is not necessary to check if {@link #DEBUG
-	 * debugging} is enabled, as the message will only be sent if so.
-	 * 
-	 * @param message
-	 *            string to print out to standard out.
-	 */
-	public void println(String message) {
-		if (DEBUG) {
-			this.centralServer.println(message);
-		}
-	}
+package connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+import diagnostics.Events;
+import diagnostics.MessageQueuedEvent;
+import diagnostics.MessageSentEvent;
+import gameplay.Dealer;
+import gameplay.HandRecord;
+import gameplay.OddsEngine;
+import gameplay.RoundTracer;
+import utilities.ClientList;
+import utilities.Clock;
+import utilities.HandArchive;
+import utilities.Log;
+import utilities.Settings;
+
+/**
+ * Object for each individual blackjack server that is within a central server.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 1, 2015
+ */
+public class Server {
+
+	/**
+	 * Clients who joined as players, sent every broadcast directly.
+	 */
+	private ArrayList<Client> allClients;
+
+	/**
+	 * Spectators (including players who have left the game), sent broadcasts
+	 * through the lower priority {@link SpectatorFanout spectator tier}.
+	 */
+	private CopyOnWriteArrayList<Client> spectators;
+	private SpectatorFanout.Lane spectatorLane;
+
+	/**
+	 * State of the table, updated with every broadcast as it is sent.
+	 */
+	private TableSnapshot tableSnapshot;
+
+	/**
+	 * Spectators and moved players waiting to join in the middle of the game,
+	 * attached by the thread sending messages so that their frame of the table
+	 * lines up with the broadcasts.
+	 */
+	private ConcurrentLinkedQueue<Joining> joiningClients;
+
+	/**
+	 * Players moved here from a room with too few players, waiting for the
+	 * start of the next round to be seated.
+	 */
+	private ConcurrentLinkedQueue<Client> movedPlayers;
+
+	/**
+	 * Commands that change the game (bets, moves and players leaving),
+	 * applied in order by the dealer so that only one thread at a time
+	 * changes the table.
+	 */
+	private ConcurrentLinkedQueue<Runnable> mailbox;
+
+	/**
+	 * Number of seats reserved for players being moved to this room.
+	 */
+	private int incomingPlayers;
+
+	/**
+	 * Whether or not this room's players are being moved to another room.
+	 */
+	private boolean consolidating;
+	private ClientList players;
+	private int playersReady, currentTimerNo;
+	private boolean gameStarted;
+	private volatile Dealer dealer;
+
+	/**
+	 * Number identifying this game room within the central server, given
+	 * when the room is taken from the {@link RoomPool}.
+	 */
+	private int roomNo;
+
+	/**
+	 * Number of games played in this room, telling apart the games of a room
+	 * that is reused.
+	 */
+	private int gameNo;
+
+	/**
+	 * Whether or not the game has ended and the room should go back to the
+	 * room pool once its last messages are sent.
+	 */
+	private boolean gameOver;
+
+	/**
+	 * Name of the settings profile of this room.
+	 */
+	private String profile;
+
+	/**
+	 * Current settings of this room, replaced when the settings are reloaded.
+	 */
+	private volatile Settings settings;
+
+	// Default values of the settings dictating many aspects of the server,
+	// which can be changed in the settings file without recompiling
+	// (see SettingsRegistry).
+
+	/**
+	 * Number of coins each player starts with.
+	 */
+	public static final int START_COINS = 1000;
+
+	/**
+	 * Guaranteed minimum time (in milliseconds) between messages being sent to
+	 * clients.<br>
+	 * This value can be changed for testing, but potentially causes destructive
+	 * effects with synchronization as the value gets smaller.
+	 */
+	public static final int MESSAGE_DELAY = 500;
+
+	/**
+	 * Minimum amount of coins required to participate in a round.
+	 */
+	public static final int MIN_BET = 10;
+
+	/**
+	 * Number of seconds the server waits after the last player in the lobby
+	 * sends the 'ready' message. <br>
+	 * This is bypassed if the lobby is at maximum capacity.
+	 */
+	public static final int START_DELAY = 15;
+
+	/**
+	 * Whether or not the central server will display the debugging messages in
+	 * the GUI.
+	 */
+	public static final boolean DEBUG = true;
+
+	/**
+	 * Rooms left with fewer players than this at the end of a round have their
+	 * players moved to another started room with enough free seats, so that
+	 * the emptied room can be shut down.
+	 */
+	public static final int CONSOLIDATE_BELOW = 3;
+
+	/**
+	 * Number of player seats in a room unless configured otherwise.
+	 */
+	public static final int DEFAULT_SEATS = 6;
+
+	/**
+	 * Largest number of player seats a room can be configured with.
+	 */
+	public static final int MAX_SEATS = 99;
+
+	/**
+	 * Set of the player numbers that have been taken (bit 0 is the dealer).
+	 */
+	private BitSet playerNumbers;
+
+	/**
+	 * Number of player seats in this room.
+	 */
+	private int seats;
+
+	/**
+	 * Task sending the next message every message delay, run by the central
+	 * server's room dispatcher (never more than one run at a time).
+	 */
+	private volatile Future<?> messageTask;
+	private ArrayDeque<Message> messages;
+
+	/**
+	 * Lock held while sending a message, so that messages are sent one at a
+	 * time and in order even while the message task is being replaced.
+	 */
+	private final Object sending = new Object();
+	private CentralServer centralServer;
+
+	/**
+	 * Source of time for the room, shared with its dealer.
+	 */
+	private Clock clock;
+	private volatile boolean sendMessages;
+
+	/**
+	 * Tag of the room's lines in the log.
+	 */
+	private String logTag;
+	private boolean lobbyTimerActive;
+
+	/**
+	 * Task starting the game once the start delay is over, run on the room
+	 * dispatcher by the room's clock.
+	 */
+	private Future<?> lobbyTimer;
+
+	/**
+	 * Client joining the room in the middle of the game, along with the first
+	 * message of the frame it is sent.
+	 */
+	private static class Joining {
+		private Client client;
+		private String header;
+		private boolean isPlayer;
+	}
+
+	/**
+	 * Constructor for a new Server object with the default settings profile.
+	 * 
+	 * @param centralServer
+	 *            the central server to put the new server on.
+	 */
+	public Server(CentralServer centralServer) {
+		this(centralServer, SettingsRegistry.DEFAULT_PROFILE);
+	}
+
+	/**
+	 * Constructor for a new Server object.
+	 * 
+	 * @param centralServer
+	 *            the central server to put the new server on.
+	 * @param profile
+	 *            the name of the settings profile of the room, which sets
+	 *            the number of seats among other things.
+	 */
+	public Server(CentralServer centralServer, String profile) {
+		this.profile = profile;
+		this.settings = centralServer.getSettings(profile);
+
+		// Sets up the seats, with player number 0 taken by the dealer
+		this.seats = this.settings.getSeats();
+		this.playerNumbers = new BitSet(this.seats + 1);
+		this.playerNumbers.set(0);
+
+		// Sets up client list to hold each client
+		// Sets up the socket and the number of ready players to zero
+		this.allClients = new ArrayList<Client>();
+		this.spectators = new CopyOnWriteArrayList<Client>();
+		this.spectatorLane = centralServer.getSpectatorFanout().newLane(
+				this.spectators);
+		this.tableSnapshot = new TableSnapshot(this);
+		this.joiningClients = new ConcurrentLinkedQueue<Joining>();
+		this.movedPlayers = new ConcurrentLinkedQueue<Client>();
+		this.mailbox = new ConcurrentLinkedQueue<Runnable>();
+		this.players = new ClientList();
+		this.centralServer = centralServer;
+		this.clock = centralServer.getClock();
+		this.playersReady = 0;
+		this.messages = new ArrayDeque<Message>();
+		this.currentTimerNo = 0;
+		this.sendMessages = true;
+		this.scheduleMessages(this.settings.getMessageDelay());
+
+		// Set up the dealer (and its shoe) before any player joins
+		this.dealer = new Dealer(this, this.players);
+	}
+
+	/**
+	 * Gives the room a new room number as it is taken from the room pool to
+	 * be used, and the cards to deal if the central server has a seed.
+	 */
+	synchronized void open() {
+		this.roomNo = this.centralServer.nextRoomNo();
+		this.logTag = "room " + this.roomNo;
+		Long seed = this.centralServer.getSeed();
+		if (seed != null) {
+			this.dealer.setSeed(seed + this.roomNo);
+
+			// Send messages from now rather than from when the room was
+			// created by the room pool, which is up to the scheduler
+			this.messageTask.cancel(false);
+			this.scheduleMessages(this.settings.getMessageDelay());
+		}
+	}
+
+	/**
+	 * Moves the spectators still watching once the game is over to a room in
+	 * the lobby, so that none of them is left pointing at this room when it is
+	 * used again. Called by the room pool before the room is reset.
+	 */
+	void moveSpectatorsToLobby() {
+		for (Client spectator : this.spectators) {
+			this.spectators.remove(spectator);
+			if (spectator.isConnected()) {
+				this.centralServer.moveToLobby(spectator, this.profile);
+			}
+		}
+		Joining joining;
+		while ((joining = this.joiningClients.poll()) != null) {
+			if (joining.client.isConnected()) {
+				this.centralServer.moveToLobby(joining.client, this.profile);
+			}
+		}
+	}
+
+	/**
+	 * Empties the room once its game is over, so that it can be used again
+	 * for a new game with the current settings of its profile. Spectators
+	 * should be moved out of the room first (see
+	 * {@link #moveSpectatorsToLobby()}).
+	 */
+	synchronized void reset() {
+		Settings current = this.centralServer.getSettings(this.profile);
+		if (current != null) {
+			this.settings = current;
+		}
+		this.seats = this.settings.getSeats();
+		this.playerNumbers.clear();
+		this.playerNumbers.set(0);
+		synchronized (this.allClients) {
+			this.allClients.clear();
+		}
+		this.spectators.clear();
+		this.tableSnapshot = new TableSnapshot(this);
+		this.joiningClients.clear();
+		this.movedPlayers.clear();
+		this.mailbox.clear();
+		this.players.clear();
+		this.playersReady = 0;
+		this.incomingPlayers = 0;
+		this.consolidating = false;
+
+		// Cancel any lobby timer left over from the last game
+		this.cancelReadyTimer();
+
+		synchronized (this.messages) {
+			this.messages.clear();
+			this.gameNo++;
+		}
+		this.dealer.reset();
+		this.gameStarted = false;
+		this.sendMessages = true;
+
+		// An idle room's message task is still running, and would otherwise
+		// send from the same queue as the new one
+		if (!this.messageTask.isCancelled()) {
+			this.messageTask.cancel(false);
+		}
+		this.scheduleMessages(this.settings.getMessageDelay());
+	}
+
+	/**
+	 * Stops the room's messages for good, once the room is no longer needed.
+	 */
+	void close() {
+		this.sendMessages = false;
+	}
+
+	/**
+	 * Starts sending the next message from the queue at a fixed delay on the
+	 * central server's room dispatcher.
+	 * 
+	 * @param delay
+	 *            the delay (in milliseconds) between messages.
+	 */
+	private synchronized void scheduleMessages(int delay) {
+		this.messageTask = this.clock.scheduleWithFixedDelay(
+				this.centralServer.getDispatcher(), new Runnable() {
+					@Override
+					public void run() {
+						// An exception would stop the task from running again
+						try {
+							Server.this.sendNextMessage();
+						} catch (RuntimeException e) {
+							Server.this.centralServer.getLog().log(Log.ERROR,
+									Server.this.logTag,
+									"Error sending a message", e);
+						}
+					}
+				}, delay);
+	}
+
+	/**
+	 * Change a player number to unused as a player disconnects from the lobby.
+	 * 
+	 * @param playerNumber
+	 *            the player number to clear.
+	 */
+	public synchronized void clearPlayerNumbers(int playerNumber) {
+		this.playerNumbers.clear(playerNumber);
+	}
+
+	/**
+	 * Return the first unused player number and -1 if everything is used. Also
+	 * fills up the unused player number.
+	 * 
+	 * @return the first unused player number.
+	 */
+	public synchronized int returnAndUsePlayerNumber() {
+		int no = this.playerNumbers.nextClearBit(1);
+		if (no > this.seats) {
+			return -1;
+		}
+		this.playerNumbers.set(no);
+		return no;
+	}
+
+	/**
+	 * Waits for the player to be ready. Once all players are ready, start the
+	 * game.
+	 * 
+	 * @param playerNo
+	 *            the player to set to be "ready".
+	 */
+	public void ready(int playerNo) {
+		this.playersReady++;
+
+		// Tell all of the players in the lobby that somebody has become ready
+		this.queueCosmeticMessage("% " + playerNo + " READY");
+
+		// Do a 15 second timer to wait for more people to join
+		if (this.playersReady != 0 && this.playersReady == this.players.size()) {
+			this.startReadyTimer(true);
+		}
+	}
+
+	/**
+	 * Once all the players in the lobby declare they are ready, set a timer to
+	 * run before starting the game in order to give more people a chance to
+	 * join.
+	 * 
+	 * @param newPlayerReady
+	 *            whether or not this method call is a result of a new player
+	 *            becoming ready. This should be false if this method is being
+	 *            called as a result of a player disconnection.
+	 */
+	private synchronized void startReadyTimer(boolean newPlayerReady) {
+		// Only create a timer to start the game if a timer currently isn't
+		// running or if a new player became ready, preventing multiple games
+		// from starting
+		if (!newPlayerReady && this.lobbyTimerActive) {
+			return;
+		}
+		this.cancelReadyTimer();
+
+		// Make sure that the server is not full
+		// Otherwise, start the game right away
+		if (this.players.size() < this.seats) {
+			this.lobbyTimerActive = true;
+
+			// Scheduled on the room dispatcher rather than on a new thread,
+			// so that the room's clock decides when the delay is over
+			this.lobbyTimer = this.clock.schedule(this.getDispatcher(),
+					new Updatable(this.currentTimerNo) {
+						@Override
+						public void run() {
+							Server.this.readyTimerEnded(this.value);
+						}
+					}, this.settings.getStartDelay() * 1000L);
+		}
+		// Skip the timer if the lobby is full and all the players are ready
+		// because it's not possible for more players to join.
+		else if (this.players.size() == this.playersReady) {
+			this.startGame();
+		}
+	}
+
+	/**
+	 * Starts the game once the start delay is over, unless the number of
+	 * players ready has changed since the timer was started or the game has
+	 * already started.
+	 * 
+	 * @param timerNo
+	 *            the number of the timer, which is out of date if another
+	 *            timer has been started or it was cancelled since.
+	 */
+	private void readyTimerEnded(int timerNo) {
+		synchronized (this) {
+			if (timerNo != this.currentTimerNo || this.gameStarted) {
+				return;
+			}
+			this.lobbyTimerActive = false;
+			if (this.playersReady == 0
+					|| this.playersReady != this.players.size()) {
+				this.println("Cancelled timer");
+				return;
+			}
+		}
+		this.startGame();
+	}
+
+	/**
+	 * Cancels the lobby timer if one is running. Only called while
+	 * synchronized on the server.
+	 */
+	private void cancelReadyTimer() {
+		this.currentTimerNo++;
+		if (this.currentTimerNo > Integer.MAX_VALUE / 2)
+			this.currentTimerNo = 0;
+		if (this.lobbyTimer != null) {
+			this.lobbyTimer.cancel(false);
+			this.lobbyTimer = null;
+		}
+		this.lobbyTimerActive = false;
+	}
+
+	/**
+	 * Disconnects a player from the server. During the game, the player is
+	 * removed by the dealer through the room's mailbox.
+	 * 
+	 * @param source
+	 *            the client to disconnect.
+	 */
+	public void disconnectPlayer(final Client source) {
+		// Players moved here who haven't been seated yet only give up their
+		// reserved seat
+		synchronized (this) {
+			if (this.movedPlayers.remove(source)) {
+				source.setUserType('S');
+				this.incomingPlayers--;
+				if (this.players.size() == 0 && this.incomingPlayers == 0) {
+					this.gameStarted = false;
+				}
+				return;
+			}
+		}
+
+		// Leave removing the player to the dealer during the game, unless
+		// the dealer is the one removing them
+		Dealer dealer = this.dealer;
+		if (this.gameStarted && dealer != null && !dealer.isDealerThread()) {
+			this.post(new Runnable() {
+				@Override
+				public void run() {
+					// The dealer may have removed the player already
+					if (Server.this.players.get(source.getPlayerNo())
+							!= source) {
+						return;
+					}
+					Server.this.disconnectPlayer(source);
+					if (!source.isConnected()) {
+						// The client has closed its connection since, so it
+						// doesn't stay to watch
+						Server.this.disconnectClient(source);
+						source.setUserType('U');
+					}
+				}
+			});
+			return;
+		}
+
+		// Announce to all other players that a player has disconnected
+		this.queueMessage("! " + source.getPlayer().getPlayerNo());
+
+		// Remove the player and free up its space, leaving it to watch the
+		// game as a spectator
+		source.setUserType('S');
+		this.players.remove(source);
+		this.clearPlayerNumbers(source.getPlayerNo());
+		synchronized (this.allClients) {
+			this.allClients.remove(source);
+		}
+		this.addSpectator(source);
+
+		if (this.gameStarted) {
+			// If the player was the last player in the game, stop the game
+			// (unless players are being moved here)
+			synchronized (this) {
+				if (this.players.size() == 0 && this.incomingPlayers == 0) {
+					this.gameStarted = false;
+				}
+			}
+		} else {
+			// Decrease the number of players ready if they were ready
+			if (source.isReady()) {
+				this.playersReady--;
+			}
+
+			// Start the timer if everybody else was ready
+			if (this.playersReady != 0
+					&& this.playersReady == this.players.size()) {
+				this.startReadyTimer(false);
+			}
+		}
+	}
+
+	/**
+	 * Starts the game. Broadcasts a start game message and sets up the dealer
+	 * for the game.
+	 */
+	private void startGame() {
+		this.lobbyTimerActive = false;
+		this.gameStarted = true;
+		this.queueMessage("% START");
+		this.dealer.start();
+	}
+
+	/**
+	 * Adds a command that changes the game to the room's mailbox, to be
+	 * applied by the dealer after the commands before it.
+	 * 
+	 * @param command
+	 *            the command.
+	 */
+	public void post(Runnable command) {
+		this.mailbox.add(command);
+		Dealer dealer = this.dealer;
+		if (dealer != null) {
+			dealer.wake();
+		}
+	}
+
+	/**
+	 * Applies the commands waiting in the room's mailbox, in the order they
+	 * were posted. Only called by the dealer.
+	 */
+	public void runCommands() {
+		Runnable command;
+		while ((command = this.mailbox.poll()) != null) {
+			command.run();
+		}
+	}
+
+	/**
+	 * Queues a message to send.
+	 * 
+	 * @param message
+	 *            the message to send.
+	 */
+	public void queueMessage(Message message) {
+		message.setQueuedAt(this.clock.nanoTime());
+		synchronized (this.messages) {
+			if (this.sendMessages) {
+				this.messages.add(message);
+				if (Events.enabled(MessageQueuedEvent.class)) {
+					new MessageQueuedEvent(this.roomNo, message.getPlayerNo(),
+							message.isCosmetic(), this.messages.size())
+							.commit();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Queue a message to broadcast that can be skipped for spectators who are
+	 * falling behind.
+	 * 
+	 * @param message
+	 *            the message to broadcast.
+	 */
+	public void queueCosmeticMessage(String message) {
+		Message cosmeticMessage = new Message(Message.ALL_CLIENTS, message);
+		cosmeticMessage.setCosmetic(true);
+		this.queueMessage(cosmeticMessage);
+	}
+
+	/**
+	 * Has the odds of a table worked out and broadcast, without waiting for
+	 * them.
+	 * 
+	 * @param snapshot
+	 *            the table.
+	 */
+	public void publishOdds(OddsEngine.Snapshot snapshot) {
+		this.centralServer.getOddsEngine().publish(this, this.gameNo,
+				snapshot);
+	}
+
+	/**
+	 * Broadcasts the odds worked out for a table, unless the game they were
+	 * worked out for is over (the room may have been reused since).
+	 * 
+	 * @param gameNo
+	 *            the number of the game the odds were worked out for.
+	 * @param odds
+	 *            the '% ODDS' line.
+	 */
+	public void queueOdds(int gameNo, String odds) {
+		synchronized (this.messages) {
+			if (gameNo == this.gameNo) {
+				this.queueCosmeticMessage(odds);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of messages waiting to be sent.
+	 * 
+	 * @return the length of the message queue.
+	 */
+	public int getMessageBacklog() {
+		return this.messages.size();
+	}
+
+	/**
+	 * Check whether or not there are still messages to be sent.
+	 * 
+	 * @return whether or not the queue of messages is empty.
+	 */
+	public boolean isMessageQueueEmpty() {
+		return this.messages.size() == 0;
+	}
+
+	/**
+	 * Queue a message to broadcast.
+	 * 
+	 * @param message
+	 *            the message to broadcast.
+	 */
+	public void queueMessage(String message) {
+		this.queueMessage(new Message(Message.ALL_CLIENTS, message));
+	}
+
+	/**
+	 * Indicates to the server that a client wants to become a player.
+	 * 
+	 * @param source
+	 *            the thread which is communicating with a client who wants to
+	 *            be a player.
+	 */
+	public void newPlayer(Client source) {
+		this.players.add(source);
+
+		// Send a message to all clients that a new player has joined
+		this.queueMessage(new Message(Message.ALL_CLIENTS,
+				source.getPlayerNo(), "@ " + source.getPlayerNo() + " "
+						+ source.getName()));
+	}
+
+	/**
+	 * Determines whether or not the lobby is full, counting seats taken by
+	 * players who haven't been added to the lobby yet.
+	 * 
+	 * @return whether or not the lobby is full.
+	 */
+	public synchronized boolean isFull() {
+		return this.players.size() >= this.seats
+				|| this.playerNumbers.nextClearBit(1) > this.seats;
+	}
+
+	/**
+	 * Disconnect a client from the server.
+	 * 
+	 * @param client
+	 *            the client to disconnect.
+	 */
+	public synchronized void disconnectClient(Client client) {
+		synchronized (this.allClients) {
+			this.allClients.remove(client);
+		}
+		this.spectators.remove(client);
+	}
+
+	/**
+	 * Determines if the game has started or not.
+	 * 
+	 * @return whether or not the game has started.
+	 */
+	public boolean gameStarted() {
+		return this.gameStarted;
+	}
+
+	/**
+	 * Gets the client list of current players.
+	 * 
+	 * @return the list of current players.
+	 */
+	protected ClientList getCurrentPlayers() {
+		return this.players;
+	}
+
+	/**
+	 * Sends out the next message from the server's message queue, called at a
+	 * specified delay (specified by the 'message.delay' setting).
+	 */
+	private void sendNextMessage() {
+		synchronized (this.sending) {
+			// Attach spectators and moved players joining in the middle of the
+			// game, sending them the table as of the last broadcast (players
+			// are told their own player number instead of being a spectator)
+			Joining joining;
+			while ((joining = this.joiningClients.poll()) != null) {
+				ArrayList<String> frame = this.tableSnapshot.toFrame(
+						joining.header, joining.isPlayer ? joining.client
+								.getPlayerNo() : -1);
+				if (joining.isPlayer) {
+					for (String line : frame) {
+						joining.client.sendMessage(line);
+					}
+					synchronized (this.allClients) {
+						this.allClients.add(joining.client);
+					}
+				} else {
+					if (joining.client.getOutbox() == null) {
+						joining.client.setOutbox(this.centralServer
+								.getSpectatorFanout().newOutbox(joining.client));
+					}
+					this.spectatorLane.attach(joining.client, frame);
+				}
+			}
+
+			// Only hold the queue while taking the next message, so that the
+			// dealer never waits for the message to be written
+			Message msg;
+			synchronized (this.messages) {
+				if (this.messages.size() == 0) {
+					if (!this.sendMessages && !this.messageTask.isCancelled()) {
+						this.messageTask.cancel(false);
+
+						// The last messages of the game have been sent, so the
+						// room can be used again
+						if (this.gameOver) {
+							this.gameOver = false;
+							this.centralServer.getRoomPool().recycle(this);
+						}
+					}
+					return;
+				}
+				msg = this.messages.remove();
+			}
+			if (this.shouldSample()) {
+				this.printlnSampled("Our Message: " + msg.getMessage());
+			}
+			MessageSentEvent event = null;
+			if (Events.enabled(MessageSentEvent.class)) {
+				event = new MessageSentEvent(this.roomNo, msg.getPlayerNo(),
+						this.clock.nanoTime() - msg.getQueuedAt());
+			}
+
+			// Messages are either to the entire server or to individual clients
+			if (msg.getPlayerNo() == Message.ALL_CLIENTS) {
+				// Send the message to every player at the same time
+				synchronized (this.allClients) {
+					for (Client client : this.allClients) {
+						// Send the message only to clients who are not ignored
+						if (client.getPlayerNo() != msg.getIgnoredPlayer()) {
+							client.sendMessage(msg.getMessage());
+						}
+					}
+				}
+				this.centralServer.getMetrics().getBroadcastLatency()
+						.record(this.clock.nanoTime() - msg.getQueuedAt());
+
+				// Hand the message to the spectator tier without waiting for
+				// it to be sent
+				this.tableSnapshot.apply(msg.getMessage());
+				this.spectatorLane.broadcast(msg);
+			} else {
+				// Send the message to a specific client
+				Client temp = this.players.get(msg.getPlayerNo());
+				if (temp != null) {
+					temp.sendMessage(msg.getMessage());
+				}
+			}
+			if (event != null) {
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Ends the current game of the server and then removes the server from the
+	 * central server it is a part of. The room goes back to the room pool
+	 * once its last messages have been sent.
+	 */
+	public void endGame() {
+		this.gameStarted = false;
+		this.centralServer.removeServer(this);
+		synchronized (this.messages) {
+			this.gameOver = true;
+			this.sendMessages = false;
+		}
+	}
+
+	/**
+	 * Add a new client to the server.
+	 * 
+	 * @param newClient
+	 *            the new client to add.
+	 * @param isPlayer
+	 *            whether the client is a player (otherwise a spectator).
+	 */
+	public void addClient(Client newClient, boolean isPlayer) {
+		if (isPlayer) {
+			synchronized (this.allClients) {
+				this.allClients.add(newClient);
+			}
+		} else {
+			this.addSpectator(newClient);
+		}
+	}
+
+	/**
+	 * Add a spectator to the server at any point of the game. The spectator
+	 * is sent a frame of the current table followed by every broadcast after
+	 * it, instead of the usual start message.
+	 * 
+	 * @param spectator
+	 *            the spectator to add.
+	 */
+	public void attachSpectator(Client spectator) {
+		this.attachClient(spectator, "% ACCEPTED", false);
+	}
+
+	/**
+	 * Queues a client to be sent a frame of the current table by the thread
+	 * sending messages, before any broadcast after it.
+	 * 
+	 * @param client
+	 *            the client joining.
+	 * @param header
+	 *            the message sent before the frame.
+	 * @param isPlayer
+	 *            whether the client is a player (otherwise a spectator).
+	 */
+	void attachClient(Client client, String header, boolean isPlayer) {
+		Joining joining = new Joining();
+		joining.client = client;
+		joining.header = header;
+		joining.isPlayer = isPlayer;
+		this.joiningClients.add(joining);
+	}
+
+	/**
+	 * Check whether or not too few players are left in this room, so that
+	 * they should be moved to another room.
+	 * 
+	 * @return whether or not the room should be emptied.
+	 */
+	public boolean needsConsolidation() {
+		int noOfPlayers = this.players.size();
+		return noOfPlayers != 0 && noOfPlayers < CONSOLIDATE_BELOW;
+	}
+
+	/**
+	 * Check whether or not the players of this room would be moved to another
+	 * room right now: too few are left and another room has seats for them.
+	 * 
+	 * @return whether or not the players would be moved.
+	 */
+	public boolean willConsolidate() {
+		return this.needsConsolidation()
+				&& this.centralServer.hasConsolidationTarget(this,
+						this.players.size());
+	}
+
+	/**
+	 * Moves the players and spectators of this room to another room if too few
+	 * players are left, leaving this room empty so that its game ends. Called
+	 * by the dealer at the end of a round, once the results of the round
+	 * have been sent.
+	 * 
+	 * @return whether or not the room was emptied.
+	 */
+	public boolean consolidate() {
+		if (!this.needsConsolidation()) {
+			return false;
+		}
+		int noOfPlayers = this.players.size();
+		Server target = this.centralServer.findConsolidationTarget(this,
+				noOfPlayers);
+		if (target == null) {
+			return false;
+		}
+		this.println("Moving " + noOfPlayers + " players to server #"
+				+ target.getRoomNo());
+
+		// Hand the players (with their coins) over to the other room, which
+		// seats them at the start of its next round
+		ArrayList<Client> moving = new ArrayList<Client>();
+		for (Client player : this.players) {
+			moving.add(player);
+		}
+		for (Client player : moving) {
+			this.players.remove(player);
+			this.clearPlayerNumbers(player.getPlayerNo());
+			synchronized (this.allClients) {
+				this.allClients.remove(player);
+			}
+			player.setDealer(null);
+			player.setServer(target);
+			target.movedPlayers.add(player);
+		}
+
+		// Spectators follow the table to the other room
+		for (Client spectator : this.spectators) {
+			this.spectators.remove(spectator);
+			spectator.setServer(target);
+			target.attachClient(spectator, "% MOVED " + target.getRoomNo(),
+					false);
+		}
+		Joining joining;
+		while ((joining = this.joiningClients.poll()) != null) {
+			joining.client.setServer(target);
+			target.attachClient(joining.client, joining.header, false);
+		}
+
+		synchronized (this) {
+			this.gameStarted = false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reserves seats for players being moved to this room, as long as the
+	 * room is not being emptied itself.
+	 * 
+	 * @param noOfPlayers
+	 *            the number of seats to reserve.
+	 * @return whether or not the seats were reserved.
+	 */
+	synchronized boolean reserveSeats(int noOfPlayers) {
+		if (!this.hasSeatsFor(noOfPlayers)) {
+			return false;
+		}
+		this.incomingPlayers += noOfPlayers;
+		return true;
+	}
+
+	/**
+	 * Check whether seats could be reserved for players being moved to this
+	 * room (see {@link #reserveSeats(int)}).
+	 * 
+	 * @param noOfPlayers
+	 *            the number of seats.
+	 * @return whether or not the seats could be reserved.
+	 */
+	synchronized boolean hasSeatsFor(int noOfPlayers) {
+		return this.gameStarted
+				&& !this.consolidating
+				&& this.players.size() + this.incomingPlayers
+						+ noOfPlayers <= this.seats;
+	}
+
+	/**
+	 * Marks whether or not this room is being emptied into another room. A
+	 * room can't be emptied while players are being moved to it.
+	 * 
+	 * @param consolidating
+	 *            whether or not the room is being emptied.
+	 * @return whether or not the room was marked.
+	 */
+	synchronized boolean setConsolidating(boolean consolidating) {
+		if (consolidating && this.incomingPlayers != 0) {
+			return false;
+		}
+		this.consolidating = consolidating;
+		return true;
+	}
+
+	/**
+	 * Seats the players moved to this room, giving each of them a free player
+	 * number. Called by the dealer at the start of a round. Each player is
+	 * sent '% MOVED roomNo' followed by a frame of the table (starting with
+	 * their new player number) and the other clients are told that a new
+	 * player has joined.
+	 */
+	public void seatMovedPlayers() {
+		while (!this.movedPlayers.isEmpty()) {
+			Client player;
+			int playerNo;
+			synchronized (this) {
+				player = this.movedPlayers.poll();
+				if (player == null) {
+					return;
+				}
+				this.incomingPlayers--;
+				playerNo = this.returnAndUsePlayerNumber();
+				if (playerNo != -1) {
+					player.getPlayer().moveTo(this, playerNo);
+				}
+			}
+			if (playerNo == -1) {
+				player.disconnect();
+				continue;
+			}
+			player.setDealer(this.dealer);
+
+			// Seat the player before their frame is built, so that it has
+			// their coins
+			this.newPlayer(player);
+			this.attachClient(player, "% MOVED " + this.roomNo, true);
+		}
+	}
+
+	/**
+	 * Get the name of the settings profile of the room.
+	 * 
+	 * @return the name of the profile.
+	 */
+	public String getProfile() {
+		return this.profile;
+	}
+
+	/**
+	 * Get the pool of threads that sends the room's messages and runs its
+	 * dealer.
+	 * 
+	 * @return the room dispatcher.
+	 */
+	public ScheduledExecutorService getDispatcher() {
+		return this.centralServer.getDispatcher();
+	}
+
+	/**
+	 * Get the log of the room (shared with the central server).
+	 * 
+	 * @return the log.
+	 */
+	public Log getLog() {
+		return this.centralServer.getLog();
+	}
+
+	/**
+	 * Get the counters of the central server, which also audit the players'
+	 * wallets.
+	 * 
+	 * @return the metrics.
+	 */
+	public Metrics getMetrics() {
+		return this.centralServer.getMetrics();
+	}
+
+	/**
+	 * Get the collector of the traces of every room's rounds.
+	 * 
+	 * @return the round tracer.
+	 */
+	public RoundTracer getRoundTracer() {
+		return this.centralServer.getRoundTracer();
+	}
+
+	/**
+	 * Get the dealer of the room.
+	 * 
+	 * @return the dealer.
+	 */
+	public Dealer getDealer() {
+		return this.dealer;
+	}
+
+	/**
+	 * Get the source of time for the room.
+	 * 
+	 * @return the clock.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Get the current settings of the room. The settings object never
+	 * changes, but may be replaced when the settings are reloaded.
+	 * 
+	 * @return the settings.
+	 */
+	public Settings getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * Replaces the settings of the room. The number of seats and decks of a
+	 * game in progress stay the same.
+	 * 
+	 * @param settings
+	 *            the new settings.
+	 */
+	void setSettings(Settings settings) {
+		// Reschedule the messages if the delay has changed (a run that has
+		// already started finishes first, as sending is synchronized)
+		int oldDelay = this.settings.getMessageDelay();
+		this.settings = settings;
+		if (settings.getMessageDelay() != oldDelay) {
+			synchronized (this) {
+				if (!this.messageTask.isCancelled()) {
+					this.messageTask.cancel(false);
+					this.scheduleMessages(settings.getMessageDelay());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of player seats in the room.
+	 * 
+	 * @return the number of seats.
+	 */
+	public int getSeats() {
+		return this.seats;
+	}
+
+	/**
+	 * Get the message telling clients the number of seats in the room, sent
+	 * after '% ACCEPTED' when the room doesn't have the default number of
+	 * seats. Player numbers can then have more than one digit.
+	 * 
+	 * @return the message in the following format: '% SEATS n'.
+	 */
+	public String getSeatsMessage() {
+		return "% SEATS " + this.seats;
+	}
+
+	/**
+	 * Get the client seated at a player number.
+	 * 
+	 * @param playerNo
+	 *            the player number.
+	 * @return the client, or null if nobody is seated there.
+	 */
+	Client getPlayer(int playerNo) {
+		return this.players.get(playerNo);
+	}
+
+	/**
+	 * Get the number of players seated in the room.
+	 * 
+	 * @return the number of players.
+	 */
+	public int getNoOfPlayers() {
+		return this.players.size();
+	}
+
+	/**
+	 * Adds a client to the spectators of the server, giving it an outbox in
+	 * the spectator tier if it doesn't have one yet.
+	 * 
+	 * @param spectator
+	 *            the client to add.
+	 */
+	private void addSpectator(Client spectator) {
+		if (spectator.getOutbox() == null) {
+			spectator.setOutbox(this.centralServer.getSpectatorFanout()
+					.newOutbox(spectator));
+		}
+		this.spectators.add(spectator);
+	}
+
+	/**
+	 * Get the number identifying this game room.
+	 * 
+	 * @return the room number.
+	 */
+	public int getRoomNo() {
+		return this.roomNo;
+	}
+
+	/**
+	 * Sends a completed hand to the central server's hand archive. Does not
+	 * wait for the hand to be written.
+	 * 
+	 * @param hand
+	 *            the record of the completed hand.
+	 */
+	public void archiveHand(HandRecord hand) {
+		HandArchive archive = this.centralServer.getHandArchive();
+		if (archive != null && !archive.append(hand)) {
+			this.println("Hand archive is behind, hand dropped");
+		}
+	}
+
+	/**
+	 * Sends the settled result of a player's hand to the central server's
+	 * leaderboard.
+	 * 
+	 * @param player
+	 *            the player.
+	 * @param name
+	 *            the name of the player.
+	 * @param coins
+	 *            the player's balance after the hand.
+	 * @param won
+	 *            whether or not the player won the hand.
+	 */
+	public void updateLeaderboard(Player player, String name, int coins,
+			boolean won) {
+		this.centralServer.getLeaderboard().update(player.getId(), name,
+				coins, this.settings.getStartCoins(), won);
+	}
+
+	/**
+	 * Centralized place for all objects associated with this Server to send
+	 * debugging messages to the log from, tagged with the room number.
+	 * Prevents all objects from needing references to the
+	 * {@link CentralServer}. <br>
+	 * When using this method, it is not necessary to check if debugging is
+	 * enabled in the settings, as the message will only be sent if so.
+	 * 
+	 * @param message
+	 *            the debugging message to log.
+	 */
+	public void println(String message) {
+		if (this.settings.isDebug()) {
+			this.centralServer.getLog().log(Log.DEBUG, this.logTag, message);
+		}
+	}
+
+	/**
+	 * Decides whether an event that happens many times a round (e.g. each
+	 * card dealt) should be logged: only if debugging is enabled, and then 1
+	 * in every 'log.sample' of them. Checked before building the message, so
+	 * that events that aren't logged cost nothing more.
+	 * 
+	 * @return whether or not to log the event with
+	 *         {@link #printlnSampled(String)}.
+	 */
+	public boolean shouldSample() {
+		Settings settings = this.settings;
+		return settings.isDebug() && Log.sample(settings.getLogSample());
+	}
+
+	/**
+	 * Same as {@link #println(String)}, for an event that
+	 * {@link #shouldSample()} has decided should be logged.
+	 * 
+	 * @param message
+	 *            the debugging message to log.
+	 */
+	public void printlnSampled(String message) {
+		this.centralServer.getLog().log(Log.DEBUG, this.logTag, message);
+	}
+
+	/**
+	 * Get the tag of the room's lines in the log.
+	 * 
+	 * @return the tag (e.g. "room 3").
+	 */
+	public String getLogTag() {
+		return this.logTag;
+	}
 }
\ No newline at end of file
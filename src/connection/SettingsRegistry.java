@@ -0,0 +1,150 @@
+package connection;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import utilities.Settings;
+
+/**
+ * Settings profiles of a central server, loaded from a properties file and
+ * reloaded whenever the file changes. <br>
+ * Top level keys (e.g. 'message.delay=500') make up the default profile used
+ * by every room unless a player asks for another one. Keys of the form
+ * 'profile.name.key' make up profile 'name', which uses the default profile
+ * for anything it doesn't set. Running rooms are given their profile's new
+ * settings on every reload (except for the number of seats, which only
+ * applies to new rooms).
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class SettingsRegistry implements Runnable {
+
+	/**
+	 * Name of the file the settings are loaded from, in the directory the
+	 * server is run from.
+	 */
+	public static final String FILE_NAME = "blackjack.properties";
+
+	/**
+	 * Name of the profile made up of the top level keys.
+	 */
+	public static final String DEFAULT_PROFILE = "default";
+
+	/**
+	 * Time (in milliseconds) between checks for changes to the file.
+	 */
+	public static final int CHECK_INTERVAL = 2000;
+
+	private File file;
+	private long lastModified;
+	private Settings defaults;
+	private CentralServer centralServer;
+
+	/**
+	 * Settings of every profile, by name. Replaced as a whole on every reload.
+	 */
+	private volatile Map<String, Settings> profiles;
+
+	/**
+	 * Constructor for a new SettingsRegistry object, loading the file if it
+	 * exists.
+	 * 
+	 * @param file
+	 *            the properties file to load.
+	 * @param defaults
+	 *            the settings to use for anything the file doesn't set.
+	 * @param centralServer
+	 *            the central server whose rooms are given new settings on
+	 *            every reload.
+	 */
+	public SettingsRegistry(File file, Settings defaults,
+			CentralServer centralServer) {
+		this.file = file;
+		this.defaults = defaults;
+		this.centralServer = centralServer;
+		this.profiles = Collections.singletonMap(DEFAULT_PROFILE, defaults);
+		this.reload();
+	}
+
+	/**
+	 * Gets the current settings of a profile.
+	 * 
+	 * @param profile
+	 *            the name of the profile.
+	 * @return the settings, or null if there is no such profile.
+	 */
+	public Settings get(String profile) {
+		return this.profiles.get(profile);
+	}
+
+	/**
+	 * Loads the file again, keeping the current settings if the file can't be
+	 * read or has an invalid value.
+	 * 
+	 * @return whether or not new settings were loaded.
+	 */
+	public boolean reload() {
+		this.lastModified = this.file.lastModified();
+		if (!this.file.exists()) {
+			return false;
+		}
+
+		Properties properties = new Properties();
+		try (InputStream input = new FileInputStream(this.file)) {
+			properties.load(input);
+		} catch (IOException e) {
+			this.centralServer.println("Error reading " + this.file
+					+ ", keeping the current settings");
+			return false;
+		}
+
+		// Build every profile on top of the default profile
+		HashMap<String, Settings> profiles = new HashMap<String, Settings>();
+		try {
+			Settings base = Settings.load(properties, "", this.defaults);
+			profiles.put(DEFAULT_PROFILE, base);
+			for (String key : properties.stringPropertyNames()) {
+				String[] parts = key.split("\\.", 3);
+				if (parts.length == 3 && parts[0].equals("profile")
+						&& parts[1].matches("[a-zA-Z0-9]{1,16}")
+						&& !profiles.containsKey(parts[1])) {
+					profiles.put(parts[1], Settings.load(properties,
+							"profile." + parts[1] + ".", base));
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			this.centralServer.println("Invalid setting in " + this.file
+					+ " (" + e.getMessage() + "), keeping the current settings");
+			return false;
+		}
+		this.profiles = profiles;
+		this.centralServer.println("Loaded settings from " + this.file + " ("
+				+ profiles.size() + " profiles)");
+		return true;
+	}
+
+	/**
+	 * Checks for changes to the file forever, reloading it and giving every
+	 * room its new settings whenever it changes.
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				Thread.sleep(CHECK_INTERVAL);
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (this.file.lastModified() != this.lastModified && this.reload()) {
+				this.centralServer.applySettings();
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+package connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lower priority tier for sending broadcasts to spectators, so that the time
+ * it takes to reach seated players never depends on the number of spectators.
+ * <br>
+ * A game room hands each broadcast to its {@link Lane} once and moves on. The
+ * fan-out threads then copy the message into the bounded {@link Outbox} of
+ * every spectator of the room and write each outbox to its socket, one
+ * spectator at a time. A spectator that falls behind first has cosmetic
+ * messages skipped, and is disconnected once an essential message no longer
+ * fits in its outbox. <br>
+ * Writes to a spectator that has stopped reading block the thread writing
+ * them until the {@link Heartbeat} disconnects the spectator (after
+ * 'write.timeout' seconds), so threads are started as needed up to
+ * {@link #THREADS} rather than a few stuck spectators holding up every
+ * other spectator.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class SpectatorFanout {
+
+	/**
+	 * Largest number of threads shared by every room for sending to
+	 * spectators. Threads are started as needed and stop after
+	 * {@link #THREAD_IDLE_TIME} seconds without work.
+	 */
+	public static final int THREADS = 32;
+
+	/**
+	 * Time (in seconds) a thread is kept without work.
+	 */
+	public static final int THREAD_IDLE_TIME = 60;
+
+	/**
+	 * Number of messages a spectator can fall behind by before messages are
+	 * skipped.
+	 */
+	public static final int OUTBOX_SIZE = 256;
+
+	private ExecutorService executor;
+	private AtomicLong skippedMessages, droppedSpectators;
+
+	/**
+	 * Runnable that only ever has one copy of itself queued or running, so
+	 * that the work for a single room or spectator stays in order while
+	 * different rooms and spectators are handled in parallel.
+	 */
+	private abstract class SerialTask implements Runnable {
+		private AtomicBoolean scheduled = new AtomicBoolean();
+
+		/**
+		 * Queues the task to run unless it is already queued or running.
+		 */
+		void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				SpectatorFanout.this.executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			this.drain();
+			this.scheduled.set(false);
+
+			// Run again if more work arrived after draining
+			if (this.hasWork()) {
+				this.schedule();
+			}
+		}
+
+		/**
+		 * Does all of the work currently available.
+		 */
+		abstract void drain();
+
+		/**
+		 * Checks if there is work available.
+		 * 
+		 * @return whether or not there is work to do.
+		 */
+		abstract boolean hasWork();
+	}
+
+	/**
+	 * Spectator joining a room in the middle of a game, along with the frame
+	 * of the table to send before any live broadcasts.
+	 */
+	private static class Attach {
+		private Client spectator;
+		private ArrayList<String> frame;
+	}
+
+	/**
+	 * Broadcasts of a single game room waiting to be copied to its
+	 * spectators, in the order they were sent.
+	 */
+	class Lane extends SerialTask {
+
+		/**
+		 * Broadcasts ({@link Message}) and joining spectators ({@link Attach})
+		 * in the order they happened.
+		 */
+		private ConcurrentLinkedQueue<Object> messages = new ConcurrentLinkedQueue<Object>();
+		private List<Client> spectators;
+
+		/**
+		 * Constructor for a new Lane object.
+		 * 
+		 * @param spectators
+		 *            the room's list of spectators (must be safe to iterate
+		 *            while it is being changed).
+		 */
+		Lane(List<Client> spectators) {
+			this.spectators = spectators;
+		}
+
+		/**
+		 * Queues a broadcast for the room's spectators.
+		 * 
+		 * @param message
+		 *            the message to broadcast.
+		 */
+		void broadcast(Message message) {
+			this.messages.add(message);
+			this.schedule();
+		}
+
+		/**
+		 * Queues a spectator to join the room once every broadcast queued so
+		 * far has been copied, sending it a frame of the table first. The
+		 * frame must describe the table as of the last queued broadcast.
+		 * 
+		 * @param spectator
+		 *            the spectator joining.
+		 * @param frame
+		 *            the messages recreating the table.
+		 */
+		void attach(Client spectator, ArrayList<String> frame) {
+			Attach attach = new Attach();
+			attach.spectator = spectator;
+			attach.frame = frame;
+			this.messages.add(attach);
+			this.schedule();
+		}
+
+		@Override
+		void drain() {
+			Object next;
+			while ((next = this.messages.poll()) != null) {
+				if (next instanceof Attach) {
+					Attach attach = (Attach) next;
+					for (String line : attach.frame) {
+						attach.spectator.getOutbox().add(
+								new Message(Message.ALL_CLIENTS, line));
+					}
+					if (attach.spectator.isConnected()) {
+						this.spectators.add(attach.spectator);
+					}
+					continue;
+				}
+
+				Message message = (Message) next;
+				for (Client spectator : this.spectators) {
+					if (spectator.getPlayerNo() != message.getIgnoredPlayer()) {
+						spectator.getOutbox().add(message);
+					}
+				}
+			}
+		}
+
+		@Override
+		boolean hasWork() {
+			return !this.messages.isEmpty();
+		}
+	}
+
+	/**
+	 * Bounded queue of messages waiting to be written to a single spectator.
+	 */
+	class Outbox extends SerialTask {
+		private ArrayBlockingQueue<Message> messages = new ArrayBlockingQueue<Message>(
+				OUTBOX_SIZE);
+		private Client client;
+		private boolean dropped;
+
+		/**
+		 * Constructor for a new Outbox object.
+		 * 
+		 * @param client
+		 *            the spectator to write to.
+		 */
+		Outbox(Client client) {
+			this.client = client;
+		}
+
+		/**
+		 * Queues a message for the spectator, skipping it if the spectator is
+		 * behind and the message is cosmetic, or disconnecting the spectator
+		 * if it is behind by a full outbox of essential messages.
+		 * 
+		 * @param message
+		 *            the message to send.
+		 */
+		void add(Message message) {
+			if (this.dropped) {
+				return;
+			}
+
+			// Skip cosmetic messages once the spectator is half an outbox
+			// behind
+			if (message.isCosmetic()
+					&& this.messages.size() >= OUTBOX_SIZE / 2) {
+				SpectatorFanout.this.skippedMessages.incrementAndGet();
+				return;
+			}
+
+			// Disconnect the spectator if it can't keep up with essential
+			// messages
+			if (!this.messages.offer(message)) {
+				this.dropped = true;
+				this.messages.clear();
+				SpectatorFanout.this.droppedSpectators.incrementAndGet();
+				SpectatorFanout.this.executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						Outbox.this.client.disconnect();
+					}
+				});
+				return;
+			}
+			this.schedule();
+		}
+
+		@Override
+		void drain() {
+			Message message;
+			while ((message = this.messages.poll()) != null) {
+				// Stop writing once the spectator has been disconnected (e.g.
+				// after a write got stuck)
+				if (!this.client.isConnected()) {
+					this.messages.clear();
+					return;
+				}
+				this.client.sendMessage(message.getMessage());
+			}
+		}
+
+		@Override
+		boolean hasWork() {
+			return !this.messages.isEmpty();
+		}
+	}
+
+	/**
+	 * Constructor for a new SpectatorFanout object with its own low priority
+	 * threads.
+	 */
+	public SpectatorFanout() {
+		this.skippedMessages = new AtomicLong();
+		this.droppedSpectators = new AtomicLong();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS,
+				THREAD_IDLE_TIME, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					private int threadNo;
+
+					@Override
+					public synchronized Thread newThread(Runnable task) {
+						Thread thread = new Thread(task, "Spectator fan-out #"
+								+ (++this.threadNo));
+						thread.setDaemon(true);
+						thread.setPriority(Thread.MIN_PRIORITY);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates a lane for a game room's broadcasts to its spectators.
+	 * 
+	 * @param spectators
+	 *            the room's list of spectators (must be safe to iterate while
+	 *            it is being changed).
+	 * @return the new lane.
+	 */
+	Lane newLane(List<Client> spectators) {
+		return new Lane(spectators);
+	}
+
+	/**
+	 * Creates an outbox for a spectator.
+	 * 
+	 * @param client
+	 *            the spectator.
+	 * @return the new outbox.
+	 */
+	Outbox newOutbox(Client client) {
+		return new Outbox(client);
+	}
+
+	/**
+	 * Get the number of cosmetic messages skipped for slow spectators.
+	 * 
+	 * @return the number of skipped messages.
+	 */
+	public long getSkippedMessages() {
+		return this.skippedMessages.get();
+	}
+
+	/**
+	 * Get the number of spectators disconnected for falling too far behind.
+	 * 
+	 * @return the number of dropped spectators.
+	 */
+	public long getDroppedSpectators() {
+		return this.droppedSpectators.get();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package connection;
+
+import java.util.ArrayList;
+
+/**
+ * State of a game room's table as seen by its clients (seats, names, visible
+ * cards, bets, balances and whose turn it is). Kept up to date by applying
+ * every broadcast as it is sent, so that a spectator joining in the middle of
+ * a game can be sent one compact frame of the table followed by the live
+ * broadcasts. <br>
+ * Only used by the thread sending the room's messages, so the dealer never
+ * waits on it.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class TableSnapshot {
+
+	/**
+	 * State of a single seat (index 0 is the dealer).
+	 */
+	private static class Seat {
+		private String name;
+		private boolean ready;
+		private String coins, startCoins;
+		private String bet;
+		private ArrayList<String> cards = new ArrayList<String>();
+		private String result;
+
+		/**
+		 * Whether or not the seat has been told it is their turn and hasn't
+		 * finished (several seats can be when every player plays at once).
+		 */
+		private boolean turn;
+
+		/**
+		 * Clears everything from the previous round.
+		 */
+		private void clearRound() {
+			this.bet = null;
+			this.cards.clear();
+			this.result = null;
+			this.turn = false;
+		}
+	}
+
+	private Server server;
+	private Seat[] seats;
+	private boolean gameStarted, roundStarted;
+
+	/**
+	 * Constructor for a new, empty TableSnapshot object.
+	 * 
+	 * @param server
+	 *            the server of the room, giving the number of seats at the
+	 *            table and the balances of new players.
+	 */
+	public TableSnapshot(Server server) {
+		this.server = server;
+		this.seats = new Seat[server.getSeats() + 1];
+		for (int seatNo = 0; seatNo < this.seats.length; seatNo++) {
+			this.seats[seatNo] = new Seat();
+		}
+	}
+
+	/**
+	 * Updates the table with a message that was broadcast to the room.
+	 * 
+	 * @param message
+	 *            the message that was broadcast.
+	 */
+	public void apply(String message) {
+		String[] parts = message.split(" ");
+		if (parts.length < 2) {
+			return;
+		}
+		switch (parts[0]) {
+		case "@":
+			// A new player joined: '@ n name'
+			Seat joined = this.seat(parts[1]);
+			if (joined != null) {
+				this.join(joined, Integer.parseInt(parts[1]),
+						message.substring(parts[0].length()
+								+ parts[1].length() + 2));
+			}
+			break;
+		case "!":
+			// A player left: '! n'
+			Seat left = this.seat(parts[1]);
+			if (left != null) {
+				left.name = null;
+				left.clearRound();
+			}
+			break;
+		case "$":
+			// A player placed a bet: '$ n bets x'
+			Seat better = this.seat(parts[1]);
+			if (better != null && parts.length == 4) {
+				better.bet = parts[3];
+			}
+			break;
+		case "#":
+			// A card was dealt: '# n rank suit'
+			Seat dealt = this.seat(parts[1]);
+			if (dealt != null && parts.length == 4) {
+				dealt.cards.add(parts[2] + " " + parts[3]);
+			}
+			break;
+		case "&":
+			// A result: '& n result coins'
+			Seat finished = this.seat(parts[1]);
+			if (finished != null && parts.length == 4) {
+				finished.result = parts[2];
+				if (!parts[3].equals("X")) {
+					finished.coins = parts[3];
+				}
+				finished.turn = false;
+			}
+			break;
+		case "+":
+			// Standings at the end of a round: '+ n coins n coins ...'
+			for (int part = 1; part + 1 < parts.length; part += 2) {
+				Seat standing = this.seat(parts[part]);
+				if (standing != null) {
+					standing.coins = parts[part + 1];
+				}
+			}
+			this.roundStarted = false;
+			for (Seat seat : this.seats) {
+				seat.turn = false;
+			}
+			break;
+		case "%":
+			this.applyStatus(parts);
+			break;
+		}
+	}
+
+	/**
+	 * Updates the table with a status message ('% ...').
+	 * 
+	 * @param parts
+	 *            the message split into words.
+	 */
+	private void applyStatus(String[] parts) {
+		if (parts[1].equals("START")) {
+			this.gameStarted = true;
+		} else if (parts[1].equals("NEWROUND")) {
+			this.roundStarted = true;
+			for (Seat seat : this.seats) {
+				seat.clearRound();
+				seat.startCoins = seat.coins;
+			}
+		} else if (parts.length == 3 && parts[2].equals("READY")) {
+			Seat ready = this.seat(parts[1]);
+			if (ready != null) {
+				ready.ready = true;
+			}
+		} else if (parts.length == 3 && parts[2].equals("turn")) {
+			// A turn lasts until the seat's result or the player leaving
+			Seat turn = this.seat(parts[1]);
+			if (turn != null) {
+				turn.turn = true;
+			}
+		}
+	}
+
+	/**
+	 * Seats a new player, with the starting coins or the coins they brought
+	 * from another room.
+	 * 
+	 * @param seat
+	 *            the seat.
+	 * @param seatNo
+	 *            the number of the seat.
+	 * @param name
+	 *            the name of the player.
+	 */
+	private void join(Seat seat, int seatNo, String name) {
+		Client player = this.server.getPlayer(seatNo);
+		seat.name = name;
+		seat.coins = String.valueOf(player == null
+				|| player.getPlayer() == null ? this.server.getSettings()
+				.getStartCoins() : player.getPlayer().getCoins());
+		seat.startCoins = seat.coins;
+		seat.ready = false;
+		seat.clearRound();
+	}
+
+	/**
+	 * Gets a seat from its number in a message.
+	 * 
+	 * @param seatNo
+	 *            the seat number as written in the message.
+	 * @return the seat, or null if it is not a valid seat number.
+	 */
+	private Seat seat(String seatNo) {
+		if (!seatNo.matches("[0-9]{1,3}")) {
+			return null;
+		}
+		int number = Integer.parseInt(seatNo);
+		return number < this.seats.length ? this.seats[number] : null;
+	}
+
+	/**
+	 * Builds the frame sent to a client joining the room, made of regular
+	 * protocol messages that recreate the current table: the header, the
+	 * number of seats (if not the default), the start message, the players,
+	 * their balances and then the cards, bets and results of the round in
+	 * progress followed by whose turn it is.
+	 * 
+	 * @param header
+	 *            the first message of the frame (e.g. '% ACCEPTED').
+	 * @param playerNo
+	 *            the player number the client is told in the start message
+	 *            (-1 for a spectator).
+	 * @return the messages of the frame, in the order they should be sent.
+	 */
+	public ArrayList<String> toFrame(String header, int playerNo) {
+		// A player moved from another room is sent the frame before the
+		// message announcing them, so seat them now to include their coins
+		if (playerNo > 0 && playerNo < this.seats.length
+				&& this.seats[playerNo].name == null) {
+			Client player = this.server.getPlayer(playerNo);
+			if (player != null) {
+				this.join(this.seats[playerNo], playerNo, player.getName());
+			}
+		}
+
+		ArrayList<String> frame = new ArrayList<String>();
+		frame.add(header);
+		if (this.server.getSeats() != Server.DEFAULT_SEATS) {
+			frame.add(this.server.getSeatsMessage());
+		}
+		frame.add("@ " + playerNo + " 0");
+		for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+			if (this.seats[seatNo].name != null) {
+				frame.add("@ " + seatNo + " " + this.seats[seatNo].name);
+			}
+		}
+
+		// Players that are ready in the lobby
+		if (!this.gameStarted) {
+			for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+				if (this.seats[seatNo].name != null
+						&& this.seats[seatNo].ready) {
+					frame.add("% " + seatNo + " READY");
+				}
+			}
+			return frame;
+		}
+
+		// Balances of every player as of the start of the current round
+		frame.add("% START");
+		StringBuilder standings = new StringBuilder("+ ");
+		for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+			if (this.seats[seatNo].name != null) {
+				standings.append(seatNo).append(' ');
+				standings.append(this.roundStarted ? this.seats[seatNo].startCoins
+						: this.seats[seatNo].coins);
+				standings.append(' ');
+			}
+		}
+		frame.add(standings.toString());
+		if (!this.roundStarted) {
+			return frame;
+		}
+
+		// Bets, cards and results of the round in progress
+		frame.add("% NEWROUND");
+		for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+			if (this.seats[seatNo].bet != null) {
+				frame.add("$ " + seatNo + " bets " + this.seats[seatNo].bet);
+			}
+		}
+		for (int seatNo = 0; seatNo < this.seats.length; seatNo++) {
+			for (String card : this.seats[seatNo].cards) {
+				frame.add("# " + seatNo + " " + card);
+			}
+		}
+		for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+			if (this.seats[seatNo].result != null) {
+				frame.add("& " + seatNo + " " + this.seats[seatNo].result
+						+ " " + this.seats[seatNo].coins);
+			}
+		}
+		if (this.seats[0].result != null) {
+			frame.add("& 0 " + this.seats[0].result + " X");
+		}
+		for (int seatNo = 1; seatNo < this.seats.length; seatNo++) {
+			if (this.seats[seatNo].turn) {
+				frame.add("% " + seatNo + " turn");
+			}
+		}
+		return frame;
+	}
+}
\ No newline at end of file
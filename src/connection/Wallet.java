@@ -0,0 +1,267 @@
+package connection;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coins of a player, split into the coins the player can still bet and the
+ * coins reserved for their bet this round (which the wire protocol counts as
+ * part of the player's coins until the bet is settled). <br>
+ * Both amounts are packed into a single AtomicLong (available coins in the
+ * high 32 bits, reserved coins in the low 32 bits) and changed with
+ * compare-and-set, so a bet can never be placed with coins that are being
+ * settled at the same time, without locking. <br>
+ * Every change is counted in the central server's {@link Metrics}, along
+ * with the coins paid to and taken from players, so the coins in play can be
+ * audited.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Wallet {
+	private AtomicLong balance;
+	private Metrics metrics;
+
+	/**
+	 * Constructor for a new Wallet object with nothing reserved.
+	 * 
+	 * @param coins
+	 *            the number of coins the player starts with.
+	 * @param metrics
+	 *            the counters to audit changes in.
+	 */
+	public Wallet(int coins, Metrics metrics) {
+		this.balance = new AtomicLong(pack(coins, 0));
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Reserves coins for a bet (or for raising a bet when doubling down), if
+	 * the player has enough coins available.
+	 * 
+	 * @param amount
+	 *            the number of coins to reserve.
+	 * @return whether or not the coins were reserved.
+	 */
+	public boolean reserve(int amount) {
+		while (true) {
+			long current = this.balance.get();
+			int available = available(current);
+			if (amount <= 0 || amount > available) {
+				this.metrics.reserveRejected();
+				return false;
+			}
+			if (this.balance.compareAndSet(current, pack(available - amount,
+					reserved(current) + amount))) {
+				this.metrics.walletChanged();
+				return true;
+			}
+			this.metrics.walletContended();
+		}
+	}
+
+	/**
+	 * Settles a won bet: the reserved coins are given back along with the
+	 * same number of coins won, up to the largest int (coins past it are
+	 * never paid, and so never counted as paid).
+	 * 
+	 * @return the player's coins after the bet is settled.
+	 */
+	public int win() {
+		while (true) {
+			long current = this.balance.get();
+			int reserved = reserved(current);
+			int before = available(current) + reserved;
+			int coins = (int) Math.min(Integer.MAX_VALUE, (long) before
+					+ reserved);
+			if (this.balance.compareAndSet(current, pack(coins, 0))) {
+				this.metrics.walletChanged();
+				this.metrics.coinsPaid(coins - before);
+				this.metrics.betSettled(true);
+				return coins;
+			}
+			this.metrics.walletContended();
+		}
+	}
+
+	/**
+	 * Settles a lost bet: the reserved coins are taken.
+	 * 
+	 * @return the player's coins after the bet is settled.
+	 */
+	public int lose() {
+		while (true) {
+			long current = this.balance.get();
+			int available = available(current);
+			if (this.balance.compareAndSet(current, pack(available, 0))) {
+				this.metrics.walletChanged();
+				this.metrics.coinsTaken(reserved(current));
+				this.metrics.betSettled(false);
+				return available;
+			}
+			this.metrics.walletContended();
+		}
+	}
+
+	/**
+	 * Gives back any reserved coins without settling the bet, such as when
+	 * the player is moved to another room in the middle of a round.
+	 * 
+	 * @return the player's coins.
+	 */
+	public int refund() {
+		while (true) {
+			long current = this.balance.get();
+			if (reserved(current) == 0) {
+				return available(current);
+			}
+			int coins = available(current) + reserved(current);
+			if (this.balance.compareAndSet(current, pack(coins, 0))) {
+				this.metrics.walletChanged();
+				return coins;
+			}
+			this.metrics.walletContended();
+		}
+	}
+
+	/**
+	 * Get the number of coins the player can still bet.
+	 * 
+	 * @return the number of available coins.
+	 */
+	public int getAvailable() {
+		return available(this.balance.get());
+	}
+
+	/**
+	 * Get the number of coins reserved for the player's bet.
+	 * 
+	 * @return the player's bet in coins.
+	 */
+	public int getReserved() {
+		return reserved(this.balance.get());
+	}
+
+	/**
+	 * Get the player's coins, including any reserved for their bet.
+	 * 
+	 * @return the number of coins the player has.
+	 */
+	public int getCoins() {
+		long current = this.balance.get();
+		return available(current) + reserved(current);
+	}
+
+	/**
+	 * Packs available and reserved coins into a single long.
+	 * 
+	 * @param available
+	 *            the number of available coins.
+	 * @param reserved
+	 *            the number of reserved coins.
+	 * @return the packed coins.
+	 */
+	private static long pack(int available, int reserved) {
+		return (long) available << 32 | reserved & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Gets the number of available coins from packed coins.
+	 * 
+	 * @param balance
+	 *            the packed coins.
+	 * @return the number of available coins.
+	 */
+	private static int available(long balance) {
+		return (int) (balance >>> 32);
+	}
+
+	/**
+	 * Gets the number of reserved coins from packed coins.
+	 * 
+	 * @param balance
+	 *            the packed coins.
+	 * @return the number of reserved coins.
+	 */
+	private static int reserved(long balance) {
+		return (int) balance;
+	}
+
+	/**
+	 * Stress test of the settlement of bets: several threads reserve, win,
+	 * lose and refund bets on the same few wallets at once (one of them close
+	 * to the largest int), after which the coins of the wallets must add up
+	 * to the coins they started with plus the coins paid minus the coins
+	 * taken in the audit. <br>
+	 * Usage: 'Wallet [threads] [operations per thread]'.
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the threads.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		final int operations = args.length > 1 ? Integer.parseInt(args[1])
+				: 1000000;
+		final Metrics metrics = new Metrics();
+		final Wallet[] wallets = { new Wallet(1000, metrics),
+				new Wallet(1000000, metrics),
+				new Wallet(Integer.MAX_VALUE - 1000, metrics) };
+		long started = 0;
+		for (Wallet wallet : wallets) {
+			started += wallet.getCoins();
+		}
+
+		Thread[] workers = new Thread[threads];
+		for (int threadNo = 0; threadNo < threads; threadNo++) {
+			final Random random = new Random(threadNo);
+			workers[threadNo] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int operation = 0; operation < operations;
+							operation++) {
+						Wallet wallet = wallets[random.nextInt(wallets.length)];
+						switch (random.nextInt(4)) {
+						case 0:
+							wallet.reserve(1 + random.nextInt(100));
+							break;
+						case 1:
+							wallet.win();
+							break;
+						case 2:
+							wallet.lose();
+							break;
+						default:
+							wallet.refund();
+						}
+					}
+				}
+			});
+		}
+		long startTime = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		long time = System.nanoTime() - startTime;
+
+		long ended = 0;
+		for (Wallet wallet : wallets) {
+			ended += wallet.getCoins();
+		}
+		long expected = started + metrics.getCoinsPaid()
+				- metrics.getCoinsTaken();
+		System.out.printf("%d threads x %d operations in %.0f ms, "
+				+ "%d retries%n", threads, operations, time / 1e6,
+				metrics.getContendedChanges());
+		System.out.println("Coins: " + ended + ", expected from the audit: "
+				+ expected);
+		if (ended != expected) {
+			System.out.println("Settlement is not exact");
+			System.exit(1);
+		}
+	}
+}
\ No newline at end of file
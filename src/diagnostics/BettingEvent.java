@@ -0,0 +1,63 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the betting window of a round, from betting starting to
+ * every player having bet or the betting time running out.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.Betting")
+@Label("Betting Window")
+@Category({ "Blackjack", "Dealer" })
+@Description("Time from the start of betting to the bets being closed.")
+@StackTrace(false)
+public class BettingEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Players")
+	private int players;
+
+	@Label("Bets")
+	private int bets;
+
+	@Label("Timed Out")
+	private boolean timedOut;
+
+	/**
+	 * Starts timing the betting window.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 */
+	public BettingEvent(int roomNo) {
+		this.roomNo = roomNo;
+		this.begin();
+	}
+
+	/**
+	 * Records the betting being closed.
+	 * 
+	 * @param players
+	 *            the number of players when betting closed.
+	 * @param bets
+	 *            the number of players who placed a bet.
+	 * @param timedOut
+	 *            whether or not the betting time ran out.
+	 */
+	public void end(int players, int bets, boolean timedOut) {
+		this.players = players;
+		this.bets = bets;
+		this.timedOut = timedOut;
+		this.commit();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the dealer's play, from the players' turns ending to the
+ * dealer's result being broadcast.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.DealerPlay")
+@Label("Dealer Play")
+@Category({ "Blackjack", "Dealer" })
+@Description("Time from the players' turns ending to the dealer's result.")
+@StackTrace(false)
+public class DealerPlayEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Cards")
+	private int cards;
+
+	@Label("Hand Value")
+	private int handValue;
+
+	/**
+	 * Starts timing the dealer's play.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 */
+	public DealerPlayEvent(int roomNo) {
+		this.roomNo = roomNo;
+		this.begin();
+	}
+
+	/**
+	 * Records the dealer's result.
+	 * 
+	 * @param cards
+	 *            the number of cards in the dealer's hand.
+	 * @param handValue
+	 *            the value of the dealer's hand (over 21 if the dealer bust).
+	 */
+	public void end(int cards, int handValue) {
+		this.cards = cards;
+		this.handValue = handValue;
+		this.commit();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a client being disconnected, whether it closed the
+ * connection itself or was disconnected by the server. The stack trace shows
+ * which.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.Disconnect")
+@Label("Disconnect")
+@Category({ "Blackjack", "Client" })
+@Description("A client disconnected, by itself or by the server.")
+@StackTrace(true)
+public class DisconnectEvent extends Event {
+
+	@Label("Room")
+	@Description("Room number (0 if not in a room)")
+	private int roomNo;
+
+	@Label("Seat")
+	@Description("Player number (-1 if not a player)")
+	private int seat;
+
+	@Label("Name")
+	private String name;
+
+	/**
+	 * Constructor for a new DisconnectEvent object.
+	 * 
+	 * @param roomNo
+	 *            the room number (0 if the client hadn't joined a room).
+	 * @param seat
+	 *            the player number (-1 if the client wasn't a player).
+	 * @param name
+	 *            the client's name (null if it hadn't sent one).
+	 */
+	public DisconnectEvent(int roomNo, int seat, String name) {
+		this.roomNo = roomNo;
+		this.seat = seat;
+		this.name = name;
+	}
+}
\ No newline at end of file
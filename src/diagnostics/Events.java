@@ -0,0 +1,45 @@
+package diagnostics;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+/**
+ * Checks whether the events of the diagnostics package are being recorded,
+ * so that callers only create an event when it would be committed. <br>
+ * The event type of each class is looked up once and kept, after which a
+ * check is a single read when JFR is off.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public final class Events {
+
+	/**
+	 * Event type of each event class already checked.
+	 */
+	private static final ClassValue<EventType> TYPES =
+			new ClassValue<EventType>() {
+				@Override
+				protected EventType computeValue(Class<?> type) {
+					return EventType.getEventType(type
+							.asSubclass(Event.class));
+				}
+			};
+
+	/**
+	 * Not constructed, only has static methods.
+	 */
+	private Events() {
+	}
+
+	/**
+	 * Check whether or not an event is enabled in a running recording.
+	 * 
+	 * @param type
+	 *            the class of the event.
+	 * @return whether or not the event is enabled.
+	 */
+	public static boolean enabled(Class<? extends Event> type) {
+		return TYPES.get(type).isEnabled();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a message being added to the queue of a game room, to be
+ * sent at the next tick of its message task.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.MessageQueued")
+@Label("Message Queued")
+@Category({ "Blackjack", "Room" })
+@Description("A message added to the queue of a game room.")
+@StackTrace(false)
+public class MessageQueuedEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Seat")
+	@Description("Player number of the receiver (-1 for everyone)")
+	private int seat;
+
+	@Label("Cosmetic")
+	private boolean cosmetic;
+
+	@Label("Queue Length")
+	private int queueLength;
+
+	/**
+	 * Constructor for a new MessageQueuedEvent object.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param seat
+	 *            the player number of the receiver of the message (-1 for
+	 *            every client).
+	 * @param cosmetic
+	 *            whether or not the message can be skipped for spectators.
+	 * @param queueLength
+	 *            the number of messages queued, including this one.
+	 */
+	public MessageQueuedEvent(int roomNo, int seat, boolean cosmetic,
+			int queueLength) {
+		this.roomNo = roomNo;
+		this.seat = seat;
+		this.cosmetic = cosmetic;
+		this.queueLength = queueLength;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a message being taken off the queue of a game room and
+ * written to its players' sockets, lasting as long as the writes. The time
+ * the message waited in the queue is a field.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.MessageSent")
+@Label("Message Sent")
+@Category({ "Blackjack", "Room" })
+@Description("A message written to the players of a game room.")
+@StackTrace(false)
+public class MessageSentEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Seat")
+	@Description("Player number of the receiver (-1 for everyone)")
+	private int seat;
+
+	@Label("Queue Time")
+	@Timespan(Timespan.NANOSECONDS)
+	private long queueTime;
+
+	/**
+	 * Starts timing the writes of a message.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param seat
+	 *            the player number of the receiver of the message (-1 for
+	 *            every client).
+	 * @param queueTime
+	 *            the time the message waited in the queue (in nanoseconds,
+	 *            from the room's clock).
+	 */
+	public MessageSentEvent(int roomNo, int seat, long queueTime) {
+		this.roomNo = roomNo;
+		this.seat = seat;
+		this.queueTime = queueTime;
+		this.begin();
+	}
+}
\ No newline at end of file
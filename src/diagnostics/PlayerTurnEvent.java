@@ -0,0 +1,59 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a player's turn, lasting from the '% n turn' line being
+ * queued to the player's move being applied, which is the time the dealer
+ * waited for the player. A player who hits and can play on starts a new
+ * turn.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.PlayerTurn")
+@Label("Player Turn")
+@Category({ "Blackjack", "Dealer" })
+@Description("Time from a player being told it is their turn to their move.")
+@StackTrace(false)
+public class PlayerTurnEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Seat")
+	private int seat;
+
+	@Label("Move")
+	private char move;
+
+	/**
+	 * Starts timing a player's turn.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param seat
+	 *            the player number.
+	 */
+	public PlayerTurnEvent(int roomNo, int seat) {
+		this.roomNo = roomNo;
+		this.seat = seat;
+		this.begin();
+	}
+
+	/**
+	 * Records the player's move being applied.
+	 * 
+	 * @param move
+	 *            the move ('H', 'S' or 'D').
+	 */
+	public void end(char move) {
+		this.move = move;
+		this.commit();
+	}
+}
\ No newline at end of file
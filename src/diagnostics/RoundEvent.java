@@ -0,0 +1,57 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a round of a game room, from the start of betting to the
+ * standings being broadcast.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.Round")
+@Label("Round")
+@Category({ "Blackjack", "Dealer" })
+@Description("A round, from the start of betting to the standings.")
+@StackTrace(false)
+public class RoundEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Simultaneous Turns")
+	private boolean simultaneous;
+
+	@Label("Players")
+	private int players;
+
+	/**
+	 * Starts timing a round.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param simultaneous
+	 *            whether or not every player takes their turn at once.
+	 */
+	public RoundEvent(int roomNo, boolean simultaneous) {
+		this.roomNo = roomNo;
+		this.simultaneous = simultaneous;
+		this.begin();
+	}
+
+	/**
+	 * Records the end of the round.
+	 * 
+	 * @param players
+	 *            the number of players in the standings.
+	 */
+	public void end(int players) {
+		this.players = players;
+		this.commit();
+	}
+}
\ No newline at end of file
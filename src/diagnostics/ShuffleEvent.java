@@ -0,0 +1,42 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a shoe being refilled and shuffled.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+@Name("blackjack.Shuffle")
+@Label("Shuffle")
+@Category({ "Blackjack", "Dealer" })
+@Description("Time taken to refill and shuffle a shoe.")
+@StackTrace(false)
+public class ShuffleEvent extends Event {
+
+	@Label("Room")
+	private int roomNo;
+
+	@Label("Decks")
+	private int decks;
+
+	/**
+	 * Starts timing a shuffle.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param decks
+	 *            the number of decks in the shoe.
+	 */
+	public ShuffleEvent(int roomNo, int decks) {
+		this.roomNo = roomNo;
+		this.decks = decks;
+		this.begin();
+	}
+}
\ No newline at end of file
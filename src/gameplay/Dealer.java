@@ -1,523 +1,1346 @@
-package gameplay;
-
-import java.util.ArrayList;
-
-import connection.Client;
-import connection.Player;
-import connection.Server;
-import utilities.ClientList;
-
-/**
- * Handles the actual gameplay, i.e. which player's turn is it, giving the
- * dealer cards, etc.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 1, 2015
- */
-public class Dealer implements Runnable {
-
-	/**
-	 * Characters representing the suits of the card deck: spades, clubs,
-	 * hearts, and diamonds.
-	 */
-	public static final char[] SUITS = { 'S', 'C', 'H', 'D' };
-
-	/**
-	 * Characters representing the various ranks of the cards in the deck. <br>
-	 * Note that "10" is represented but 'T' to remain consistent with the
-	 * single character format and allow for the use of a char array instead of
-	 * a string array.
-	 */
-	public static final char[] RANKS = { 'A', '2', '3', '4', '5', '6', '7',
-			'8', '9', 'T', 'J', 'Q', 'K' };
-
-	/**
-	 * The number of decks (52 cards per deck) in play after each shuffle.
-	 */
-	public static final int NUMBER_OF_DECKS = 6;
-
-	/**
-	 * Minimum cards required in the deck before the start of the round.
-	 */
-	public static final int MINIMUM_CARDS_PER_PLAYER = 21;
-
-	/**
-	 * Seconds provided for clients to place their bets.
-	 */
-	public static final int BETTING_TIME = 60;
-
-	/**
-	 * Chance that the deck will be shuffled at the end of a round (in
-	 * percentage). Setting this to 100 means the deck will be shuffled after
-	 * every turn.
-	 */
-	public static final int SHUFFLE_CHANCE = 20;
-
-	private Server server;
-	private Deck deck;
-	private ClientList players;
-
-	/**
-	 * The cards in the dealer's current hand.
-	 */
-	private ArrayList<Card> dealerCards;
-
-	/**
-	 * The value of all the cards in the dealer's current hand.
-	 */
-	private int dealerHand;
-
-	/**
-	 * Whether player's can place a bet. Object is used to allow for
-	 * synchronization.
-	 */
-	private Boolean bettingIsActive;
-
-	/**
-	 * The player number of the player who should make their choice to hit,
-	 * stand, or doubledown.
-	 */
-	private int currentPlayerTurn;
-
-	private BettingTimer betTimer;
-	private Thread betTimerThread;
-
-	/**
-	 * The timer for the betting period before each round. Runs for the number
-	 * of seconds specified in the {@link Dealer#BETTING_TIME} constant
-	 */
-	private class BettingTimer implements Runnable {
-		@Override
-		public void run() {
-			// Wait x seconds and end the betting time, x being 'BETTING_TIME'
-			int bettingElapsedTime = 0;
-			while (Dealer.this.bettingIsActive) {
-				try {
-					Thread.sleep(Server.MESSAGE_DELAY);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-				bettingElapsedTime += Server.MESSAGE_DELAY;
-
-				if (bettingElapsedTime >= BETTING_TIME * 1000) {
-					synchronized (Dealer.this.bettingIsActive) {
-						Dealer.this.bettingIsActive = false;
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Constructor for a new Dealer object. Starts up the actual main game of
-	 * Blackjack.
-	 * 
-	 * @param server
-	 *            the server that the game is in.
-	 * @param players
-	 *            a list of all of the player.
-	 */
-	public Dealer(Server server, ClientList players) {
-		this.deck = new Deck(NUMBER_OF_DECKS);
-		this.server = server;
-		this.players = players;
-		this.dealerHand = 0;
-		this.dealerCards = new ArrayList<Card>();
-		this.bettingIsActive = false;
-
-		// Send this dealer object to all the players
-		for (Client player : players) {
-			player.setDealer(this);
-		}
-
-		// Place the betting timer in the thread
-		this.betTimer = new BettingTimer();
-		this.betTimerThread = new Thread(this.betTimer);
-	}
-
-	/**
-	 * Begins the game.
-	 */
-	public void run() {
-		while (this.server.gameStarted()) {
-			// Broadcast that a new round has started
-			this.server.queueMessage("% NEWROUND");
-			this.server.println("Starting new round...");
-
-			// Give players 60 seconds to place their bets, and reset all their
-			// previous bets
-			this.server.println("Betting starts now...");
-			this.bettingIsActive = true;
-			this.betTimerThread = new Thread(new BettingTimer());
-			this.betTimerThread.start();
-			for (Client player : this.players) {
-				if (player.isPlayer()) {
-					player.setBet(0);
-				}
-			}
-
-			// Continually check if everyone has placed a bet, and stop after 30
-			// seconds
-			while (this.bettingIsActive) {
-				boolean allBet = true;
-				for (Client currentPlayer : this.players) {
-					if (currentPlayer.isPlayer() && currentPlayer.getBet() == 0) {
-						allBet = false;
-					}
-				}
-				if (allBet) {
-					synchronized (Dealer.this.bettingIsActive) {
-						this.bettingIsActive = false;
-					}
-				}
-				try {
-					Thread.sleep(Server.MESSAGE_DELAY);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-			try {
-				this.betTimerThread.join();
-			} catch (InterruptedException e1) {
-			}
-
-			// Disconnect all players who haven't bet
-			for (Client currentPlayer : this.players) {
-				if (currentPlayer.isPlayer() && currentPlayer.getBet() == 0) {
-					currentPlayer.disconnect();
-				}
-			}
-
-			// Broadcast the dealer's cards and add them to the dealer's hand
-			Card hiddenCard = this.deck.getCard();
-			this.server.queueMessage("# 0 X X");
-			Card cardDrawn = this.deck.getCard();
-			this.dealTheDealer(cardDrawn);
-			this.server.queueMessage("# 0 " + cardDrawn.toString());
-
-			// Go through each player and deal them two cards each
-			for (Client player : this.players) {
-				for (int card = 0; card < 2; card++) {
-					cardDrawn = this.deck.getCard();
-					player.getPlayer().addCard(cardDrawn);
-					this.server.queueMessage("# " + (player.getPlayerNo())
-							+ " " + cardDrawn.toString());
-
-				}
-			}
-
-			// Goes through each client for their turn
-			for (Client currentPlayer : this.players) {
-				this.currentPlayerTurn = currentPlayer.getPlayerNo();
-				boolean endTurn = false;
-
-				// Check if player has blackjack from first two cards
-				if (currentPlayer.getPlayer().getHandValue() == 21) {
-					int newCoins = currentPlayer.getCoins()
-							+ currentPlayer.getBet();
-					currentPlayer.setCoins(newCoins);
-					currentPlayer.setBet(0);
-					this.server.queueMessage("& " + currentPlayer.getPlayerNo()
-							+ " blackjack " + newCoins);
-					endTurn = true;
-					currentPlayer.getPlayer().setCurrentMove('N');
-				}
-
-				// Set the turn to the current player and tell all players
-				while (currentPlayer.isPlayer() && this.server.gameStarted()
-						&& !endTurn) {
-					currentPlayer.getPlayer().setCurrentMove('N');
-					this.server.queueMessage("% " + (this.currentPlayerTurn)
-							+ " turn");
-
-					char currentMove = 'N';
-
-					// Wait for a response from the player
-					while (currentPlayer.isPlayer()
-							&& (currentMove = currentPlayer.getPlayer()
-									.getCurrentMove()) == 'N') {
-						try {
-							Thread.sleep(Server.MESSAGE_DELAY);
-						} catch (InterruptedException e) {
-							e.printStackTrace();
-						}
-					}
-
-					if (currentMove == 'H') {
-						// Hit
-						// Draw a new card and give it to the player
-						cardDrawn = this.deck.getCard();
-						this.server.queueMessage("# "
-								+ (currentPlayer.getPlayerNo()) + " "
-								+ cardDrawn.toString());
-						currentPlayer.getPlayer().addCard(cardDrawn);
-
-						if (currentPlayer.getPlayer().getHandValue() > 21) {
-							// If the player bust, remove their bet from their
-							// coins
-							// Broadcast to the server that the player bust
-							// End the player's turn
-							int newCoins = currentPlayer.getCoins()
-									- currentPlayer.getBet();
-							currentPlayer.setCoins(newCoins);
-							currentPlayer.setBet(0);
-							this.server.queueMessage("& "
-									+ currentPlayer.getPlayerNo() + " bust "
-									+ newCoins);
-							endTurn = true;
-						} else if (currentPlayer.getPlayer().getHandValue() == 21) {
-							// If the player got blackjack, add their bet to
-							// their coins
-							// Broadcast to the server that the player got a
-							// blackjack
-							// End the player's turn
-							int newCoins = currentPlayer.getCoins()
-									+ currentPlayer.getBet();
-							currentPlayer.setCoins(newCoins);
-							currentPlayer.setBet(0);
-							this.server.queueMessage("& "
-									+ currentPlayer.getPlayerNo()
-									+ " blackjack " + newCoins);
-							endTurn = true;
-						}
-					} else if (currentMove == 'S') {
-						// Stand
-						// End the player's turn
-						this.server.queueMessage("& "
-								+ currentPlayer.getPlayerNo() + " stand "
-								+ currentPlayer.getCoins());
-						endTurn = true;
-					} else if (currentMove == 'D') {
-						// If the client doubles down, double their bet
-						currentPlayer.setBet(currentPlayer.getBet() * 2);
-
-						// Draw a new card and give it to the player
-						cardDrawn = this.deck.getCard();
-						this.server.queueMessage("# "
-								+ (currentPlayer.getPlayerNo()) + " "
-								+ cardDrawn.toString());
-						currentPlayer.getPlayer().addCard(cardDrawn);
-
-						if (currentPlayer.getPlayer().getHandValue() > 21) {
-							// If the player bust, remove their bet from their
-							// coins
-							// Broadcast to the server that the player bust
-							int newCoins = currentPlayer.getCoins()
-									- currentPlayer.getBet();
-							currentPlayer.setCoins(newCoins);
-							currentPlayer.setBet(0);
-							this.server.queueMessage("& "
-									+ currentPlayer.getPlayerNo() + " bust "
-									+ newCoins);
-
-						} else if (currentPlayer.getPlayer().getHandValue() == 21) {
-							// If the player got blackjack, add their bet to
-							// their coins
-							// Broadcast to the server that the player got a
-							// blackjack
-							int newCoins = currentPlayer.getCoins()
-									+ currentPlayer.getBet();
-							currentPlayer.setCoins(newCoins);
-							currentPlayer.setBet(0);
-							this.server.queueMessage("& "
-									+ currentPlayer.getPlayerNo()
-									+ " blackjack " + newCoins);
-						} else {
-							// If the player didn't bust or get a blackjack, set
-							// them to stand
-							currentPlayer.getPlayer().setCurrentMove('S');
-							this.server.queueMessage("& "
-									+ currentPlayer.getPlayerNo() + " stand "
-									+ currentPlayer.getCoins());
-						}
-
-						// End the player's turn
-						endTurn = true;
-					}
-				}
-			}
-
-			// Run a small delay to make sure all values are updated across all
-			// threads
-			try {
-				Thread.sleep(Server.MESSAGE_DELAY);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-
-			// Show the dealer's hidden card
-			this.server.queueMessage("# 0 " + hiddenCard.toString());
-			this.dealTheDealer(hiddenCard);
-
-			// Keep drawing cards for the dealer until the dealer hits 17 or
-			// higher
-			// Broadcast each card as the dealer draws
-			while (this.dealerHand < 17) {
-				try {
-					Thread.sleep(Server.MESSAGE_DELAY);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-				cardDrawn = this.deck.getCard();
-				this.server.queueMessage("# 0 " + cardDrawn.toString());
-				this.dealTheDealer(cardDrawn);
-			}
-
-			// Bust the dealer if the dealer gets over 21 (basically guarantee
-			// win by making the value -1)
-
-			// If the dealer gets blackjack or is still less than 21, broadcast
-			// the corresponding message
-			if (this.dealerHand > 21) {
-				this.dealerHand = -1;
-				this.server.queueMessage("& 0 bust X");
-			} else if (this.dealerHand == 21) {
-				this.server.queueMessage("& 0 blackjack X");
-			} else {
-				this.server.queueMessage("& 0 stand X");
-			}
-
-			// Check for winners amongst all the players who said to stand
-			for (Client player : this.players) {
-				if (player.isPlayer()
-						&& player.getPlayer().getCurrentMove() == 'S') {
-					this.checkResult(player);
-				}
-			}
-
-			// Set a small delay to make sure everything updates
-			try {
-				Thread.sleep(Server.MESSAGE_DELAY);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-
-			// Loop through each player and get their coins, adding it to the
-			// standings string. Broadcasts the string at the end.
-			String standings = "+ ";
-			for (Client player : this.players) {
-				standings += (player.getPlayerNo() + " " + player.getPlayer()
-						.getCoins()) + " ";
-			}
-			this.server.queueMessage(standings);
-
-			// Clear the cards of each player including the dealer
-			this.dealerCards.clear();
-			this.dealerHand = 0;
-
-			for (Client player : this.players) {
-				if (player.isPlayer()) {
-					player.getPlayer().clearHand();
-				}
-			}
-
-			// Shuffle deck and broadcast the message
-			if (this.deck.size() < MINIMUM_CARDS_PER_PLAYER
-					* this.players.size()
-					|| Math.random() * 100 < SHUFFLE_CHANCE) {
-				this.deck.reloadDeck();
-				this.server.queueMessage("% SHUFFLE");
-			}
-
-			// Disconnect all players who do not have enough coins to continue
-			// playing and print the information to the console
-			for (Client currentPlayer : this.players) {
-				if (currentPlayer.getPlayer().getCoins() < Server.MIN_BET) {
-					this.server.println("Disconnecting player from server");
-					this.server.disconnectPlayer(currentPlayer);
-				}
-			}
-		}
-
-		// End the game when there are no more players
-		this.server.println("All players have left.\nGame over.");
-		this.server.endGame();
-	}
-
-	/**
-	 * Handles dealing to the dealer and updates the current hand's value.
-	 * 
-	 * @param card
-	 *            the card to deal to the dealer.
-	 */
-	public void dealTheDealer(Card card) {
-		this.dealerCards.add(card);
-		int handTotal = 0;
-
-		// If the cards in the hand busts, try to keep deranking aces until it
-		// stops busting
-		boolean tryDeranking = true;
-		while ((handTotal = this.calculateHand(this.dealerCards)) > 21
-				&& tryDeranking) {
-			tryDeranking = false;
-			for (int cardNo = 0; cardNo < this.dealerCards.size(); cardNo++) {
-				if (this.dealerCards.get(cardNo).derankAce()) {
-					tryDeranking = true;
-					break;
-				}
-			}
-		}
-
-		// Update the dealer's total value
-		this.dealerHand = handTotal;
-		this.server.println("Dealer hand value: " + this.dealerHand);
-	}
-
-	/**
-	 * Sums up the current value of a hand.
-	 * 
-	 * @param cards
-	 *            a list of cards.
-	 */
-	private int calculateHand(ArrayList<Card> cards) {
-		int total = 0;
-		for (int cardNo = 0; cardNo < cards.size(); cardNo++) {
-			total += cards.get(cardNo).getValue();
-		}
-		return total;
-	}
-
-	/**
-	 * Gets the deck of cards.
-	 * 
-	 * @return the deck of cards.
-	 */
-	public Deck getDeck() {
-		return this.deck;
-	}
-
-	/**
-	 * Getter for whether the game is currently in the betting state.
-	 * 
-	 * @return whether or not the game is currently in the betting state.
-	 */
-	public boolean bettingIsActive() {
-		return this.bettingIsActive;
-	}
-
-	/**
-	 * Getter for the player number of the player whose turn it is.
-	 * 
-	 * @return the player number of the player whose turn it is.
-	 */
-	public int getCurrentPlayerTurn() {
-		return this.currentPlayerTurn;
-	}
-
-	/**
-	 * Checks for the winner.
-	 * 
-	 * @param playerNo
-	 *            the player number of the player to check.
-	 */
-	public void checkResult(Client client) {
-		// If the player gets anything closer to the blackjack than the
-		// dealer they win, and dealer wins on a tie
-		Player player = client.getPlayer();
-		if (player.getHandValue() > this.dealerHand) {
-			player.setCoins(player.getCoins() + player.getCurrentBet());
-		} else {
-			player.setCoins(player.getCoins() - player.getCurrentBet());
-		}
-	}
+package gameplay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import connection.Client;
+import connection.Metrics;
+import connection.Player;
+import connection.Server;
+import diagnostics.BettingEvent;
+import diagnostics.DealerPlayEvent;
+import diagnostics.Events;
+import diagnostics.PlayerTurnEvent;
+import diagnostics.RoundEvent;
+import diagnostics.ShuffleEvent;
+import utilities.ClientList;
+import utilities.Clock;
+import utilities.Log;
+import utilities.Settings;
+
+/**
+ * Handles the actual gameplay, i.e. which player's turn is it, giving the
+ * dealer cards, etc. <br>
+ * Each round goes through the {@link State stages} of a round, carried on by
+ * events (a bet, a move, a player leaving or a timer running out) instead of
+ * a thread waiting for them, so that many rooms can share the few threads of
+ * the room dispatcher. <br>
+ * Players' bets, moves and leaving are posted to the room's mailbox (see
+ * {@link Server#post(Runnable)}) and applied by the dealer between its steps,
+ * so only one thread at a time ever changes the table and the dealer never
+ * has to wait for other threads to catch up.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 1, 2015
+ */
+public class Dealer {
+
+	/**
+	 * Characters representing the suits of the card deck: spades, clubs,
+	 * hearts, and diamonds.
+	 */
+	public static final char[] SUITS = { 'S', 'C', 'H', 'D' };
+
+	/**
+	 * Characters representing the various ranks of the cards in the deck. <br>
+	 * Note that "10" is represented but 'T' to remain consistent with the
+	 * single character format and allow for the use of a char array instead of
+	 * a string array.
+	 */
+	public static final char[] RANKS = { 'A', '2', '3', '4', '5', '6', '7',
+			'8', '9', 'T', 'J', 'Q', 'K' };
+
+	// Default values of the gameplay settings, which can be changed in the
+	// settings file without recompiling (see connection.SettingsRegistry).
+
+	/**
+	 * The number of decks (52 cards per deck) in play after each shuffle.
+	 */
+	public static final int NUMBER_OF_DECKS = 6;
+
+	/**
+	 * Minimum cards required in the deck before the start of the round.
+	 */
+	public static final int MINIMUM_CARDS_PER_PLAYER = 21;
+
+	/**
+	 * Seconds provided for clients to place their bets.
+	 */
+	public static final int BETTING_TIME = 60;
+
+	/**
+	 * Chance that the deck will be shuffled at the end of a round (in
+	 * percentage). Setting this to 100 means the deck will be shuffled after
+	 * every turn.
+	 */
+	public static final int SHUFFLE_CHANCE = 20;
+
+	/**
+	 * Seconds from which a round is slow, and its trace is kept and logged.
+	 */
+	public static final int SLOW_ROUND_TIME = 90;
+
+	private Server server;
+	private Deck deck;
+
+	/**
+	 * Prebuilt lines for the number of seats in the room.
+	 */
+	private Frames frames;
+
+	/**
+	 * Reused for building the lines that include a player's coins.
+	 */
+	private StringBuilder line;
+
+	/**
+	 * Source of time for the room, used for every wait.
+	 */
+	private Clock clock;
+
+	/**
+	 * Source of the order of the cards and of the chance of shuffling, which
+	 * deals the same cards every time once it is given a seed.
+	 */
+	private Random random;
+
+	/**
+	 * Counters and histograms of the central server that the room is on.
+	 */
+	private Metrics metrics;
+
+	/**
+	 * Time (from the room's clock) that the current round started, and that
+	 * each player number was last told it is their turn.
+	 */
+	private long roundStarted;
+	private long[] turnStarted;
+
+	/**
+	 * Timeline of the current round, reused every round, and the time spent
+	 * in each stage of the rounds of the current game.
+	 */
+	private RoundTrace trace;
+	private PhaseStats phaseStats;
+
+	/**
+	 * Number of rounds started in the current game.
+	 */
+	private int roundNo;
+
+	/**
+	 * Flight recorder events still being timed, each null unless its event
+	 * was enabled when it started (see the {@link diagnostics} package).
+	 * Turns are by player number.
+	 */
+	private RoundEvent roundEvent;
+	private BettingEvent bettingEvent;
+	private DealerPlayEvent dealerPlayEvent;
+	private PlayerTurnEvent[] turnEvents;
+
+	/**
+	 * Settings of the room, read again at the start of every round so that
+	 * a round is played with the same settings throughout.
+	 */
+	private Settings settings;
+	private ClientList players;
+
+	/**
+	 * The cards in the dealer's current hand.
+	 */
+	private ArrayList<Card> dealerCards;
+
+	/**
+	 * The value of all the cards in the dealer's current hand.
+	 */
+	private int dealerHand;
+
+	/**
+	 * The dealer's card shown to the players this round (null until dealt).
+	 */
+	private volatile Card upCard;
+
+	/**
+	 * Basic strategy for the number of decks in the shoe, used for hints.
+	 */
+	private volatile StrategyTable strategy;
+
+	/**
+	 * Whether player's can place a bet.
+	 */
+	private volatile boolean bettingIsActive;
+
+	/**
+	 * The player number of the player who should make their choice to hit,
+	 * stand, or doubledown.
+	 */
+	private volatile int currentPlayerTurn;
+
+	/**
+	 * Player numbers of the players who can make a move when every player
+	 * plays at once.
+	 */
+	private HashSet<Integer> playersActing;
+
+	/**
+	 * Player numbers of the players who have finished their turn this round.
+	 */
+	private HashSet<Integer> turnsOver;
+
+	/**
+	 * Record of the current round, sent to the hand archive once the round
+	 * has been settled.
+	 */
+	private HandRecord hand;
+
+	/**
+	 * Stage of the current round (null until the first round starts).
+	 */
+	private volatile State state;
+
+	/**
+	 * The dealer's card that is face down until the dealer plays.
+	 */
+	private Card hiddenCard;
+
+	/**
+	 * The client whose turn it is, or null between turns (only used when
+	 * players take their turns one after another).
+	 */
+	private Client turnPlayer;
+
+	/**
+	 * Time (from the room's clock) that the betting time runs out, and that
+	 * the dealer waits until before carrying on with the round.
+	 */
+	private long bettingEnds, waitEnds;
+
+	/**
+	 * Whether or not the deck has been checked for a shuffle at the end of
+	 * the current round.
+	 */
+	private boolean shuffled;
+
+	/**
+	 * Whether or not the game has started, and whether or not it is over.
+	 * A dealer is created with its room and reused for every game played in
+	 * the room (see {@link #reset()}).
+	 */
+	private boolean started, finished;
+
+	/**
+	 * Whether or not a step has been scheduled to handle an event and hasn't
+	 * started yet, so that a burst of events is handled by one step.
+	 */
+	private AtomicBoolean stepQueued;
+	private Runnable stepTask;
+
+	/**
+	 * Thread running the current step, or null between steps.
+	 */
+	private volatile Thread dealerThread;
+
+	/**
+	 * Stages of a round, in the order they happen.
+	 */
+	public enum State {
+		/**
+		 * Waiting for every player to bet or for the betting time to run out.
+		 */
+		BETTING,
+
+		/**
+		 * Dealing two cards to the dealer and to every player.
+		 */
+		DEALING,
+
+		/**
+		 * Waiting for the move of the player whose turn it is (or of every
+		 * player still playing when they play at once).
+		 */
+		PLAYER_TURN,
+
+		/**
+		 * Showing the hidden card and drawing until the dealer has 17 or
+		 * more.
+		 */
+		DEALER_PLAY,
+
+		/**
+		 * Settling the bets of players who stood and sending the standings.
+		 */
+		SETTLEMENT,
+
+		/**
+		 * Shuffling the deck if needed and removing or moving players before
+		 * the next round.
+		 */
+		SHUFFLE
+	}
+
+	/**
+	 * Constructor for a new Dealer object, with a shuffled shoe. The game
+	 * starts once {@link #start()} is called.
+	 * 
+	 * @param server
+	 *            the server that the game is in.
+	 * @param players
+	 *            a list of all of the player.
+	 */
+	public Dealer(Server server, ClientList players) {
+		this.server = server;
+		this.clock = server.getClock();
+		this.metrics = server.getMetrics();
+		this.settings = server.getSettings();
+		this.random = new Random();
+		this.deck = new Deck(this.settings.getNumberOfDecks(), this.random);
+		this.frames = Frames.forSeats(server.getSeats());
+		this.turnStarted = new long[server.getSeats() + 1];
+		this.turnEvents = new PlayerTurnEvent[server.getSeats() + 1];
+		this.trace = new RoundTrace();
+		this.phaseStats = new PhaseStats();
+		this.line = new StringBuilder();
+		this.players = players;
+		this.dealerHand = 0;
+		this.dealerCards = new ArrayList<Card>();
+		this.bettingIsActive = false;
+		this.playersActing = new HashSet<Integer>();
+		this.turnsOver = new HashSet<Integer>();
+		this.stepQueued = new AtomicBoolean();
+		this.stepTask = new Runnable() {
+			@Override
+			public void run() {
+				// An exception would leave the game stuck, so log it
+				try {
+					Dealer.this.step();
+				} catch (RuntimeException e) {
+					Dealer.this.server.getLog().log(Log.ERROR,
+							Dealer.this.server.getLogTag(),
+							"Error running the dealer", e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Begins the game. The dealer never holds a thread while it waits: each
+	 * step of the round runs on the room dispatcher when something happens
+	 * (a bet, a move, a player leaving or a timer running out).
+	 */
+	public synchronized void start() {
+		// Send this dealer object to all the players
+		for (Client player : this.players) {
+			player.setDealer(this);
+		}
+		this.started = true;
+		this.wake();
+	}
+
+	/**
+	 * Gets the dealer ready for the next game in its room once the last game
+	 * is over, with the room's current settings and a full, shuffled shoe, so
+	 * that none of this is left for the start of the next game. Steps still
+	 * scheduled from the last game do nothing.
+	 */
+	public synchronized void reset() {
+		this.started = false;
+		this.finished = false;
+		this.state = null;
+		this.waitEnds = 0;
+		this.bettingIsActive = false;
+		this.currentPlayerTurn = 0;
+		this.playersActing.clear();
+		this.turnsOver.clear();
+		this.hand = null;
+		this.upCard = null;
+		this.hiddenCard = null;
+		this.turnPlayer = null;
+		this.dealerCards.clear();
+		this.dealerHand = 0;
+		this.settings = this.server.getSettings();
+		this.frames = Frames.forSeats(this.server.getSeats());
+		if (this.turnStarted.length != this.server.getSeats() + 1) {
+			this.turnStarted = new long[this.server.getSeats() + 1];
+			this.turnEvents = new PlayerTurnEvent[this.server.getSeats() + 1];
+		}
+		this.roundEvent = null;
+		this.bettingEvent = null;
+		this.dealerPlayEvent = null;
+		Arrays.fill(this.turnEvents, null);
+		this.roundNo = 0;
+		this.phaseStats.clear();
+		this.reloadDeck();
+	}
+
+	/**
+	 * Deals the cards from a seed from now on, starting with a full shoe, so
+	 * that the same moves are dealt the same cards every time. Called before
+	 * the game starts.
+	 * 
+	 * @param seed
+	 *            the seed.
+	 */
+	public synchronized void setSeed(long seed) {
+		this.random.setSeed(seed);
+		this.reloadDeck();
+	}
+
+	/**
+	 * Lets the dealer know that something has happened that may let the
+	 * round carry on, such as a bet being placed, a move being made or a
+	 * player leaving.
+	 */
+	public void wake() {
+		if (this.stepQueued.compareAndSet(false, true)) {
+			this.clock.schedule(this.server.getDispatcher(), this.stepTask, 0);
+		}
+	}
+
+	/**
+	 * Waits before carrying on with the round.
+	 * 
+	 * @param millis
+	 *            the time to wait (in milliseconds).
+	 * @return false, as the round can't carry on yet.
+	 */
+	private boolean waitFor(long millis) {
+		this.waitEnds = this.clock.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(millis);
+		this.clock.schedule(this.server.getDispatcher(), this.stepTask,
+				millis);
+		return false;
+	}
+
+	/**
+	 * Applies the commands posted to the room and carries on with the round
+	 * as far as it can go without waiting. Never run twice at once.
+	 */
+	private synchronized void step() {
+		this.stepQueued.set(false);
+		if (!this.started || this.finished) {
+			return;
+		}
+		this.dealerThread = Thread.currentThread();
+		try {
+			this.server.runCommands();
+			if (this.clock.nanoTime() >= this.waitEnds) {
+				this.playRound();
+			}
+		} finally {
+			this.dealerThread = null;
+		}
+	}
+
+	/**
+	 * Plays the round until it has to wait for a player or a timer, applying
+	 * the commands posted by players before each part.
+	 */
+	private void playRound() {
+		boolean carryOn = true;
+		while (carryOn) {
+			this.server.runCommands();
+			if (this.state == null) {
+				carryOn = this.startRound();
+				continue;
+			}
+			switch (this.state) {
+			case BETTING:
+				carryOn = this.closeBetting();
+				break;
+			case DEALING:
+				carryOn = this.deal();
+				break;
+			case PLAYER_TURN:
+				carryOn = this.settings.isSimultaneous() ? this
+						.playSimultaneousTurns() : this.playTurn();
+				break;
+			case DEALER_PLAY:
+				carryOn = this.playDealer();
+				break;
+			case SETTLEMENT:
+				carryOn = this.settle();
+				break;
+			case SHUFFLE:
+				carryOn = this.endRound();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Starts a new round with the betting time, or ends the game if there
+	 * are no more players.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean startRound() {
+		if (!this.server.gameStarted()) {
+			// End the game when there are no more players
+			this.finished = true;
+			this.server.println("All players have left.\nGame over.");
+			this.server.endGame();
+			return false;
+		}
+
+		// Seat any players moved here from an under-filled room and pick
+		// up any changes to the settings
+		this.server.seatMovedPlayers();
+		this.settings = this.server.getSettings();
+		this.roundStarted = this.clock.nanoTime();
+		this.metrics.roundStarted();
+		this.trace.start(this.server.getRoomNo(), ++this.roundNo,
+				this.clock.currentTimeMillis());
+		if (Events.enabled(RoundEvent.class)) {
+			this.roundEvent = new RoundEvent(this.server.getRoomNo(),
+					this.settings.isSimultaneous());
+		}
+		if (Events.enabled(BettingEvent.class)) {
+			this.bettingEvent = new BettingEvent(this.server.getRoomNo());
+		}
+
+		// Broadcast that a new round has started
+		this.server.queueMessage(Frames.NEWROUND);
+		this.server.println("Starting new round...");
+
+		// Give players 60 seconds to place their bets, and reset all their
+		// previous bets
+		this.server.println("Betting starts now...");
+		for (Client player : this.players) {
+			if (player.isPlayer()) {
+				player.getPlayer().getWallet().refund();
+			}
+		}
+		this.bettingEnds = this.clock.nanoTime()
+				+ TimeUnit.SECONDS.toNanos(this.settings.getBettingTime());
+		this.bettingIsActive = true;
+		this.shuffled = false;
+		this.enter(State.BETTING);
+		this.clock.schedule(this.server.getDispatcher(), this.stepTask,
+				this.settings.getBettingTime() * 1000L);
+		return true;
+	}
+
+	/**
+	 * Ends the betting once everyone has placed a bet or the betting time
+	 * has run out.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean closeBetting() {
+		boolean allBet = true;
+		int players = 0;
+		int bets = 0;
+		for (Client currentPlayer : this.players) {
+			if (currentPlayer.isPlayer()) {
+				players++;
+				if (currentPlayer.getBet() == 0) {
+					allBet = false;
+				} else {
+					bets++;
+				}
+			}
+		}
+		if (!allBet && this.clock.nanoTime() < this.bettingEnds) {
+			return false;
+		}
+		this.bettingIsActive = false;
+		if (this.bettingEvent != null) {
+			this.bettingEvent.end(players, bets, !allBet);
+			this.bettingEvent = null;
+		}
+		this.enter(State.DEALING);
+		return true;
+	}
+
+	/**
+	 * Deals two cards to the dealer (one face down) and to each player, then
+	 * starts the players' turns.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean deal() {
+		// Disconnect all players who haven't bet
+		for (Client currentPlayer : this.players) {
+			if (currentPlayer.isPlayer() && currentPlayer.getBet() == 0) {
+				currentPlayer.disconnect();
+			}
+		}
+
+		// Start recording the round with the bet of every player
+		this.hand = new HandRecord(this.clock.currentTimeMillis(),
+				this.server.getRoomNo());
+		for (Client player : this.players) {
+			this.hand.addSeat(new HandRecord.Seat(player.getPlayerNo(),
+					player.getName(), player.getBet()));
+		}
+
+		// Broadcast the dealer's cards and add them to the dealer's hand
+		this.upCard = null;
+		this.hiddenCard = this.drawCard();
+		this.recordCard(HandRecord.DEALER, this.hiddenCard);
+		this.server.queueMessage(Frames.HIDDEN_CARD);
+		Card cardDrawn = this.drawCard();
+		this.recordCard(HandRecord.DEALER, cardDrawn);
+		this.dealTheDealer(cardDrawn);
+		this.upCard = cardDrawn;
+		this.server.queueMessage(this.frames.card(0, cardDrawn));
+
+		// Go through each player and deal them two cards each
+		for (Client player : this.players) {
+			for (int card = 0; card < 2; card++) {
+				cardDrawn = this.drawCard();
+				player.getPlayer().addCard(cardDrawn);
+				this.recordCard(player.getPlayerNo(), cardDrawn);
+				this.server.queueMessage(this.frames.card(
+						player.getPlayerNo(), cardDrawn));
+
+			}
+		}
+
+		// Goes through each client for their turn, or has every client play
+		// at once
+		this.turnsOver.clear();
+		this.turnPlayer = null;
+		if (this.settings.isSimultaneous()) {
+			this.startSimultaneousTurns();
+		}
+		this.enter(State.PLAYER_TURN);
+		return true;
+	}
+
+	/**
+	 * Plays the turn of each client in order: starts the turn of the next
+	 * client, or applies the move of the client whose turn it is.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean playTurn() {
+		Client currentPlayer = this.turnPlayer;
+		if (currentPlayer == null) {
+			// Find the next client who hasn't had their turn
+			for (Client player : this.players) {
+				if (!this.turnsOver.contains(player.getPlayerNo())) {
+					currentPlayer = player;
+					break;
+				}
+			}
+			if (currentPlayer == null) {
+				return this.endTurns();
+			}
+			this.turnPlayer = currentPlayer;
+			this.currentPlayerTurn = currentPlayer.getPlayerNo();
+			if (this.checkFirstTwoCards(currentPlayer)) {
+				return this.endTurn();
+			}
+		} else {
+			// Wait for a response from the player
+			char currentMove = currentPlayer.getPlayer().getCurrentMove();
+			if (!currentPlayer.isPlayer()) {
+				return this.endTurn();
+			} else if (currentMove == 'N') {
+				return false;
+			} else if (this.applyMove(currentPlayer, currentMove)) {
+				return this.endTurn();
+			}
+		}
+
+		// Set the turn to the current player and tell all players
+		if (!currentPlayer.isPlayer() || !this.server.gameStarted()) {
+			return this.endTurn();
+		}
+		currentPlayer.getPlayer().setCurrentMove('N');
+		this.promptTurn(this.currentPlayerTurn);
+		this.publishOdds(this.hiddenCard);
+		return false;
+	}
+
+	/**
+	 * Ends the turn of the client whose turn it is.
+	 * 
+	 * @return true, as the next turn can start without waiting.
+	 */
+	private boolean endTurn() {
+		this.turnsOver.add(this.turnPlayer.getPlayerNo());
+		this.turnPlayer = null;
+		return true;
+	}
+
+	/**
+	 * Tells every client it is their turn at once, after settling the bets
+	 * of clients who have 21 from their first two cards.
+	 */
+	private void startSimultaneousTurns() {
+		this.currentPlayerTurn = -1;
+		for (Client player : this.players) {
+			if (this.checkFirstTwoCards(player) || !player.isPlayer()) {
+				this.turnsOver.add(player.getPlayerNo());
+			} else {
+				player.getPlayer().setCurrentMove('N');
+				this.playersActing.add(player.getPlayerNo());
+				this.promptTurn(player.getPlayerNo());
+			}
+		}
+		this.publishOdds(this.hiddenCard);
+	}
+
+	/**
+	 * Plays the turn of every client at once: moves are applied in seat
+	 * order as they come in (a client that hits is told it is their turn
+	 * again), until every client has finished.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean playSimultaneousTurns() {
+		boolean moved = false;
+		for (Client player : this.players) {
+			int playerNo = player.getPlayerNo();
+			if (!this.playersActing.contains(playerNo)) {
+				continue;
+			}
+			char currentMove = player.getPlayer().getCurrentMove();
+			if (!player.isPlayer()) {
+				// The player left in the middle of their turn
+				this.playersActing.remove(playerNo);
+				this.turnsOver.add(playerNo);
+			} else if (currentMove != 'N') {
+				moved = true;
+				if (this.applyMove(player, currentMove)) {
+					this.playersActing.remove(playerNo);
+					this.turnsOver.add(playerNo);
+				} else {
+					player.getPlayer().setCurrentMove('N');
+					this.promptTurn(playerNo);
+				}
+			}
+		}
+		if (moved) {
+			this.publishOdds(this.hiddenCard);
+		}
+		if (this.playersActing.isEmpty() || !this.server.gameStarted()) {
+			return this.endTurns();
+		}
+
+		// Check for more moves straight away if anyone moved, otherwise wait
+		// for them
+		return moved;
+	}
+
+	/**
+	 * Tells every client that it is a player's turn, noting the time so
+	 * that the player's decision can be timed.
+	 * 
+	 * @param playerNo
+	 *            the player number.
+	 */
+	private void promptTurn(int playerNo) {
+		if (playerNo < this.turnStarted.length) {
+			this.turnStarted[playerNo] = this.clock.nanoTime();
+			this.turnEvents[playerNo] = null;
+			if (Events.enabled(PlayerTurnEvent.class)) {
+				this.turnEvents[playerNo] = new PlayerTurnEvent(
+						this.server.getRoomNo(), playerNo);
+			}
+		}
+		this.server.queueMessage(this.frames.turn(playerNo));
+	}
+
+	/**
+	 * Ends the players' turns, leaving the dealer to play.
+	 * 
+	 * @return true, as the dealer can play without waiting.
+	 */
+	private boolean endTurns() {
+		this.playersActing.clear();
+		if (Events.enabled(DealerPlayEvent.class)) {
+			this.dealerPlayEvent = new DealerPlayEvent(this.server.getRoomNo());
+		}
+		this.publishOdds(this.hiddenCard);
+		this.enter(State.DEALER_PLAY);
+		return true;
+	}
+
+	/**
+	 * Shows the dealer's hidden card, then draws a card at a time until the
+	 * dealer has 17 or higher, and broadcasts the dealer's result.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean playDealer() {
+		if (this.dealerCards.size() == 1) {
+			// Show the dealer's hidden card
+			this.server.queueMessage(this.frames.card(0, this.hiddenCard));
+			this.dealTheDealer(this.hiddenCard);
+		} else {
+			// Broadcast each card as the dealer draws
+			Card cardDrawn = this.drawCard();
+			this.server.queueMessage(this.frames.card(0, cardDrawn));
+			this.recordCard(HandRecord.DEALER, cardDrawn);
+			this.dealTheDealer(cardDrawn);
+		}
+
+		// Keep drawing cards for the dealer until the dealer hits 17 or
+		// higher
+		if (this.dealerHand < 17) {
+			return true;
+		}
+
+		// Bust the dealer if the dealer gets over 21 (basically guarantee
+		// win by making the value -1)
+
+		// If the dealer gets blackjack or is still less than 21, broadcast
+		// the corresponding message
+		if (this.dealerPlayEvent != null) {
+			this.dealerPlayEvent.end(this.dealerCards.size(), this.dealerHand);
+			this.dealerPlayEvent = null;
+		}
+		if (this.dealerHand > 21) {
+			this.dealerHand = -1;
+			this.server.queueMessage(Frames.DEALER_BUST);
+			this.recordResult(HandRecord.DEALER, HandRecord.BUST, 0);
+		} else if (this.dealerHand == 21) {
+			this.server.queueMessage(Frames.DEALER_BLACKJACK);
+			this.recordResult(HandRecord.DEALER, HandRecord.BLACKJACK, 0);
+		} else {
+			this.server.queueMessage(Frames.DEALER_STAND);
+			this.recordResult(HandRecord.DEALER, HandRecord.STAND, 0);
+		}
+
+		// Check for winners amongst all the players who said to stand
+		for (Client player : this.players) {
+			if (player.isPlayer()
+					&& player.getPlayer().getCurrentMove() == 'S') {
+				this.checkResult(player);
+			}
+		}
+
+		this.enter(State.SETTLEMENT);
+		return true;
+	}
+
+	/**
+	 * Broadcasts the standings, archives the round and clears everyone's
+	 * cards.
+	 * 
+	 * @return true, as the round can carry on without waiting.
+	 */
+	private boolean settle() {
+		// Loop through each player and get their coins, adding it to the
+		// standings line. Broadcasts the line at the end.
+		this.line.setLength(0);
+		this.line.append("+ ");
+		for (Client player : this.players) {
+			this.line.append(player.getPlayerNo()).append(' ')
+					.append(player.getPlayer().getCoins()).append(' ');
+		}
+		this.server.queueMessage(this.line.toString());
+		this.metrics.getRoundDuration().record(
+				this.clock.nanoTime() - this.roundStarted);
+		if (this.roundEvent != null) {
+			this.roundEvent.end(this.players.size());
+			this.roundEvent = null;
+		}
+
+		// Archive the completed round
+		this.server.archiveHand(this.hand);
+
+		// Clear the cards of each player including the dealer
+		this.dealerCards.clear();
+		this.dealerHand = 0;
+
+		for (Client player : this.players) {
+			if (player.isPlayer()) {
+				player.getPlayer().clearHand();
+			}
+		}
+		this.enter(State.SHUFFLE);
+		return true;
+	}
+
+	/**
+	 * Shuffles the deck if needed, removes players who can't keep playing and
+	 * moves the rest to another room if too few are left, then starts the
+	 * next round.
+	 * 
+	 * @return whether or not the round can carry on without waiting.
+	 */
+	private boolean endRound() {
+		if (!this.shuffled) {
+			this.shuffled = true;
+
+			// Shuffle deck and broadcast the message
+			if (this.deck.size() < this.settings.getMinimumCardsPerPlayer()
+					* this.players.size()
+					|| this.random.nextDouble() * 100 < this.settings
+							.getShuffleChance()) {
+				this.reloadDeck();
+				this.server.queueMessage(Frames.SHUFFLE);
+			}
+
+			// Disconnect all players who do not have enough coins to
+			// continue playing and print the information to the console
+			for (Client currentPlayer : this.players) {
+				if (currentPlayer.getPlayer().getCoins() < this.settings
+						.getMinBet()) {
+					this.server.println("Disconnecting player from server");
+					this.server.disconnectPlayer(currentPlayer);
+				}
+			}
+		}
+
+		// Move the remaining players to another room if too few are left and
+		// another room has seats for them, which ends the game here, once
+		// they have seen the results of their last round here (a room that
+		// keeps its players doesn't wait)
+		if (!this.server.isMessageQueueEmpty()
+				&& this.server.willConsolidate()) {
+			return this.waitFor(this.settings.getMessageDelay());
+		}
+		this.finishTrace();
+		this.server.consolidate();
+		return this.startRound();
+	}
+
+	/**
+	 * Moves the round on to its next stage, noting the time and the number
+	 * of messages waiting to be sent in the round's trace.
+	 * 
+	 * @param state
+	 *            the next stage.
+	 */
+	private void enter(State state) {
+		this.state = state;
+		this.trace.enter(state, this.clock.nanoTime(),
+				this.server.getMessageBacklog());
+	}
+
+	/**
+	 * Finishes the trace of the round, adding the time of each stage to the
+	 * room's and the server's stage times and keeping the trace if the round
+	 * was slow.
+	 */
+	private void finishTrace() {
+		this.trace.finish(this.clock.nanoTime(), this.players.size());
+		this.phaseStats.record(this.trace);
+		this.server.getRoundTracer().finished(this.trace,
+				TimeUnit.SECONDS.toNanos(this.settings.getSlowRoundTime()),
+				this.server.getLogTag());
+	}
+
+	/**
+	 * Refills the shoe with the number of decks for the room's settings and
+	 * shuffles it, timing how long it takes. The time is CPU work rather
+	 * than a wait, so it is taken from {@link System#nanoTime()} instead of
+	 * the room's clock.
+	 */
+	private void reloadDeck() {
+		ShuffleEvent event = Events.enabled(ShuffleEvent.class)
+				? new ShuffleEvent(this.server.getRoomNo(),
+						this.settings.getNumberOfDecks()) : null;
+		long start = System.nanoTime();
+		this.deck.setNumOfDecks(this.settings.getNumberOfDecks());
+		this.deck.reloadDeck();
+		long reloadTime = System.nanoTime() - start;
+		this.metrics.getShoeReload().record(reloadTime);
+		this.trace.addReloadTime(reloadTime);
+		if (event != null) {
+			event.commit();
+		}
+	}
+
+	/**
+	 * Settles the bet of a client who has 21 from their first two cards.
+	 * 
+	 * @param currentPlayer
+	 *            the client.
+	 * @return whether or not the client's turn is over.
+	 */
+	private boolean checkFirstTwoCards(Client currentPlayer) {
+		if (currentPlayer.getPlayer().getHandValue() != 21) {
+			return false;
+		}
+		int newCoins = currentPlayer.getPlayer().getWallet().win();
+		this.server.queueMessage(this.result(currentPlayer.getPlayerNo(),
+				"blackjack", newCoins));
+		this.recordResult(currentPlayer.getPlayerNo(), HandRecord.BLACKJACK,
+				newCoins);
+		currentPlayer.getPlayer().setCurrentMove('N');
+		return true;
+	}
+
+	/**
+	 * Applies a move of a client during their turn: draws a card for a hit or
+	 * double down and settles the bet if the client bust or reached 21.
+	 * 
+	 * @param currentPlayer
+	 *            the client.
+	 * @param currentMove
+	 *            the move ('H', 'S' or 'D', or 'N' if the client left).
+	 * @return whether or not the client's turn is over.
+	 */
+	private boolean applyMove(Client currentPlayer, char currentMove) {
+		int playerNo = currentPlayer.getPlayerNo();
+		HandRecord.Seat seat = this.hand.getSeat(playerNo);
+		if (seat != null && currentMove != 'N') {
+			seat.addMove(currentMove);
+		}
+		if (currentMove != 'N' && playerNo < this.turnStarted.length) {
+			this.metrics.getDecisionTime().record(
+					this.clock.nanoTime() - this.turnStarted[playerNo]);
+			if (this.turnEvents[playerNo] != null) {
+				this.turnEvents[playerNo].end(currentMove);
+				this.turnEvents[playerNo] = null;
+			}
+		}
+
+		if (currentMove == 'H') {
+			// Hit
+			// Draw a new card and give it to the player
+			Card cardDrawn = this.drawCard();
+			this.server.queueMessage(this.frames.card(
+					currentPlayer.getPlayerNo(), cardDrawn));
+			currentPlayer.getPlayer().addCard(cardDrawn);
+			this.recordCard(currentPlayer.getPlayerNo(), cardDrawn);
+
+			if (currentPlayer.getPlayer().getHandValue() > 21) {
+				// If the player bust, remove their bet from their
+				// coins
+				// Broadcast to the server that the player bust
+				// End the player's turn
+				int newCoins = currentPlayer.getPlayer().getWallet().lose();
+				this.server.queueMessage(this.result(
+						currentPlayer.getPlayerNo(), "bust", newCoins));
+				this.recordResult(currentPlayer.getPlayerNo(),
+						HandRecord.BUST, newCoins);
+				return true;
+			} else if (currentPlayer.getPlayer().getHandValue() == 21) {
+				// If the player got blackjack, add their bet to
+				// their coins
+				// Broadcast to the server that the player got a
+				// blackjack
+				// End the player's turn
+				int newCoins = currentPlayer.getPlayer().getWallet().win();
+				this.server.queueMessage(this.result(
+						currentPlayer.getPlayerNo(), "blackjack", newCoins));
+				this.recordResult(currentPlayer.getPlayerNo(),
+						HandRecord.BLACKJACK, newCoins);
+				return true;
+			}
+		} else if (currentMove == 'S') {
+			// Stand
+			// End the player's turn
+			this.server.queueMessage(this.result(
+					currentPlayer.getPlayerNo(), "stand",
+					currentPlayer.getCoins()));
+			return true;
+		} else if (currentMove == 'D') {
+			// The client's bet was doubled when the move was accepted
+
+			// Draw a new card and give it to the player
+			Card cardDrawn = this.drawCard();
+			this.server.queueMessage(this.frames.card(
+					currentPlayer.getPlayerNo(), cardDrawn));
+			currentPlayer.getPlayer().addCard(cardDrawn);
+			this.recordCard(currentPlayer.getPlayerNo(), cardDrawn);
+
+			if (currentPlayer.getPlayer().getHandValue() > 21) {
+				// If the player bust, remove their bet from their
+				// coins
+				// Broadcast to the server that the player bust
+				int newCoins = currentPlayer.getPlayer().getWallet().lose();
+				this.server.queueMessage(this.result(
+						currentPlayer.getPlayerNo(), "bust", newCoins));
+				this.recordResult(currentPlayer.getPlayerNo(),
+						HandRecord.BUST, newCoins);
+
+			} else if (currentPlayer.getPlayer().getHandValue() == 21) {
+				// If the player got blackjack, add their bet to
+				// their coins
+				// Broadcast to the server that the player got a
+				// blackjack
+				int newCoins = currentPlayer.getPlayer().getWallet().win();
+				this.server.queueMessage(this.result(
+						currentPlayer.getPlayerNo(), "blackjack", newCoins));
+				this.recordResult(currentPlayer.getPlayerNo(),
+						HandRecord.BLACKJACK, newCoins);
+			} else {
+				// If the player didn't bust or get a blackjack, set
+				// them to stand
+				currentPlayer.getPlayer().setCurrentMove('S');
+				this.server.queueMessage(this.result(
+						currentPlayer.getPlayerNo(), "stand",
+						currentPlayer.getCoins()));
+			}
+
+			// End the player's turn
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Builds the line broadcasting the result of a player's turn: '&
+	 * playerNo result coins'.
+	 * 
+	 * @param playerNo
+	 *            the player number.
+	 * @param result
+	 *            the result ('bust', 'blackjack' or 'stand').
+	 * @param coins
+	 *            the player's coins after the result.
+	 * @return the line.
+	 */
+	private String result(int playerNo, String result, int coins) {
+		this.line.setLength(0);
+		return this.line.append("& ").append(playerNo).append(' ')
+				.append(result).append(' ').append(coins).toString();
+	}
+
+	/**
+	 * Hands the table to the odds engine to have the odds broadcast, if the
+	 * room has odds enabled. The hidden card is counted as not yet seen.
+	 * 
+	 * @param hiddenCard
+	 *            the dealer's hidden card.
+	 */
+	private void publishOdds(Card hiddenCard) {
+		if (!this.settings.isOdds() || this.upCard == null) {
+			return;
+		}
+		int[] counts = this.deck.getValueCounts();
+		counts[Deck.valueOf(hiddenCard)]++;
+		OddsEngine.Snapshot snapshot = new OddsEngine.Snapshot(counts,
+				this.upCard.getRank() == 'A' ? 11 : this.upCard.getValue());
+		for (Client client : this.players) {
+			if (client.isPlayer() && client.getBet() > 0) {
+				Player player = client.getPlayer();
+				snapshot.addSeat(client.getPlayerNo(), player.getHandValue(),
+						player.isSoftHand(),
+						this.turnsOver.contains(client.getPlayerNo()));
+			}
+		}
+		this.server.publishOdds(snapshot);
+	}
+
+	/**
+	 * Draws the top card of the shoe, refilling and shuffling the shoe first
+	 * if it is empty. This only happens in the middle of a round when the
+	 * room uses fewer decks than a round of its table can need, in which case
+	 * cards still on the table may be drawn again.
+	 * 
+	 * @return the card drawn.
+	 */
+	private Card drawCard() {
+		if (this.deck.size() == 0) {
+			this.reloadDeck();
+			this.server.queueMessage(Frames.SHUFFLE);
+		}
+		return this.deck.getCard();
+	}
+
+	/**
+	 * Handles dealing to the dealer and updates the current hand's value.
+	 * 
+	 * @param card
+	 *            the card to deal to the dealer.
+	 */
+	public void dealTheDealer(Card card) {
+		this.dealerCards.add(card);
+		int handTotal = 0;
+
+		// If the cards in the hand busts, try to keep deranking aces until it
+		// stops busting
+		boolean tryDeranking = true;
+		while ((handTotal = this.calculateHand(this.dealerCards)) > 21
+				&& tryDeranking) {
+			tryDeranking = false;
+			for (int cardNo = 0; cardNo < this.dealerCards.size(); cardNo++) {
+				if (this.dealerCards.get(cardNo).derankAce()) {
+					tryDeranking = true;
+					break;
+				}
+			}
+		}
+
+		// Update the dealer's total value
+		this.dealerHand = handTotal;
+		this.server.println("Dealer hand value: " + this.dealerHand);
+	}
+
+	/**
+	 * Sums up the current value of a hand.
+	 * 
+	 * @param cards
+	 *            a list of cards.
+	 */
+	private int calculateHand(ArrayList<Card> cards) {
+		int total = 0;
+		for (int cardNo = 0; cardNo < cards.size(); cardNo++) {
+			total += cards.get(cardNo).getValue();
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the deck of cards.
+	 * 
+	 * @return the deck of cards.
+	 */
+	public Deck getDeck() {
+		return this.deck;
+	}
+
+	/**
+	 * Get the time spent in each stage of the rounds of the current game.
+	 * 
+	 * @return the room's stage times.
+	 */
+	public PhaseStats getPhaseStats() {
+		return this.phaseStats;
+	}
+
+	/**
+	 * Getter for whether the game is currently in the betting state.
+	 * 
+	 * @return whether or not the game is currently in the betting state.
+	 */
+	public boolean bettingIsActive() {
+		return this.bettingIsActive;
+	}
+
+	/**
+	 * Gets the best move for a player's hand against the dealer's up card,
+	 * from the basic strategy for the number of decks in the shoe.
+	 * 
+	 * @param player
+	 *            the player.
+	 * @return the best move ('H', 'S' or 'D'), or 'N' if the player has no
+	 *         hand to play.
+	 */
+	public char getHint(Player player) {
+		Card upCard = this.upCard;
+		int total = player.getHandValue();
+		if (upCard == null || total < 4 || total > 20
+				|| player.getCurrentCards().size() < 2) {
+			return 'N';
+		}
+		boolean canDouble = player.getCurrentCards().size() == 2
+				&& player.getWallet().getAvailable() >= player.getCurrentBet();
+		return this.getStrategy().getMove(total, player.isSoftHand(),
+				upCard.getRank() == 'A' ? 11 : upCard.getValue(), canDouble);
+	}
+
+	/**
+	 * Gets the basic strategy for the number of decks in the shoe, generating
+	 * it the first time it is needed.
+	 * 
+	 * @return the basic strategy.
+	 */
+	private StrategyTable getStrategy() {
+		StrategyTable strategy = this.strategy;
+		int numOfDecks = this.deck.getNumOfDecks();
+		if (strategy == null || strategy.getNumOfDecks() != numOfDecks) {
+			strategy = StrategyTable.forDecks(numOfDecks);
+			this.server.println("Basic strategy for " + numOfDecks
+					+ " decks: " + strategy.size() + " bytes, generated in "
+					+ strategy.getGenerationTime() / 1000 + " microseconds");
+			this.strategy = strategy;
+		}
+		return strategy;
+	}
+
+	/**
+	 * Getter for the player number of the player whose turn it is.
+	 * 
+	 * @return the player number of the player whose turn it is.
+	 */
+	public int getCurrentPlayerTurn() {
+		return this.currentPlayerTurn;
+	}
+
+	/**
+	 * Check whether or not a player can make a move: it is their turn, or
+	 * every player is playing at once and they haven't finished. Only called
+	 * by the dealer's thread (while applying a command posted to the room).
+	 * 
+	 * @param playerNo
+	 *            the player number.
+	 * @return whether or not it is the player's turn.
+	 */
+	public boolean isPlayersTurn(int playerNo) {
+		return this.currentPlayerTurn == playerNo
+				|| this.playersActing.contains(playerNo);
+	}
+
+	/**
+	 * Check whether or not the current thread is the one running the dealer,
+	 * which can change the table directly instead of posting a command.
+	 * 
+	 * @return whether or not the dealer is running on the current thread.
+	 */
+	public boolean isDealerThread() {
+		return this.dealerThread == Thread.currentThread();
+	}
+
+	/**
+	 * Checks for the winner.
+	 * 
+	 * @param playerNo
+	 *            the player number of the player to check.
+	 */
+	public void checkResult(Client client) {
+		// If the player gets anything closer to the blackjack than the
+		// dealer they win, and dealer wins on a tie
+		Player player = client.getPlayer();
+		if (player.getHandValue() > this.dealerHand) {
+			this.recordResult(player.getPlayerNo(), HandRecord.WIN, player
+					.getWallet().win());
+		} else {
+			this.recordResult(player.getPlayerNo(), HandRecord.LOSS, player
+					.getWallet().lose());
+		}
+	}
+
+	/**
+	 * Adds a dealt card to the record of the current round.
+	 * 
+	 * @param playerNo
+	 *            the player number the card was dealt to (0 for the dealer).
+	 * @param card
+	 *            the card dealt.
+	 */
+	private void recordCard(int playerNo, Card card) {
+		HandRecord.Seat seat = this.hand.getSeat(playerNo);
+		if (seat != null) {
+			seat.addCard(card.getId());
+		}
+	}
+
+	/**
+	 * Adds the result of a player (or the dealer) to the record of the
+	 * current round and updates the leaderboard with the player's result.
+	 * 
+	 * @param playerNo
+	 *            the player number of the result (0 for the dealer).
+	 * @param result
+	 *            the result code (e.g. {@link HandRecord#WIN}).
+	 * @param coins
+	 *            the player's balance after the result.
+	 */
+	private void recordResult(int playerNo, char result, int coins) {
+		HandRecord.Seat seat = this.hand.getSeat(playerNo);
+		if (seat != null) {
+			seat.setResult(result, coins);
+			Client player = playerNo == HandRecord.DEALER ? null
+					: this.players.get(playerNo);
+			if (player != null) {
+				this.server.updateLeaderboard(player.getPlayer(),
+						seat.getName(), coins, result == HandRecord.WIN
+								|| result == HandRecord.BLACKJACK);
+			}
+		}
+	}
 }
\ No newline at end of file
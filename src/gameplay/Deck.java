@@ -1,88 +1,152 @@
-package gameplay;
-
-import java.util.ArrayList;
-import java.util.Collections;
-
-/**
- * Deck object, contains all the decks of cards to be used.
- * 
- * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
- * @version December 1, 2015
- */
-public class Deck {
-	private int numOfDecks;
-	private ArrayList<Card> cards;
-
-	/**
-	 * Maximum number of times the deck will be shuffled after calling
-	 * {@link #reloadDeck} to increase difficulty of seed guessing without
-	 * delaying gameplay
-	 */
-	private static final int MAX_NO_OF_SHUFFLES = 10;
-
-	/**
-	 * Constructs a new Deck object. Sets the number of decks to the class
-	 * variable number of decks. Loads up the deck.
-	 * 
-	 * @param numOfDecks
-	 *            the number of decks to be used in the game.
-	 */
-	public Deck(int numOfDecks) {
-		this.numOfDecks = numOfDecks;
-		this.cards = new ArrayList<Card>();
-		this.reloadDeck();
-	}
-
-	/**
-	 * Loops through the number of decks and adds the according number of cards
-	 * to the deck.
-	 */
-	public void reloadDeck() {
-		// Clear the deck first to make things easier
-		this.cards.clear();
-
-		// For the number of decks required, go through the number of suits and
-		// add each rank for each suit
-		for (int i = 0; i < this.numOfDecks; i++) {
-			for (int suit = 0; suit < Dealer.SUITS.length; suit++) {
-				for (int rank = 0; rank < Dealer.RANKS.length; rank++) {
-					this.cards.add(new Card(Dealer.SUITS[suit],
-							Dealer.RANKS[rank]));
-				}
-			}
-		}
-
-		// Shuffle the deck a random number of times to prevent seed
-		// determination from clients
-		int rand = (int) (Math.random() * MAX_NO_OF_SHUFFLES + 1);
-		for (int i = 0; i < rand; i++)
-			this.shuffle();
-	}
-
-	/**
-	 * Shuffles the deck.
-	 */
-	public void shuffle() {
-		Collections.shuffle(this.cards);
-	}
-
-	/**
-	 * Getter for the number of cards in the list.
-	 * 
-	 * @return the number of cards in the list.
-	 */
-	public int size() {
-		return this.cards.size();
-	}
-
-	/**
-	 * Removes the top card from the deck.
-	 * 
-	 * @return the card removed from the deck.
-	 */
-	public Card getCard() {
-		Card card = this.cards.get(0);
-		this.cards.remove(0);
-		return card;
-	}
+package gameplay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Deck object, contains all the decks of cards to be used.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version December 1, 2015
+ */
+public class Deck {
+	private int numOfDecks;
+	private ArrayList<Card> cards;
+
+	/**
+	 * Number of cards of each value left in the deck (ace being 1), kept up
+	 * to date as cards are dealt.
+	 */
+	private int[] valueCounts;
+
+	/**
+	 * Source of the order of the cards.
+	 */
+	private Random random;
+
+	/**
+	 * Maximum number of times the deck will be shuffled after calling
+	 * {@link #reloadDeck} to increase difficulty of seed guessing without
+	 * delaying gameplay
+	 */
+	private static final int MAX_NO_OF_SHUFFLES = 10;
+
+	/**
+	 * Constructs a new Deck object. Sets the number of decks to the class
+	 * variable number of decks. Loads up the deck.
+	 * 
+	 * @param numOfDecks
+	 *            the number of decks to be used in the game.
+	 * @param random
+	 *            the source of the order of the cards.
+	 */
+	public Deck(int numOfDecks, Random random) {
+		this.numOfDecks = numOfDecks;
+		this.random = random;
+		this.cards = new ArrayList<Card>();
+		this.valueCounts = new int[11];
+		this.reloadDeck();
+	}
+
+	/**
+	 * Loops through the number of decks and adds the according number of cards
+	 * to the deck.
+	 */
+	public void reloadDeck() {
+		// Clear the deck first to make things easier
+		this.cards.clear();
+		for (int value = 1; value <= 10; value++) {
+			this.valueCounts[value] = this.numOfDecks * Dealer.SUITS.length
+					* (value == 10 ? 4 : 1);
+		}
+
+		// For the number of decks required, go through the number of suits and
+		// add each rank for each suit
+		for (int i = 0; i < this.numOfDecks; i++) {
+			for (int suit = 0; suit < Dealer.SUITS.length; suit++) {
+				for (int rank = 0; rank < Dealer.RANKS.length; rank++) {
+					this.cards.add(new Card(Dealer.SUITS[suit],
+							Dealer.RANKS[rank]));
+				}
+			}
+		}
+
+		// Shuffle the deck a random number of times to prevent seed
+		// determination from clients
+		int rand = this.random.nextInt(MAX_NO_OF_SHUFFLES) + 1;
+		for (int i = 0; i < rand; i++)
+			this.shuffle();
+	}
+
+	/**
+	 * Changes the number of decks used, starting from the next time the deck
+	 * is reloaded.
+	 * 
+	 * @param numOfDecks
+	 *            the number of decks to be used in the game.
+	 */
+	public void setNumOfDecks(int numOfDecks) {
+		this.numOfDecks = numOfDecks;
+	}
+
+	/**
+	 * Gets the number of decks used, as of the last time the deck was
+	 * reloaded (or will be reloaded).
+	 * 
+	 * @return the number of decks.
+	 */
+	public int getNumOfDecks() {
+		return this.numOfDecks;
+	}
+
+	/**
+	 * Shuffles the deck.
+	 */
+	public void shuffle() {
+		Collections.shuffle(this.cards, this.random);
+	}
+
+	/**
+	 * Getter for the number of cards in the list.
+	 * 
+	 * @return the number of cards in the list.
+	 */
+	public int size() {
+		return this.cards.size();
+	}
+
+	/**
+	 * Removes the top card from the deck.
+	 * 
+	 * @return the card removed from the deck.
+	 */
+	public Card getCard() {
+		Card card = this.cards.get(0);
+		this.cards.remove(0);
+		this.valueCounts[valueOf(card)]--;
+		return card;
+	}
+
+	/**
+	 * Copies the number of cards of each value left in the deck.
+	 * 
+	 * @return the number of cards left of each value, indexed by value (ace
+	 *         being 1, index 0 unused).
+	 */
+	public int[] getValueCounts() {
+		return this.valueCounts.clone();
+	}
+
+	/**
+	 * Gets the value of a card for counting, regardless of how an ace is
+	 * currently counted.
+	 * 
+	 * @param card
+	 *            the card.
+	 * @return the value of the card (ace being 1).
+	 */
+	public static int valueOf(Card card) {
+		return card.getRank() == 'A' ? 1 : card.getValue();
+	}
 }
\ No newline at end of file
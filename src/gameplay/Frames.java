@@ -0,0 +1,108 @@
+package gameplay;
+
+import java.util.HashMap;
+
+/**
+ * Lines of the protocol that the dealer broadcasts over and over, built once
+ * instead of every time they are sent. <br>
+ * A table is built the first time it is needed for a number of seats, with
+ * the '#' line of every card for every seat (the dealer being seat 0) and the
+ * '% n turn' line of every seat. Lines with the same text every time (such as
+ * '% NEWROUND' and the dealer's results) are constants.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Frames {
+
+	/**
+	 * Lines that never change.
+	 */
+	public static final String NEWROUND = "% NEWROUND", SHUFFLE = "% SHUFFLE",
+			HIDDEN_CARD = "# 0 X X", DEALER_BUST = "& 0 bust X",
+			DEALER_BLACKJACK = "& 0 blackjack X",
+			DEALER_STAND = "& 0 stand X";
+
+	/**
+	 * Tables already built, by number of seats.
+	 */
+	private static HashMap<Integer, Frames> tables =
+			new HashMap<Integer, Frames>();
+
+	/**
+	 * '#' lines by player number and card id.
+	 */
+	private String[][] cards;
+
+	/**
+	 * '% n turn' lines by player number.
+	 */
+	private String[] turns;
+
+	/**
+	 * Builds a new Frames object.
+	 * 
+	 * @param seats
+	 *            the number of player seats.
+	 */
+	private Frames(int seats) {
+		int cardsPerDeck = Dealer.SUITS.length * Dealer.RANKS.length;
+		this.cards = new String[seats + 1][cardsPerDeck];
+		this.turns = new String[seats + 1];
+		for (int playerNo = 0; playerNo <= seats; playerNo++) {
+			for (int id = 0; id < cardsPerDeck; id++) {
+				this.cards[playerNo][id] = "# " + playerNo + " "
+						+ Card.fromId(id);
+			}
+			this.turns[playerNo] = "% " + playerNo + " turn";
+		}
+	}
+
+	/**
+	 * Gets the table for a number of seats, building it if this is the first
+	 * time it is needed.
+	 * 
+	 * @param seats
+	 *            the number of player seats.
+	 * @return the table.
+	 */
+	public static synchronized Frames forSeats(int seats) {
+		Frames table = tables.get(seats);
+		if (table == null) {
+			table = new Frames(seats);
+			tables.put(seats, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the line broadcasting a card dealt to a player: '# playerNo rank
+	 * suit'.
+	 * 
+	 * @param playerNo
+	 *            the player number (0 for the dealer).
+	 * @param card
+	 *            the card.
+	 * @return the line.
+	 */
+	public String card(int playerNo, Card card) {
+		if (playerNo < 0 || playerNo >= this.cards.length) {
+			return "# " + playerNo + " " + card;
+		}
+		return this.cards[playerNo][card.getId()];
+	}
+
+	/**
+	 * Gets the line telling players whose turn it is: '% playerNo turn'.
+	 * 
+	 * @param playerNo
+	 *            the player number.
+	 * @return the line.
+	 */
+	public String turn(int playerNo) {
+		if (playerNo < 0 || playerNo >= this.turns.length) {
+			return "% " + playerNo + " turn";
+		}
+		return this.turns[playerNo];
+	}
+}
\ No newline at end of file
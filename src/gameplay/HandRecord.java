@@ -0,0 +1,291 @@
+package gameplay;
+
+import java.util.ArrayList;
+
+/**
+ * Record of a single completed round (hand) of a game room. Built up by the
+ * {@link Dealer} as the round is played and then handed to the hand history
+ * archive once the round has been settled.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class HandRecord {
+
+	/**
+	 * Seat number used for the dealer's cards.
+	 */
+	public static final int DEALER = 0;
+
+	/**
+	 * Result codes stored for each seat.
+	 */
+	public static final char WIN = 'W', LOSS = 'L', BLACKJACK = 'B',
+			BUST = 'X', STAND = 'S', NO_RESULT = 'N';
+
+	private long timestamp;
+	private int roomNo;
+	private ArrayList<Seat> seats;
+
+	/**
+	 * The seat, cards, bet, moves and result of a single player (or the dealer)
+	 * in a round.
+	 */
+	public static class Seat {
+		private int playerNo;
+		private String name;
+		private int bet, coins;
+		private char result;
+		private byte[] cards = new byte[4];
+		private int noOfCards;
+		private char[] moves = new char[4];
+		private int noOfMoves;
+
+		/**
+		 * Constructor for a new Seat object.
+		 * 
+		 * @param playerNo
+		 *            the player number of the seat (0 for the dealer).
+		 * @param name
+		 *            the name of the player in the seat.
+		 * @param bet
+		 *            the bet placed for the round.
+		 */
+		public Seat(int playerNo, String name, int bet) {
+			this.playerNo = playerNo;
+			this.name = name;
+			this.bet = bet;
+			this.result = NO_RESULT;
+		}
+
+		/**
+		 * Adds a card (by its {@link Card#getId() id}) to the seat.
+		 * 
+		 * @param cardId
+		 *            the id of the card dealt.
+		 */
+		public void addCard(int cardId) {
+			if (this.noOfCards == this.cards.length) {
+				byte[] larger = new byte[this.cards.length * 2];
+				System.arraycopy(this.cards, 0, larger, 0, this.noOfCards);
+				this.cards = larger;
+			}
+			this.cards[this.noOfCards++] = (byte) cardId;
+		}
+
+		/**
+		 * Adds a move ('H', 'S' or 'D') to the seat.
+		 * 
+		 * @param move
+		 *            the move made.
+		 */
+		public void addMove(char move) {
+			if (this.noOfMoves == this.moves.length) {
+				char[] larger = new char[this.moves.length * 2];
+				System.arraycopy(this.moves, 0, larger, 0, this.noOfMoves);
+				this.moves = larger;
+			}
+			this.moves[this.noOfMoves++] = move;
+		}
+
+		/**
+		 * Sets the result of the round for this seat.
+		 * 
+		 * @param result
+		 *            the result code (e.g. {@link HandRecord#WIN}).
+		 * @param coins
+		 *            the player's balance after the result.
+		 */
+		public void setResult(char result, int coins) {
+			this.result = result;
+			this.coins = coins;
+		}
+
+		/**
+		 * Get the player number of the seat (0 for the dealer).
+		 * 
+		 * @return the player number.
+		 */
+		public int getPlayerNo() {
+			return this.playerNo;
+		}
+
+		/**
+		 * Get the name of the player in the seat.
+		 * 
+		 * @return the name of the player.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Get the bet placed for the round.
+		 * 
+		 * @return the bet in coins.
+		 */
+		public int getBet() {
+			return this.bet;
+		}
+
+		/**
+		 * Get the player's balance after the round was settled.
+		 * 
+		 * @return the number of coins the player had.
+		 */
+		public int getCoins() {
+			return this.coins;
+		}
+
+		/**
+		 * Get the result code of the seat.
+		 * 
+		 * @return the result (e.g. {@link HandRecord#WIN}).
+		 */
+		public char getResult() {
+			return this.result;
+		}
+
+		/**
+		 * Get the number of cards dealt to the seat.
+		 * 
+		 * @return the number of cards.
+		 */
+		public int getNoOfCards() {
+			return this.noOfCards;
+		}
+
+		/**
+		 * Get the id of a card in this seat.
+		 * 
+		 * @param index
+		 *            the index of the card (in the order it was dealt).
+		 * @return the id of the card.
+		 */
+		public int getCard(int index) {
+			return this.cards[index];
+		}
+
+		/**
+		 * Get the number of moves made in the seat.
+		 * 
+		 * @return the number of moves.
+		 */
+		public int getNoOfMoves() {
+			return this.noOfMoves;
+		}
+
+		/**
+		 * Get a move made in this seat.
+		 * 
+		 * @param index
+		 *            the index of the move (in the order it was made).
+		 * @return the move ('H', 'S' or 'D').
+		 */
+		public char getMove(int index) {
+			return this.moves[index];
+		}
+
+		/**
+		 * Returns the seat in the following format: 'playerNo name bet
+		 * [cards] moves result coins'.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder rep = new StringBuilder();
+			rep.append(this.playerNo).append(' ').append(this.name)
+					.append(' ').append(this.bet).append(" [");
+			for (int card = 0; card < this.noOfCards; card++) {
+				if (card > 0)
+					rep.append(", ");
+				rep.append(Card.fromId(this.cards[card]));
+			}
+			rep.append("] ").append(this.moves, 0, this.noOfMoves)
+					.append(' ').append(this.result).append(' ')
+					.append(this.coins);
+			return rep.toString();
+		}
+	}
+
+	/**
+	 * Constructor for a new HandRecord object with the dealer's seat already
+	 * created.
+	 * 
+	 * @param timestamp
+	 *            the time the round started (milliseconds since the epoch).
+	 * @param roomNo
+	 *            the number of the room the round was played in.
+	 */
+	public HandRecord(long timestamp, int roomNo) {
+		this.timestamp = timestamp;
+		this.roomNo = roomNo;
+		this.seats = new ArrayList<Seat>();
+		this.seats.add(new Seat(DEALER, "Dealer", 0));
+	}
+
+	/**
+	 * Adds a new seat to the record.
+	 * 
+	 * @param seat
+	 *            the seat to add.
+	 */
+	public void addSeat(Seat seat) {
+		this.seats.add(seat);
+	}
+
+	/**
+	 * Gets the seat of a specific player (0 for the dealer).
+	 * 
+	 * @param playerNo
+	 *            the player number of the seat.
+	 * @return the seat, or null if the player was not part of the round.
+	 */
+	public Seat getSeat(int playerNo) {
+		for (int seatNo = 0; seatNo < this.seats.size(); seatNo++) {
+			if (this.seats.get(seatNo).playerNo == playerNo) {
+				return this.seats.get(seatNo);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets all of the seats in the record, the dealer's seat being first.
+	 * 
+	 * @return the list of seats.
+	 */
+	public ArrayList<Seat> getSeats() {
+		return this.seats;
+	}
+
+	/**
+	 * Get the time the round started.
+	 * 
+	 * @return the time in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	/**
+	 * Get the number of the room the round was played in.
+	 * 
+	 * @return the room number.
+	 */
+	public int getRoomNo() {
+		return this.roomNo;
+	}
+
+	/**
+	 * Returns the record with one seat per line.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder rep = new StringBuilder();
+		rep.append(this.timestamp).append(" room ").append(this.roomNo);
+		for (Seat seat : this.seats) {
+			rep.append("\n  ").append(seat);
+		}
+		return rep.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package gameplay;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import connection.Server;
+
+/**
+ * Works out the chances of the dealer's results and of each player winning
+ * from the cards actually left in the shoe, and broadcasts them to a room as
+ * '% ODDS' lines. <br>
+ * Dealers hand over a {@link Snapshot} of the table and carry on right away;
+ * the odds are worked out on a single thread shared by every room. If that
+ * thread falls behind, the oldest waiting snapshots are dropped, since newer
+ * ones replace them anyway. <br>
+ * The dealer's results depend only on the up card and the cards left, so
+ * they are cached by shoe composition, dropping the least recently used
+ * results once the cache is full. Players' chances assume they play on with
+ * the best of hitting and standing (see {@link StrategyTable}).
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class OddsEngine {
+
+	/**
+	 * Number of shoe compositions whose dealer results are cached.
+	 */
+	public static final int CACHE_SIZE = 1024;
+
+	/**
+	 * Number of snapshots that can be waiting to be worked out.
+	 */
+	public static final int MAX_WAITING = 64;
+
+	/**
+	 * Table of a room as seen by the players, with the dealer's hidden card
+	 * still counted as being in the shoe.
+	 */
+	public static class Snapshot {
+		private int[] valueCounts;
+		private int upCard;
+		private ArrayList<int[]> seats;
+
+		/**
+		 * Constructor for a new Snapshot object.
+		 * 
+		 * @param valueCounts
+		 *            the number of cards of each value not yet seen (ace
+		 *            being 1), which the snapshot keeps.
+		 * @param upCard
+		 *            the value of the dealer's up card (ace being 11).
+		 */
+		public Snapshot(int[] valueCounts, int upCard) {
+			this.valueCounts = valueCounts;
+			this.upCard = upCard;
+			this.seats = new ArrayList<int[]>();
+		}
+
+		/**
+		 * Adds a player whose bet hasn't been settled yet.
+		 * 
+		 * @param playerNo
+		 *            the player number.
+		 * @param total
+		 *            the player's hand total.
+		 * @param soft
+		 *            whether or not an ace in the hand is counted as 11.
+		 * @param standing
+		 *            whether the player has finished their turn (otherwise
+		 *            they are yet to play on).
+		 */
+		public void addSeat(int playerNo, int total, boolean soft,
+				boolean standing) {
+			this.seats.add(new int[] { playerNo, total, soft ? 1 : 0,
+					standing ? 1 : 0 });
+		}
+	}
+
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Dealer results by up card and shoe composition, in order of last use.
+	 * Only used by the engine's thread.
+	 */
+	private LinkedHashMap<String, double[]> dealerResults;
+
+	private AtomicLong cacheHits, cacheMisses, dropped;
+
+	/**
+	 * Constructor for a new OddsEngine object, starting its thread.
+	 */
+	public OddsEngine() {
+		this.dealerResults = new LinkedHashMap<String, double[]>(16, 0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, double[]> eldest) {
+				return this.size() > CACHE_SIZE;
+			}
+		};
+		this.cacheHits = new AtomicLong();
+		this.cacheMisses = new AtomicLong();
+		this.dropped = new AtomicLong();
+		this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(MAX_WAITING),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable task) {
+						Thread thread = new Thread(task, "Odds engine");
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.DiscardOldestPolicy() {
+					@Override
+					public void rejectedExecution(Runnable task,
+							ThreadPoolExecutor executor) {
+						OddsEngine.this.dropped.incrementAndGet();
+						super.rejectedExecution(task, executor);
+					}
+				});
+	}
+
+	/**
+	 * Works out the odds of a table on the engine's thread and broadcasts them
+	 * to the room, without waiting.
+	 * 
+	 * @param server
+	 *            the room to broadcast to.
+	 * @param gameNo
+	 *            the number of the room's game, so that the odds are dropped
+	 *            if the game is over by the time they are worked out.
+	 * @param snapshot
+	 *            the table.
+	 */
+	public void publish(final Server server, final int gameNo,
+			final Snapshot snapshot) {
+		this.executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				server.queueOdds(gameNo, OddsEngine.this.getOdds(snapshot));
+			}
+		});
+	}
+
+	/**
+	 * Works out the odds of a table as a broadcast line: '% ODDS' followed by
+	 * the chances (in percent) of the dealer standing on 17, 18, 19, 20 and
+	 * 21 and of busting, then 'playerNo winChance //' for each player whose
+	 * bet hasn't been settled.
+	 * 
+	 * @param snapshot
+	 *            the table.
+	 * @return the line.
+	 */
+	String getOdds(Snapshot snapshot) {
+		int[] counts = snapshot.valueCounts;
+		int cardsLeft = 0;
+		for (int value = 1; value <= 10; value++) {
+			cardsLeft += counts[value];
+		}
+
+		double[] dealer = this.getDealerResults(counts, cardsLeft,
+				snapshot.upCard);
+		StringBuilder line = new StringBuilder("% ODDS");
+		for (int result = 0; result <= StrategyTable.DEALER_BUST; result++) {
+			line.append(' ').append(percent(dealer[result]));
+		}
+		if (snapshot.seats.isEmpty()) {
+			return line.toString();
+		}
+
+		// There are no pushes, so the chance of winning is half of one more
+		// than the expected value
+		double[] draw = new double[11];
+		for (int value = 1; value <= 10; value++) {
+			draw[value] = (double) counts[value] / cardsLeft;
+		}
+		double[] stand = StrategyTable.standValues(dealer);
+		double[][] best = new double[2][StrategyTable.TOTALS];
+		StrategyTable.playOn(draw, stand, best,
+				new double[2][StrategyTable.TOTALS]);
+		for (int[] seat : snapshot.seats) {
+			int total = Math.min(seat[1], 21);
+			double value = seat[3] == 1 || total < 4 ? stand[total]
+					: best[seat[2]][total];
+			line.append(' ').append(seat[0]).append(' ')
+					.append(percent((value + 1) / 2)).append(" //");
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Gets the chances of each result of the dealer, working them out if the
+	 * shoe composition isn't cached.
+	 * 
+	 * @param counts
+	 *            the number of cards of each value not yet seen.
+	 * @param cardsLeft
+	 *            the number of cards not yet seen.
+	 * @param upCard
+	 *            the value of the dealer's up card (ace being 11).
+	 * @return the chances of standing on 17 to 21, and of busting.
+	 */
+	private double[] getDealerResults(int[] counts, int cardsLeft, int upCard) {
+		StringBuilder key = new StringBuilder().append(upCard);
+		for (int value = 1; value <= 10; value++) {
+			key.append(',').append(counts[value]);
+		}
+		String composition = key.toString();
+		double[] results = this.dealerResults.get(composition);
+		if (results != null) {
+			this.cacheHits.incrementAndGet();
+			return results;
+		}
+		this.cacheMisses.incrementAndGet();
+		results = new double[StrategyTable.DEALER_BUST + 1];
+		StrategyTable.dealerDraws(upCard == 11 ? 1 : upCard, upCard == 11,
+				counts.clone(), cardsLeft, 1.0, results);
+		this.dealerResults.put(composition, results);
+		return results;
+	}
+
+	/**
+	 * Formats a chance as a percentage with one decimal place.
+	 * 
+	 * @param chance
+	 *            the chance (0 to 1).
+	 * @return the percentage.
+	 */
+	private static String percent(double chance) {
+		return String.valueOf(Math.round(chance * 1000) / 10.0);
+	}
+
+	/**
+	 * Get the number of times the dealer's results were found in the cache.
+	 * 
+	 * @return the number of cache hits.
+	 */
+	public long getCacheHits() {
+		return this.cacheHits.get();
+	}
+
+	/**
+	 * Get the number of times the dealer's results had to be worked out.
+	 * 
+	 * @return the number of cache misses.
+	 */
+	public long getCacheMisses() {
+		return this.cacheMisses.get();
+	}
+
+	/**
+	 * Get the number of snapshots dropped because the engine was behind.
+	 * 
+	 * @return the number of dropped snapshots.
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+}
\ No newline at end of file
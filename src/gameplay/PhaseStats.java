@@ -0,0 +1,137 @@
+package gameplay;
+
+import utilities.Histogram;
+
+/**
+ * Distribution of the time spent in each stage of a round, over many
+ * rounds, for finding out where round time goes. Kept for each room by its
+ * dealer and for every room together by the {@link RoundTracer}. <br>
+ * Each stage has a {@link Histogram}, so recording a round never locks or
+ * allocates, and percentiles are estimated from the histogram buckets.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class PhaseStats {
+
+	/**
+	 * Percentiles given by {@link #describe(StringBuilder)}.
+	 */
+	public static final double[] PERCENTILES = { 50, 90, 99 };
+
+	/**
+	 * Stages of a round, in the order they happen.
+	 */
+	private static final Dealer.State[] PHASES = Dealer.State.values();
+
+	/**
+	 * Time spent in each stage, by the stage's ordinal, and in the whole
+	 * round.
+	 */
+	private Histogram[] phases;
+	private Histogram rounds;
+
+	/**
+	 * Constructor for a new PhaseStats object with nothing recorded.
+	 */
+	public PhaseStats() {
+		this.phases = new Histogram[PHASES.length];
+		for (int phase = 0; phase < PHASES.length; phase++) {
+			this.phases[phase] = newHistogram();
+		}
+		this.rounds = newHistogram();
+	}
+
+	/**
+	 * Creates a histogram with buckets from a millisecond (the dealer's own
+	 * stages) to five minutes (betting and players' turns).
+	 * 
+	 * @return the new histogram.
+	 */
+	private static Histogram newHistogram() {
+		return new Histogram(0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1,
+				2.5, 5, 10, 30, 60, 120, 300);
+	}
+
+	/**
+	 * Adds the time of each stage of a finished round.
+	 * 
+	 * @param trace
+	 *            the trace of the round.
+	 */
+	public void record(RoundTrace trace) {
+		for (int phase = 0; phase < PHASES.length; phase++) {
+			this.phases[phase].record(trace.getPhaseTime(PHASES[phase]));
+		}
+		this.rounds.record(trace.getDuration());
+	}
+
+	/**
+	 * Forgets every round recorded.
+	 */
+	public void clear() {
+		for (Histogram phase : this.phases) {
+			phase.clear();
+		}
+		this.rounds.clear();
+	}
+
+	/**
+	 * Get the distribution of the time spent in a stage of a round.
+	 * 
+	 * @param phase
+	 *            the stage.
+	 * @return the histogram of the stage.
+	 */
+	public Histogram getPhase(Dealer.State phase) {
+		return this.phases[phase.ordinal()];
+	}
+
+	/**
+	 * Get the distribution of the time taken by whole rounds.
+	 * 
+	 * @return the histogram of rounds.
+	 */
+	public Histogram getRounds() {
+		return this.rounds;
+	}
+
+	/**
+	 * Adds a line for each stage and for the whole round, giving the
+	 * estimated 50th, 90th and 99th percentiles of its time: 'BETTING p50
+	 * 1.234 s p90 ... p99 ...'. Nothing is added if no round has been
+	 * recorded.
+	 * 
+	 * @param out
+	 *            the text to add the lines to.
+	 */
+	public void describe(StringBuilder out) {
+		if (this.rounds.getCount() == 0) {
+			return;
+		}
+		for (int phase = 0; phase < PHASES.length; phase++) {
+			this.describe(out, PHASES[phase].toString(), this.phases[phase]);
+		}
+		this.describe(out, "ROUND", this.rounds);
+	}
+
+	/**
+	 * Adds the line for one histogram.
+	 * 
+	 * @param out
+	 *            the text to add the line to.
+	 * @param name
+	 *            the name of the stage.
+	 * @param histogram
+	 *            the histogram of the stage.
+	 */
+	private void describe(StringBuilder out, String name, Histogram histogram) {
+		out.append("  ").append(name);
+		for (double percentile : PERCENTILES) {
+			out.append(" p").append((int) percentile).append(' ')
+					.append(RoundTrace.seconds(histogram
+							.percentile(percentile)));
+		}
+		out.append('\n');
+	}
+}
\ No newline at end of file
@@ -0,0 +1,239 @@
+package gameplay;
+
+import java.util.Arrays;
+
+/**
+ * Timeline of a single round of a game room: the time each stage of the
+ * round started (see {@link Dealer.State}) and the number of messages waiting
+ * in the room's queue at that time, so that the time of a slow round can be
+ * split between betting, players' decisions, the dealer, the pauses before
+ * the next round and the backlog of messages. <br>
+ * Each dealer fills in the same trace every round, so tracing never
+ * allocates; traces of slow rounds are copied to be kept (see
+ * {@link RoundTracer}). Times are from the room's clock.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class RoundTrace {
+
+	/**
+	 * Stages of a round, in the order they happen.
+	 */
+	private static final Dealer.State[] PHASES = Dealer.State.values();
+
+	/**
+	 * Start time of a stage that hasn't started this round.
+	 */
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private int roomNo, roundNo, players;
+
+	/**
+	 * Time (in milliseconds since the epoch) that the round started.
+	 */
+	private long startedAt;
+
+	/**
+	 * Time that each stage started ({@link #NOT_STARTED} if it hasn't
+	 * started this round), and that the round finished.
+	 */
+	private long[] entered;
+	private long finished;
+
+	/**
+	 * Number of messages waiting to be sent as each stage started.
+	 */
+	private int[] backlog;
+
+	/**
+	 * Time spent refilling and shuffling the shoe this round (in
+	 * nanoseconds).
+	 */
+	private long reloadTime;
+
+	/**
+	 * Constructor for a new, empty RoundTrace object.
+	 */
+	public RoundTrace() {
+		this.entered = new long[PHASES.length];
+		this.backlog = new int[PHASES.length];
+		Arrays.fill(this.entered, NOT_STARTED);
+	}
+
+	/**
+	 * Starts tracing a new round, forgetting the last one.
+	 * 
+	 * @param roomNo
+	 *            the room number.
+	 * @param roundNo
+	 *            the number of the round in the room's game (starting at 1).
+	 * @param startedAt
+	 *            the time the round started (in milliseconds since the
+	 *            epoch).
+	 */
+	public void start(int roomNo, int roundNo, long startedAt) {
+		this.roomNo = roomNo;
+		this.roundNo = roundNo;
+		this.startedAt = startedAt;
+		this.players = 0;
+		this.finished = 0;
+		this.reloadTime = 0;
+		Arrays.fill(this.entered, NOT_STARTED);
+		Arrays.fill(this.backlog, 0);
+	}
+
+	/**
+	 * Records a stage of the round starting.
+	 * 
+	 * @param phase
+	 *            the stage.
+	 * @param now
+	 *            the time (in nanoseconds).
+	 * @param backlog
+	 *            the number of messages waiting to be sent.
+	 */
+	public void enter(Dealer.State phase, long now, int backlog) {
+		this.entered[phase.ordinal()] = now;
+		this.backlog[phase.ordinal()] = backlog;
+	}
+
+	/**
+	 * Adds time spent refilling and shuffling the shoe.
+	 * 
+	 * @param nanos
+	 *            the time taken (in nanoseconds).
+	 */
+	public void addReloadTime(long nanos) {
+		this.reloadTime += nanos;
+	}
+
+	/**
+	 * Records the round finishing, once the next round can start.
+	 * 
+	 * @param now
+	 *            the time (in nanoseconds).
+	 * @param players
+	 *            the number of players in the round's standings.
+	 */
+	public void finish(long now, int players) {
+		this.finished = now;
+		this.players = players;
+	}
+
+	/**
+	 * Get the time the round took, from betting starting to the next round
+	 * being able to start.
+	 * 
+	 * @return the duration (in nanoseconds).
+	 */
+	public long getDuration() {
+		return this.finished - this.entered[0];
+	}
+
+	/**
+	 * Get the time spent in a stage of the round: from the stage starting to
+	 * the next stage starting (or the round finishing).
+	 * 
+	 * @param phase
+	 *            the stage.
+	 * @return the duration (in nanoseconds), or 0 if the stage didn't
+	 *         happen.
+	 */
+	public long getPhaseTime(Dealer.State phase) {
+		int index = phase.ordinal();
+		if (this.entered[index] == NOT_STARTED) {
+			return 0;
+		}
+		for (int next = index + 1; next < PHASES.length; next++) {
+			if (this.entered[next] != NOT_STARTED) {
+				return this.entered[next] - this.entered[index];
+			}
+		}
+		return this.finished - this.entered[index];
+	}
+
+	/**
+	 * Get the number of messages waiting to be sent as a stage started.
+	 * 
+	 * @param phase
+	 *            the stage.
+	 * @return the number of messages.
+	 */
+	public int getBacklog(Dealer.State phase) {
+		return this.backlog[phase.ordinal()];
+	}
+
+	/**
+	 * Get the time spent refilling and shuffling the shoe.
+	 * 
+	 * @return the duration (in nanoseconds).
+	 */
+	public long getReloadTime() {
+		return this.reloadTime;
+	}
+
+	/**
+	 * Get the number of the room the round was played in.
+	 * 
+	 * @return the room number.
+	 */
+	public int getRoomNo() {
+		return this.roomNo;
+	}
+
+	/**
+	 * Creates a copy of the trace to keep, since the dealer's own trace is
+	 * reused for the next round.
+	 * 
+	 * @return the copy.
+	 */
+	public RoundTrace copy() {
+		RoundTrace copy = new RoundTrace();
+		copy.roomNo = this.roomNo;
+		copy.roundNo = this.roundNo;
+		copy.players = this.players;
+		copy.startedAt = this.startedAt;
+		copy.finished = this.finished;
+		copy.reloadTime = this.reloadTime;
+		System.arraycopy(this.entered, 0, copy.entered, 0, PHASES.length);
+		System.arraycopy(this.backlog, 0, copy.backlog, 0, PHASES.length);
+		return copy;
+	}
+
+	/**
+	 * Describes the trace on one line: 'room 3 round 12 (4 players) at
+	 * startedAt took 75.2 s: BETTING 60.0 s (backlog 0), DEALING ...,
+	 * shoe reload 0.001 s'.
+	 * 
+	 * @return the description.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder line = new StringBuilder();
+		line.append("room ").append(this.roomNo).append(" round ")
+				.append(this.roundNo).append(" (").append(this.players)
+				.append(" players) at ").append(this.startedAt)
+				.append(" took ").append(seconds(this.getDuration()))
+				.append(':');
+		for (Dealer.State phase : PHASES) {
+			line.append(' ').append(phase).append(' ')
+					.append(seconds(this.getPhaseTime(phase)))
+					.append(" (backlog ").append(this.getBacklog(phase))
+					.append("),");
+		}
+		line.append(" shoe reload ").append(seconds(this.reloadTime));
+		return line.toString();
+	}
+
+	/**
+	 * Formats a duration in seconds to the nearest millisecond.
+	 * 
+	 * @param nanos
+	 *            the duration (in nanoseconds).
+	 * @return the duration (e.g. "1.234 s").
+	 */
+	static String seconds(long nanos) {
+		return String.format("%.3f s", nanos / 1e9);
+	}
+}
\ No newline at end of file
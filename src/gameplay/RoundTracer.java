@@ -0,0 +1,104 @@
+package gameplay;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.Log;
+
+/**
+ * Collects the trace of every finished round across a central server's
+ * rooms: the time of each stage goes into server-wide {@link PhaseStats},
+ * and the traces of rounds slower than their room's 'slow.round.time'
+ * setting are logged and kept for inspection. <br>
+ * Only the last {@link #CAPACITY} slow rounds are kept, so a burst of slow
+ * rounds can't use up memory. Fast rounds are never copied.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class RoundTracer {
+
+	/**
+	 * Number of slow rounds kept.
+	 */
+	public static final int CAPACITY = 64;
+
+	private Log log;
+	private PhaseStats phaseStats;
+
+	/**
+	 * Traces of the last slow rounds, oldest first.
+	 */
+	private ArrayDeque<RoundTrace> slowRounds;
+	private AtomicLong noOfSlowRounds;
+
+	/**
+	 * Constructor for a new RoundTracer object with nothing recorded.
+	 * 
+	 * @param log
+	 *            the log to report slow rounds in.
+	 */
+	public RoundTracer(Log log) {
+		this.log = log;
+		this.phaseStats = new PhaseStats();
+		this.slowRounds = new ArrayDeque<RoundTrace>(CAPACITY);
+		this.noOfSlowRounds = new AtomicLong();
+	}
+
+	/**
+	 * Adds a finished round, keeping a copy of its trace if it was slow.
+	 * 
+	 * @param trace
+	 *            the trace of the round (which the dealer goes on to reuse).
+	 * @param threshold
+	 *            the time (in nanoseconds) from which a round is slow.
+	 * @param logTag
+	 *            the tag of the room's lines in the log.
+	 */
+	public void finished(RoundTrace trace, long threshold, String logTag) {
+		this.phaseStats.record(trace);
+		if (trace.getDuration() < threshold) {
+			return;
+		}
+		this.noOfSlowRounds.incrementAndGet();
+		RoundTrace copy = trace.copy();
+		synchronized (this.slowRounds) {
+			if (this.slowRounds.size() == CAPACITY) {
+				this.slowRounds.poll();
+			}
+			this.slowRounds.add(copy);
+		}
+		this.log.log(Log.WARN, logTag, "Slow round: " + copy);
+	}
+
+	/**
+	 * Get the time spent in each stage of every round.
+	 * 
+	 * @return the server-wide stage times.
+	 */
+	public PhaseStats getPhaseStats() {
+		return this.phaseStats;
+	}
+
+	/**
+	 * Get the traces of the last slow rounds.
+	 * 
+	 * @return a copy of the list of traces, oldest first.
+	 */
+	public ArrayList<RoundTrace> getSlowRounds() {
+		synchronized (this.slowRounds) {
+			return new ArrayList<RoundTrace>(this.slowRounds);
+		}
+	}
+
+	/**
+	 * Get the number of slow rounds since the server started, including any
+	 * no longer kept.
+	 * 
+	 * @return the number of slow rounds.
+	 */
+	public long getNoOfSlowRounds() {
+		return this.noOfSlowRounds.get();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,418 @@
+package gameplay;
+
+import java.util.HashMap;
+
+/**
+ * Basic strategy for the rules of this game, used to answer players asking
+ * for a hint. <br>
+ * The rules differ from casino blackjack: a player reaching 21 at any point
+ * wins even money right away, the dealer wins ties, the dealer stands on
+ * every 17 (soft or hard), and there is no splitting, so a pair is played as
+ * its hard or soft total. <br>
+ * A table is generated the first time it is needed for a number of decks, by
+ * working out the expected value of standing, hitting and doubling down from
+ * every hand total against every dealer up card. The dealer's results are
+ * found by going through every sequence of cards the dealer could draw from
+ * the shoe (without the up card), and the player's cards are drawn from the
+ * same shoe. Each cell of the table is a single byte, so a hint is one array
+ * read.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class StrategyTable {
+
+	/**
+	 * Moves that can be hinted, using the same letters as the moves of a
+	 * player.
+	 */
+	public static final char HIT = 'H', STAND = 'S', DOUBLE = 'D';
+
+	/**
+	 * Moves by their code in a cell of the table (0 is not used).
+	 */
+	private static final char[] MOVES = { STAND, HIT, STAND, DOUBLE };
+	private static final int HIT_CODE = 1, STAND_CODE = 2, DOUBLE_CODE = 3;
+
+	/**
+	 * Number of hand totals (0 to 21) and dealer up cards (2 to 11, ace
+	 * being 11) in the table.
+	 */
+	static final int TOTALS = 22, UP_CARDS = 10;
+
+	/**
+	 * Indexes of the dealer's results: standing on 17 to 21, or busting.
+	 */
+	static final int DEALER_BUST = 5;
+
+	/**
+	 * Tables already generated, by number of decks.
+	 */
+	private static HashMap<Integer, StrategyTable> tables =
+			new HashMap<Integer, StrategyTable>();
+
+	/**
+	 * Moves for every soft/hard hand total and dealer up card. The low 4 bits
+	 * of a cell are the best move, and the high 4 bits are the best move when
+	 * doubling down isn't allowed.
+	 */
+	private byte[] cells;
+
+	private int numOfDecks;
+
+	/**
+	 * Time (in nanoseconds) taken to generate the table.
+	 */
+	private long generationTime;
+
+	/**
+	 * Generates a new StrategyTable object.
+	 * 
+	 * @param numOfDecks
+	 *            the number of decks in the shoe.
+	 */
+	private StrategyTable(int numOfDecks) {
+		long start = System.nanoTime();
+		this.numOfDecks = numOfDecks;
+		this.cells = new byte[2 * TOTALS * UP_CARDS];
+		for (int upCard = 2; upCard <= 11; upCard++) {
+			this.generate(upCard);
+		}
+		this.generationTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Gets the table for a number of decks, generating it if this is the first
+	 * time it is needed.
+	 * 
+	 * @param numOfDecks
+	 *            the number of decks in the shoe.
+	 * @return the table.
+	 */
+	public static synchronized StrategyTable forDecks(int numOfDecks) {
+		StrategyTable table = tables.get(numOfDecks);
+		if (table == null) {
+			table = new StrategyTable(numOfDecks);
+			tables.put(numOfDecks, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Works out the moves for every hand against a dealer up card.
+	 * 
+	 * @param upCard
+	 *            the value of the up card (ace being 11).
+	 */
+	private void generate(int upCard) {
+		// Number of cards of each value left in the shoe (ace being 1)
+		int[] shoe = new int[11];
+		for (int value = 1; value <= 10; value++) {
+			shoe[value] = 4 * this.numOfDecks;
+		}
+		shoe[10] = 16 * this.numOfDecks;
+		shoe[upCard == 11 ? 1 : upCard]--;
+		int cardsLeft = 52 * this.numOfDecks - 1;
+
+		double[] draw = new double[11];
+		for (int value = 1; value <= 10; value++) {
+			draw[value] = (double) shoe[value] / cardsLeft;
+		}
+
+		// Chances of each result of the dealer, whose hole card is drawn
+		// after the up card
+		double[] dealer = new double[DEALER_BUST + 1];
+		dealerDraws(upCard == 11 ? 1 : upCard, upCard == 11, shoe, cardsLeft,
+				1.0, dealer);
+
+		// Expected value of standing on each total, and of playing on from
+		// each total without doubling down
+		double[] stand = standValues(dealer);
+		double[][] best = new double[2][TOTALS];
+		double[][] hit = new double[2][TOTALS];
+		playOn(draw, stand, best, hit);
+
+		// Store the best move for every hand
+		for (int soft = 0; soft <= 1; soft++) {
+			for (int total = soft == 1 ? 12 : 4; total <= 21; total++) {
+				int withoutDouble = STAND_CODE;
+				int withDouble = STAND_CODE;
+				if (total < 21) {
+					double bestValue = stand[total];
+					if (hit[soft][total] > bestValue) {
+						withoutDouble = HIT_CODE;
+						bestValue = hit[soft][total];
+					}
+					withDouble = withoutDouble;
+
+					// Doubling down draws exactly one card for twice the bet
+					double doubleDown = 0;
+					for (int card = 1; card <= 10; card++) {
+						int next = nextTotal(total, soft == 1, card) & 0xFF;
+						doubleDown += draw[card]
+								* (next == 21 ? 1 : next > 21 ? -1
+										: stand[next]);
+					}
+					if (2 * doubleDown > bestValue) {
+						withDouble = DOUBLE_CODE;
+					}
+				}
+				this.cells[index(total, soft == 1, upCard)] =
+						(byte) (withoutDouble << 4 | withDouble);
+			}
+		}
+	}
+
+	/**
+	 * Works out the expected value of standing on each total. A tie is a loss
+	 * and a player can't stand on 21, so there are no pushes and the chance
+	 * of winning is half of one more than the expected value.
+	 * 
+	 * @param dealer
+	 *            the chance of each result of the dealer (standing on 17 to
+	 *            21, or busting).
+	 * @return the expected value of standing on each total.
+	 */
+	static double[] standValues(double[] dealer) {
+		double[] stand = new double[TOTALS];
+		for (int total = 0; total < TOTALS; total++) {
+			double win = dealer[DEALER_BUST];
+			for (int result = 17; result < total && result <= 21; result++) {
+				win += dealer[result - 17];
+			}
+			stand[total] = 2 * win - 1;
+		}
+		return stand;
+	}
+
+	/**
+	 * Works out the expected value of hitting, and of the best move other
+	 * than doubling down, from every soft and hard total. Hard totals from 12
+	 * up only lead to higher hard totals, soft totals lead to higher soft
+	 * totals or hard totals from 12 up, and lower hard totals can lead to
+	 * anything above them, so they are worked out in that order.
+	 * 
+	 * @param draw
+	 *            the chance of drawing a card of each value (ace being 1).
+	 * @param stand
+	 *            the expected value of standing on each total.
+	 * @param best
+	 *            the expected value of the best move from each soft and hard
+	 *            total, filled in.
+	 * @param hit
+	 *            the expected value of hitting from each soft and hard total,
+	 *            filled in.
+	 */
+	static void playOn(double[] draw, double[] stand, double[][] best,
+			double[][] hit) {
+		for (int total = 20; total >= 12; total--) {
+			playOn(total, false, draw, stand, best, hit);
+		}
+		for (int total = 20; total >= 12; total--) {
+			playOn(total, true, draw, stand, best, hit);
+		}
+		for (int total = 11; total >= 4; total--) {
+			playOn(total, false, draw, stand, best, hit);
+		}
+	}
+
+	/**
+	 * Works out the expected value of hitting, and of the best move other
+	 * than doubling down, from a hand total. The values of every total the
+	 * hand could reach must already be worked out.
+	 * 
+	 * @param total
+	 *            the hand total.
+	 * @param soft
+	 *            whether or not an ace in the hand is counted as 11.
+	 * @param draw
+	 *            the chance of drawing a card of each value (ace being 1).
+	 * @param stand
+	 *            the expected value of standing on each total.
+	 * @param best
+	 *            the expected value of the best move from each soft and hard
+	 *            total, filled in for this total.
+	 * @param hit
+	 *            the expected value of hitting from each soft and hard total,
+	 *            filled in for this total.
+	 */
+	private static void playOn(int total, boolean soft, double[] draw,
+			double[] stand, double[][] best, double[][] hit) {
+		double value = 0;
+		for (int card = 1; card <= 10; card++) {
+			int next = nextTotal(total, soft, card);
+			int nextTotal = next & 0xFF;
+			if (nextTotal == 21) {
+				value += draw[card];
+			} else if (nextTotal > 21) {
+				value -= draw[card];
+			} else {
+				value += draw[card] * best[next >> 8][nextTotal];
+			}
+		}
+		int softIndex = soft ? 1 : 0;
+		hit[softIndex][total] = value;
+		best[softIndex][total] = Math.max(value, stand[total]);
+	}
+
+	/**
+	 * Adds a card to a hand total.
+	 * 
+	 * @param total
+	 *            the hand total.
+	 * @param soft
+	 *            whether or not an ace in the hand is counted as 11.
+	 * @param card
+	 *            the value of the card (ace being 1).
+	 * @return the new total, plus 0x100 if the new hand is soft.
+	 */
+	private static int nextTotal(int total, boolean soft, int card) {
+		int hardTotal = (soft ? total - 10 : total) + card;
+		if ((soft || card == 1) && hardTotal + 10 <= 21) {
+			return (hardTotal + 10) | 0x100;
+		}
+		return hardTotal;
+	}
+
+	/**
+	 * Adds the chances of each result of the dealer by going through every
+	 * card the dealer could draw next, removing it from the shoe.
+	 * 
+	 * @param hardTotal
+	 *            the dealer's total counting aces as 1.
+	 * @param hasAce
+	 *            whether or not the dealer has an ace.
+	 * @param shoe
+	 *            the number of cards of each value left in the shoe.
+	 * @param cardsLeft
+	 *            the number of cards left in the shoe.
+	 * @param chance
+	 *            the chance of the dealer having this hand.
+	 * @param results
+	 *            the chance of each result, added to.
+	 */
+	static void dealerDraws(int hardTotal, boolean hasAce, int[] shoe,
+			int cardsLeft, double chance, double[] results) {
+		int total = hasAce && hardTotal + 10 <= 21 ? hardTotal + 10
+				: hardTotal;
+		if (total > 21) {
+			results[DEALER_BUST] += chance;
+			return;
+		}
+		if (total >= 17) {
+			results[total - 17] += chance;
+			return;
+		}
+		for (int card = 1; card <= 10; card++) {
+			if (shoe[card] > 0) {
+				double next = chance * shoe[card] / cardsLeft;
+				shoe[card]--;
+				dealerDraws(hardTotal + card, hasAce || card == 1, shoe,
+						cardsLeft - 1, next, results);
+				shoe[card]++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the cell of a hand in the table.
+	 * 
+	 * @param total
+	 *            the hand total.
+	 * @param soft
+	 *            whether or not an ace in the hand is counted as 11.
+	 * @param upCard
+	 *            the value of the dealer's up card (ace being 11).
+	 * @return the index of the cell.
+	 */
+	private static int index(int total, boolean soft, int upCard) {
+		return ((soft ? TOTALS : 0) + total) * UP_CARDS + upCard - 2;
+	}
+
+	/**
+	 * Gets the best move for a hand.
+	 * 
+	 * @param total
+	 *            the hand total (4 to 21).
+	 * @param soft
+	 *            whether or not an ace in the hand is counted as 11.
+	 * @param upCard
+	 *            the value of the dealer's up card (2 to 11, ace being 11).
+	 * @param canDouble
+	 *            whether or not the player can double down.
+	 * @return {@link #HIT}, {@link #STAND} or {@link #DOUBLE}.
+	 */
+	public char getMove(int total, boolean soft, int upCard, boolean canDouble) {
+		int cell = this.cells[index(total, soft, upCard)];
+		return MOVES[canDouble ? cell & 0xF : cell >> 4 & 0xF];
+	}
+
+	/**
+	 * Get the number of decks the table was generated for.
+	 * 
+	 * @return the number of decks.
+	 */
+	public int getNumOfDecks() {
+		return this.numOfDecks;
+	}
+
+	/**
+	 * Get the size of the table.
+	 * 
+	 * @return the size (in bytes).
+	 */
+	public int size() {
+		return this.cells.length;
+	}
+
+	/**
+	 * Get the time taken to generate the table.
+	 * 
+	 * @return the generation time (in nanoseconds).
+	 */
+	public long getGenerationTime() {
+		return this.generationTime;
+	}
+
+	/**
+	 * Prints the table for a number of decks, followed by the time taken to
+	 * generate the table for 1 to 8 decks.
+	 * 
+	 * @param args
+	 *            the number of decks to print the table for (the default
+	 *            number of decks if not given).
+	 */
+	public static void main(String[] args) {
+		int numOfDecks = args.length > 0 ? Integer.parseInt(args[0])
+				: Dealer.NUMBER_OF_DECKS;
+		StrategyTable table = forDecks(numOfDecks);
+
+		// Print the moves with doubling down allowed, one row per hand
+		System.out.println("Basic strategy for " + numOfDecks + " decks");
+		System.out.println("       2 3 4 5 6 7 8 9 T A");
+		for (int soft = 0; soft <= 1; soft++) {
+			for (int total = soft == 1 ? 12 : 4; total <= 20; total++) {
+				StringBuilder row = new StringBuilder(soft == 1 ? "soft "
+						: "hard ");
+				row.append(total < 10 ? " " : "").append(total);
+				for (int upCard = 2; upCard <= 11; upCard++) {
+					row.append(' ').append(
+							table.getMove(total, soft == 1, upCard, true));
+				}
+				System.out.println(row);
+			}
+		}
+
+		// Time fresh tables, generating each a few times to warm up
+		System.out.println();
+		for (int decks = 1; decks <= 8; decks++) {
+			long fastest = Long.MAX_VALUE;
+			for (int run = 0; run < 5; run++) {
+				fastest = Math.min(fastest,
+						new StrategyTable(decks).getGenerationTime());
+			}
+			System.out.printf("%d decks: generated in %.2f ms, %d bytes%n",
+					decks, fastest / 1e6, table.size());
+		}
+	}
+}
\ No newline at end of file
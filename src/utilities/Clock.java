@@ -0,0 +1,71 @@
+package utilities;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Source of time for the game rooms: the current time, waiting and running
+ * something at a fixed delay. Rooms normally use the {@link SystemClock}; a
+ * {@link VirtualClock} lets a test or benchmark decide when time passes.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public interface Clock {
+
+	/**
+	 * Gets the current time, only meaningful compared to other times from the
+	 * same clock (like {@link System#nanoTime()}).
+	 * 
+	 * @return the current time (in nanoseconds).
+	 */
+	long nanoTime();
+
+	/**
+	 * Gets the current time since the epoch (like
+	 * {@link System#currentTimeMillis()}).
+	 * 
+	 * @return the current time (in milliseconds).
+	 */
+	long currentTimeMillis();
+
+	/**
+	 * Waits for an amount of time.
+	 * 
+	 * @param millis
+	 *            the time to wait (in milliseconds).
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting.
+	 */
+	void sleep(long millis) throws InterruptedException;
+
+	/**
+	 * Runs a task once after a delay.
+	 * 
+	 * @param executor
+	 *            the executor to run the task on, if the clock uses one.
+	 * @param task
+	 *            the task.
+	 * @param delay
+	 *            the delay (in milliseconds) before the task is run.
+	 * @return the scheduled task, which can be cancelled.
+	 */
+	Future<?> schedule(ScheduledExecutorService executor, Runnable task,
+			long delay);
+
+	/**
+	 * Runs a task over and over with a fixed delay between the end of one
+	 * run and the start of the next.
+	 * 
+	 * @param executor
+	 *            the executor to run the task on, if the clock uses one.
+	 * @param task
+	 *            the task.
+	 * @param delay
+	 *            the delay (in milliseconds) before the first run and
+	 *            between runs.
+	 * @return the scheduled task, which can be cancelled.
+	 */
+	Future<?> scheduleWithFixedDelay(ScheduledExecutorService executor,
+			Runnable task, long delay);
+}
\ No newline at end of file
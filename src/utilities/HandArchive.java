@@ -0,0 +1,857 @@
+package utilities;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import gameplay.HandRecord;
+
+/**
+ * Rolling, segmented binary archive of every completed hand. Records are
+ * appended by a background thread so that the dealers never wait on the disk.
+ * <br>
+ * Each segment ('.seg') holds length-prefixed records in which card ids,
+ * seats, bets, moves and results are packed as variable length integers,
+ * usually taking a few dozen bytes per hand. Alongside each segment there is a
+ * sparse time index ('.tix') with one entry every
+ * {@link #TIME_INDEX_INTERVAL} records and, once the segment is sealed, a
+ * player index ('.pix') listing the records of every player in the segment.
+ * Player names are stored once in a dictionary ('names.dat') and referenced by
+ * number in the records.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class HandArchive implements Runnable {
+
+	/**
+	 * Default size (in bytes) after which a segment is sealed and a new one is
+	 * started.
+	 */
+	public static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Default number of segments kept before the oldest one is deleted.
+	 */
+	public static final int MAX_SEGMENTS = 128;
+
+	/**
+	 * Number of records between entries of the time index.
+	 */
+	public static final int TIME_INDEX_INTERVAL = 128;
+
+	/**
+	 * Number of hands that can be waiting to be written before new hands are
+	 * dropped (and counted) instead of slowing down the dealers.
+	 */
+	public static final int QUEUE_SIZE = 4096;
+
+	/**
+	 * Encoding of the moves ('H', 'S' and 'D'), two bits each.
+	 */
+	private static final String MOVES = "NHSD";
+
+	private File directory;
+	private int segmentSize, maxSegments;
+	private ArrayBlockingQueue<HandRecord> queue;
+	private AtomicLong droppedHands;
+	private Thread writerThread;
+
+	/**
+	 * Numbers of all the segments on disk, oldest first. The last one is the
+	 * segment currently being written.
+	 */
+	private ArrayList<Long> segments;
+
+	// Dictionary of player names
+	private HashMap<String, Integer> nameIds;
+	private ArrayList<String> names;
+	private DataOutputStream namesOutput;
+
+	// State of the segment currently being written
+	private DataOutputStream segmentOutput, timeIndexOutput;
+	private long segmentPosition;
+	private int recordsInSegment;
+	private HashMap<Integer, IntList> playerOffsets;
+
+	/**
+	 * Reusable buffer that records are encoded into before being written.
+	 */
+	private Buffer encoded;
+
+	/**
+	 * Growable list of primitive integers (record offsets).
+	 */
+	private static class IntList {
+		private int[] values = new int[8];
+		private int size;
+
+		private void add(int value) {
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			this.values[this.size++] = value;
+		}
+	}
+
+	/**
+	 * Growable byte buffer with variable length integer encoding.
+	 */
+	private static class Buffer {
+		private byte[] bytes = new byte[256];
+		private int size;
+
+		private void write(int value) {
+			if (this.size == this.bytes.length)
+				this.bytes = Arrays.copyOf(this.bytes, this.size * 2);
+			this.bytes[this.size++] = (byte) value;
+		}
+
+		private void writeVarLong(long value) {
+			while ((value & ~0x7FL) != 0) {
+				this.write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			this.write((int) value);
+		}
+	}
+
+	/**
+	 * Constructor for a new HandArchive object using the default segment size
+	 * and number of segments.
+	 * 
+	 * @param directory
+	 *            the directory to store the archive in.
+	 * @throws IOException
+	 *             if the archive could not be opened.
+	 */
+	public HandArchive(File directory) throws IOException {
+		this(directory, SEGMENT_SIZE, MAX_SEGMENTS);
+	}
+
+	/**
+	 * Constructor for a new HandArchive object. Opens (or creates) the archive
+	 * in the specified directory, recovering the segment that was being
+	 * written the last time the archive was used.
+	 * 
+	 * @param directory
+	 *            the directory to store the archive in.
+	 * @param segmentSize
+	 *            the size (in bytes) after which a segment is sealed.
+	 * @param maxSegments
+	 *            the number of segments kept before the oldest is deleted.
+	 * @throws IOException
+	 *             if the archive could not be opened.
+	 */
+	public HandArchive(File directory, int segmentSize, int maxSegments)
+			throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		this.queue = new ArrayBlockingQueue<HandRecord>(QUEUE_SIZE);
+		this.droppedHands = new AtomicLong();
+		this.encoded = new Buffer();
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+
+		this.loadNames();
+
+		// Find all of the existing segments
+		this.segments = new ArrayList<Long>();
+		String[] files = directory.list();
+		for (String file : files) {
+			if (file.endsWith(".seg")) {
+				this.segments.add(Long.parseLong(file.substring(0,
+						file.length() - 4)));
+			}
+		}
+		Collections.sort(this.segments);
+
+		// Seal every old segment that is missing its player index (e.g. the
+		// server stopped while sealing it) and reopen the last one
+		for (int segmentNo = 0; segmentNo < this.segments.size() - 1; segmentNo++) {
+			long segment = this.segments.get(segmentNo);
+			if (!this.file(segment, ".pix").exists()) {
+				this.recover(segment);
+				this.writePlayerIndex(segment);
+			}
+		}
+		if (this.segments.isEmpty()) {
+			this.segments.add(0L);
+		}
+		this.openSegment(this.segments.get(this.segments.size() - 1));
+	}
+
+	/**
+	 * Starts the thread writing queued hands to disk.
+	 */
+	public void start() {
+		this.writerThread = new Thread(this, "Hand archive");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Queues a completed hand to be written. Never blocks; if the writer has
+	 * fallen too far behind, the hand is dropped and counted instead.
+	 * 
+	 * @param hand
+	 *            the hand to archive.
+	 * @return whether or not the hand was queued.
+	 */
+	public boolean append(HandRecord hand) {
+		if (this.queue.offer(hand)) {
+			return true;
+		}
+		this.droppedHands.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Get the number of hands dropped because the writer fell behind.
+	 * 
+	 * @return the number of dropped hands.
+	 */
+	public long getDroppedHands() {
+		return this.droppedHands.get();
+	}
+
+	/**
+	 * Writes queued hands to disk, flushing whenever the queue has been
+	 * drained.
+	 */
+	@Override
+	public void run() {
+		ArrayList<HandRecord> batch = new ArrayList<HandRecord>();
+		while (true) {
+			try {
+				batch.add(this.queue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			this.queue.drainTo(batch);
+
+			synchronized (this) {
+				try {
+					for (HandRecord hand : batch) {
+						this.write(hand);
+					}
+					this.flush();
+				} catch (IOException e) {
+					System.err.println("Error writing to the hand archive");
+					e.printStackTrace();
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Gets the most recent hands of a player, newest first, reading only the
+	 * records of that player by using the player indexes.
+	 * 
+	 * @param name
+	 *            the name of the player.
+	 * @param limit
+	 *            the maximum number of hands to return.
+	 * @return the list of hands.
+	 * @throws IOException
+	 *             if the archive could not be read.
+	 */
+	public synchronized ArrayList<HandRecord> getPlayerHands(String name,
+			int limit) throws IOException {
+		ArrayList<HandRecord> hands = new ArrayList<HandRecord>();
+		Integer nameId = this.nameIds.get(name);
+		if (nameId == null) {
+			return hands;
+		}
+
+		// Go through the segments from newest to oldest
+		for (int segmentNo = this.segments.size() - 1; segmentNo >= 0
+				&& hands.size() < limit; segmentNo--) {
+			long segment = this.segments.get(segmentNo);
+			int[] offsets;
+			if (segmentNo == this.segments.size() - 1) {
+				IntList list = this.playerOffsets.get(nameId);
+				offsets = list == null ? new int[0] : Arrays.copyOf(
+						list.values, list.size);
+			} else {
+				offsets = this.readPlayerIndex(segment, nameId);
+			}
+
+			try (RandomAccessFile file = new RandomAccessFile(this.file(
+					segment, ".seg"), "r")) {
+				for (int offset = offsets.length - 1; offset >= 0
+						&& hands.size() < limit; offset--) {
+					file.seek(offsets[offset]);
+					hands.add(this.read(new DataInputStream(
+							new RandomAccessInputStream(file))));
+				}
+			}
+		}
+		return hands;
+	}
+
+	/**
+	 * Gets the hands played within a period of time, oldest first, using the
+	 * time indexes to skip to the start of the period.
+	 * 
+	 * @param from
+	 *            the start of the period (milliseconds since the epoch).
+	 * @param to
+	 *            the end of the period (milliseconds since the epoch).
+	 * @param limit
+	 *            the maximum number of hands to return.
+	 * @return the list of hands.
+	 * @throws IOException
+	 *             if the archive could not be read.
+	 */
+	public synchronized ArrayList<HandRecord> getHands(long from, long to,
+			int limit) throws IOException {
+		ArrayList<HandRecord> hands = new ArrayList<HandRecord>();
+		for (int segmentNo = 0; segmentNo < this.segments.size()
+				&& hands.size() < limit; segmentNo++) {
+			long[] timeIndex = this.readTimeIndex(this.segments.get(segmentNo));
+			if (timeIndex.length == 0 || timeIndex[0] > to) {
+				continue;
+			}
+
+			// Skip the segment if the next one starts before the period
+			if (segmentNo + 1 < this.segments.size()) {
+				long[] nextIndex = this.readTimeIndex(this.segments
+						.get(segmentNo + 1));
+				if (nextIndex.length > 0 && nextIndex[0] < from) {
+					continue;
+				}
+			}
+
+			// Find the last index entry before the start of the period
+			long offset = timeIndex[1];
+			for (int entry = 0; entry < timeIndex.length
+					&& timeIndex[entry] < from; entry += 2) {
+				offset = timeIndex[entry + 1];
+			}
+
+			try (DataInputStream input = this.openSegmentInput(
+					this.segments.get(segmentNo), offset)) {
+				while (hands.size() < limit) {
+					HandRecord hand;
+					try {
+						hand = this.read(input);
+					} catch (EOFException e) {
+						break;
+					}
+					if (hand.getTimestamp() > to) {
+						break;
+					}
+					if (hand.getTimestamp() >= from) {
+						hands.add(hand);
+					}
+				}
+			}
+		}
+		return hands;
+	}
+
+	/**
+	 * Encodes and writes a single hand to the current segment, updating the
+	 * indexes and sealing the segment once it is full.
+	 * 
+	 * @param hand
+	 *            the hand to write.
+	 * @throws IOException
+	 *             if the hand could not be written.
+	 */
+	private void write(HandRecord hand) throws IOException {
+		Buffer buffer = this.encoded;
+		buffer.size = 0;
+		buffer.writeVarLong(hand.getTimestamp());
+		buffer.writeVarLong(hand.getRoomNo());
+		buffer.write(hand.getSeats().size());
+
+		int offset = (int) this.segmentPosition;
+		for (HandRecord.Seat seat : hand.getSeats()) {
+			buffer.write(seat.getPlayerNo());
+			if (seat.getPlayerNo() != HandRecord.DEALER) {
+				int nameId = this.nameId(seat.getName());
+				buffer.writeVarLong(nameId);
+				buffer.writeVarLong(seat.getBet());
+				buffer.writeVarLong(seat.getCoins());
+				buffer.write(seat.getResult());
+
+				IntList offsets = this.playerOffsets.get(nameId);
+				if (offsets == null) {
+					offsets = new IntList();
+					this.playerOffsets.put(nameId, offsets);
+				}
+				offsets.add(offset);
+			}
+			buffer.write(seat.getNoOfCards());
+			for (int card = 0; card < seat.getNoOfCards(); card++) {
+				buffer.write(seat.getCard(card));
+			}
+
+			// Pack the moves four to a byte
+			buffer.write(seat.getNoOfMoves());
+			for (int move = 0; move < seat.getNoOfMoves(); move += 4) {
+				int packed = 0;
+				for (int shift = 0; shift < 4
+						&& move + shift < seat.getNoOfMoves(); shift++) {
+					packed |= MOVES.indexOf(seat.getMove(move + shift)) << (shift * 2);
+				}
+				buffer.write(packed);
+			}
+		}
+
+		// Add a time index entry for every so many records
+		if (this.recordsInSegment % TIME_INDEX_INTERVAL == 0) {
+			this.timeIndexOutput.writeLong(hand.getTimestamp());
+			this.timeIndexOutput.writeInt(offset);
+		}
+
+		// Write the length of the record followed by the record itself
+		int start = buffer.size;
+		buffer.writeVarLong(start);
+		this.segmentOutput.write(buffer.bytes, start, buffer.size - start);
+		this.segmentOutput.write(buffer.bytes, 0, start);
+		this.segmentPosition += buffer.size;
+		this.recordsInSegment++;
+
+		if (this.segmentPosition >= this.segmentSize) {
+			this.roll();
+		}
+	}
+
+	/**
+	 * Reads and decodes a single hand.
+	 * 
+	 * @param input
+	 *            the stream positioned at the start of the hand's record.
+	 * @return the hand.
+	 * @throws IOException
+	 *             if the hand could not be read (EOFException at the end of
+	 *             the segment).
+	 */
+	private HandRecord read(DataInputStream input) throws IOException {
+		readVarLong(input);
+		HandRecord hand = new HandRecord(readVarLong(input),
+				(int) readVarLong(input));
+		int noOfSeats = input.readUnsignedByte();
+		for (int seatNo = 0; seatNo < noOfSeats; seatNo++) {
+			int playerNo = input.readUnsignedByte();
+			HandRecord.Seat seat;
+			if (playerNo == HandRecord.DEALER) {
+				seat = hand.getSeat(HandRecord.DEALER);
+			} else {
+				String name = this.names.get((int) readVarLong(input));
+				seat = new HandRecord.Seat(playerNo, name,
+						(int) readVarLong(input));
+				int coins = (int) readVarLong(input);
+				seat.setResult((char) input.readUnsignedByte(), coins);
+				hand.addSeat(seat);
+			}
+			int noOfCards = input.readUnsignedByte();
+			for (int card = 0; card < noOfCards; card++) {
+				seat.addCard(input.readUnsignedByte());
+			}
+			int noOfMoves = input.readUnsignedByte();
+			int packed = 0;
+			for (int move = 0; move < noOfMoves; move++) {
+				if (move % 4 == 0)
+					packed = input.readUnsignedByte();
+				seat.addMove(MOVES.charAt((packed >> ((move % 4) * 2)) & 3));
+			}
+		}
+		return hand;
+	}
+
+	/**
+	 * Reads a variable length integer.
+	 * 
+	 * @param input
+	 *            the stream to read from.
+	 * @return the integer read.
+	 * @throws IOException
+	 *             if the integer could not be read.
+	 */
+	private static long readVarLong(DataInputStream input) throws IOException {
+		long value = 0;
+		int shift = 0;
+		int next;
+		do {
+			next = input.readUnsignedByte();
+			value |= (long) (next & 0x7F) << shift;
+			shift += 7;
+		} while ((next & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Gets the id of a player name, adding it to the dictionary if it is new.
+	 * 
+	 * @param name
+	 *            the player name.
+	 * @return the id of the name.
+	 * @throws IOException
+	 *             if the dictionary could not be written.
+	 */
+	private int nameId(String name) throws IOException {
+		Integer nameId = this.nameIds.get(name);
+		if (nameId == null) {
+			nameId = this.names.size();
+			this.names.add(name);
+			this.nameIds.put(name, nameId);
+			this.namesOutput.writeUTF(name);
+		}
+		return nameId;
+	}
+
+	/**
+	 * Loads the dictionary of player names.
+	 * 
+	 * @throws IOException
+	 *             if the dictionary could not be read.
+	 */
+	private void loadNames() throws IOException {
+		this.names = new ArrayList<String>();
+		this.nameIds = new HashMap<String, Integer>();
+		File namesFile = new File(this.directory, "names.dat");
+		if (namesFile.exists()) {
+			try (DataInputStream input = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(namesFile)))) {
+				while (true) {
+					String name = input.readUTF();
+					this.nameIds.put(name, this.names.size());
+					this.names.add(name);
+				}
+			} catch (EOFException e) {
+				// End of the dictionary
+			}
+		}
+		this.namesOutput = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(namesFile, true)));
+	}
+
+	/**
+	 * Opens a segment for writing, scanning any records already in it to
+	 * rebuild its indexes and dropping a partially written last record.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @throws IOException
+	 *             if the segment could not be opened.
+	 */
+	private void openSegment(long segment) throws IOException {
+		this.recover(segment);
+
+		// Drop anything after the last complete record
+		try (RandomAccessFile file = new RandomAccessFile(this.file(segment,
+				".seg"), "rw")) {
+			file.setLength(this.segmentPosition);
+		}
+
+		// Rebuild the time index from the recovered records
+		try (DataOutputStream timeIndex = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(this.file(
+						segment, ".tix"))));
+				DataInputStream input = this.openSegmentInput(segment, 0)) {
+			long position = 0;
+			for (int record = 0; record < this.recordsInSegment; record++) {
+				HandRecord hand = this.read(input);
+				if (record % TIME_INDEX_INTERVAL == 0) {
+					timeIndex.writeLong(hand.getTimestamp());
+					timeIndex.writeInt((int) position);
+				}
+				position = this.segmentPosition - input.available();
+			}
+		}
+
+		this.segmentOutput = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(this.file(segment, ".seg"), true)));
+		this.timeIndexOutput = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(this.file(segment, ".tix"), true)));
+	}
+
+	/**
+	 * Scans a segment to count its complete records and rebuild the offsets
+	 * of every player's records.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @throws IOException
+	 *             if the segment could not be read.
+	 */
+	private void recover(long segment) throws IOException {
+		this.playerOffsets = new HashMap<Integer, IntList>();
+		this.segmentPosition = 0;
+		this.recordsInSegment = 0;
+		File segmentFile = this.file(segment, ".seg");
+		if (!segmentFile.exists()) {
+			return;
+		}
+
+		long length = segmentFile.length();
+		try (DataInputStream input = this.openSegmentInput(segment, 0)) {
+			while (true) {
+				int offset = (int) (length - input.available());
+				HandRecord hand;
+				try {
+					hand = this.read(input);
+				} catch (EOFException | IndexOutOfBoundsException e) {
+					break;
+				}
+				for (HandRecord.Seat seat : hand.getSeats()) {
+					if (seat.getPlayerNo() != HandRecord.DEALER) {
+						int nameId = this.nameIds.get(seat.getName());
+						IntList offsets = this.playerOffsets.get(nameId);
+						if (offsets == null) {
+							offsets = new IntList();
+							this.playerOffsets.put(nameId, offsets);
+						}
+						offsets.add(offset);
+					}
+				}
+				this.recordsInSegment++;
+				this.segmentPosition = length - input.available();
+			}
+		}
+	}
+
+	/**
+	 * Flushes everything written so far so that it is visible to queries.
+	 * 
+	 * @throws IOException
+	 *             if the files could not be flushed.
+	 */
+	private void flush() throws IOException {
+		this.namesOutput.flush();
+		this.segmentOutput.flush();
+		this.timeIndexOutput.flush();
+	}
+
+	/**
+	 * Seals the current segment by writing its player index, starts a new
+	 * segment and deletes the oldest segment if there are too many.
+	 * 
+	 * @throws IOException
+	 *             if the segments could not be sealed or opened.
+	 */
+	private void roll() throws IOException {
+		long segment = this.segments.get(this.segments.size() - 1);
+		this.flush();
+		this.segmentOutput.close();
+		this.timeIndexOutput.close();
+		this.writePlayerIndex(segment);
+
+		this.segments.add(segment + 1);
+		this.openSegment(segment + 1);
+
+		while (this.segments.size() > this.maxSegments) {
+			long oldest = this.segments.remove(0);
+			this.file(oldest, ".seg").delete();
+			this.file(oldest, ".tix").delete();
+			this.file(oldest, ".pix").delete();
+		}
+	}
+
+	/**
+	 * Writes the player index of a segment from the offsets currently in
+	 * memory. The index starts with the number of players, followed by one
+	 * entry (name id, position of first offset, number of offsets) per player
+	 * sorted by name id, followed by all of the offsets.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @throws IOException
+	 *             if the index could not be written.
+	 */
+	private void writePlayerIndex(long segment) throws IOException {
+		Integer[] nameIds = this.playerOffsets.keySet().toArray(new Integer[0]);
+		Arrays.sort(nameIds);
+		File temp = this.file(segment, ".pix.tmp");
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp)))) {
+			output.writeInt(nameIds.length);
+			int position = 0;
+			for (Integer nameId : nameIds) {
+				int size = this.playerOffsets.get(nameId).size;
+				output.writeInt(nameId);
+				output.writeInt(position);
+				output.writeInt(size);
+				position += size;
+			}
+			for (Integer nameId : nameIds) {
+				IntList offsets = this.playerOffsets.get(nameId);
+				for (int offset = 0; offset < offsets.size; offset++) {
+					output.writeInt(offsets.values[offset]);
+				}
+			}
+		}
+		if (!temp.renameTo(this.file(segment, ".pix"))) {
+			throw new IOException("Could not write player index of segment "
+					+ segment);
+		}
+	}
+
+	/**
+	 * Reads the offsets of a player's records from a sealed segment's player
+	 * index, using a binary search over the index entries.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @param nameId
+	 *            the id of the player's name.
+	 * @return the offsets of the player's records in the segment.
+	 * @throws IOException
+	 *             if the index could not be read.
+	 */
+	private int[] readPlayerIndex(long segment, int nameId) throws IOException {
+		try (RandomAccessFile index = new RandomAccessFile(this.file(segment,
+				".pix"), "r")) {
+			int noOfEntries = index.readInt();
+			int low = 0, high = noOfEntries - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				index.seek(4 + middle * 12L);
+				int entryId = index.readInt();
+				if (entryId < nameId) {
+					low = middle + 1;
+				} else if (entryId > nameId) {
+					high = middle - 1;
+				} else {
+					int position = index.readInt();
+					int[] offsets = new int[index.readInt()];
+					index.seek(4 + noOfEntries * 12L + position * 4L);
+					for (int offset = 0; offset < offsets.length; offset++) {
+						offsets[offset] = index.readInt();
+					}
+					return offsets;
+				}
+			}
+		}
+		return new int[0];
+	}
+
+	/**
+	 * Reads the time index of a segment.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @return pairs of timestamps and record offsets.
+	 * @throws IOException
+	 *             if the index could not be read.
+	 */
+	private long[] readTimeIndex(long segment) throws IOException {
+		File indexFile = this.file(segment, ".tix");
+		long[] entries = new long[(int) (indexFile.length() / 12) * 2];
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(indexFile)))) {
+			for (int entry = 0; entry < entries.length; entry += 2) {
+				entries[entry] = input.readLong();
+				entries[entry + 1] = input.readInt();
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Opens a buffered stream over a segment, starting at a specific offset.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @param offset
+	 *            the offset to start reading from.
+	 * @return the stream.
+	 * @throws IOException
+	 *             if the segment could not be opened.
+	 */
+	private DataInputStream openSegmentInput(long segment, long offset)
+			throws IOException {
+		FileInputStream input = new FileInputStream(this.file(segment, ".seg"));
+		input.getChannel().position(offset);
+		return new DataInputStream(new BufferedInputStream(input));
+	}
+
+	/**
+	 * Gets a file of a segment.
+	 * 
+	 * @param segment
+	 *            the number of the segment.
+	 * @param extension
+	 *            the extension of the file ('.seg', '.tix' or '.pix').
+	 * @return the file.
+	 */
+	private File file(long segment, String extension) {
+		return new File(this.directory, String.format("%010d%s", segment,
+				extension));
+	}
+
+	/**
+	 * Input stream reading from the current position of a random access file.
+	 */
+	private static class RandomAccessInputStream extends InputStream {
+		private RandomAccessFile file;
+
+		private RandomAccessInputStream(RandomAccessFile file) {
+			this.file = file;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return this.file.read();
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length)
+				throws IOException {
+			return this.file.read(bytes, offset, length);
+		}
+	}
+
+	/**
+	 * Command line tool for support staff to look up hands in an archive.<br>
+	 * Usage: 'HandArchive directory player name [limit]' or 'HandArchive
+	 * directory time from to [limit]' (times in milliseconds since the epoch).
+	 * 
+	 * @param args
+	 *            the command line arguments.
+	 * @throws IOException
+	 *             if the archive could not be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: HandArchive directory player name [limit]");
+			System.err.println("       HandArchive directory time from to [limit]");
+			return;
+		}
+		HandArchive archive = new HandArchive(new File(args[0]));
+		ArrayList<HandRecord> hands;
+		if (args[1].equals("player")) {
+			hands = archive.getPlayerHands(args[2],
+					args.length > 3 ? Integer.parseInt(args[3]) : 1000);
+		} else {
+			hands = archive.getHands(Long.parseLong(args[2]),
+					Long.parseLong(args[3]),
+					args.length > 4 ? Integer.parseInt(args[4]) : 1000);
+		}
+		for (HandRecord hand : hands) {
+			System.out.println(hand);
+		}
+		System.out.println(hands.size() + " hands");
+	}
+}
\ No newline at end of file
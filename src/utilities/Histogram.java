@@ -0,0 +1,216 @@
+package utilities;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts of durations falling into fixed buckets, written out in the
+ * Prometheus text format. <br>
+ * Recording a duration finds its bucket in a fixed array of upper bounds and
+ * adds to atomic counters, so it never locks or allocates and can be called
+ * from any thread (the dealer, client threads and room dispatchers record
+ * into the same histograms). Buckets are only made cumulative when the
+ * histogram is written.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Histogram {
+
+	/**
+	 * Upper bound of each bucket in nanoseconds, in increasing order.
+	 */
+	private long[] bounds;
+
+	/**
+	 * Upper bound of each bucket as written out (in seconds).
+	 */
+	private String[] labels;
+
+	/**
+	 * Number of durations in each bucket (not cumulative), with one more
+	 * bucket for durations over the last bound.
+	 */
+	private AtomicLongArray counts;
+	private AtomicLong sum, count;
+
+	/**
+	 * Constructor for a new Histogram object with nothing recorded.
+	 * 
+	 * @param bounds
+	 *            the upper bound of each bucket in seconds, in increasing
+	 *            order.
+	 */
+	public Histogram(double... bounds) {
+		this.bounds = new long[bounds.length];
+		this.labels = new String[bounds.length];
+		for (int bucket = 0; bucket < bounds.length; bucket++) {
+			this.bounds[bucket] = (long) (bounds[bucket] * 1e9);
+			this.labels[bucket] = BigDecimal.valueOf(bounds[bucket])
+					.stripTrailingZeros().toPlainString();
+		}
+		this.counts = new AtomicLongArray(bounds.length + 1);
+		this.sum = new AtomicLong();
+		this.count = new AtomicLong();
+	}
+
+	/**
+	 * Records a duration.
+	 * 
+	 * @param nanos
+	 *            the duration in nanoseconds (negative durations are counted
+	 *            as 0).
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+
+		// Binary search for the first bucket that the duration fits in
+		int low = 0;
+		int high = this.bounds.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (nanos <= this.bounds[middle]) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		this.counts.incrementAndGet(low);
+		this.sum.addAndGet(nanos);
+		this.count.incrementAndGet();
+	}
+
+	/**
+	 * Get the number of durations recorded.
+	 * 
+	 * @return the number of durations.
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * Get the total of every duration recorded.
+	 * 
+	 * @return the total in nanoseconds.
+	 */
+	public long getSum() {
+		return this.sum.get();
+	}
+
+	/**
+	 * Estimates a percentile of the durations recorded, assuming durations
+	 * are spread evenly within each bucket (as Prometheus does). Durations
+	 * over the last bound are taken to be at the last bound.
+	 * 
+	 * @param percentile
+	 *            the percentile (e.g. 99).
+	 * @return the estimated duration in nanoseconds (0 if nothing has been
+	 *         recorded).
+	 */
+	public long percentile(double percentile) {
+		long total = 0;
+		for (int bucket = 0; bucket <= this.bounds.length; bucket++) {
+			total += this.counts.get(bucket);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		double rank = total * percentile / 100;
+		long cumulative = 0;
+		for (int bucket = 0; bucket < this.bounds.length; bucket++) {
+			long inBucket = this.counts.get(bucket);
+			if (cumulative + inBucket >= rank && inBucket > 0) {
+				long lower = bucket == 0 ? 0 : this.bounds[bucket - 1];
+				return lower
+						+ (long) ((this.bounds[bucket] - lower)
+								* (rank - cumulative) / inBucket);
+			}
+			cumulative += inBucket;
+		}
+		return this.bounds[this.bounds.length - 1];
+	}
+
+	/**
+	 * Sets every count back to zero. Durations recorded at the same time may
+	 * be lost.
+	 */
+	public void clear() {
+		for (int bucket = 0; bucket <= this.bounds.length; bucket++) {
+			this.counts.set(bucket, 0);
+		}
+		this.sum.set(0);
+		this.count.set(0);
+	}
+
+	/**
+	 * Writes the histogram in the Prometheus text format: its help and type
+	 * lines, a cumulative '_bucket' line for each bound and for '+Inf', then
+	 * '_sum' (in seconds) and '_count'. Durations recorded while it is being
+	 * written may only be counted in some of the lines.
+	 * 
+	 * @param out
+	 *            the text to add the histogram to.
+	 * @param name
+	 *            the name of the metric.
+	 * @param help
+	 *            the description of the metric.
+	 */
+	public void write(StringBuilder out, String name, String help) {
+		writeHeader(out, name, help);
+		this.writeSeries(out, name, "");
+	}
+
+	/**
+	 * Writes the help and type lines of a histogram metric, which are
+	 * followed by the lines of one or more histograms.
+	 * 
+	 * @param out
+	 *            the text to add the lines to.
+	 * @param name
+	 *            the name of the metric.
+	 * @param help
+	 *            the description of the metric.
+	 */
+	public static void writeHeader(StringBuilder out, String name, String help) {
+		out.append("# HELP ").append(name).append(' ').append(help)
+				.append('\n');
+		out.append("# TYPE ").append(name).append(" histogram\n");
+	}
+
+	/**
+	 * Writes the '_bucket', '_sum' and '_count' lines of the histogram as one
+	 * series of a metric.
+	 * 
+	 * @param out
+	 *            the text to add the lines to.
+	 * @param name
+	 *            the name of the metric.
+	 * @param labels
+	 *            the labels of the series (e.g. 'phase="betting",'), each
+	 *            followed by a comma, or "" for none.
+	 */
+	public void writeSeries(StringBuilder out, String name, String labels) {
+		long cumulative = 0;
+		for (int bucket = 0; bucket < this.bounds.length; bucket++) {
+			cumulative += this.counts.get(bucket);
+			out.append(name).append("_bucket{").append(labels).append("le=\"")
+					.append(this.labels[bucket]).append("\"} ")
+					.append(cumulative).append('\n');
+		}
+		cumulative += this.counts.get(this.bounds.length);
+		out.append(name).append("_bucket{").append(labels)
+				.append("le=\"+Inf\"} ").append(cumulative).append('\n');
+		String suffix = "";
+		if (!labels.isEmpty()) {
+			suffix = "{" + labels.substring(0, labels.length() - 1) + "}";
+		}
+		out.append(name).append("_sum").append(suffix).append(' ')
+				.append(this.sum.get() / 1e9).append('\n');
+		out.append(name).append("_count").append(suffix).append(' ')
+				.append(cumulative).append('\n');
+	}
+}
\ No newline at end of file
@@ -0,0 +1,468 @@
+package utilities;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+
+/**
+ * Asynchronous log of a central server and its game rooms. <br>
+ * Threads logging a line (dealers, clients, the room dispatcher) only claim a
+ * slot in a fixed size ring buffer with a compare-and-set and never wait: if
+ * the buffer is full the line is dropped and counted. A single writer thread
+ * drains the buffer, formatting each line and writing it to a log file that
+ * is rotated once it gets too big, and to the console. The console is either
+ * standard out or, when the server has a GUI, a text area showing only the
+ * most recent lines.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Log implements Runnable {
+
+	/**
+	 * Levels of a line, from least to most important.
+	 */
+	public static final int DEBUG = 0, INFO = 1, WARN = 2, ERROR = 3;
+
+	/**
+	 * Name of the current log file in the log directory. Older files have a
+	 * number added to the end (e.g. 'server.log.1' being the newest).
+	 */
+	public static final String FILE_NAME = "server.log";
+
+	/**
+	 * Size (in bytes) after which the log file is rotated.
+	 */
+	public static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+
+	/**
+	 * Number of rotated log files kept besides the current one.
+	 */
+	public static final int MAX_OLD_FILES = 5;
+
+	/**
+	 * Number of lines that can be waiting to be written (a power of 2).
+	 */
+	public static final int CAPACITY = 8192;
+
+	/**
+	 * Number of most recent lines shown in the GUI.
+	 */
+	public static final int TAIL_LINES = 1000;
+
+	/**
+	 * Time (in milliseconds) the writer thread waits when there is nothing to
+	 * write.
+	 */
+	private static final int IDLE_WAIT = 10;
+
+	/**
+	 * Number of batches of lines that can be waiting for the GUI thread, the
+	 * oldest being dropped if it falls further behind.
+	 */
+	private static final int MAX_WAITING_BATCHES = 16;
+
+	private static final String[] LEVEL_NAMES = { "DEBUG", "INFO", "WARN",
+			"ERROR" };
+
+	/**
+	 * Line waiting in the ring buffer to be written.
+	 */
+	private static class Entry {
+		private long time;
+		private int level;
+		private String tag;
+		private String message;
+		private Throwable error;
+	}
+
+	/**
+	 * Ring buffer of lines waiting to be written. A slot is set by the thread
+	 * that claimed it and cleared by the writer thread once written.
+	 */
+	private AtomicReferenceArray<Entry> slots;
+
+	/**
+	 * Number of slots ever claimed by logging threads.
+	 */
+	private AtomicLong tail;
+
+	/**
+	 * Number of slots ever written (only changed by the writer thread).
+	 */
+	private volatile long head;
+
+	private AtomicLong dropped;
+
+	private File directory;
+	private Writer file;
+	private long fileSize;
+	private SimpleDateFormat dateFormat;
+
+	/**
+	 * Text area showing the most recent lines, or null to use standard out.
+	 */
+	private JTextArea console;
+
+	/**
+	 * Batches of lines waiting to be added to the text area by the GUI
+	 * thread.
+	 */
+	private ArrayDeque<String> consoleLines;
+	private boolean consoleUpdatePending;
+
+	/**
+	 * Constructor for a new Log object. The log does nothing but fill up
+	 * until {@link #start()} is called.
+	 * 
+	 * @param directory
+	 *            the directory to keep the log files in (created if it doesn't
+	 *            exist).
+	 * @param console
+	 *            the text area to show the most recent lines in, or null to
+	 *            print every line to standard out.
+	 */
+	public Log(File directory, JTextArea console) {
+		this.directory = directory;
+		this.console = console;
+		this.slots = new AtomicReferenceArray<Entry>(CAPACITY);
+		this.tail = new AtomicLong();
+		this.dropped = new AtomicLong();
+		this.consoleLines = new ArrayDeque<String>();
+		this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+	}
+
+	/**
+	 * Starts the writer thread.
+	 */
+	public void start() {
+		Thread writer = new Thread(this, "Log writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Adds a line to the log without waiting for it to be written.
+	 * 
+	 * @param level
+	 *            the level of the line ({@link #DEBUG}, {@link #INFO},
+	 *            {@link #WARN} or {@link #ERROR}).
+	 * @param tag
+	 *            what the line is about (e.g. "room 3"), or null for the
+	 *            central server.
+	 * @param message
+	 *            the line.
+	 * @return whether or not the line was added (false if the log was full).
+	 */
+	public boolean log(int level, String tag, String message) {
+		return this.log(level, tag, message, null);
+	}
+
+	/**
+	 * Adds a line to the log, followed by the stack trace of an error,
+	 * without waiting for it to be written.
+	 * 
+	 * @param level
+	 *            the level of the line.
+	 * @param tag
+	 *            what the line is about, or null for the central server.
+	 * @param message
+	 *            the line.
+	 * @param error
+	 *            the error, or null for none.
+	 * @return whether or not the line was added (false if the log was full).
+	 */
+	public boolean log(int level, String tag, String message, Throwable error) {
+		Entry entry = new Entry();
+		entry.time = System.currentTimeMillis();
+		entry.level = level;
+		entry.tag = tag;
+		entry.message = message;
+		entry.error = error;
+
+		// Claim the next slot unless every slot is waiting to be written
+		long slot;
+		do {
+			slot = this.tail.get();
+			if (slot - this.head >= CAPACITY) {
+				this.dropped.incrementAndGet();
+				return false;
+			}
+		} while (!this.tail.compareAndSet(slot, slot + 1));
+		this.slots.lazySet((int) (slot & (CAPACITY - 1)), entry);
+		return true;
+	}
+
+	/**
+	 * Decides whether an event that happens many times a round should be
+	 * logged, keeping about 1 in every 'rate' of them. Uses no state shared
+	 * between threads.
+	 * 
+	 * @param rate
+	 *            the number of events per event logged (1 to log them all).
+	 * @return whether or not to log the event.
+	 */
+	public static boolean sample(int rate) {
+		return rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+	}
+
+	/**
+	 * Get the number of lines dropped because the log was full.
+	 * 
+	 * @return the number of dropped lines.
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Writes lines from the ring buffer forever, flushing the file and the
+	 * console whenever the buffer is empty.
+	 */
+	@Override
+	public void run() {
+		this.openFile();
+		StringBuilder batch = new StringBuilder();
+		long lastDropped = 0;
+		while (true) {
+			int index = (int) (this.head & (CAPACITY - 1));
+			Entry entry = this.slots.get(index);
+			if (entry == null) {
+				// Nothing to write (or a line is still being added)
+				long dropped = this.dropped.get();
+				if (dropped != lastDropped) {
+					this.write(System.currentTimeMillis(), this.format(WARN,
+							null, (dropped - lastDropped)
+									+ " lines dropped, the log was full", null),
+							batch);
+					lastDropped = dropped;
+				}
+				this.flush(batch);
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS
+						.toNanos(IDLE_WAIT));
+				continue;
+			}
+			this.slots.lazySet(index, null);
+			this.head++;
+			this.write(entry.time, this.format(entry.level, entry.tag,
+					entry.message, entry.error), batch);
+		}
+	}
+
+	/**
+	 * Formats a line of the log.
+	 * 
+	 * @param level
+	 *            the level of the line.
+	 * @param tag
+	 *            what the line is about, or null for the central server.
+	 * @param message
+	 *            the line.
+	 * @param error
+	 *            an error to add the stack trace of, or null for none.
+	 * @return the line without the time, which is only added in the file.
+	 */
+	private String format(int level, String tag, String message,
+			Throwable error) {
+		StringBuilder line = new StringBuilder();
+		if (level != INFO && level != DEBUG) {
+			line.append(LEVEL_NAMES[level]).append(": ");
+		}
+		if (tag != null) {
+			line.append('[').append(tag).append("] ");
+		}
+		line.append(message);
+		if (error != null) {
+			StringWriter trace = new StringWriter();
+			error.printStackTrace(new PrintWriter(trace));
+			line.append(System.lineSeparator()).append(trace.toString().trim());
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Writes a line to the log file and adds it to the lines waiting for the
+	 * console.
+	 * 
+	 * @param time
+	 *            the time the line was logged (in milliseconds since the
+	 *            epoch).
+	 * @param line
+	 *            the formatted line.
+	 * @param batch
+	 *            the lines waiting for the console.
+	 */
+	private void write(long time, String line, StringBuilder batch) {
+		if (this.file != null) {
+			String fileLine = this.dateFormat.format(new Date(time)) + " " + line
+					+ System.lineSeparator();
+			try {
+				this.file.write(fileLine);
+				this.fileSize += fileLine.length();
+				if (this.fileSize >= MAX_FILE_SIZE) {
+					this.rotate();
+				}
+			} catch (IOException e) {
+				System.err.println("Error writing to the log file, "
+						+ "only logging to the console");
+				e.printStackTrace();
+				this.closeFile();
+			}
+		}
+		batch.append(line).append('\n');
+		if (batch.length() > 64 * 1024) {
+			this.flush(batch);
+		}
+	}
+
+	/**
+	 * Flushes the log file and sends the lines waiting for the console.
+	 * 
+	 * @param batch
+	 *            the lines waiting for the console, emptied afterwards.
+	 */
+	private void flush(StringBuilder batch) {
+		if (this.file != null) {
+			try {
+				this.file.flush();
+			} catch (IOException e) {
+				System.err.println("Error writing to the log file, "
+						+ "only logging to the console");
+				e.printStackTrace();
+				this.closeFile();
+			}
+		}
+		if (batch.length() == 0) {
+			return;
+		}
+		if (this.console == null) {
+			System.out.print(batch);
+		} else {
+			this.showInConsole(batch.toString());
+		}
+		batch.setLength(0);
+	}
+
+	/**
+	 * Queues lines to be shown in the text area by the GUI thread, keeping
+	 * only the most recent lines if the GUI thread falls behind.
+	 * 
+	 * @param lines
+	 *            the lines, each ending with a new line.
+	 */
+	private void showInConsole(String lines) {
+		synchronized (this.consoleLines) {
+			this.consoleLines.add(lines);
+			while (this.consoleLines.size() > MAX_WAITING_BATCHES) {
+				this.consoleLines.removeFirst();
+			}
+			if (this.consoleUpdatePending) {
+				return;
+			}
+			this.consoleUpdatePending = true;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				Log.this.updateConsole();
+			}
+		});
+	}
+
+	/**
+	 * Adds the waiting lines to the text area and removes the oldest lines
+	 * from it so that only the most recent ones are kept. Runs on the GUI
+	 * thread.
+	 */
+	private void updateConsole() {
+		StringBuilder text = new StringBuilder();
+		synchronized (this.consoleLines) {
+			for (String lines : this.consoleLines) {
+				text.append(lines);
+			}
+			this.consoleLines.clear();
+			this.consoleUpdatePending = false;
+		}
+		this.console.append(text.toString());
+		int extraLines = this.console.getLineCount() - TAIL_LINES;
+		if (extraLines > 0) {
+			try {
+				this.console.replaceRange("", 0,
+						this.console.getLineStartOffset(extraLines));
+			} catch (BadLocationException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Opens the current log file to be added to, only logging to the console
+	 * if it can't be opened.
+	 */
+	private void openFile() {
+		this.directory.mkdirs();
+		File current = new File(this.directory, FILE_NAME);
+		try {
+			this.file = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(current, true),
+					StandardCharsets.UTF_8));
+			this.fileSize = current.length();
+		} catch (IOException e) {
+			System.err.println("Error opening the log file " + current
+					+ ", only logging to the console");
+			e.printStackTrace();
+			this.file = null;
+		}
+	}
+
+	/**
+	 * Closes the current log file without reporting errors.
+	 */
+	private void closeFile() {
+		try {
+			this.file.close();
+		} catch (IOException e) {
+			// The file is no longer used either way
+		}
+		this.file = null;
+	}
+
+	/**
+	 * Renames the current log file to be the newest old file, deleting the
+	 * oldest file if there are too many, and starts a new current file.
+	 * 
+	 * @throws IOException
+	 *             if the current file can't be closed.
+	 */
+	private void rotate() throws IOException {
+		this.file.close();
+		this.file = null;
+		new File(this.directory, FILE_NAME + "." + MAX_OLD_FILES).delete();
+		for (int fileNo = MAX_OLD_FILES - 1; fileNo >= 1; fileNo--) {
+			new File(this.directory, FILE_NAME + "." + fileNo)
+					.renameTo(new File(this.directory, FILE_NAME + "."
+							+ (fileNo + 1)));
+		}
+		new File(this.directory, FILE_NAME).renameTo(new File(this.directory,
+				FILE_NAME + ".1"));
+		this.openFile();
+	}
+}
\ No newline at end of file
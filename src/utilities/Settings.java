@@ -0,0 +1,527 @@
+package utilities;
+
+import java.util.Properties;
+
+import connection.Client;
+import connection.Server;
+import gameplay.Dealer;
+
+/**
+ * Immutable set of the values that control the pacing and rules of a game
+ * room, with defaults equal to the constants in {@link Server} and
+ * {@link Dealer}. <br>
+ * A room holds a reference to its current settings and swaps it for a new
+ * object when the settings are reloaded, so reading a value is as cheap as
+ * reading a field.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class Settings {
+
+	/**
+	 * Settings using the default value of everything.
+	 */
+	public static final Settings DEFAULTS = new Settings();
+
+	/**
+	 * Default maximum number of clients connected at once.
+	 */
+	public static final int MAX_CONNECTIONS = 5000;
+
+	/**
+	 * Default maximum number of clients connected at once from a single IP
+	 * address (0 for no limit).
+	 */
+	public static final int MAX_CONNECTIONS_PER_ADDRESS = 50;
+
+	/**
+	 * Default maximum number of clients that can be connected without having
+	 * finished the handshake (sending their name and PLAY/SPECTATE).
+	 */
+	public static final int MAX_HANDSHAKES = 256;
+
+	/**
+	 * Default time (in seconds) between pings sent to each client.
+	 */
+	public static final int PING_INTERVAL = 5;
+
+	/**
+	 * Default time (in seconds) a client that has replied to a ping can go
+	 * without sending anything (including replies to pings) before being
+	 * disconnected.
+	 */
+	public static final int IDLE_TIMEOUT = 15;
+
+	/**
+	 * Default time (in seconds) a client has to finish the handshake before
+	 * being disconnected.
+	 */
+	public static final int HANDSHAKE_TIMEOUT = 10;
+
+	/**
+	 * Default time (in seconds) a single write to a client can be stuck
+	 * before the client is disconnected.
+	 */
+	public static final int WRITE_TIMEOUT = 10;
+
+	private final int startCoins, messageDelay, minBet, startDelay;
+	private final boolean debug, odds, simultaneous;
+	private final int bettingTime, shuffleChance, numberOfDecks,
+			minimumCardsPerPlayer, seats, slowRoundTime;
+
+	// Limits on connections, only read from the default profile
+	private final int maxConnections, maxConnectionsPerAddress,
+			maxHandshakes, acceptorThreads, dispatchThreads, commandsPerSecond,
+			commandBurst, logSample, metricsPort,
+			pingInterval, idleTimeout, handshakeTimeout, writeTimeout;
+
+	/**
+	 * Constructor for a new Settings object using the default value of
+	 * everything.
+	 */
+	private Settings() {
+		this.startCoins = Server.START_COINS;
+		this.messageDelay = Server.MESSAGE_DELAY;
+		this.minBet = Server.MIN_BET;
+		this.startDelay = Server.START_DELAY;
+		this.debug = Server.DEBUG;
+		this.odds = false;
+		this.simultaneous = false;
+		this.bettingTime = Dealer.BETTING_TIME;
+		this.shuffleChance = Dealer.SHUFFLE_CHANCE;
+		this.numberOfDecks = Dealer.NUMBER_OF_DECKS;
+		this.minimumCardsPerPlayer = Dealer.MINIMUM_CARDS_PER_PLAYER;
+		this.seats = Server.DEFAULT_SEATS;
+		this.slowRoundTime = Dealer.SLOW_ROUND_TIME;
+		this.maxConnections = MAX_CONNECTIONS;
+		this.maxConnectionsPerAddress = MAX_CONNECTIONS_PER_ADDRESS;
+		this.maxHandshakes = MAX_HANDSHAKES;
+		this.acceptorThreads = Math.min(4, Runtime.getRuntime()
+				.availableProcessors());
+		this.dispatchThreads = Math.max(2, Runtime.getRuntime()
+				.availableProcessors());
+		this.commandsPerSecond = 10;
+		this.commandBurst = 20;
+		this.logSample = 1;
+		this.metricsPort = 0;
+		this.pingInterval = PING_INTERVAL;
+		this.idleTimeout = IDLE_TIMEOUT;
+		this.handshakeTimeout = HANDSHAKE_TIMEOUT;
+		this.writeTimeout = WRITE_TIMEOUT;
+	}
+
+	/**
+	 * Constructor for a new Settings object that reads each value from a set
+	 * of properties, using the value of another Settings object for anything
+	 * that isn't set.
+	 * 
+	 * @param properties
+	 *            the properties to read.
+	 * @param prefix
+	 *            the text before each key (e.g. "profile.tournament.").
+	 * @param defaults
+	 *            the settings to use for anything that isn't set.
+	 * @throws IllegalArgumentException
+	 *             if a value is not a number or is out of range.
+	 */
+	private Settings(Properties properties, String prefix, Settings defaults) {
+		this.startCoins = readInt(properties, prefix + "start.coins", 1,
+				Integer.MAX_VALUE / 2, defaults.startCoins);
+		this.messageDelay = readInt(properties, prefix + "message.delay", 1,
+				60000, defaults.messageDelay);
+		this.minBet = readInt(properties, prefix + "min.bet", 1,
+				this.startCoins, defaults.minBet);
+		this.startDelay = readInt(properties, prefix + "start.delay", 0, 3600,
+				defaults.startDelay);
+		String debug = properties.getProperty(prefix + "debug");
+		this.debug = debug == null ? defaults.debug : Boolean
+				.parseBoolean(debug.trim());
+		String odds = properties.getProperty(prefix + "odds");
+		this.odds = odds == null ? defaults.odds : Boolean.parseBoolean(odds
+				.trim());
+		String simultaneous = properties.getProperty(prefix + "simultaneous");
+		this.simultaneous = simultaneous == null ? defaults.simultaneous
+				: Boolean.parseBoolean(simultaneous.trim());
+		this.bettingTime = readInt(properties, prefix + "betting.time", 1,
+				3600, defaults.bettingTime);
+		this.shuffleChance = readInt(properties, prefix + "shuffle.chance", 0,
+				100, defaults.shuffleChance);
+		this.numberOfDecks = readInt(properties, prefix + "decks", 1, 100,
+				defaults.numberOfDecks);
+		this.minimumCardsPerPlayer = readInt(properties, prefix
+				+ "min.cards.per.player", 1, 52, defaults.minimumCardsPerPlayer);
+		this.seats = readInt(properties, prefix + "seats", 1, Server.MAX_SEATS,
+				defaults.seats);
+		this.slowRoundTime = readInt(properties, prefix + "slow.round.time", 1,
+				86400, defaults.slowRoundTime);
+		this.maxConnections = readInt(properties, prefix + "max.connections",
+				1, Integer.MAX_VALUE, defaults.maxConnections);
+		this.maxConnectionsPerAddress = readInt(properties, prefix
+				+ "max.connections.per.address", 0, Integer.MAX_VALUE,
+				defaults.maxConnectionsPerAddress);
+		this.maxHandshakes = readInt(properties, prefix + "max.handshakes", 1,
+				Integer.MAX_VALUE, defaults.maxHandshakes);
+		this.acceptorThreads = readInt(properties, prefix + "acceptor.threads",
+				1, 64, defaults.acceptorThreads);
+		this.dispatchThreads = readInt(properties, prefix + "dispatch.threads",
+				1, 256, defaults.dispatchThreads);
+		this.commandsPerSecond = readInt(properties, prefix
+				+ "commands.per.second", 1, 100000, defaults.commandsPerSecond);
+		// A burst smaller than the most expensive command would never let
+		// that command through
+		this.commandBurst = readInt(properties, prefix + "command.burst",
+				Math.max(Client.QUERY_COST, Client.INVALID_COST), 100000,
+				defaults.commandBurst);
+		this.logSample = readInt(properties, prefix + "log.sample", 1,
+				1000000, defaults.logSample);
+		this.metricsPort = readInt(properties, prefix + "metrics.port", 0,
+				65535, defaults.metricsPort);
+		this.pingInterval = readInt(properties, prefix + "ping.interval", 1,
+				3600, defaults.pingInterval);
+		this.idleTimeout = readInt(properties, prefix + "idle.timeout",
+				this.pingInterval + 1, 86400, defaults.idleTimeout);
+		this.handshakeTimeout = readInt(properties, prefix
+				+ "handshake.timeout", 1, 3600, defaults.handshakeTimeout);
+		this.writeTimeout = readInt(properties, prefix + "write.timeout", 1,
+				3600, defaults.writeTimeout);
+	}
+
+	/**
+	 * Reads settings from a set of properties, using the value of other
+	 * settings for anything that isn't set. Keys are the name of the setting
+	 * after the prefix: 'start.coins', 'message.delay', 'min.bet',
+	 * 'start.delay', 'debug', 'odds', 'simultaneous', 'betting.time',
+	 * 'shuffle.chance', 'decks', 'min.cards.per.player', 'seats',
+	 * 'slow.round.time', 'max.connections',
+	 * 'max.connections.per.address', 'max.handshakes', 'acceptor.threads',
+	 * 'dispatch.threads', 'commands.per.second', 'command.burst',
+	 * 'ping.interval', 'idle.timeout', 'handshake.timeout', 'write.timeout',
+	 * 'log.sample' and 'metrics.port'.
+	 * 
+	 * @param properties
+	 *            the properties to read.
+	 * @param prefix
+	 *            the text before each key ("" for none).
+	 * @param defaults
+	 *            the settings to use for anything that isn't set.
+	 * @return the new settings.
+	 * @throws IllegalArgumentException
+	 *             if a value is not a number or is out of range.
+	 */
+	public static Settings load(Properties properties, String prefix,
+			Settings defaults) {
+		return new Settings(properties, prefix, defaults);
+	}
+
+	/**
+	 * Creates a copy of these settings with a different number of seats.
+	 * 
+	 * @param seats
+	 *            the number of player seats.
+	 * @return the new settings.
+	 * @throws IllegalArgumentException
+	 *             if the number of seats is out of range.
+	 */
+	public Settings withSeats(int seats) {
+		Properties properties = new Properties();
+		properties.setProperty("seats", String.valueOf(seats));
+		return new Settings(properties, "", this);
+	}
+
+	/**
+	 * Reads a whole number from a set of properties.
+	 * 
+	 * @param properties
+	 *            the properties to read.
+	 * @param key
+	 *            the key of the number.
+	 * @param min
+	 *            the smallest value allowed.
+	 * @param max
+	 *            the largest value allowed.
+	 * @param defaultValue
+	 *            the value to use if the key isn't set.
+	 * @return the number.
+	 * @throws IllegalArgumentException
+	 *             if the value is not a number or is out of range.
+	 */
+	private static int readInt(Properties properties, String key, int min,
+			int max, int defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		int number;
+		try {
+			number = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + " is not a number: "
+					+ value);
+		}
+		if (number < min || number > max) {
+			throw new IllegalArgumentException(key + " must be between " + min
+					+ " and " + max + ": " + value);
+		}
+		return number;
+	}
+
+	/**
+	 * Get the number of coins each player starts with.
+	 * 
+	 * @return the starting coins.
+	 */
+	public int getStartCoins() {
+		return this.startCoins;
+	}
+
+	/**
+	 * Get the minimum time (in milliseconds) between messages being sent to
+	 * clients.
+	 * 
+	 * @return the delay between messages.
+	 */
+	public int getMessageDelay() {
+		return this.messageDelay;
+	}
+
+	/**
+	 * Get the minimum amount of coins required to participate in a round.
+	 * 
+	 * @return the minimum bet.
+	 */
+	public int getMinBet() {
+		return this.minBet;
+	}
+
+	/**
+	 * Get the number of seconds the server waits after the last player in
+	 * the lobby becomes ready.
+	 * 
+	 * @return the delay before starting the game.
+	 */
+	public int getStartDelay() {
+		return this.startDelay;
+	}
+
+	/**
+	 * Check whether or not debugging messages are displayed.
+	 * 
+	 * @return whether or not debugging is enabled.
+	 */
+	public boolean isDebug() {
+		return this.debug;
+	}
+
+	/**
+	 * Check whether or not the chances of the dealer's results and of each
+	 * player winning are broadcast during a round.
+	 * 
+	 * @return whether or not odds are broadcast.
+	 */
+	public boolean isOdds() {
+		return this.odds;
+	}
+
+	/**
+	 * Check whether or not every player takes their turn at once, instead of
+	 * one after another.
+	 * 
+	 * @return whether or not players play at once.
+	 */
+	public boolean isSimultaneous() {
+		return this.simultaneous;
+	}
+
+	/**
+	 * Get the number of seconds provided for clients to place their bets.
+	 * 
+	 * @return the betting time.
+	 */
+	public int getBettingTime() {
+		return this.bettingTime;
+	}
+
+	/**
+	 * Get the number of seconds from which a round is slow, and its trace is
+	 * kept (see {@link gameplay.RoundTracer}).
+	 * 
+	 * @return the slow round time.
+	 */
+	public int getSlowRoundTime() {
+		return this.slowRoundTime;
+	}
+
+	/**
+	 * Get the chance that the deck will be shuffled at the end of a round.
+	 * 
+	 * @return the shuffle chance (in percentage).
+	 */
+	public int getShuffleChance() {
+		return this.shuffleChance;
+	}
+
+	/**
+	 * Get the number of decks in play after each shuffle. The shoe is always
+	 * this size, whatever the number of seats: it is shuffled before a round
+	 * if it holds fewer than {@link #getMinimumCardsPerPlayer()} cards for
+	 * each player, and in the middle of a round if it runs out.
+	 * 
+	 * @return the number of decks.
+	 */
+	public int getNumberOfDecks() {
+		return this.numberOfDecks;
+	}
+
+	/**
+	 * Get the minimum cards required in the deck per player before the start
+	 * of a round.
+	 * 
+	 * @return the minimum number of cards per player.
+	 */
+	public int getMinimumCardsPerPlayer() {
+		return this.minimumCardsPerPlayer;
+	}
+
+	/**
+	 * Get the number of player seats in a new room.
+	 * 
+	 * @return the number of seats.
+	 */
+	public int getSeats() {
+		return this.seats;
+	}
+
+	/**
+	 * Get the maximum number of clients connected to the central server at
+	 * once.
+	 * 
+	 * @return the maximum number of connections.
+	 */
+	public int getMaxConnections() {
+		return this.maxConnections;
+	}
+
+	/**
+	 * Get the maximum number of clients connected to the central server at
+	 * once from a single IP address.
+	 * 
+	 * @return the maximum number of connections per address (0 for no
+	 *         limit).
+	 */
+	public int getMaxConnectionsPerAddress() {
+		return this.maxConnectionsPerAddress;
+	}
+
+	/**
+	 * Get the maximum number of clients that can be connected without having
+	 * finished the handshake.
+	 * 
+	 * @return the maximum number of handshakes in progress.
+	 */
+	public int getMaxHandshakes() {
+		return this.maxHandshakes;
+	}
+
+	/**
+	 * Get the number of threads accepting new connections (only used when the
+	 * central server starts).
+	 * 
+	 * @return the number of acceptor threads.
+	 */
+	public int getAcceptorThreads() {
+		return this.acceptorThreads;
+	}
+
+	/**
+	 * Get the number of threads sending the messages of every room (only used
+	 * when the central server starts).
+	 * 
+	 * @return the number of dispatch threads.
+	 */
+	public int getDispatchThreads() {
+		return this.dispatchThreads;
+	}
+
+	/**
+	 * Get the port of the HTTP endpoint serving metrics (only used when the
+	 * central server starts, see {@link connection.MetricsEndpoint}).
+	 * 
+	 * @return the port, or 0 if metrics aren't served.
+	 */
+	public int getMetricsPort() {
+		return this.metricsPort;
+	}
+
+	/**
+	 * Get the number of commands a client can send every second on average
+	 * (an ordinary command costs 1, see {@link connection.Client}).
+	 * 
+	 * @return the rate limit of each client.
+	 */
+	public int getCommandsPerSecond() {
+		return this.commandsPerSecond;
+	}
+
+	/**
+	 * Get the number of commands a client can send at once before being
+	 * limited to {@link #getCommandsPerSecond()} (at least the cost of the
+	 * most expensive command).
+	 * 
+	 * @return the burst size of each client's rate limit.
+	 */
+	public int getCommandBurst() {
+		return this.commandBurst;
+	}
+
+	/**
+	 * Get the number of debugging messages about events that happen many
+	 * times a round (cards dealt, messages sent and received) per message
+	 * logged.
+	 * 
+	 * @return the sampling rate of frequent debugging messages (1 to log
+	 *         them all).
+	 */
+	public int getLogSample() {
+		return this.logSample;
+	}
+
+	/**
+	 * Get the time (in seconds) between pings sent to each client.
+	 * 
+	 * @return the ping interval.
+	 */
+	public int getPingInterval() {
+		return this.pingInterval;
+	}
+
+	/**
+	 * Get the time (in seconds) a client that has replied to a ping can go
+	 * without sending anything before being disconnected.
+	 * 
+	 * @return the idle timeout.
+	 */
+	public int getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	/**
+	 * Get the time (in seconds) a client has to finish the handshake before
+	 * being disconnected.
+	 * 
+	 * @return the handshake timeout.
+	 */
+	public int getHandshakeTimeout() {
+		return this.handshakeTimeout;
+	}
+
+	/**
+	 * Get the time (in seconds) a single write to a client can be stuck
+	 * before the client is disconnected.
+	 * 
+	 * @return the write timeout.
+	 */
+	public int getWriteTimeout() {
+		return this.writeTimeout;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package utilities;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock using the real time of the system.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class SystemClock implements Clock {
+
+	@Override
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	@Override
+	public long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		Thread.sleep(millis);
+	}
+
+	@Override
+	public Future<?> schedule(ScheduledExecutorService executor,
+			Runnable task, long delay) {
+		return executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Future<?> scheduleWithFixedDelay(ScheduledExecutorService executor,
+			Runnable task, long delay) {
+		return executor.scheduleWithFixedDelay(task, delay, delay,
+				TimeUnit.MILLISECONDS);
+	}
+}
\ No newline at end of file
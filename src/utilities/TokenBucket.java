@@ -0,0 +1,55 @@
+package utilities;
+
+/**
+ * Token bucket for limiting how quickly something can happen. Tokens are
+ * added at a steady rate up to a maximum, and each action uses up a number
+ * of tokens, so short bursts are allowed while the average rate is limited.
+ * <br>
+ * Not thread safe; meant to be used by a single thread (e.g. the thread
+ * reading a client's messages).
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class TokenBucket {
+	private double tokens;
+	private double capacity;
+	private double tokensPerNano;
+	private long lastRefill;
+
+	/**
+	 * Constructor for a new, full TokenBucket object.
+	 * 
+	 * @param tokensPerSecond
+	 *            the number of tokens added every second.
+	 * @param capacity
+	 *            the maximum number of tokens.
+	 */
+	public TokenBucket(int tokensPerSecond, int capacity) {
+		this.capacity = capacity;
+		this.tokens = capacity;
+		this.tokensPerNano = tokensPerSecond / 1000000000.0;
+		this.lastRefill = System.nanoTime();
+	}
+
+	/**
+	 * Uses up tokens if there are enough of them.
+	 * 
+	 * @param cost
+	 *            the number of tokens to use.
+	 * @return whether or not there were enough tokens.
+	 */
+	public boolean tryConsume(int cost) {
+		// Add the tokens earned since the last time
+		long now = System.nanoTime();
+		this.tokens = Math.min(this.capacity, this.tokens
+				+ (now - this.lastRefill) * this.tokensPerNano);
+		this.lastRefill = now;
+
+		if (this.tokens < cost) {
+			return false;
+		}
+		this.tokens -= cost;
+		return true;
+	}
+}
\ No newline at end of file
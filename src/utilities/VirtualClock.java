@@ -0,0 +1,264 @@
+package utilities;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock whose time only passes when it is told to, so that rooms can be run
+ * by tests and benchmarks without waiting for real time, and with their
+ * events happening in the same order every time. <br>
+ * As {@link #advance(long)} moves time forward, sleeping threads are woken
+ * and tasks scheduled at a fixed delay are run (on the thread moving time
+ * forward, never on the executor passed in) in the order they are due, and
+ * in the order they were scheduled when they are due at the same time.
+ * 
+ * @author Bimesh De Silva, Patrick Liu, William Xu, Barbara Guo
+ * @version October 18, 2026
+ */
+public class VirtualClock implements Clock {
+
+	/**
+	 * A sleeping thread or a task waiting for a point in time.
+	 */
+	private static class Event implements Comparable<Event> {
+		private long time, order;
+
+		/**
+		 * The task to run, or null for a sleeping thread.
+		 */
+		private Task task;
+		private boolean woken;
+
+		@Override
+		public int compareTo(Event other) {
+			if (this.time != other.time) {
+				return this.time < other.time ? -1 : 1;
+			}
+			return Long.compare(this.order, other.order);
+		}
+	}
+
+	/**
+	 * Task run once, or over and over until it is cancelled.
+	 */
+	private static class Task extends FutureTask<Void> {
+		private long delay;
+		private boolean repeating;
+
+		/**
+		 * Constructor for a new Task object.
+		 * 
+		 * @param task
+		 *            the task to run.
+		 * @param delay
+		 *            the delay (in milliseconds) between runs.
+		 * @param repeating
+		 *            whether or not the task is run over and over.
+		 */
+		private Task(Runnable task, long delay, boolean repeating) {
+			super(task, null);
+			this.delay = delay;
+			this.repeating = repeating;
+		}
+
+		/**
+		 * Runs the task once.
+		 * 
+		 * @return whether or not the task should be run again (it repeats,
+		 *         wasn't cancelled and didn't throw an exception).
+		 */
+		private boolean runOnce() {
+			if (!this.repeating) {
+				this.run();
+				return false;
+			}
+			return this.runAndReset();
+		}
+	}
+
+	/**
+	 * Time (in nanoseconds) since the clock was created.
+	 */
+	private long now;
+
+	/**
+	 * Time since the epoch (in milliseconds) that the clock starts at.
+	 */
+	private long startMillis;
+
+	/**
+	 * Number of events added so far, keeping events due at the same time in
+	 * the order they were added.
+	 */
+	private long events;
+
+	private PriorityQueue<Event> waiting;
+
+	/**
+	 * Constructor for a new VirtualClock object.
+	 * 
+	 * @param startMillis
+	 *            the time since the epoch (in milliseconds) that the clock
+	 *            starts at.
+	 */
+	public VirtualClock(long startMillis) {
+		this.startMillis = startMillis;
+		this.waiting = new PriorityQueue<Event>();
+	}
+
+	@Override
+	public synchronized long nanoTime() {
+		return this.now;
+	}
+
+	@Override
+	public synchronized long currentTimeMillis() {
+		return this.startMillis + TimeUnit.NANOSECONDS.toMillis(this.now);
+	}
+
+	/**
+	 * Waits until time has been moved forward by an amount.
+	 */
+	@Override
+	public synchronized void sleep(long millis) throws InterruptedException {
+		if (millis <= 0) {
+			return;
+		}
+		Event sleeper = this.add(millis, null);
+		try {
+			while (!sleeper.woken) {
+				this.wait();
+			}
+		} catch (InterruptedException e) {
+			this.waiting.remove(sleeper);
+			throw e;
+		}
+	}
+
+	/**
+	 * Schedules a task to be run once time is moved forward past the delay.
+	 */
+	@Override
+	public Future<?> schedule(ScheduledExecutorService executor,
+			Runnable task, long delay) {
+		Task scheduled = new Task(task, Math.max(delay, 0), false);
+		synchronized (this) {
+			this.add(scheduled.delay, scheduled);
+		}
+		return scheduled;
+	}
+
+	/**
+	 * Schedules a task to be run each time time is moved forward past its
+	 * next run.
+	 */
+	@Override
+	public Future<?> scheduleWithFixedDelay(ScheduledExecutorService executor,
+			Runnable task, long delay) {
+		Task scheduled = new Task(task, Math.max(delay, 1), true);
+		synchronized (this) {
+			this.add(scheduled.delay, scheduled);
+		}
+		return scheduled;
+	}
+
+	/**
+	 * Moves time forward, waking sleeping threads and running tasks that are
+	 * due in order. Woken threads carry on at the same time as the clock
+	 * keeps moving.
+	 * 
+	 * @param millis
+	 *            the time to move forward (in milliseconds).
+	 */
+	public void advance(long millis) {
+		long target;
+		synchronized (this) {
+			target = this.now + TimeUnit.MILLISECONDS.toNanos(millis);
+		}
+		this.advanceTo(target);
+	}
+
+	/**
+	 * Moves time forward to when the next sleeping thread or task is due,
+	 * waking and running everything due by then in order.
+	 * 
+	 * @return whether or not anything was waiting for time to move forward.
+	 */
+	public boolean advanceToNext() {
+		long target;
+		synchronized (this) {
+			Event next = this.waiting.peek();
+			if (next == null) {
+				return false;
+			}
+			target = next.time;
+		}
+		this.advanceTo(target);
+		return true;
+	}
+
+	/**
+	 * Moves time forward to a point, waking sleeping threads and running
+	 * tasks that are due in order.
+	 * 
+	 * @param target
+	 *            the time (in nanoseconds) to move forward to.
+	 */
+	private void advanceTo(long target) {
+		while (true) {
+			Event next;
+			synchronized (this) {
+				next = this.waiting.peek();
+				if (next == null || next.time > target) {
+					this.now = target;
+					return;
+				}
+				this.waiting.poll();
+				this.now = next.time;
+				if (next.task == null) {
+					next.woken = true;
+					this.notifyAll();
+				}
+			}
+
+			// Tasks are run without holding the clock so they can use it
+			if (next.task != null && next.task.runOnce()) {
+				synchronized (this) {
+					this.add(next.task.delay, next.task);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of sleeping threads and scheduled tasks waiting for
+	 * time to move forward.
+	 * 
+	 * @return the number of waiting events.
+	 */
+	public synchronized int getWaiting() {
+		return this.waiting.size();
+	}
+
+	/**
+	 * Adds a sleeping thread or task to the events waiting for time to move
+	 * forward. Must be called while holding the clock.
+	 * 
+	 * @param millis
+	 *            the time (in milliseconds) from now that the event is due.
+	 * @param task
+	 *            the task, or null for a sleeping thread.
+	 * @return the event.
+	 */
+	private Event add(long millis, Task task) {
+		Event event = new Event();
+		event.time = this.now + TimeUnit.MILLISECONDS.toNanos(millis);
+		event.order = this.events++;
+		event.task = task;
+		this.waiting.add(event);
+		return event;
+	}
+}
\ No newline at end of file